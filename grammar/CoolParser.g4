@@ -26,47 +26,18 @@ statement
     | WHILE expr LOOP statement POOL
     ;
 
-// Expression rules with proper precedence and associativity
+// One rule for all expressions, so an operand is a single context however deep the table is.
+// Alternatives are listed from the highest precedence to the lowest; binary operators are
+// left-associative and assignment is right-associative.
 expr
-    : assignExpr
+    : NOT expr                                                                   # unaryExpr
+    | expr op=(MULT | DIV | MOD) expr                                            # binaryExpr
+    | expr op=(PLUS | MINUS) expr                                                # binaryExpr
+    | expr op=(LT | LE | GT | GE | EQUAL | NE) expr                              # binaryExpr
+    | expr op=(AND | OR) expr                                                    # binaryExpr
+    | <assoc=right> expr op=(ASSIGN | PLUSASSIGN | MINUSASSIGN | MULTASSIGN | DIVASSIGN) expr  # assignExpr
+    | LPAREN expr RPAREN                                                         # parenExpr
+    | ID LPAREN (expr (COMMA expr)*)? RPAREN                                     # callExpr
+    | ID                                                                         # idExpr
+    | (INT | STRING | TRUE | FALSE)                                              # literalExpr
     ;
-
-assignExpr
-    : logicalExpr (ASSIGN | PLUSASSIGN | MINUSASSIGN | MULTASSIGN | DIVASSIGN) assignExpr  // Right-associative
-    | logicalExpr
-    ;
-
-logicalExpr
-    : comparisonExpr (AND | OR) comparisonExpr  // Left-associative
-    | comparisonExpr
-    ;
-
-comparisonExpr
-    : additiveExpr (LT | LE | GT | GE | EQUAL | NE) additiveExpr  // Left-associative
-    | additiveExpr
-    ;
-
-additiveExpr
-    : multiplicativeExpr (PLUS | MINUS) multiplicativeExpr  // Left-associative
-    | multiplicativeExpr
-    ;
-
-multiplicativeExpr
-    : unaryExpr (MULT | DIV | MOD) unaryExpr  // Left-associative
-    | unaryExpr
-    ;
-
-unaryExpr
-    : NOT unaryExpr  // Unary operator (highest precedence)
-    | primaryExpr
-    ;
-
-primaryExpr
-    : LPAREN expr RPAREN
-    | ID LPAREN (expr (COMMA expr)*)? RPAREN
-    | ID
-    | INT
-    | STRING
-    | TRUE
-    | FALSE
-    ;
\ No newline at end of file
@@ -1,7 +1,51 @@
 import ast.*;
 import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ParseTree;
 
+/**
+ * Builds the AST from the parse tree. Attribute and parameter declarations are collected into a
+ * SymbolTable during the same traversal, so the separate listener/visitor symbol passes are only
+ * needed for debug output.
+ */
 public class ASTBuilder extends CoolParserBaseVisitor<ASTNode> {
+    private SymbolTable symbolTable;
+    private ExpressionInterner interner;
+
+    public ASTBuilder() {
+        this(new SymbolTable());
+    }
+
+    public ASTBuilder(SymbolTable symbolTable) {
+        this.symbolTable = symbolTable;
+    }
+
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    /**
+     * Share structurally identical expressions within each method, attribute initializer and
+     * class-level statement through interner (see ExpressionInterner); off by default
+     */
+    public void setExpressionInterner(ExpressionInterner interner) {
+        this.interner = interner;
+    }
+
+    @Override
+    public ASTNode visit(ParseTree tree) {
+        ASTNode node = super.visit(tree);
+        if (interner != null && node instanceof ExpressionNode) {
+            return interner.intern((ExpressionNode) node);
+        }
+        return node;
+    }
+
+    // A new scope for the interner: names may resolve to other types from here on
+    private void resetInterner() {
+        if (interner != null) {
+            interner.reset();
+        }
+    }
 
     @Override
     public ASTNode visitProgram(CoolParser.ProgramContext ctx) {
@@ -36,6 +80,7 @@ public class ASTBuilder extends CoolParserBaseVisitor<ASTNode> {
 
         // Add statements as initialization expressions
         for (CoolParser.StatementContext statementCtx : ctx.statement()) {
+            resetInterner();
             // We'll treat them as special features or methods
             // Depends on the statement type
             if (statementCtx.ID() != null && statementCtx.ASSIGN() != null) {
@@ -83,6 +128,7 @@ public class ASTBuilder extends CoolParserBaseVisitor<ASTNode> {
     public ASTNode visitFeature(CoolParser.FeatureContext ctx) {
         Token start = ctx.getStart();
         String name = ctx.ID(0).getText();
+        resetInterner();
 
         if (ctx.LPAREN() != null) {
             // Method definition
@@ -109,6 +155,7 @@ public class ASTBuilder extends CoolParserBaseVisitor<ASTNode> {
         } else {
             // Attribute definition
             String type = ctx.ID(1).getText();
+            symbolTable.addVariable(name, type);
             ExpressionNode init = null;
 
             if (ctx.expr() != null) {
@@ -124,6 +171,7 @@ public class ASTBuilder extends CoolParserBaseVisitor<ASTNode> {
         Token start = ctx.getStart();
         String name = ctx.ID(0).getText();
         String type = ctx.ID(1).getText();
+        symbolTable.addVariable(name, type);
 
         return new FormalNode(start.getLine(), start.getCharPositionInLine(), name, type);
     }
@@ -177,187 +225,90 @@ public class ASTBuilder extends CoolParserBaseVisitor<ASTNode> {
         return null;
     }
 
-    @Override
-    public ASTNode visitExpr(CoolParser.ExprContext ctx) {
-        return visit(ctx.assignExpr());
-    }
-
     @Override
     public ASTNode visitAssignExpr(CoolParser.AssignExprContext ctx) {
-        if (ctx.assignExpr() != null) {
-            // Assignment expression
-            Token start = ctx.getStart();
-            ExpressionNode leftExpr = (ExpressionNode) visit(ctx.logicalExpr());
-            ExpressionNode rightExpr = (ExpressionNode) visit(ctx.assignExpr());
-
-            // The left expression should be an identifier
-            if (leftExpr instanceof IdentifierNode) {
-                String varName = ((IdentifierNode) leftExpr).getName();
-
-                AssignmentNode.AssignmentType type = AssignmentNode.AssignmentType.SIMPLE;
-
-                if (ctx.PLUSASSIGN() != null) {
-                    type = AssignmentNode.AssignmentType.PLUS_ASSIGN;
-                } else if (ctx.MINUSASSIGN() != null) {
-                    type = AssignmentNode.AssignmentType.MINUS_ASSIGN;
-                } else if (ctx.MULTASSIGN() != null) {
-                    type = AssignmentNode.AssignmentType.MULT_ASSIGN;
-                } else if (ctx.DIVASSIGN() != null) {
-                    type = AssignmentNode.AssignmentType.DIV_ASSIGN;
-                }
+        Token start = ctx.getStart();
+        ExpressionNode leftExpr = (ExpressionNode) visit(ctx.expr(0));
+        ExpressionNode rightExpr = (ExpressionNode) visit(ctx.expr(1));
 
-                return new AssignmentNode(
-                        start.getLine(),
-                        start.getCharPositionInLine(),
-                        varName,
-                        rightExpr,
-                        type
-                );
-            }
+        // The left expression should be an identifier; otherwise only the left side is kept
+        if (leftExpr instanceof IdentifierNode) {
+            return new AssignmentNode(
+                    start.getLine(),
+                    start.getCharPositionInLine(),
+                    ((IdentifierNode) leftExpr).getName(),
+                    rightExpr,
+                    ExpressionParser.assignmentType(ctx.op.getType())
+            );
         }
-
-        // Not an assignment, just return the logical expression
-        return visit(ctx.logicalExpr());
+        return leftExpr;
     }
 
+    // a - b - c is (a - b) - c; the grammar nests the links, and each one gets the position of
+    // the chain's first token, as in ExpressionParser
     @Override
-    public ASTNode visitLogicalExpr(CoolParser.LogicalExprContext ctx) {
-        if (ctx.AND() != null || ctx.OR() != null) {
-            Token start = ctx.getStart();
-            ExpressionNode left = (ExpressionNode) visit(ctx.comparisonExpr(0));
-            ExpressionNode right = (ExpressionNode) visit(ctx.comparisonExpr(1));
-
-            BinaryOperationNode.Operator op;
-            if (ctx.AND() != null) {
-                op = BinaryOperationNode.Operator.AND;
-            } else {
-                op = BinaryOperationNode.Operator.OR;
-            }
-
-            return new BinaryOperationNode(start.getLine(), start.getCharPositionInLine(), op, left, right);
-        }
+    public ASTNode visitBinaryExpr(CoolParser.BinaryExprContext ctx) {
+        Token start = ctx.getStart();
+        ExpressionNode left = (ExpressionNode) visit(ctx.expr(0));
+        ExpressionNode right = (ExpressionNode) visit(ctx.expr(1));
 
-        return visit(ctx.comparisonExpr(0));
+        return new BinaryOperationNode(
+                start.getLine(),
+                start.getCharPositionInLine(),
+                ExpressionParser.binaryOperator(ctx.op.getType()),
+                left,
+                right
+        );
     }
 
     @Override
-    public ASTNode visitComparisonExpr(CoolParser.ComparisonExprContext ctx) {
-        if (ctx.LT() != null || ctx.LE() != null || ctx.GT() != null ||
-                ctx.GE() != null || ctx.EQUAL() != null || ctx.NE() != null) {
-
-            Token start = ctx.getStart();
-            ExpressionNode left = (ExpressionNode) visit(ctx.additiveExpr(0));
-            ExpressionNode right = (ExpressionNode) visit(ctx.additiveExpr(1));
-
-            BinaryOperationNode.Operator op;
-            if (ctx.LT() != null) {
-                op = BinaryOperationNode.Operator.LT;
-            } else if (ctx.LE() != null) {
-                op = BinaryOperationNode.Operator.LE;
-            } else if (ctx.GT() != null) {
-                op = BinaryOperationNode.Operator.GT;
-            } else if (ctx.GE() != null) {
-                op = BinaryOperationNode.Operator.GE;
-            } else if (ctx.EQUAL() != null) {
-                op = BinaryOperationNode.Operator.EQ;
-            } else {
-                op = BinaryOperationNode.Operator.NE;
-            }
-
-            return new BinaryOperationNode(start.getLine(), start.getCharPositionInLine(), op, left, right);
-        }
+    public ASTNode visitUnaryExpr(CoolParser.UnaryExprContext ctx) {
+        Token start = ctx.getStart();
+        ExpressionNode operand = (ExpressionNode) visit(ctx.expr());
 
-        return visit(ctx.additiveExpr(0));
+        return new UnaryOperationNode(
+                start.getLine(),
+                start.getCharPositionInLine(),
+                UnaryOperationNode.Operator.NOT,
+                operand
+        );
     }
 
     @Override
-    public ASTNode visitAdditiveExpr(CoolParser.AdditiveExprContext ctx) {
-        if (ctx.PLUS() != null || ctx.MINUS() != null) {
-            Token start = ctx.getStart();
-            ExpressionNode left = (ExpressionNode) visit(ctx.multiplicativeExpr(0));
-            ExpressionNode right = (ExpressionNode) visit(ctx.multiplicativeExpr(1));
-
-            BinaryOperationNode.Operator op;
-            if (ctx.PLUS() != null) {
-                op = BinaryOperationNode.Operator.PLUS;
-            } else {
-                op = BinaryOperationNode.Operator.MINUS;
-            }
-
-            return new BinaryOperationNode(start.getLine(), start.getCharPositionInLine(), op, left, right);
-        }
-
-        return visit(ctx.multiplicativeExpr(0));
+    public ASTNode visitParenExpr(CoolParser.ParenExprContext ctx) {
+        return visit(ctx.expr());
     }
 
     @Override
-    public ASTNode visitMultiplicativeExpr(CoolParser.MultiplicativeExprContext ctx) {
-        if (ctx.MULT() != null || ctx.DIV() != null || ctx.MOD() != null) {
-            Token start = ctx.getStart();
-            ExpressionNode left = (ExpressionNode) visit(ctx.unaryExpr(0));
-            ExpressionNode right = (ExpressionNode) visit(ctx.unaryExpr(1));
-
-            BinaryOperationNode.Operator op;
-            if (ctx.MULT() != null) {
-                op = BinaryOperationNode.Operator.MULTIPLY;
-            } else if (ctx.DIV() != null) {
-                op = BinaryOperationNode.Operator.DIVIDE;
-            } else {
-                op = BinaryOperationNode.Operator.MOD;
-            }
+    public ASTNode visitCallExpr(CoolParser.CallExprContext ctx) {
+        Token start = ctx.getStart();
+        String methodName = ctx.ID().getText();
+        MethodCallNode methodCall = new MethodCallNode(
+                start.getLine(),
+                start.getCharPositionInLine(),
+                null, // Call on self
+                methodName
+        );
 
-            return new BinaryOperationNode(start.getLine(), start.getCharPositionInLine(), op, left, right);
+        for (CoolParser.ExprContext argCtx : ctx.expr()) {
+            ExpressionNode arg = (ExpressionNode) visit(argCtx);
+            methodCall.addArgument(arg);
         }
 
-        return visit(ctx.unaryExpr(0));
+        return methodCall;
     }
 
     @Override
-    public ASTNode visitUnaryExpr(CoolParser.UnaryExprContext ctx) {
-        if (ctx.NOT() != null) {
-            Token start = ctx.getStart();
-            ExpressionNode operand = (ExpressionNode) visit(ctx.unaryExpr());
-
-            return new UnaryOperationNode(
-                    start.getLine(),
-                    start.getCharPositionInLine(),
-                    UnaryOperationNode.Operator.NOT,
-                    operand
-            );
-        }
-
-        return visit(ctx.primaryExpr());
+    public ASTNode visitIdExpr(CoolParser.IdExprContext ctx) {
+        Token start = ctx.getStart();
+        return new IdentifierNode(start.getLine(), start.getCharPositionInLine(), ctx.ID().getText());
     }
 
     @Override
-    public ASTNode visitPrimaryExpr(CoolParser.PrimaryExprContext ctx) {
+    public ASTNode visitLiteralExpr(CoolParser.LiteralExprContext ctx) {
         Token start = ctx.getStart();
 
-        if (ctx.LPAREN() != null && ctx.RPAREN() != null && ctx.expr() != null) {
-            // Parenthesized expression
-            return visit(ctx.expr(0)); // Use index 0 to get the first expression
-        } else if (ctx.ID() != null && ctx.LPAREN() != null) {
-            // Method call
-            String methodName = ctx.ID().getText();
-            MethodCallNode methodCall = new MethodCallNode(
-                    start.getLine(),
-                    start.getCharPositionInLine(),
-                    null, // Call on self
-                    methodName
-            );
-
-            // Add arguments - iterate through expressions using indices
-            for (int i = 0; i < ctx.expr().size(); i++) {
-                ExpressionNode arg = (ExpressionNode) visit(ctx.expr(i));
-                methodCall.addArgument(arg);
-            }
-
-            return methodCall;
-        } else if (ctx.ID() != null) {
-            // Identifier
-            String name = ctx.ID().getText();
-            return new IdentifierNode(start.getLine(), start.getCharPositionInLine(), name);
-        } else if (ctx.INT() != null) {
+        if (ctx.INT() != null) {
             // Integer literal
             int value = Integer.parseInt(ctx.INT().getText());
             return new IntegerLiteralNode(start.getLine(), start.getCharPositionInLine(), value);
@@ -366,15 +317,9 @@ public class ASTBuilder extends CoolParserBaseVisitor<ASTNode> {
             String text = ctx.STRING().getText();
             String value = text.substring(1, text.length() - 1);
             return new StringLiteralNode(start.getLine(), start.getCharPositionInLine(), value);
-        } else if (ctx.TRUE() != null) {
-            // Boolean true
-            return new BooleanLiteralNode(start.getLine(), start.getCharPositionInLine(), true);
-        } else if (ctx.FALSE() != null) {
-            // Boolean false
-            return new BooleanLiteralNode(start.getLine(), start.getCharPositionInLine(), false);
         }
 
-        // Default case (should not happen with valid COOL code)
-        return null;
+        // Boolean literal
+        return new BooleanLiteralNode(start.getLine(), start.getCharPositionInLine(), ctx.TRUE() != null);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,195 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Headless batch entry point: compiles many COOL sources in parallel on a work-stealing pool.
+ *
+ * Usage: java BatchCompiler [-o outputDir] [-j threads] (file.cool | directory)...
+ *
+ * Directories are searched recursively for .cool files. For every source the
+ * .tac, .optimized.tac and .s outputs are written under the output directory,
+ * keeping the layout relative to the directory it was found in.
+ */
+public class BatchCompiler {
+    private static final String DEFAULT_OUTPUT_DIR = "output";
+    private static final String USAGE =
+            "Usage: java BatchCompiler [-o outputDir] [-j threads] (file.cool | directory)...";
+
+    private List<Path> sources;
+    private List<Path> outputBases;
+    private String[] failures;
+
+    public BatchCompiler() {
+        sources = new ArrayList<>();
+        outputBases = new ArrayList<>();
+    }
+
+    public static void main(String[] args) {
+        Path outputDir = Paths.get(DEFAULT_OUTPUT_DIR);
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<Path> inputs = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-o") && i + 1 < args.length) {
+                outputDir = Paths.get(args[++i]);
+            } else if (args[i].equals("-j") && i + 1 < args.length) {
+                threads = threadCount(args[++i]);
+            } else {
+                inputs.add(Paths.get(args[i]));
+            }
+        }
+
+        if (inputs.isEmpty()) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        try {
+            BatchCompiler batch = new BatchCompiler();
+            for (Path input : inputs) {
+                batch.addInput(input, outputDir);
+            }
+
+            long start = System.nanoTime();
+            int failed = batch.compileAll(threads);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            batch.printFailures();
+            System.out.printf("Compiled %d/%d files in %d ms using %d threads%n",
+                    batch.sources.size() - failed, batch.sources.size(), elapsedMs, threads);
+            System.exit(failed == 0 ? 0 : 1);
+        } catch (IOException e) {
+            System.err.println("Error reading inputs: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    // The positive number after -j; anything else prints the usage and exits
+    private static int threadCount(String arg) {
+        try {
+            int value = Integer.parseInt(arg);
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        System.err.println("-j needs a positive number, not " + arg + "\n" + USAGE);
+        System.exit(2);
+        return 0;
+    }
+
+    /**
+     * Register a .cool file, or every .cool file below a directory
+     */
+    public void addInput(Path input, Path outputDir) throws IOException {
+        if (Files.isDirectory(input)) {
+            List<Path> found;
+            try (Stream<Path> walk = Files.walk(input)) {
+                found = walk.filter(p -> p.toString().endsWith(".cool") && Files.isRegularFile(p))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+            for (Path source : found) {
+                addSource(source, outputDir.resolve(input.relativize(source)));
+            }
+        } else {
+            addSource(input, outputDir.resolve(input.getFileName()));
+        }
+    }
+
+    private void addSource(Path source, Path outputFile) {
+        String name = outputFile.getFileName().toString();
+        if (name.endsWith(".cool")) {
+            name = name.substring(0, name.length() - ".cool".length());
+        }
+        sources.add(source);
+        outputBases.add(outputFile.resolveSibling(name));
+    }
+
+    /**
+     * Compile every registered source, returns the number of units that failed
+     */
+    public int compileAll(int threads) {
+        failures = new String[sources.size()];
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new CompileTask(0, sources.size()));
+        } finally {
+            pool.shutdown();
+        }
+
+        int failed = 0;
+        for (String failure : failures) {
+            if (failure != null) {
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    private void printFailures() {
+        for (String failure : failures) {
+            if (failure != null) {
+                System.err.print(failure);
+            }
+        }
+    }
+
+    // Compiles one unit; failures are kept per index so the report order does not depend on scheduling
+    private void compileOne(int index) {
+        Path source = sources.get(index);
+        CompilationUnit unit = new CompilationUnit(source);
+        try {
+            if (unit.compile()) {
+                unit.writeOutputs(outputBases.get(index));
+                return;
+            }
+        } catch (IOException e) {
+            unit.getErrors().add("I/O Error: " + e.getMessage());
+        } catch (RuntimeException e) {
+            unit.getErrors().add("Internal Error: " + e);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (String error : unit.getErrors()) {
+            sb.append(source).append(": ").append(error).append("\n");
+        }
+        failures[index] = sb.toString();
+    }
+
+    // Splits the source range in halves so idle workers can steal the other half
+    private class CompileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        CompileTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) {
+                    compileOne(from);
+                }
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(new CompileTask(from, mid), new CompileTask(mid, to));
+        }
+    }
+}
@@ -0,0 +1,194 @@
+import ast.Symbols;
+import ast.Type;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable index over the inheritance tree, for hierarchy queries that do not walk parent
+ * chains. A depth-first walk numbers every class in preorder; a class conforms to another
+ * exactly when its number falls in the other's subtree interval. The walk's Euler tour (each
+ * class written on entry and again after each child) puts the least common ancestor of two
+ * classes at the shallowest entry between their first occurrences, which a sparse table of
+ * range minima finds with two reads. Both queries take constant time whatever the depth.
+ *
+ * Classes whose parent is not registered are roots of their own trees. Classes on an
+ * inheritance cycle are unreachable from any root and are treated as unknown.
+ *
+ * Type ids are shared by every compilation in the JVM and only grow, so the arrays are indexed
+ * by each class's position in the list the index was built from, and sized by it.
+ */
+public final class ClassHierarchy {
+    private static final int UNSEEN = -1;
+
+    // Position of each class (type id -> index into the arrays below) and the type at each
+    private final SymbolMap indexes;
+    private final Type[] types;
+
+    // Indexed by class: preorder number, last preorder number in the subtree, root of the
+    // class's tree and its first position in the Euler tour
+    private final int[] enter;
+    private final int[] exit;
+    private final int[] tree;
+    private final int[] first;
+
+    // Euler tour as class indexes and depths; sparse[k][i] is the position of the shallowest
+    // entry in euler[i .. i + 2^k)
+    private final int[] euler;
+    private final int[] eulerDepth;
+    private final int[][] sparse;
+
+    /**
+     * Index the classes of a symbol table, linked through their parentName
+     */
+    public ClassHierarchy(List<EnhancedSymbolTable.ClassInfo> classes) {
+        int count = classes.size();
+        indexes = new SymbolMap();
+        types = new Type[count];
+        for (int i = 0; i < count; i++) {
+            types[i] = classes.get(i).type;
+            indexes.put(types[i].getId(), i);
+        }
+        enter = new int[count];
+        exit = new int[count];
+        tree = new int[count];
+        first = new int[count];
+        Arrays.fill(enter, UNSEEN);
+
+        // Children as linked lists over class indexes, in definition order
+        int[] firstChild = new int[count];
+        int[] nextSibling = new int[count];
+        int[] lastChild = new int[count];
+        Arrays.fill(firstChild, UNSEEN);
+        Arrays.fill(lastChild, UNSEEN);
+        int[] roots = new int[count];
+        int rootCount = 0;
+        for (int c = 0; c < count; c++) {
+            nextSibling[c] = UNSEEN;
+            int parent = index(classes.get(c).parentName);
+            if (parent == UNSEEN) {
+                roots[rootCount++] = c;
+            } else if (lastChild[parent] == UNSEEN) {
+                firstChild[parent] = lastChild[parent] = c;
+            } else {
+                nextSibling[lastChild[parent]] = c;
+                lastChild[parent] = c;
+            }
+        }
+
+        // Iterative walk, since generated hierarchies can be deeper than the Java stack
+        int[] tour = new int[Math.max(1, 2 * count)];
+        int[] tourDepth = new int[tour.length];
+        int length = 0;
+        int[] stack = new int[count];
+        int preorder = 0;
+        for (int r = 0; r < rootCount; r++) {
+            int root = roots[r];
+            int sp = 0;
+            stack[sp++] = root;
+            enter[root] = preorder++;
+            tree[root] = root;
+            first[root] = length;
+            tour[length] = root;
+            tourDepth[length++] = 0;
+
+            while (sp > 0) {
+                int top = stack[sp - 1];
+                int child = firstChild[top];
+                if (child != UNSEEN) {
+                    firstChild[top] = nextSibling[child];
+                    stack[sp++] = child;
+                    enter[child] = preorder++;
+                    tree[child] = root;
+                    first[child] = length;
+                    tour[length] = child;
+                    tourDepth[length++] = sp - 1;
+                } else {
+                    exit[top] = preorder - 1;
+                    sp--;
+                    if (sp > 0) {
+                        tour[length] = stack[sp - 1];
+                        tourDepth[length++] = sp - 1;
+                    }
+                }
+            }
+        }
+        euler = Arrays.copyOf(tour, length);
+        eulerDepth = Arrays.copyOf(tourDepth, length);
+
+        int levels = 32 - Integer.numberOfLeadingZeros(Math.max(1, length));
+        sparse = new int[levels][];
+        sparse[0] = new int[length];
+        for (int i = 0; i < length; i++) {
+            sparse[0][i] = i;
+        }
+        for (int k = 1; k < levels; k++) {
+            int half = 1 << (k - 1);
+            int[] previous = sparse[k - 1];
+            int[] level = new int[length - (1 << k) + 1];
+            for (int i = 0; i < level.length; i++) {
+                level[i] = shallower(previous[i], previous[i + half]);
+            }
+            sparse[k] = level;
+        }
+    }
+
+    /**
+     * Whether type is a class in the index
+     */
+    public boolean contains(Type type) {
+        int index = index(type);
+        return index != UNSEEN && enter[index] != UNSEEN;
+    }
+
+    /**
+     * Whether typeA is typeB or inherits from it. Unknown types conform only to themselves.
+     */
+    public boolean conformsTo(Type typeA, Type typeB) {
+        if (typeA == typeB) {
+            return true;
+        }
+        if (!contains(typeA) || !contains(typeB)) {
+            return false;
+        }
+        int a = enter[index(typeA)];
+        int b = index(typeB);
+        return enter[b] <= a && a <= exit[b];
+    }
+
+    /**
+     * The closest class both types conform to, or Object when they share none (different
+     * trees, or a type that is not a class)
+     */
+    public Type leastCommonAncestor(Type type1, Type type2) {
+        if (type1 == type2) {
+            return type1;
+        }
+        if (!contains(type1) || !contains(type2) || tree[index(type1)] != tree[index(type2)]) {
+            return Type.OBJECT;
+        }
+
+        int from = first[index(type1)];
+        int to = first[index(type2)];
+        if (from > to) {
+            int swap = from;
+            from = to;
+            to = swap;
+        }
+        int k = 31 - Integer.numberOfLeadingZeros(to - from + 1);
+        return types[euler[shallower(sparse[k][from], sparse[k][to - (1 << k) + 1])]];
+    }
+
+    // Position of type among the indexed classes, UNSEEN if it is not one of them
+    private int index(Type type) {
+        if (type == null) {
+            return UNSEEN;
+        }
+        int index = indexes.get(type.getId());
+        return index == Symbols.NONE ? UNSEEN : index;
+    }
+
+    private int shallower(int i, int j) {
+        return eulerDepth[j] < eulerDepth[i] ? j : i;
+    }
+}
@@ -0,0 +1,519 @@
+import ast.BinaryAST;
+import ast.ClassNode;
+import ast.ExpressionInterner;
+import ast.FeatureNode;
+import ast.MethodNode;
+import ast.ProgramNode;
+import org.antlr.v4.gui.Trees;
+import org.antlr.v4.runtime.ANTLRErrorListener;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.UnbufferedTokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeWalker;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Runs the whole pipeline (PA1-PA7) for a single COOL source.
+ * Each unit owns its lexer, parser and analyzers, so separate units can be compiled concurrently.
+ * Diagnostic output (token dumps, parse tree, symbol tables, DOT files) is only computed when
+ * the corresponding CompilerOptions flag is set; by default nothing is printed.
+ */
+public class CompilationUnit {
+    private Path sourcePath;
+    private CompilerOptions options;
+    private CompilerMetrics metrics;
+    private ParserProfile parserProfile;
+    private List<String> errors;
+    private boolean generateOnSemanticErrors;
+
+    // Where this source's AST is cached, its cache key, and whether ast was loaded from there
+    private Path astCacheFile;
+    private byte[] astCacheKey;
+    private boolean astFromCache;
+
+    private ProgramNode ast;
+    private SymbolTable symbolTable;
+    private List<String> irCode;
+    private List<String> optimizedIR;
+    private List<String> assemblyCode;
+
+    public CompilationUnit(Path sourcePath) {
+        this(sourcePath, CompilerOptions.parse(new String[0]));
+    }
+
+    public CompilationUnit(Path sourcePath, CompilerOptions options) {
+        this.sourcePath = sourcePath;
+        this.options = options;
+        this.metrics = new CompilerMetrics(options.getMetricsFile() != null);
+        this.errors = new ArrayList<>();
+    }
+
+    /**
+     * Go on to IR and code generation after semantic errors, as the original single-file driver
+     * did. Syntax errors still stop the unit.
+     */
+    public void setGenerateOnSemanticErrors(boolean generateOnSemanticErrors) {
+        this.generateOnSemanticErrors = generateOnSemanticErrors;
+    }
+
+    public Path getSourcePath() {
+        return sourcePath;
+    }
+
+    /**
+     * Per-phase metrics; empty unless the options name a metrics file
+     */
+    public CompilerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Decision profile of the CoolParser run; null unless the options ask for one
+     */
+    public ParserProfile getParserProfile() {
+        return parserProfile;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    public ProgramNode getAST() {
+        return ast;
+    }
+
+    /**
+     * Attributes and parameters collected while building the AST
+     */
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    public List<String> getIRCode() {
+        return irCode;
+    }
+
+    public List<String> getOptimizedIR() {
+        return optimizedIR;
+    }
+
+    public List<String> getAssemblyCode() {
+        return assemblyCode;
+    }
+
+    /**
+     * Compile the source file. Returns false if syntax or semantic errors were found, in which
+     * case no IR or assembly is produced unless setGenerateOnSemanticErrors was called.
+     */
+    public boolean compile() throws IOException {
+        // A cached AST of the same source text skips lexing and parsing
+        if (options.useASTCache()) {
+            loadCachedAST();
+        }
+        if (ast == null && !parse()) {
+            return false;
+        }
+        if (options.printSymbolTables()) {
+            System.out.println("Symbol Table (AST build):");
+            symbolTable.printTable();
+        }
+        if (options.printAST()) {
+            System.out.println(ast.toString());
+        }
+        if (options.writeASTDot()) {
+            String dotFile = artifactPath("ast.dot");
+            ast.generateDotFile(dotFile, options.getDotMaxDepth(), options.getDotMaxNodes());
+            System.out.println("AST visualization saved to " + dotFile);
+        }
+
+        // Step 4: Semantic Analysis (PA4); with lazy bodies this is also where bodies are parsed
+        header("\n=== PA4: Semantic Analysis ===");
+        CompilerMetrics.Phase phase = metrics.start("semantic-analysis");
+        SemanticAnalyzer analyzer = new SemanticAnalyzer();
+        analyzer.analyze(ast);
+        phase.stop();
+        phase.record("errors", analyzer.getErrors().size());
+        if (analyzer.hasErrors()) {
+            // Analysis stopped before reading every body; parse the rest for their syntax errors
+            parseDeferredBodies();
+        }
+        if (hasErrors()) {
+            // Syntax errors in deferred bodies; an unparsable body was type checked as empty
+            return false;
+        }
+        if (analyzer.hasErrors()) {
+            errors.addAll(analyzer.getErrors());
+            if (!generateOnSemanticErrors) {
+                return false;
+            }
+            if (options.isVerbose()) {
+                System.out.println("Semantic analysis failed with errors.");
+            }
+        } else {
+            if (options.printSymbolTables()) {
+                analyzer.getSymbolTable().printSymbolTable();
+            }
+            if (astCacheFile != null && !astFromCache) {
+                // Saved with the types semantic analysis attached
+                saveCachedAST();
+            }
+            if (options.writeTypedASTDot()) {
+                // Types are already attached to the AST, the tester only renders them
+                new SemanticTester(ast).generateTypedAST(artifactPath("typed_ast.dot"),
+                        options.getDotMaxDepth(), options.getDotMaxNodes());
+            }
+            if (options.isVerbose()) {
+                System.out.println("Semantic analysis completed successfully.");
+            }
+        }
+
+        // Step 5: IR Generation (PA5)
+        header("\n=== PA5: IR Generation ===");
+        phase = metrics.start("ir-generation");
+        IRGenerator irGenerator = new IRGenerator();
+        irCode = irGenerator.generate(ast);
+        phase.stop();
+        phase.record("irLines", irCode.size());
+        if (options.printCode()) {
+            System.out.println(irGenerator.getIRCode());
+        }
+
+        // Step 6: IR Optimization (PA6)
+        header("\n=== PA6: IR Optimization ===");
+        IROptimizer irOptimizer = new IROptimizer(irCode);
+        optimizedIR = irOptimizer.optimize(metrics);
+        if (options.printCode()) {
+            System.out.println(irOptimizer.getOptimizedIRCode());
+        }
+
+        // Step 7: Code Generation (PA7)
+        header("\n=== PA7: Code Generation ===");
+        phase = metrics.start("code-generation");
+        CodeGenerator codeGenerator = new CodeGenerator(optimizedIR);
+        assemblyCode = codeGenerator.generate();
+        phase.stop();
+        phase.record("asmLines", assemblyCode.size());
+        if (options.printCode()) {
+            System.out.println(codeGenerator.getAssemblyCode());
+        }
+
+        return !hasErrors();
+    }
+
+    /**
+     * Steps 1-3: lex and parse the source into ast and symbolTable. Returns false if there
+     * were syntax errors.
+     */
+    private boolean parse() throws IOException {
+        // Step 1: Lexical Analysis (PA1)
+        header("=== PA1: Lexical Analysis ===");
+        CompilerMetrics.Phase phase = metrics.start("lexing");
+        SyntaxErrorListener errorListener = new SyntaxErrorListener(errors);
+        TokenStream tokens;
+        if (options.unbuffered()) {
+            // Tokens are lexed from the mapped file as the parser asks for them and dropped once
+            // it has moved past them, so lexing is timed as part of parsing
+            MappedCharStream input = MappedCharStream.open(sourcePath);
+            phase.record("sourceBytes", input.byteSize());
+
+            CoolLexer lexer = new CoolLexer(input);
+            lexer.removeErrorListeners();
+            lexer.addErrorListener(errorListener);
+            tokens = new UnbufferedTokenStream<>(lexer);
+        } else if (options.fastLexer()) {
+            // Straight into the compact buffer, no Token objects; large files are lexed in chunks
+            CoolScanner scanner = CoolScanner.fromPath(sourcePath);
+            phase.record("sourceBytes", scanner.size());
+            tokens = new TokenBufferStream(ParallelScanner.tokenize(scanner), sourcePath.toString());
+        } else {
+            CharStream input = CharStreams.fromPath(sourcePath);
+            phase.record("sourceChars", input.size());
+
+            CoolLexer lexer = new CoolLexer(input);
+            lexer.removeErrorListeners();
+            lexer.addErrorListener(errorListener);
+
+            // Lex everything up front so lexing and parsing are measured separately
+            CommonTokenStream tokenStream = new CommonTokenStream(lexer);
+            tokenStream.fill();
+            tokens = tokenStream;
+        }
+        phase.stop();
+        if (!options.unbuffered()) {
+            phase.record("tokens", tokens.size());
+            if (options.printTokens()) {
+                printTokens(tokens);
+            }
+        }
+
+        // Steps 2 and 3: Parsing (PA2) and AST Construction (PA3)
+        if (!options.unbuffered() && !options.printParseTree() && !options.showParseTreeGui()
+                && !options.printLegacySymbolTables() && !options.profileParser()) {
+            // Large well-formed programs are parsed class by class on the common pool; ast stays
+            // null (and the program is parsed below) if that does not apply. CPU time and
+            // allocation of this phase only cover the calling thread.
+            phase = metrics.start("parallel-parsing");
+            ParallelParser parallelParser = new ParallelParser(tokens, options.directAST());
+            if (options.lazyBodies()) {
+                parallelParser.setLazyBodies(errors);
+            }
+            parallelParser.setShareSubtrees(options.shareSubtrees());
+            ast = parallelParser.parse();
+            symbolTable = parallelParser.getSymbolTable();
+            phase.stop();
+            phase.record("classes", ast == null ? 0 : ast.getClasses().size());
+        }
+
+        if (ast != null) {
+            // Already parsed by ParallelParser
+        } else if (options.directAST()) {
+            header("\n=== PA2/PA3: Parsing to AST ===");
+            phase = metrics.start("direct-parsing");
+            DirectParser directParser = new DirectParser(tokens);
+            if (options.lazyBodies()) {
+                directParser.setLazyBodies(errors);
+            }
+            ast = directParser.parseProgram(errors);
+            symbolTable = directParser.getSymbolTable();
+            phase.stop();
+        } else {
+            header("\n=== PA2: Parsing ===");
+            phase = metrics.start("parsing");
+            CoolParser parser = new CoolParser(tokens);
+            parser.setProfile(options.profileParser());
+            long parseStart = System.nanoTime();
+            ParseTree tree = parseProgram(parser, tokens, errorListener);
+            phase.stop();
+            if (options.profileParser()) {
+                parserProfile = new ParserProfile(parser, System.nanoTime() - parseStart);
+            }
+            phase.record("llFallback", parser.getInterpreter().getPredictionMode() == PredictionMode.LL ? 1 : 0);
+            if (options.printParseTree()) {
+                System.out.println("Parse Tree: " + tree.toStringTree(parser));
+            }
+            if (options.showParseTreeGui()) {
+                Trees.inspect(tree, parser);
+            }
+            if (hasErrors()) {
+                return false;
+            }
+            if (options.printLegacySymbolTables()) {
+                printParseTreeSymbolTables(tree);
+            }
+
+            header("\n=== PA3: AST Construction ===");
+            phase = metrics.start("ast-build");
+            ASTBuilder astBuilder = new ASTBuilder();
+            ExpressionInterner interner = options.shareSubtrees() ? new ExpressionInterner() : null;
+            astBuilder.setExpressionInterner(interner);
+            ast = (ProgramNode) astBuilder.visit(tree);
+            symbolTable = astBuilder.getSymbolTable();
+            phase.stop();
+            if (interner != null) {
+                phase.record("sharedExpressions", interner.getShared());
+            }
+        }
+        if (hasErrors()) {
+            return false;
+        }
+        // Counting would parse every deferred method body
+        if (metrics.isEnabled() && !options.lazyBodies()) {
+            phase.record("astNodes", CompilerMetrics.countASTNodes(ast));
+        }
+        return true;
+    }
+
+    // Force the bodies --lazy-bodies skipped, which adds their syntax errors to errors
+    private void parseDeferredBodies() {
+        for (ClassNode classNode : ast.getClasses()) {
+            for (FeatureNode feature : classNode.getFeatures()) {
+                if (feature instanceof MethodNode) {
+                    ((MethodNode) feature).getBody();
+                }
+            }
+        }
+    }
+
+    /**
+     * Look up the source's AST in the cache directory, by the SHA-256 of the front end and the
+     * source text. Front ends may disagree on what they accept, so a cached AST is only reused
+     * by the lexer and parser that built it.
+     */
+    private void loadCachedAST() throws IOException {
+        CompilerMetrics.Phase phase = metrics.start("ast-cache-load");
+        astCacheKey = digest(options.frontEnd(), Files.readAllBytes(sourcePath));
+        astCacheFile = Paths.get(options.getASTCacheDir(), toHex(astCacheKey) + ".ast");
+        if (Files.isRegularFile(astCacheFile)) {
+            try {
+                BinaryAST cached = BinaryAST.open(astCacheFile);
+                if (Arrays.equals(cached.getSourceDigest(), astCacheKey)) {
+                    ast = cached.readProgram();
+                    symbolTable = SymbolTable.of(ast);
+                    astFromCache = true;
+                }
+            } catch (IOException | RuntimeException e) {
+                // A damaged entry only means parsing again and replacing it
+                System.err.println("Error reading AST cache: " + e.getMessage());
+            }
+        }
+        phase.stop();
+        phase.record("hit", astFromCache ? 1 : 0);
+    }
+
+    private void saveCachedAST() {
+        CompilerMetrics.Phase phase = metrics.start("ast-cache-save");
+        try {
+            BinaryAST.write(ast, astCacheKey, astCacheFile);
+        } catch (IOException e) {
+            System.err.println("Error writing AST cache: " + e.getMessage());
+        }
+        phase.stop();
+    }
+
+    private static byte[] digest(String frontEnd, byte[] source) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update(frontEnd.getBytes(StandardCharsets.UTF_8));
+            sha.update((byte) 0);
+            return sha.digest(source);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform provides SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Two-stage parse: try the faster SLL prediction with a bail-out error strategy first, and
+     * only reparse with full LL and normal error reporting if that fails. For well-formed input
+     * SLL almost always succeeds, and when it succeeds the tree is the same as with LL.
+     */
+    public static ParseTree parseProgram(CoolParser parser, TokenStream tokens, ANTLRErrorListener errorListener) {
+        return parseRule(parser, tokens, errorListener, CoolParser::program);
+    }
+
+    /**
+     * The same two-stage parse for any start rule
+     */
+    public static <T extends ParserRuleContext> T parseRule(CoolParser parser, TokenStream tokens,
+                                                            ANTLRErrorListener errorListener,
+                                                            Function<CoolParser, T> rule) {
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        try {
+            return rule.apply(parser);
+        } catch (ParseCancellationException e) {
+            // Either a real syntax error or an SLL conflict: rewind and let LL decide
+            tokens.seek(0);
+            parser.reset();
+            parser.addErrorListener(errorListener);
+            parser.setErrorHandler(new DefaultErrorStrategy());
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            return rule.apply(parser);
+        }
+    }
+
+    private void header(String title) {
+        if (options.isVerbose()) {
+            System.out.println(title);
+        }
+    }
+
+    private String artifactPath(String fileName) {
+        return Paths.get(options.getArtifactDir(), fileName).toString();
+    }
+
+    private void printTokens(TokenStream tokens) {
+        for (int i = 0; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            String tokenName = CoolLexer.VOCABULARY.getSymbolicName(token.getType());
+            String tokenText = token.getText();
+            if (tokenName != null) {
+                System.out.printf("%-10s -> %s%n", tokenName, tokenText);
+            }
+        }
+    }
+
+    // The listener and visitor symbol passes only feed this debug output; ASTBuilder
+    // collects the same symbols during the AST traversal
+    private void printParseTreeSymbolTables(ParseTree tree) {
+        CompilerMetrics.Phase phase = metrics.start("symbol-listener");
+        SymbolTable listenerSymbolTable = new SymbolTable();
+        new ParseTreeWalker().walk(new CoolSymbolListener(listenerSymbolTable), tree);
+        phase.stop();
+        System.out.println("Symbol Table (Listener):");
+        listenerSymbolTable.printTable();
+
+        phase = metrics.start("symbol-visitor");
+        SymbolTable visitorSymbolTable = new SymbolTable();
+        new CoolSymbolVisitor(visitorSymbolTable).visit(tree);
+        phase.stop();
+        System.out.println("Symbol Table (Visitor):");
+        visitorSymbolTable.printTable();
+    }
+
+    /**
+     * Write <name>.tac, <name>.optimized.tac and <name>.s for this unit.
+     * The base path is the output file name without extension.
+     */
+    public void writeOutputs(Path basePath) throws IOException {
+        String baseName = basePath.getFileName().toString();
+        writeOutputs(basePath.resolveSibling(baseName + ".tac"),
+                basePath.resolveSibling(baseName + ".optimized.tac"),
+                basePath.resolveSibling(baseName + ".s"));
+    }
+
+    public void writeOutputs(Path irFile, Path optimizedFile, Path assemblyFile) throws IOException {
+        writeLines(irFile, irCode);
+        writeLines(optimizedFile, optimizedIR);
+        writeLines(assemblyFile, assemblyCode);
+    }
+
+    // Same layout as IRGenerator.getIRCode(): one line per entry, each terminated by a newline
+    private void writeLines(Path file, List<String> lines) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        }
+    }
+}
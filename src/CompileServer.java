@@ -0,0 +1,272 @@
+import ast.Symbols;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Long-running compiler process. The JVM stays up between compiles, so the ATN deserialization
+ * and the DFA caches of CoolLexer and CoolParser (static, shared by every lexer/parser instance)
+ * are paid for once and then reused by every request. A generated program is compiled at startup
+ * to warm them up before the first request.
+ *
+ * Usage: java CompileServer                  requests on stdin, responses on stdout
+ *        java CompileServer --socket <path>  requests on a Unix domain socket
+ *
+ * Protocol, one request per line:
+ *   compile <file.cool> [outputBase]   writes outputBase.tac/.optimized.tac/.s (default: the source name)
+ *   ping
+ *   shutdown
+ *
+ * Requests are numbered 1, 2, ... in the order they are read (per connection on a socket; blank
+ * lines do not count), and every response starts with its request's number, since compiles
+ * finish out of order. Compiles run on pooled threads with a large stack, since the parsers and
+ * passes recurse once per level of expression nesting. Every response is written as one block:
+ *   <n> ok <file.cool> <millis>ms      or   <n> error <file.cool> <count>
+ *                                           <one line per error>
+ *   end
+ * and ping, shutdown and malformed requests are answered with "<n> pong", "<n> bye" or
+ * "<n> error ..." followed by "end".
+ *
+ * Identifiers are interned JVM-wide (ast.Symbols), so every name of every file compiled would
+ * stay allocated. Once more than SYMBOL_LIMIT names have been interned, the next compile to
+ * finish waits for the others and resets the interner before new compiles start.
+ */
+public class CompileServer {
+    private static final int WARMUP_ROUNDS = 5;
+    // Same as CompilerChecks.onLargeStack; only the pages a compile touches are committed
+    private static final long COMPILE_STACK_SIZE = 256L << 20;
+    private static final int SYMBOL_LIMIT = 1 << 18;
+
+    private ExecutorService executor;
+    private volatile boolean running;
+    // Compiles hold the read lock, resetting the interner takes the write lock
+    private final ReadWriteLock symbolsLock = new ReentrantReadWriteLock();
+
+    public CompileServer() {
+        this.executor = Executors.newCachedThreadPool(
+                task -> new Thread(null, task, "compile", COMPILE_STACK_SIZE));
+        this.running = true;
+    }
+
+    public static void main(String[] args) throws Exception {
+        CompileServer server = new CompileServer();
+        server.warmUp();
+
+        if (args.length == 2 && args[0].equals("--socket")) {
+            server.serveSocket(Paths.get(args[1]));
+        } else if (args.length == 0) {
+            server.serveStdio();
+        } else {
+            System.err.println("Usage: java CompileServer [--socket <path>]");
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Compile a generated program a few times so the lexer and parser DFAs and the JIT are warm
+     */
+    public void warmUp() throws IOException {
+        Path source = Files.createTempFile("cool-warmup", ".cool");
+        try {
+            Files.write(source, new CorpusGenerator(0).generateProgram(8, 3).getBytes());
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                new CompilationUnit(source).compile();
+            }
+        } finally {
+            Files.deleteIfExists(source);
+        }
+    }
+
+    /**
+     * Serve requests from stdin until EOF or shutdown. Compiles run concurrently,
+     * so responses may come back in a different order than the requests.
+     */
+    public void serveStdio() throws InterruptedException {
+        PrintWriter out = new PrintWriter(new OutputStreamWriter(System.out), false);
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(System.in))) {
+            String line;
+            int requestCount = 0;
+            while (running && (line = in.readLine()) != null) {
+                String request = line;
+                if (request.trim().isEmpty()) {
+                    continue;
+                }
+                int id = ++requestCount;
+                if (request.trim().equals("shutdown")) {
+                    // Answered inline so the loop stops without waiting for another line
+                    respond(id, request, out);
+                } else {
+                    executor.submit(() -> respond(id, request, out));
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading requests: " + e.getMessage());
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Serve requests on a Unix domain socket; each connection gets its own thread and its
+     * requests are answered in order.
+     */
+    public void serveSocket(Path socketPath) throws IOException {
+        Files.deleteIfExists(socketPath);
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            serverChannel.bind(UnixDomainSocketAddress.of(socketPath));
+            System.err.println("Listening on " + socketPath);
+
+            while (running) {
+                SocketChannel channel = serverChannel.accept();
+                executor.submit(() -> serveConnection(channel, serverChannel));
+            }
+        } catch (IOException e) {
+            // accept() fails once shutdown closes the channel
+            if (running) {
+                throw e;
+            }
+        } finally {
+            executor.shutdown();
+            Files.deleteIfExists(socketPath);
+        }
+    }
+
+    private void serveConnection(SocketChannel channel, ServerSocketChannel serverChannel) {
+        try (channel;
+             BufferedReader in = new BufferedReader(Channels.newReader(channel, "UTF-8"));
+             PrintWriter out = new PrintWriter(Channels.newWriter(channel, "UTF-8"), false)) {
+            String line;
+            int requestCount = 0;
+            while ((line = in.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                if (!respond(++requestCount, line, out)) {
+                    // The client is gone
+                    break;
+                }
+                if (!running) {
+                    serverChannel.close();
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error serving connection: " + e.getMessage());
+        }
+    }
+
+    // Answer request number id; false if the response could not be written
+    private boolean respond(int id, String request, PrintWriter out) {
+        String[] parts = request.trim().split("\\s+");
+        String response;
+
+        switch (parts[0]) {
+            case "compile":
+                if (parts.length < 2 || parts.length > 3) {
+                    response = "error usage: compile <file.cool> [outputBase]\nend\n";
+                } else {
+                    response = compile(parts[1], parts.length == 3 ? parts[2] : null);
+                }
+                break;
+            case "ping":
+                response = "pong\nend\n";
+                break;
+            case "shutdown":
+                running = false;
+                response = "bye\nend\n";
+                break;
+            default:
+                response = "error unknown request " + parts[0] + "\nend\n";
+        }
+
+        return write(out, id + " " + response);
+    }
+
+    private String compile(String file, String outputBase) {
+        long startTime = System.nanoTime();
+        StringBuilder sb = new StringBuilder();
+
+        symbolsLock.readLock().lock();
+        try {
+            Path source = Paths.get(file);
+            CompilationUnit unit = new CompilationUnit(source);
+            if (unit.compile()) {
+                unit.writeOutputs(outputBase != null ? Paths.get(outputBase) : defaultBase(source));
+                long millis = (System.nanoTime() - startTime) / 1_000_000;
+                sb.append("ok ").append(file).append(" ").append(millis).append("ms\n");
+            } else {
+                sb.append("error ").append(file).append(" ").append(unit.getErrors().size()).append("\n");
+                for (String error : unit.getErrors()) {
+                    sb.append(error).append("\n");
+                }
+            }
+        } catch (Throwable e) {
+            // The client waits for a response, so a compile that ran out of stack or heap gets
+            // one too; the server keeps running
+            sb.setLength(0);
+            sb.append("error ").append(file).append(" 1\n").append("Internal Error: ").append(e).append("\n");
+        } finally {
+            symbolsLock.readLock().unlock();
+        }
+        releaseSymbols();
+
+        sb.append("end\n");
+        return sb.toString();
+    }
+
+    // Reset the interner once it is over the limit; nothing built by a finished compile is used
+    // again, and the write lock waits for running compiles and holds back new ones
+    private void releaseSymbols() {
+        if (Symbols.count() <= SYMBOL_LIMIT) {
+            return;
+        }
+        symbolsLock.writeLock().lock();
+        try {
+            // Another compile may have reset it while this one waited
+            if (Symbols.count() > SYMBOL_LIMIT) {
+                Symbols.reset();
+            }
+        } finally {
+            symbolsLock.writeLock().unlock();
+        }
+    }
+
+    // foo.cool -> foo, next to the source
+    private static Path defaultBase(Path source) {
+        String name = source.getFileName().toString();
+        if (name.endsWith(".cool")) {
+            name = name.substring(0, name.length() - ".cool".length());
+        }
+        return source.resolveSibling(name);
+    }
+
+    // Responses from concurrent compiles must not interleave. PrintWriter never throws, so
+    // failures are only visible through checkError()
+    private static boolean write(PrintWriter out, String response) {
+        synchronized (out) {
+            out.print(response);
+            out.flush();
+            if (out.checkError()) {
+                System.err.println("Error writing response: output stream failed");
+                return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,682 @@
+import ast.*;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenSource;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.UnbufferedTokenStream;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeWalker;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.nio.charset.StandardCharsets;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Simple wall time / allocation benchmarks for the compiler, run on a generated corpus.
+ *
+ * Usage: java CompilerBenchmark <scenario> [classes] [methodsPerClass]
+ *
+ * Scenarios:
+ *   quiet      full pipeline with every diagnostic enabled (except the GUI) vs. the default quiet mode
+ *   front-end  listener + visitor + ASTBuilder walks vs. the single ASTBuilder walk, on one parse tree
+ *   parse      full LL parsing vs. the two-stage SLL-then-LL parse, on pre-lexed tokens
+ *   direct     CoolParser + ASTBuilder vs. DirectParser: time, allocation and the heap retained
+ *              while the trees are live
+ *   lexer      CoolLexer vs. CoolScanner throughput in MB/s, after checking that both produce the
+ *              same tokens for the corpus and a set of edge cases
+ *   tokens     CoolLexer + CommonTokenStream vs. CoolScanner + TokenBuffer: time, allocation and
+ *              retained bytes per token
+ *   parallel-lexer  CoolScanner.tokenize() vs. ParallelScanner on the common pool, after checking
+ *                   that chunked lexing gives the same tokens even with tiny chunks cutting through
+ *                   comments and strings
+ *   parallel-parse  CoolParser + ASTBuilder and DirectParser on the whole program vs. ParallelParser
+ *                   with a 4-thread pool, after checking that both build the same AST
+ *   unbuffered CharStreams + CommonTokenStream vs. MappedCharStream + UnbufferedTokenStream, both
+ *              parsed by DirectParser: time, and the heap the input side retains after parsing
+ *   lazy-bodies  DirectParser with eager vs. lazily parsed method bodies, for the declaration passes
+ *                alone (a skeleton tool) and for full semantic analysis, after checking that the
+ *                lazy AST is the same once every body is parsed
+ *   dfa-cache  lexing and parsing with empty prediction DFAs (a cold process) vs. DFAs preloaded
+ *              by DFACache vs. warm DFAs, after checking that parsing from a loaded cache builds
+ *              the same AST
+ *   incremental  IncrementalParser: a full parse vs. updates after a one-character edit inside a
+ *                method and after inserting a line, after checking on random edits (and their
+ *                undos) that every update gives the same tokens, AST, positions and errors as
+ *                parsing the new text from scratch
+ *   binary-ast  lexing and parsing the corpus vs. reloading its type-annotated AST from a
+ *               memory-mapped BinaryAST file (whole program and a single class), after checking
+ *               that the reloaded AST, positions and types are the same
+ *   dot        rendering every node's full text as the old DOT export did (quadratic in the depth
+ *              of the tree) vs. the streaming DotWriter, on the corpus and on one method whose
+ *              body is a [classes * methodsPerClass * 10]-term sum, after checking that collapsed
+ *              graphs still account for every node
+ *   hash-cons  ASTBuilder with and without an ExpressionInterner: heap retained by the AST, the
+ *              number of shared subexpressions and the cost of interning, after checking that the
+ *              shared AST prints, type checks and generates IR exactly like the unshared one
+ *   hierarchy  conformsTo / leastCommonAncestor by walking parent chains (as EnhancedSymbolTable
+ *              did) vs. the ClassHierarchy index, on random pairs from a [classes * methodsPerClass
+ *              * 10]-deep inheritance chain after checking that both give the same answers, and
+ *              type checking the same if-heavy method on a shallow and on that deep hierarchy
+ *   semantic   SemanticAnalyzer on a pre-built AST (names are interned symbol ids, types are Type objects)
+ *   expressions  CoolParser.expr() + ASTBuilder vs. the precedence-climbing ExpressionParser,
+ *                on [classes * methodsPerClass * 10] generated expression statements
+ *   dispatch   walking deeply nested expression trees through an instanceof chain (as the type
+ *              checker and IR generator used to) vs. ExpressionVisitor double dispatch
+ *
+ * The "after checking" parts are CompilerChecks checks, run before anything is timed; run
+ * CompilerChecks on its own for a pass/fail result.
+ *
+ * Allocation figures are the bytes allocated by the benchmark thread, as reported by
+ * com.sun.management.ThreadMXBean.
+ */
+public class CompilerBenchmark {
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURED_ITERATIONS = 5;
+
+    private interface Task {
+        void run() throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String scenario = args.length > 0 ? args[0] : "quiet";
+        int classes = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int methods = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+        String program = new CorpusGenerator(42).generateProgram(classes, methods);
+        Path source = Files.createTempFile("cool-bench", ".cool");
+        Files.write(source, program.getBytes());
+        System.out.printf("Corpus: %d classes, %d methods per class, %d KB%n",
+                classes, methods, program.length() / 1024);
+
+        switch (scenario) {
+            case "quiet":
+                benchmarkQuietMode(source);
+                break;
+            case "front-end":
+                benchmarkFrontEnd(source);
+                break;
+            case "parse":
+                benchmarkParse(source);
+                break;
+            case "direct":
+                benchmarkDirect(source);
+                break;
+            case "lexer":
+                benchmarkLexer(source);
+                break;
+            case "tokens":
+                benchmarkTokenBuffer(source);
+                break;
+            case "parallel-lexer":
+                benchmarkParallelLexer(source);
+                break;
+            case "parallel-parse":
+                benchmarkParallelParse(source);
+                break;
+            case "unbuffered":
+                benchmarkUnbuffered(source);
+                break;
+            case "lazy-bodies":
+                benchmarkLazyBodies(source);
+                break;
+            case "dfa-cache":
+                benchmarkDFACache(source);
+                break;
+            case "incremental":
+                benchmarkIncremental(source);
+                break;
+            case "binary-ast":
+                benchmarkBinaryAST(source);
+                break;
+            case "dot":
+                // The sum is a left-deep tree as tall as it has terms, and DotWriter recurses
+                CompilerChecks.onLargeStack(() -> benchmarkDot(source, classes * methods * 10));
+                break;
+            case "hash-cons":
+                benchmarkHashCons(source);
+                break;
+            case "hierarchy":
+                benchmarkHierarchy(classes * methods * 10);
+                break;
+            case "semantic":
+                benchmarkSemantic(source);
+                break;
+            case "expressions":
+                benchmarkExpressions(classes * methods * 10);
+                break;
+            case "dispatch":
+                benchmarkDispatch(classes * methods * 10);
+                break;
+            default:
+                System.err.println("Unknown scenario " + scenario);
+                System.exit(2);
+        }
+    }
+
+    private static void benchmarkQuietMode(Path source) throws Exception {
+        Path artifactDir = Files.createTempDirectory("cool-bench-artifacts");
+        CompilerOptions diagnostics = CompilerOptions.allDiagnostics(artifactDir.toString());
+        CompilerOptions quiet = CompilerOptions.parse(new String[0]);
+
+        // Console output goes to a null stream, so this is a lower bound on the real cost
+        measure("all diagnostics", () -> withoutConsole(() -> new CompilationUnit(source, diagnostics).compile()));
+        measure("quiet", () -> new CompilationUnit(source, quiet).compile());
+    }
+
+    private static void benchmarkFrontEnd(Path source) throws Exception {
+        CoolParser parser = new CoolParser(new CommonTokenStream(new CoolLexer(CharStreams.fromPath(source))));
+        ParseTree tree = parser.program();
+
+        measure("three walks", () -> {
+            new ParseTreeWalker().walk(new CoolSymbolListener(new SymbolTable()), tree);
+            new CoolSymbolVisitor(new SymbolTable()).visit(tree);
+            new ASTBuilder().visit(tree);
+        });
+        measure("single walk", () -> new ASTBuilder().visit(tree));
+    }
+
+    private static void benchmarkParse(Path source) throws Exception {
+        CommonTokenStream tokens = new CommonTokenStream(new CoolLexer(CharStreams.fromPath(source)));
+        tokens.fill();
+        SyntaxErrorListener errorListener = new SyntaxErrorListener(new ArrayList<>());
+
+        measure("LL", () -> {
+            tokens.seek(0);
+            CoolParser parser = new CoolParser(tokens);
+            parser.removeErrorListeners();
+            parser.addErrorListener(errorListener);
+            parser.program();
+        });
+        measure("SLL, LL on failure", () -> {
+            tokens.seek(0);
+            CompilationUnit.parseProgram(new CoolParser(tokens), tokens, errorListener);
+        });
+    }
+
+    private static void benchmarkDirect(Path source) throws Exception {
+        CompilerChecks.checkDirect(source);
+        CommonTokenStream tokens = new CommonTokenStream(new CoolLexer(CharStreams.fromPath(source)));
+        tokens.fill();
+        SyntaxErrorListener errorListener = new SyntaxErrorListener(new ArrayList<>());
+
+        // ASTBuilder's output keeps the parse tree reachable, as in the pipeline
+        Callable<Object[]> viaParseTree = () -> {
+            tokens.seek(0);
+            ParseTree tree = CompilationUnit.parseProgram(new CoolParser(tokens), tokens, errorListener);
+            return new Object[]{tree, new ASTBuilder().visit(tree)};
+        };
+        Callable<Object[]> direct = () -> {
+            tokens.seek(0);
+            return new Object[]{new DirectParser(tokens).parseProgram()};
+        };
+
+        measure("CoolParser + ASTBuilder", viaParseTree::call);
+        measure("DirectParser", direct::call);
+        System.out.printf("%-28s %10.2f MB retained%n", "CoolParser + ASTBuilder", retainedMB(viaParseTree));
+        System.out.printf("%-28s %10.2f MB retained%n", "DirectParser", retainedMB(direct));
+    }
+
+    // Heap still in use after a GC while the result is reachable, minus the heap before
+    private static double retainedMB(Callable<?> task) throws Exception {
+        MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long before = memoryBean.getHeapMemoryUsage().getUsed();
+        Object result = task.call();
+        System.gc();
+        long after = memoryBean.getHeapMemoryUsage().getUsed();
+        Reference.reachabilityFence(result);
+        return (after - before) / (1024.0 * 1024.0);
+    }
+
+    private static void benchmarkLexer(Path source) throws Exception {
+        CompilerChecks.checkLexer(source);
+        byte[] bytes = Files.readAllBytes(source);
+
+        double megabytes = bytes.length / (1024.0 * 1024.0);
+        double lexerMillis = measure("CoolLexer", () -> drain(new CoolLexer(CharStreams.fromPath(source))));
+        double scannerMillis = measure("CoolScanner", () -> drain(new CoolScanner(Files.readAllBytes(source), "")));
+        System.out.printf("%-28s %10.2f MB/s%n", "CoolLexer", megabytes / (lexerMillis / 1000));
+        System.out.printf("%-28s %10.2f MB/s%n", "CoolScanner", megabytes / (scannerMillis / 1000));
+    }
+
+    private static void drain(TokenSource source) {
+        while (source.nextToken().getType() != Token.EOF) {
+            // only the scanning matters
+        }
+    }
+
+    private static void benchmarkTokenBuffer(Path source) throws Exception {
+        CompilerChecks.checkTokenBuffer(source);
+        Callable<CommonTokenStream> commonTokens = () -> {
+            CommonTokenStream tokens = new CommonTokenStream(new CoolLexer(CharStreams.fromPath(source)));
+            tokens.fill();
+            return tokens;
+        };
+        Callable<TokenBuffer> tokenBuffer = () -> CoolScanner.fromPath(source).tokenize();
+
+        int count = commonTokens.call().size();
+
+        measure("CoolLexer + CommonTokenStream", commonTokens::call);
+        measure("CoolScanner + TokenBuffer", tokenBuffer::call);
+        System.out.printf("%-28s %10.1f bytes/token retained%n", "CoolLexer + CommonTokenStream",
+                retainedMB(commonTokens) * 1024 * 1024 / count);
+        System.out.printf("%-28s %10.1f bytes/token retained%n", "CoolScanner + TokenBuffer",
+                retainedMB(tokenBuffer) * 1024 * 1024 / count);
+    }
+
+    private static void benchmarkParallelLexer(Path source) throws Exception {
+        CompilerChecks.checkParallelLexer(source);
+        byte[] corpus = Files.readAllBytes(source);
+        System.out.println("Common pool: " + ForkJoinPool.commonPool().getParallelism() + " worker threads");
+
+        measure("CoolScanner", () -> new CoolScanner(corpus, "").tokenize());
+        measure("ParallelScanner", () -> ParallelScanner.tokenize(new CoolScanner(corpus, "")));
+    }
+
+    private static void benchmarkParallelParse(Path source) throws Exception {
+        CompilerChecks.checkParallelParse(source);
+        CommonTokenStream tokens = new CommonTokenStream(new CoolLexer(CharStreams.fromPath(source)));
+        tokens.fill();
+        SyntaxErrorListener errorListener = new SyntaxErrorListener(new ArrayList<>());
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        Callable<ProgramNode> viaParseTree = () -> {
+            tokens.seek(0);
+            return (ProgramNode) new ASTBuilder().visit(CompilationUnit.parseProgram(new CoolParser(tokens), tokens, errorListener));
+        };
+        Callable<ProgramNode> direct = () -> {
+            tokens.seek(0);
+            return new DirectParser(tokens).parseProgram();
+        };
+        Callable<ProgramNode> parallel = () -> new ParallelParser(tokens, false).parse(pool, 1);
+        Callable<ProgramNode> parallelDirect = () -> new ParallelParser(tokens, true).parse(pool, 1);
+
+        measure("CoolParser + ASTBuilder", viaParseTree::call);
+        measure("ParallelParser", parallel::call);
+        measure("DirectParser", direct::call);
+        measure("ParallelParser (direct)", parallelDirect::call);
+        pool.shutdown();
+    }
+
+    private static void benchmarkUnbuffered(Path source) throws Exception {
+        CompilerChecks.checkUnbuffered(source);
+
+        // Each returns the token stream after parsing; the AST itself is dropped
+        Callable<Object> buffered = () -> {
+            CommonTokenStream tokens = new CommonTokenStream(new CoolLexer(CharStreams.fromPath(source)));
+            tokens.fill();
+            new DirectParser(tokens).parseProgram();
+            return tokens;
+        };
+        Callable<Object> unbuffered = () -> {
+            TokenStream tokens = new UnbufferedTokenStream<>(new CoolLexer(MappedCharStream.open(source)));
+            new DirectParser(tokens).parseProgram();
+            return tokens;
+        };
+
+        measure("buffered", buffered::call);
+        measure("unbuffered", unbuffered::call);
+        System.out.printf("%-28s %10.2f MB retained%n", "buffered", retainedMB(buffered));
+        System.out.printf("%-28s %10.2f MB retained%n", "unbuffered", retainedMB(unbuffered));
+    }
+
+    private static void benchmarkLazyBodies(Path source) throws Exception {
+        CompilerChecks.checkLazyBodies(source);
+        CommonTokenStream tokens = new CommonTokenStream(new CoolLexer(CharStreams.fromPath(source)));
+        tokens.fill();
+        List<String> errors = new ArrayList<>();
+
+        Callable<ProgramNode> eager = () -> {
+            tokens.seek(0);
+            return new DirectParser(tokens).parseProgram();
+        };
+        Callable<ProgramNode> lazy = () -> {
+            tokens.seek(0);
+            DirectParser parser = new DirectParser(tokens);
+            parser.setLazyBodies(errors);
+            return parser.parseProgram();
+        };
+
+        measure("eager + declarations", () -> new SemanticAnalyzer().analyzeDeclarations(eager.call()));
+        measure("lazy + declarations", () -> new SemanticAnalyzer().analyzeDeclarations(lazy.call()));
+        measure("eager + full analysis", () -> new SemanticAnalyzer().analyze(eager.call()));
+        measure("lazy + full analysis", () -> new SemanticAnalyzer().analyze(lazy.call()));
+    }
+
+    private static void benchmarkDFACache(Path source) throws Exception {
+        CompilerChecks.checkDFACache(source);
+        Path cache = Files.createTempFile("cool-bench", ".dfa");
+        Callable<ProgramNode> parse = () -> CompilerChecks.parseFromFile(source);
+        Task clear = CompilerChecks::clearDFAs;
+
+        clear.run();
+        parse.call();
+        DFACache.save(cache);
+        System.out.printf("DFA cache: %d states, %d KB%n", DFACache.stateCount(), Files.size(cache) / 1024);
+
+        measure("empty DFAs", () -> {
+            clear.run();
+            parse.call();
+        });
+        measure("loaded DFA cache", () -> {
+            clear.run();
+            DFACache.load(cache);
+            parse.call();
+        });
+        measure("warm DFAs", parse::call);
+        Files.delete(cache);
+    }
+
+    private static void benchmarkIncremental(Path source) throws Exception {
+        CompilerChecks.checkIncremental(source);
+        byte[] corpus = Files.readAllBytes(source);
+        String name = source.toString();
+
+        // A digit inside a method body in the middle of the file, and a new line above it
+        String program = new String(corpus, StandardCharsets.UTF_8);
+        int digit = program.indexOf("p <- (p + ", program.length() / 2) + "p <- (p + ".length();
+        byte[] changed = corpus.clone();
+        changed[digit] = (byte) (changed[digit] == '1' ? '2' : '1');
+        byte[] newline = CompilerChecks.splice(corpus, digit, digit, "\n".getBytes(StandardCharsets.UTF_8));
+
+        measure("full parse", () -> new IncrementalParser(name).parse(corpus));
+        for (byte[] edit : List.of(changed, newline)) {
+            IncrementalParser parser = new IncrementalParser(name);
+            parser.parse(corpus);
+            boolean[] edited = {false};
+            measure(edit == changed ? "update (one character)" : "update (new line)", () -> {
+                edited[0] = !edited[0];
+                parser.update(edited[0] ? edit : corpus);
+            });
+            parser.update(edit);
+            System.out.printf("%-28s %10d tokens relexed %6d reparsed%n", "",
+                    parser.getRelexedTokens(), parser.getReparsedTokens());
+        }
+    }
+
+    private static void benchmarkBinaryAST(Path source) throws Exception {
+        CompilerChecks.checkBinaryAST(source);
+        byte[] corpus = Files.readAllBytes(source);
+        Callable<ProgramNode> parse = () -> CompilerChecks.parseText(corpus);
+
+        // Cached ASTs carry the types semantic analysis attached
+        ProgramNode program = parse.call();
+        new SemanticAnalyzer().analyze(program);
+        Path file = Files.createTempFile("cool-bench", ".ast");
+        BinaryAST.write(program, new byte[0], file);
+        long nodes = CompilerMetrics.countASTNodes(program);
+        System.out.printf("%d nodes, %d KB source, %d KB encoded (%.1f bytes per node)%n", nodes,
+                corpus.length / 1024, Files.size(file) / 1024, (double) Files.size(file) / nodes);
+
+        measure("lex + parse", parse::call);
+        measure("encode", () -> BinaryAST.encode(program, new byte[0]));
+        measure("open + readProgram", () -> BinaryAST.open(file).readProgram());
+        measure("open + readClass", () -> {
+            BinaryAST ast = BinaryAST.open(file);
+            ast.readClass(ast.getClassCount() / 2);
+        });
+        Files.delete(file);
+    }
+
+    private static void benchmarkHashCons(Path source) throws Exception {
+        CompilerChecks.checkHashCons(source);
+        CoolParser parser = new CoolParser(new CommonTokenStream(new CoolLexer(CharStreams.fromPath(source))));
+        ParseTree tree = parser.program();
+        ExpressionInterner interner = new ExpressionInterner();
+        Callable<ProgramNode> plain = () -> (ProgramNode) new ASTBuilder().visit(tree);
+        Callable<ProgramNode> shared = () -> {
+            ASTBuilder builder = new ASTBuilder();
+            builder.setExpressionInterner(interner);
+            return (ProgramNode) builder.visit(tree);
+        };
+
+        shared.call();
+        System.out.printf("%d of %d expressions shared%n", interner.getShared(), interner.getLookups());
+
+        measure("ASTBuilder", plain::call);
+        measure("ASTBuilder + interner", shared::call);
+        System.out.printf("%-28s %10.2f MB retained%n", "ASTBuilder", retainedMB(plain));
+        System.out.printf("%-28s %10.2f MB retained%n", "ASTBuilder + interner", retainedMB(shared));
+    }
+
+    private static void benchmarkHierarchy(int depth) throws Exception {
+        CompilerChecks.checkHierarchy(depth);
+        java.util.Random random = new java.util.Random(7);
+        SemanticAnalyzer analyzer = new SemanticAnalyzer();
+        analyzer.analyze(CompilerChecks.parseText(CompilerChecks.hierarchyProgram(depth, 0)));
+        EnhancedSymbolTable table = analyzer.getSymbolTable();
+        List<EnhancedSymbolTable.ClassInfo> classes = table.getClasses();
+
+        Type[] pairs = new Type[2 * 100000];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = classes.get(random.nextInt(classes.size())).type;
+        }
+        ClassHierarchy hierarchy = table.getHierarchy();
+        System.out.printf("%d classes, %d random pairs%n", classes.size(), pairs.length / 2);
+
+        int[] sink = new int[1];
+        measure("parent-chain walks", () -> {
+            for (int i = 0; i < pairs.length; i += 2) {
+                sink[0] += CompilerChecks.conformsByWalk(table, pairs[i], pairs[i + 1]) ? 1 : 0;
+                sink[0] += CompilerChecks.lcaByWalk(table, pairs[i], pairs[i + 1]).getId();
+            }
+        });
+        measure("ClassHierarchy", () -> {
+            for (int i = 0; i < pairs.length; i += 2) {
+                sink[0] += hierarchy.conformsTo(pairs[i], pairs[i + 1]) ? 1 : 0;
+                sink[0] += hierarchy.leastCommonAncestor(pairs[i], pairs[i + 1]).getId();
+            }
+        });
+        measure("build ClassHierarchy", () -> new ClassHierarchy(classes));
+
+        // Same method and class count; only the depth of the branch types differs
+        for (int chain : new int[] {4, depth}) {
+            ProgramNode program = CompilerChecks.parseText(CompilerChecks.hierarchyProgram(chain, depth - chain));
+            measure("type check, depth " + chain, () -> new SemanticAnalyzer().analyze(program));
+        }
+    }
+
+    private static void benchmarkDot(Path source, int terms) throws Exception {
+        CompilerChecks.checkDot(source, terms);
+        for (ProgramNode program : CompilerChecks.dotPrograms(source, terms)) {
+            System.out.printf("%s: %d nodes%n", program.getClasses().get(0).getName(),
+                    CompilerMetrics.countASTNodes(program));
+
+            // The old writers labelled every node with its whole toString()
+            long[] sink = new long[1];
+            measure("full labels (old export)", () -> NodeWalker.forEach(program,
+                    node -> sink[0] += node.toString().length()));
+            measure("DotWriter", () -> new DotWriter(Writer.nullWriter()).write(program, "AST"));
+            measure("DotWriter, 1000 nodes", () -> {
+                DotWriter dot = new DotWriter(Writer.nullWriter());
+                dot.setMaxNodes(1000);
+                dot.write(program, "AST");
+            });
+        }
+    }
+
+    private static void benchmarkSemantic(Path source) throws Exception {
+        CompilerChecks.checkSemantic(source);
+        CoolParser parser = new CoolParser(new CommonTokenStream(new CoolLexer(CharStreams.fromPath(source))));
+        ProgramNode ast = (ProgramNode) new ASTBuilder().visit(parser.program());
+
+        measure("semantic analysis", () -> new SemanticAnalyzer().analyze(ast));
+    }
+
+    private static void benchmarkExpressions(int count) throws Exception {
+        CompilerChecks.checkExpressions(count);
+        String program = new CorpusGenerator(7).generateExpressions(count);
+        CommonTokenStream tokens = new CommonTokenStream(new CoolLexer(CharStreams.fromString(program)));
+        tokens.fill();
+        System.out.printf("Expressions: %d statements, %d tokens%n", count, tokens.size());
+
+        measure("CoolParser.expr + ASTBuilder", () -> CompilerChecks.parseWithGrammar(tokens));
+        measure("ExpressionParser", () -> CompilerChecks.parseWithPrecedenceClimbing(tokens));
+    }
+
+    private static void benchmarkDispatch(int count) throws Exception {
+        String program = new CorpusGenerator(7).generateExpressions(count, 8);
+        CommonTokenStream tokens = new CommonTokenStream(new CoolLexer(CharStreams.fromString(program)));
+        tokens.fill();
+        List<ExpressionNode> expressions = CompilerChecks.parseWithPrecedenceClimbing(tokens);
+
+        ExpressionVisitor<Integer> counter = new NodeCounter();
+        long viaChain = 0;
+        long viaVisitor = 0;
+        for (ExpressionNode expr : expressions) {
+            viaChain += countWithInstanceof(expr);
+            viaVisitor += expr.accept(counter);
+        }
+        if (viaChain != viaVisitor) {
+            throw new IllegalStateException("Walks disagree: " + viaChain + " vs. " + viaVisitor + " nodes");
+        }
+        System.out.printf("Expressions: %d statements, %d nodes%n", count, viaVisitor);
+
+        long[] sink = new long[1];
+        measure("instanceof chain", () -> {
+            for (ExpressionNode expr : expressions) {
+                sink[0] += countWithInstanceof(expr);
+            }
+        });
+        measure("ExpressionVisitor", () -> {
+            for (ExpressionNode expr : expressions) {
+                sink[0] += expr.accept(counter);
+            }
+        });
+    }
+
+    // The dispatch order SemanticAnalyzer.typeCheck had before it used ExpressionVisitor
+    private static int countWithInstanceof(ExpressionNode expr) {
+        if (expr instanceof BinaryOperationNode) {
+            BinaryOperationNode node = (BinaryOperationNode) expr;
+            return 1 + countWithInstanceof(node.getLeft()) + countWithInstanceof(node.getRight());
+        } else if (expr instanceof UnaryOperationNode) {
+            return 1 + countWithInstanceof(((UnaryOperationNode) expr).getOperand());
+        } else if (expr instanceof IntegerLiteralNode) {
+            return 1;
+        } else if (expr instanceof StringLiteralNode) {
+            return 1;
+        } else if (expr instanceof BooleanLiteralNode) {
+            return 1;
+        } else if (expr instanceof IdentifierNode) {
+            return 1;
+        } else if (expr instanceof AssignmentNode) {
+            return 1 + countWithInstanceof(((AssignmentNode) expr).getValue());
+        } else if (expr instanceof MethodCallNode) {
+            MethodCallNode node = (MethodCallNode) expr;
+            int count = 1 + (node.getObject() == null ? 0 : countWithInstanceof(node.getObject()));
+            for (ExpressionNode arg : node.getArguments()) {
+                count += countWithInstanceof(arg);
+            }
+            return count;
+        } else if (expr instanceof IfNode) {
+            IfNode node = (IfNode) expr;
+            return 1 + countWithInstanceof(node.getCondition()) + countWithInstanceof(node.getThenExpr())
+                    + countWithInstanceof(node.getElseExpr());
+        } else if (expr instanceof WhileNode) {
+            WhileNode node = (WhileNode) expr;
+            return 1 + countWithInstanceof(node.getCondition()) + countWithInstanceof(node.getBody());
+        }
+        return 0;
+    }
+
+    private static class NodeCounter implements ExpressionVisitor<Integer> {
+        @Override
+        public Integer visitBinaryOperation(BinaryOperationNode node) {
+            return 1 + node.getLeft().accept(this) + node.getRight().accept(this);
+        }
+
+        @Override
+        public Integer visitUnaryOperation(UnaryOperationNode node) {
+            return 1 + node.getOperand().accept(this);
+        }
+
+        @Override
+        public Integer visitIntegerLiteral(IntegerLiteralNode node) {
+            return 1;
+        }
+
+        @Override
+        public Integer visitStringLiteral(StringLiteralNode node) {
+            return 1;
+        }
+
+        @Override
+        public Integer visitBooleanLiteral(BooleanLiteralNode node) {
+            return 1;
+        }
+
+        @Override
+        public Integer visitIdentifier(IdentifierNode node) {
+            return 1;
+        }
+
+        @Override
+        public Integer visitAssignment(AssignmentNode node) {
+            return 1 + node.getValue().accept(this);
+        }
+
+        @Override
+        public Integer visitMethodCall(MethodCallNode node) {
+            int count = 1 + (node.getObject() == null ? 0 : node.getObject().accept(this));
+            for (ExpressionNode arg : node.getArguments()) {
+                count += arg.accept(this);
+            }
+            return count;
+        }
+
+        @Override
+        public Integer visitIf(IfNode node) {
+            return 1 + node.getCondition().accept(this) + node.getThenExpr().accept(this)
+                    + node.getElseExpr().accept(this);
+        }
+
+        @Override
+        public Integer visitWhile(WhileNode node) {
+            return 1 + node.getCondition().accept(this) + node.getBody().accept(this);
+        }
+    }
+
+    private static void withoutConsole(Task task) throws Exception {
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            task.run();
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    private static double measure(String name, Task task) throws Exception {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            task.run();
+        }
+
+        long startBytes = threadBean.getCurrentThreadAllocatedBytes();
+        long startTime = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            task.run();
+        }
+        long elapsed = System.nanoTime() - startTime;
+        long allocated = threadBean.getCurrentThreadAllocatedBytes() - startBytes;
+
+        double millisPerOp = elapsed / 1e6 / MEASURED_ITERATIONS;
+        System.out.printf("%-28s %10.2f ms/op %10.2f MB/op%n", name,
+                millisPerOp, allocated / (1024.0 * 1024.0) / MEASURED_ITERATIONS);
+        return millisPerOp;
+    }
+}
@@ -0,0 +1,650 @@
+import ast.*;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenSource;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.UnbufferedTokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.tree.ParseTree;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Differential checks for the compiler's alternative implementations: each runs two ways of
+ * doing the same thing on a generated corpus (and hand-picked edge cases) and fails with the
+ * first difference. CompilerBenchmark runs a scenario's check before timing it, since a faster
+ * path that gives different answers measures nothing.
+ *
+ * Usage: java CompilerChecks [classes] [methodsPerClass]
+ *
+ * Prints one line per check and exits with status 1 if any of them failed.
+ *
+ * Checks:
+ *   direct          DirectParser builds the same AST as CoolParser + ASTBuilder
+ *   lexer           CoolScanner gives the same tokens as CoolLexer
+ *   tokens          TokenBuffer holds the same tokens as a CommonTokenStream
+ *   parallel-lexer  chunked lexing gives the same tokens, even with chunks cutting through
+ *                   comments and strings
+ *   parallel-parse  ParallelParser builds the same AST as a sequential parse
+ *   unbuffered      MappedCharStream lexes like CharStreams, and unbuffered parsing builds the
+ *                   same AST
+ *   lazy-bodies     lazily parsed bodies give the same AST once parsed, and the same syntax
+ *                   errors when the declarations do not check
+ *   dfa-cache       parsing with DFAs loaded from a DFACache file builds the same AST
+ *   incremental     IncrementalParser gives the same tokens, AST, positions and errors as a
+ *                   full parse after random edits and their undos
+ *   binary-ast      BinaryAST reloads the same AST, positions and types
+ *   hash-cons       a hash-consed AST prints, type checks and generates IR like an unshared one
+ *   hierarchy       ClassHierarchy answers like walking parent chains, on a deep hierarchy
+ *   dot             collapsed DOT graphs still account for every node
+ *   semantic        the corpus type checks
+ *   expressions     ExpressionParser builds the same expressions as CoolParser.expr()
+ */
+public class CompilerChecks {
+    interface Check {
+        void run() throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int classes = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int methods = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        Path source = Files.createTempFile("cool-check", ".cool");
+        Files.write(source, new CorpusGenerator(42).generateProgram(classes, methods).getBytes());
+        int size = classes * methods * 10;
+
+        Map<String, Check> checks = new LinkedHashMap<>();
+        checks.put("direct", () -> checkDirect(source));
+        checks.put("lexer", () -> checkLexer(source));
+        checks.put("tokens", () -> checkTokenBuffer(source));
+        checks.put("parallel-lexer", () -> checkParallelLexer(source));
+        checks.put("parallel-parse", () -> checkParallelParse(source));
+        checks.put("unbuffered", () -> checkUnbuffered(source));
+        checks.put("lazy-bodies", () -> checkLazyBodies(source));
+        checks.put("dfa-cache", () -> checkDFACache(source));
+        checks.put("incremental", () -> checkIncremental(source));
+        checks.put("binary-ast", () -> checkBinaryAST(source));
+        checks.put("hash-cons", () -> checkHashCons(source));
+        checks.put("hierarchy", () -> checkHierarchy(size));
+        checks.put("dot", () -> checkDot(source, size));
+        checks.put("semantic", () -> checkSemantic(source));
+        checks.put("expressions", () -> checkExpressions(size));
+
+        int[] failures = new int[1];
+        onLargeStack(() -> {
+            for (Map.Entry<String, Check> check : checks.entrySet()) {
+                try {
+                    check.getValue().run();
+                    System.out.printf("%-16s ok%n", check.getKey());
+                } catch (Exception e) {
+                    System.out.printf("%-16s FAILED: %s%n", check.getKey(), e);
+                    failures[0]++;
+                }
+            }
+        });
+        Files.delete(source);
+
+        System.out.printf("%d of %d checks passed%n", checks.size() - failures[0], checks.size());
+        System.exit(failures[0] == 0 ? 0 : 1);
+    }
+
+    /**
+     * Run check on a thread with a 256 MB stack, for ASTs deeper than the main thread's stack
+     * allows (the passes and DotWriter recurse)
+     */
+    static void onLargeStack(Check check) throws Exception {
+        Exception[] failure = new Exception[1];
+        Thread thread = new Thread(null, () -> {
+            try {
+                check.run();
+            } catch (Exception e) {
+                failure[0] = e;
+            }
+        }, "checks", 256L << 20);
+        thread.start();
+        thread.join();
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+    }
+
+    // Class body statements become initialization methods after the features, wherever they are
+    static final String CLASS_BODY_STATEMENTS =
+            "class A { x <- 1; a : Int <- 2; f() : Int { a; }; g(); }\nclass B { b : Int; b <- 3; }";
+
+    static void checkDirect(Path source) throws Exception {
+        compareDirect(new CommonTokenStream(new CoolLexer(CharStreams.fromPath(source))));
+        compareDirect(new CommonTokenStream(new CoolLexer(CharStreams.fromString(CLASS_BODY_STATEMENTS))));
+    }
+
+    private static void compareDirect(CommonTokenStream tokens) {
+        tokens.fill();
+        if (!describeTree(parseWithASTBuilder(tokens)).equals(describeTree(parseDirect(tokens)))) {
+            throw new IllegalStateException("DirectParser and ASTBuilder built different ASTs");
+        }
+    }
+
+    // Inputs where the generated lexer's behaviour is easy to get wrong by hand
+    static final String[] LEXER_EDGE_CASES = {
+            "(* a (* b *) c *) d", "(*(*)*)", "(* a *) b *)", "(*)", "((* x *)", "(* (* *) y",
+            "(* never closed", "(* (* one of two *)", "\"unterminated\nx", "\"\"", "\"a -- (* b\"",
+            "True true trueX FALSE false Class ClAsS cLaSs inherits INHERITS fi FI_x if2 _x",
+            "a--b\nc -- comment at end", "x<-y<=z<w>=v>u!=t!s", "+= -= *= /= && || & | ~ @ #",
+            "\"h\u00e9llo\" \u00e9 \u65e5\u672c \ud83d\ude00 x", "(* \u00e9 *) y\r\n\tz", "007 12ab"
+    };
+
+    static void checkLexer(Path source) throws Exception {
+        compareLexers(new String(Files.readAllBytes(source), StandardCharsets.UTF_8));
+        for (String edgeCase : LEXER_EDGE_CASES) {
+            compareLexers(edgeCase);
+        }
+    }
+
+    private static void compareLexers(String text) {
+        TokenSource lexer = new CoolLexer(CharStreams.fromString(text));
+        TokenSource scanner = new CoolScanner(text.getBytes(StandardCharsets.UTF_8), "");
+        while (true) {
+            Token expected = lexer.nextToken();
+            Token actual = scanner.nextToken();
+            String e = describe(expected);
+            String a = describe(actual);
+            if (!e.equals(a)) {
+                throw new IllegalStateException("Lexers disagree on " + text + ": expected " + e + " got " + a);
+            }
+            if (expected.getType() == Token.EOF) {
+                return;
+            }
+        }
+    }
+
+    private static String describe(Token token) {
+        return token.getType() + " '" + token.getText() + "' " + token.getLine() + ":"
+                + token.getCharPositionInLine() + " [" + token.getStartIndex() + ".." + token.getStopIndex() + "]";
+    }
+
+    static void checkTokenBuffer(Path source) throws Exception {
+        CommonTokenStream expected = new CommonTokenStream(new CoolLexer(CharStreams.fromPath(source)));
+        expected.fill();
+        TokenBuffer actual = CoolScanner.fromPath(source).tokenize();
+
+        // Same tokens apart from the start/stop indexes, which the buffer keeps as byte offsets
+        for (int i = 0; i < expected.size(); i++) {
+            Token token = expected.get(i);
+            if (token.getType() != actual.getType(i) || !token.getText().equals(actual.getText(i))
+                    || token.getLine() != actual.getLine(i) || token.getCharPositionInLine() != actual.getColumn(i)) {
+                throw new IllegalStateException("Token " + i + " differs: " + token + " vs. " + actual.getToken(i));
+            }
+        }
+    }
+
+    static void checkParallelLexer(Path source) throws Exception {
+        byte[] corpus = Files.readAllBytes(source);
+
+        // Edge cases separated by comments that span many lines, so small chunks start inside them
+        StringBuilder tricky = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            tricky.append(LEXER_EDGE_CASES[i % LEXER_EDGE_CASES.length]).append('\n');
+            tricky.append(i % 3 == 0 ? "(* x\n (* \"y\n *)\n -- z\n*) w\n" : "x <- \"s -- t\";\n");
+        }
+        byte[] edgeCases = tricky.toString().getBytes(StandardCharsets.UTF_8);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int chunkBytes : new int[]{7, 16, 61, 256}) {
+                compareTokenBuffers(edgeCases, ParallelScanner.tokenize(new CoolScanner(edgeCases, ""), pool, chunkBytes));
+            }
+            compareTokenBuffers(corpus, ParallelScanner.tokenize(new CoolScanner(corpus, ""), pool, 4096));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void compareTokenBuffers(byte[] source, TokenBuffer actual) {
+        TokenBuffer expected = new CoolScanner(source, "").tokenize();
+        for (int i = 0; i < Math.max(expected.size(), actual.size()); i++) {
+            if (i >= expected.size() || i >= actual.size() || expected.getType(i) != actual.getType(i)
+                    || expected.getStart(i) != actual.getStart(i) || expected.getStop(i) != actual.getStop(i)
+                    || expected.getLine(i) != actual.getLine(i) || expected.getColumn(i) != actual.getColumn(i)) {
+                throw new IllegalStateException("Chunked lexing differs at token " + i + ": "
+                        + (i < expected.size() ? expected.getToken(i) : "none") + " vs. "
+                        + (i < actual.size() ? actual.getToken(i) : "none"));
+            }
+        }
+    }
+
+    static void checkParallelParse(Path source) throws Exception {
+        CommonTokenStream tokens = new CommonTokenStream(new CoolLexer(CharStreams.fromPath(source)));
+        tokens.fill();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            String expected = parseWithASTBuilder(tokens).toString();
+            if (!expected.equals(new ParallelParser(tokens, false).parse(pool, 1).toString())
+                    || !expected.equals(new ParallelParser(tokens, true).parse(pool, 1).toString())) {
+                throw new IllegalStateException("ParallelParser built a different AST");
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    static void checkUnbuffered(Path source) throws Exception {
+        // The mapped stream must decode and index exactly like CharStreams, ASCII or not
+        Path edgeCases = Files.createTempFile("cool-check-edge", ".cool");
+        Files.write(edgeCases, String.join("\n", LEXER_EDGE_CASES).getBytes(StandardCharsets.UTF_8));
+        try {
+            for (Path path : List.of(source, edgeCases)) {
+                TokenSource expected = new CoolLexer(CharStreams.fromPath(path));
+                TokenSource actual = new CoolLexer(MappedCharStream.open(path));
+                for (Token token = expected.nextToken(); ; token = expected.nextToken()) {
+                    Token other = actual.nextToken();
+                    if (!describe(token).equals(describe(other))) {
+                        throw new IllegalStateException("MappedCharStream differs: " + describe(token) + " vs. " + describe(other));
+                    }
+                    if (token.getType() == Token.EOF) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            Files.delete(edgeCases);
+        }
+
+        CommonTokenStream tokens = new CommonTokenStream(new CoolLexer(CharStreams.fromPath(source)));
+        String expectedAST = new DirectParser(tokens).parseProgram().toString();
+        TokenStream streamed = new UnbufferedTokenStream<>(new CoolLexer(MappedCharStream.open(source)));
+        if (!expectedAST.equals(new DirectParser(streamed).parseProgram().toString())) {
+            throw new IllegalStateException("Unbuffered parsing built a different AST");
+        }
+    }
+
+    static void checkLazyBodies(Path source) throws Exception {
+        CommonTokenStream tokens = new CommonTokenStream(new CoolLexer(CharStreams.fromPath(source)));
+        tokens.fill();
+        List<String> errors = new ArrayList<>();
+        String eager = parseDirect(tokens).toString();
+        tokens.seek(0);
+        DirectParser parser = new DirectParser(tokens);
+        parser.setLazyBodies(errors);
+
+        // toString() parses every deferred body
+        if (!eager.equals(parser.parseProgram().toString()) || !errors.isEmpty()) {
+            throw new IllegalStateException("Lazy bodies built a different AST " + errors);
+        }
+
+        // A body's syntax error is still reported when the declaration passes stop the analysis
+        Path broken = Files.createTempFile("cool-check-lazy", ".cool");
+        Files.write(broken, "class Main inherits Nope {\n  main() : Object {\n    x <- ;\n  };\n};\n".getBytes());
+        try {
+            List<String> expected = compileErrors(broken, "--direct");
+            List<String> actual = compileErrors(broken, "--lazy-bodies");
+            if (!expected.equals(actual)) {
+                throw new IllegalStateException("Lazy bodies report " + actual + " instead of " + expected);
+            }
+        } finally {
+            Files.delete(broken);
+        }
+    }
+
+    private static List<String> compileErrors(Path source, String... options) throws Exception {
+        CompilationUnit unit = new CompilationUnit(source, CompilerOptions.parse(options));
+        unit.compile();
+        return unit.getErrors();
+    }
+
+    static void checkDFACache(Path source) throws Exception {
+        Path cache = Files.createTempFile("cool-check", ".dfa");
+        try {
+            clearDFAs();
+            String expected = parseFromFile(source).toString();
+            int states = DFACache.stateCount();
+            DFACache.save(cache);
+
+            clearDFAs();
+            if (!DFACache.load(cache) || DFACache.stateCount() != states
+                    || !expected.equals(parseFromFile(source).toString())) {
+                throw new IllegalStateException("Parsing with the loaded DFA cache differs");
+            }
+        } finally {
+            Files.delete(cache);
+        }
+    }
+
+    /**
+     * Empty the lexer and parser DFAs, as in a new process: clearDFA() replaces the entries of
+     * the static DFA arrays
+     */
+    static void clearDFAs() {
+        new CoolLexer(null).getInterpreter().clearDFA();
+        new CoolParser(null).getInterpreter().clearDFA();
+    }
+
+    /**
+     * Lex and parse a file with CoolLexer, CoolParser and ASTBuilder, as the default pipeline does
+     */
+    static ProgramNode parseFromFile(Path source) throws Exception {
+        CommonTokenStream tokens = new CommonTokenStream(new CoolLexer(CharStreams.fromPath(source)));
+        tokens.fill();
+        return parseWithASTBuilder(tokens);
+    }
+
+    private static final String[] EDIT_SNIPPETS = {
+            "x", "1", " ", "\n", "\n\n", "{", "}", ";", "(", ")", "(*", "*)", "\"", "--", "<-", "+ 2",
+            "x <- 1;", "y : Int;", "class D inherits C0 { };\n", "\n  g() : Int { 3 };\n"
+    };
+
+    static void checkIncremental(Path source) throws Exception {
+        byte[] corpus = Files.readAllBytes(source);
+        String name = source.toString();
+
+        // Random edits, each followed by its undo so the text keeps coming back to a valid program
+        java.util.Random random = new java.util.Random(7);
+        IncrementalParser incremental = new IncrementalParser(name);
+        incremental.parse(corpus);
+        byte[] text = corpus;
+        for (int i = 0; i < 400; i++) {
+            int at = random.nextInt(text.length + 1);
+            byte[] edited;
+            if (random.nextInt(3) == 0) {
+                edited = splice(text, at, Math.min(text.length, at + 1 + random.nextInt(12)), new byte[0]);
+            } else {
+                byte[] snippet = EDIT_SNIPPETS[random.nextInt(EDIT_SNIPPETS.length)].getBytes(StandardCharsets.UTF_8);
+                edited = splice(text, at, at, snippet);
+            }
+            compareIncremental(incremental, edited, name);
+            compareIncremental(incremental, text, name);
+        }
+    }
+
+    /**
+     * text with [from, to) replaced by replacement
+     */
+    static byte[] splice(byte[] text, int from, int to, byte[] replacement) {
+        byte[] result = new byte[text.length - (to - from) + replacement.length];
+        System.arraycopy(text, 0, result, 0, from);
+        System.arraycopy(replacement, 0, result, from, replacement.length);
+        System.arraycopy(text, to, result, from + replacement.length, text.length - to);
+        return result;
+    }
+
+    private static void compareIncremental(IncrementalParser incremental, byte[] text, String name) {
+        incremental.update(text);
+        compareTokenBuffers(text, incremental.getTokens());
+
+        List<String> errors = new ArrayList<>();
+        TokenBufferStream tokens = new TokenBufferStream(new CoolScanner(text, name).tokenize(), name);
+        ProgramNode expected = new DirectParser(tokens).parseProgram(errors);
+        if (!describeTree(expected).equals(describeTree(incremental.getAST()))
+                || !errors.equals(incremental.getErrors())) {
+            throw new IllegalStateException("Incremental parsing differs after an edit: "
+                    + errors + " vs. " + incremental.getErrors());
+        }
+    }
+
+    // The AST with the position of every node
+    private static String describeTree(ASTNode tree) {
+        if (tree == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(tree.toString());
+        NodeWalker.forEach(tree, node ->
+                sb.append(' ').append(node.getLine()).append(':').append(node.getColumn()));
+        return sb.toString();
+    }
+
+    static void checkBinaryAST(Path source) throws Exception {
+        // Cached ASTs carry the types semantic analysis attached
+        ProgramNode program = parseText(Files.readAllBytes(source));
+        new SemanticAnalyzer().analyze(program);
+        Path file = Files.createTempFile("cool-check", ".ast");
+        try {
+            BinaryAST.write(program, new byte[0], file);
+            ProgramNode reloaded = BinaryAST.open(file).readProgram();
+            if (!describeTree(program).equals(describeTree(reloaded)) || !typedDot(program).equals(typedDot(reloaded))) {
+                throw new IllegalStateException("BinaryAST reloaded a different AST");
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    static void checkHashCons(Path source) throws Exception {
+        CommonTokenStream tokens = new CommonTokenStream(new CoolLexer(CharStreams.fromPath(source)));
+        ParseTree tree = new CoolParser(tokens).program();
+        ProgramNode expected = (ProgramNode) new ASTBuilder().visit(tree);
+        ASTBuilder builder = new ASTBuilder();
+        builder.setExpressionInterner(new ExpressionInterner());
+        ProgramNode actual = (ProgramNode) builder.visit(tree);
+
+        // Sharing must not change the text, the types or the generated code
+        if (!expected.toString().equals(actual.toString())) {
+            throw new IllegalStateException("Hash-consed AST prints differently");
+        }
+        SemanticAnalyzer expectedCheck = new SemanticAnalyzer();
+        SemanticAnalyzer actualCheck = new SemanticAnalyzer();
+        expectedCheck.analyze(expected);
+        actualCheck.analyze(actual);
+        if (!expectedCheck.getErrors().equals(actualCheck.getErrors()) || !typedDot(expected).equals(typedDot(actual))
+                || !new IRGenerator().generate(expected).equals(new IRGenerator().generate(actual))) {
+            throw new IllegalStateException("Hash-consed AST type checks or generates IR differently");
+        }
+    }
+
+    // Typed DOT graph with whole labels, which shows every node's text and type
+    private static String typedDot(ProgramNode program) throws IOException {
+        StringWriter out = new StringWriter();
+        DotWriter dot = new DotWriter(out);
+        dot.setTyped(true);
+        dot.setLabelLimit(Integer.MAX_VALUE);
+        dot.write(program, "TypedAST");
+        return out.toString();
+    }
+
+    static void checkHierarchy(int depth) {
+        java.util.Random random = new java.util.Random(7);
+        SemanticAnalyzer analyzer = new SemanticAnalyzer();
+        analyzer.analyze(parseText(hierarchyProgram(depth, 0)));
+        EnhancedSymbolTable table = analyzer.getSymbolTable();
+        List<EnhancedSymbolTable.ClassInfo> classes = table.getClasses();
+        ClassHierarchy hierarchy = table.getHierarchy();
+        for (int i = 0; i < 100000; i++) {
+            Type a = classes.get(random.nextInt(classes.size())).type;
+            Type b = classes.get(random.nextInt(classes.size())).type;
+            if (hierarchy.conformsTo(a, b) != conformsByWalk(table, a, b)
+                    || hierarchy.leastCommonAncestor(a, b) != lcaByWalk(table, a, b)) {
+                throw new IllegalStateException("ClassHierarchy disagrees on " + a + " and " + b);
+            }
+        }
+    }
+
+    /**
+     * A chain of classes D0 <- D1 <- ... plus unrelated classes, and a class whose method picks
+     * between attributes typed at the chain's top, middle and bottom with if expressions
+     */
+    static String hierarchyProgram(int depth, int padding) {
+        StringBuilder sb = new StringBuilder("class D0 {\n}\n");
+        for (int i = 1; i < depth; i++) {
+            sb.append("class D").append(i).append(" inherits D").append(i - 1).append(" {\n}\n");
+        }
+        for (int i = 0; i < padding; i++) {
+            sb.append("class P").append(i).append(" {\n}\n");
+        }
+        sb.append("class Main {\n");
+        sb.append("  top : D0;\n  mid : D").append(depth / 2).append(";\n  low : D").append(depth - 1).append(";\n");
+        sb.append("  pick(b : Bool) : D0 {\n");
+        for (int i = 0; i < 2000; i++) {
+            sb.append("    if b then low else ").append(i % 2 == 0 ? "mid" : "top").append(" fi;\n");
+        }
+        sb.append("  };\n}\n");
+        return sb.toString();
+    }
+
+    /**
+     * conformsTo as EnhancedSymbolTable had it before ClassHierarchy: walk typeA's parent chain
+     */
+    static boolean conformsByWalk(EnhancedSymbolTable table, Type typeA, Type typeB) {
+        for (EnhancedSymbolTable.ClassInfo c = table.getClassInfo(typeA); c != null; c = table.getClassInfo(c.parentName)) {
+            if (c.type == typeB) {
+                return true;
+            }
+        }
+        return typeA == typeB;
+    }
+
+    /**
+     * leastCommonAncestor as EnhancedSymbolTable had it before ClassHierarchy
+     */
+    static Type lcaByWalk(EnhancedSymbolTable table, Type type1, Type type2) {
+        SymbolMap ancestors = new SymbolMap();
+        for (EnhancedSymbolTable.ClassInfo c = table.getClassInfo(type1); c != null; c = table.getClassInfo(c.parentName)) {
+            ancestors.put(c.type.getId(), 0);
+        }
+        for (EnhancedSymbolTable.ClassInfo c = table.getClassInfo(type2); c != null; c = table.getClassInfo(c.parentName)) {
+            if (ancestors.containsKey(c.type.getId())) {
+                return c.type;
+            }
+        }
+        return Type.OBJECT;
+    }
+
+    static void checkDot(Path source, int terms) throws Exception {
+        for (ProgramNode program : dotPrograms(source, terms)) {
+            long nodes = CompilerMetrics.countASTNodes(program);
+
+            // Drawn nodes plus the counts on collapsed ones must cover the whole tree
+            for (int[] limits : new int[][] {{Integer.MAX_VALUE, Integer.MAX_VALUE}, {4, Integer.MAX_VALUE}, {Integer.MAX_VALUE, 100}}) {
+                StringWriter out = new StringWriter();
+                DotWriter dot = new DotWriter(out);
+                dot.setMaxDepth(limits[0]);
+                dot.setMaxNodes(limits[1]);
+                dot.write(program, "AST");
+                long collapsed = 0;
+                Matcher m = Pattern.compile("\\((\\d+) nodes?\\)\", style=dashed").matcher(out.toString());
+                while (m.find()) {
+                    collapsed += Long.parseLong(m.group(1));
+                }
+                if (dot.getNodesWritten() + collapsed != nodes) {
+                    throw new IllegalStateException("DOT graph with limits " + limits[0] + "/" + limits[1] + " covers "
+                            + (dot.getNodesWritten() + collapsed) + " of " + nodes + " nodes");
+                }
+            }
+        }
+    }
+
+    /**
+     * The corpus, and a class with one method whose body is a sum of terms terms: a left-deep
+     * tree as tall as it has terms
+     */
+    static List<ProgramNode> dotPrograms(Path source, int terms) throws Exception {
+        StringBuilder chain = new StringBuilder("class Chain {\n  sum() : Int {\n    1");
+        for (int i = 1; i < terms; i++) {
+            chain.append(" + ").append(i % 10);
+        }
+        chain.append(";\n  };\n}\n");
+
+        List<ProgramNode> programs = new ArrayList<>();
+        for (byte[] text : List.of(Files.readAllBytes(source), chain.toString().getBytes())) {
+            programs.add(parseText(text));
+        }
+        return programs;
+    }
+
+    static void checkSemantic(Path source) throws Exception {
+        SemanticAnalyzer check = new SemanticAnalyzer();
+        check.analyze(parseFromFile(source));
+        if (check.hasErrors()) {
+            throw new IllegalStateException("Corpus does not type check: " + check.getErrors().get(0));
+        }
+    }
+
+    // Precedence and associativity corners, next to the generated statements
+    static final String EXPRESSION_EDGE_CASES = "!a + b; !a <- 3; a <- b <- c; a + b <- c; a += b * c; "
+            + "a < b < c; a - b - c; a * b + c * d; a || b && c; f(a <- 1, !b) * 2; ((a)); !!(a - 1) / 2;";
+
+    static void checkExpressions(int count) {
+        String program = new CorpusGenerator(7).generateExpressions(count) + EXPRESSION_EDGE_CASES;
+        CommonTokenStream tokens = new CommonTokenStream(new CoolLexer(CharStreams.fromString(program)));
+        tokens.fill();
+
+        List<ExpressionNode> generated = parseWithGrammar(tokens);
+        List<ExpressionNode> climbed = parseWithPrecedenceClimbing(tokens);
+        for (int i = 0; i < generated.size(); i++) {
+            if (!describeTree(generated.get(i)).equals(describeTree(climbed.get(i)))) {
+                throw new IllegalStateException("Parsers disagree on statement " + i + ": "
+                        + generated.get(i) + " vs. " + climbed.get(i));
+            }
+        }
+    }
+
+    /**
+     * The semicolon-terminated expression statements of tokens, parsed with CoolParser.expr()
+     */
+    static List<ExpressionNode> parseWithGrammar(CommonTokenStream tokens) {
+        tokens.seek(0);
+        CoolParser parser = new CoolParser(tokens);
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        parser.setErrorHandler(new BailErrorStrategy());
+        ASTBuilder builder = new ASTBuilder();
+
+        List<ExpressionNode> expressions = new ArrayList<>();
+        while (tokens.LA(1) != Token.EOF) {
+            expressions.add((ExpressionNode) builder.visit(parser.expr()));
+            tokens.consume(); // ';
+        }
+        return expressions;
+    }
+
+    /**
+     * The same statements parsed with ExpressionParser
+     */
+    static List<ExpressionNode> parseWithPrecedenceClimbing(CommonTokenStream tokens) {
+        tokens.seek(0);
+        ExpressionParser parser = new ExpressionParser(tokens);
+
+        List<ExpressionNode> expressions = new ArrayList<>();
+        while (tokens.LA(1) != Token.EOF) {
+            expressions.add(parser.parseExpression());
+            parser.match(CoolLexer.SEMI, "';'");
+        }
+        return expressions;
+    }
+
+    /**
+     * Parse filled tokens from the start with CoolParser's two-stage parse and ASTBuilder
+     */
+    static ProgramNode parseWithASTBuilder(CommonTokenStream tokens) {
+        tokens.seek(0);
+        SyntaxErrorListener errorListener = new SyntaxErrorListener(new ArrayList<>());
+        return (ProgramNode) new ASTBuilder().visit(CompilationUnit.parseProgram(new CoolParser(tokens), tokens, errorListener));
+    }
+
+    /**
+     * Parse filled tokens from the start with DirectParser
+     */
+    static ProgramNode parseDirect(CommonTokenStream tokens) {
+        tokens.seek(0);
+        return new DirectParser(tokens).parseProgram();
+    }
+
+    /**
+     * Lex source with CoolScanner and parse it with DirectParser
+     */
+    static ProgramNode parseText(byte[] source) {
+        return new DirectParser(new TokenBufferStream(new CoolScanner(source, "").tokenize(), "")).parseProgram();
+    }
+
+    static ProgramNode parseText(String source) {
+        return parseText(source.getBytes(StandardCharsets.UTF_8));
+    }
+}
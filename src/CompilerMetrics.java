@@ -0,0 +1,167 @@
+import ast.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-phase instrumentation: wall time, CPU time and bytes allocated by the compiling thread,
+ * plus output sizes (token count, AST nodes, IR lines, ...). Rendered as a JSON report.
+ *
+ * A disabled instance hands out a no-op phase, so callers can instrument unconditionally.
+ */
+public class CompilerMetrics {
+    public static final CompilerMetrics DISABLED = new CompilerMetrics(false);
+    private static final Phase NO_OP_PHASE = DISABLED.new Phase("disabled");
+
+    private boolean enabled;
+    private List<Phase> phases;
+    private com.sun.management.ThreadMXBean threadBean;
+
+    public CompilerMetrics(boolean enabled) {
+        this.enabled = enabled;
+        this.phases = new ArrayList<>();
+        this.threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<Phase> getPhases() {
+        return phases;
+    }
+
+    /**
+     * Start measuring a phase; call stop() on the result when the phase is done
+     */
+    public Phase start(String name) {
+        if (!enabled) {
+            return NO_OP_PHASE;
+        }
+
+        Phase phase = new Phase(name);
+        phases.add(phase);
+        phase.startWall = System.nanoTime();
+        phase.startCpu = threadBean.getCurrentThreadCpuTime();
+        phase.startAllocated = threadBean.getCurrentThreadAllocatedBytes();
+        return phase;
+    }
+
+    public class Phase {
+        private String name;
+        private long startWall;
+        private long startCpu;
+        private long startAllocated;
+
+        private long wallNanos;
+        private long cpuNanos;
+        private long allocatedBytes;
+        private Map<String, Long> sizes;
+
+        Phase(String name) {
+            this.name = name;
+            this.sizes = new LinkedHashMap<>();
+        }
+
+        public void stop() {
+            if (!enabled) {
+                return;
+            }
+            wallNanos = System.nanoTime() - startWall;
+            cpuNanos = threadBean.getCurrentThreadCpuTime() - startCpu;
+            allocatedBytes = threadBean.getCurrentThreadAllocatedBytes() - startAllocated;
+        }
+
+        /**
+         * Attach an output size to the phase, e.g. record("tokens", 1200)
+         */
+        public void record(String key, long value) {
+            if (enabled) {
+                sizes.put(key, value);
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getWallNanos() {
+            return wallNanos;
+        }
+
+        public long getCpuNanos() {
+            return cpuNanos;
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        public Map<String, Long> getSizes() {
+            return sizes;
+        }
+    }
+
+    /**
+     * Render the report as JSON, phases in the order they ran
+     */
+    public String toJson(String source) {
+        long totalWall = 0;
+        long totalCpu = 0;
+        long totalAllocated = 0;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n");
+        sb.append("  \"source\": \"").append(escapeJson(source)).append("\",\n");
+        sb.append("  \"phases\": [\n");
+
+        for (int i = 0; i < phases.size(); i++) {
+            Phase phase = phases.get(i);
+            totalWall += phase.wallNanos;
+            totalCpu += phase.cpuNanos;
+            totalAllocated += phase.allocatedBytes;
+
+            sb.append("    {\"name\": \"").append(escapeJson(phase.name)).append("\"")
+                    .append(", \"wallNanos\": ").append(phase.wallNanos)
+                    .append(", \"cpuNanos\": ").append(phase.cpuNanos)
+                    .append(", \"allocatedBytes\": ").append(phase.allocatedBytes)
+                    .append(", \"sizes\": {");
+
+            int n = 0;
+            for (Map.Entry<String, Long> entry : phase.sizes.entrySet()) {
+                if (n++ > 0) sb.append(", ");
+                sb.append("\"").append(escapeJson(entry.getKey())).append("\": ").append(entry.getValue());
+            }
+
+            sb.append("}}").append(i < phases.size() - 1 ? ",\n" : "\n");
+        }
+
+        sb.append("  ],\n");
+        sb.append("  \"total\": {\"wallNanos\": ").append(totalWall)
+                .append(", \"cpuNanos\": ").append(totalCpu)
+                .append(", \"allocatedBytes\": ").append(totalAllocated).append("}\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    public void writeJson(Path file, String source) throws IOException {
+        Files.write(file, toJson(source).getBytes());
+    }
+
+    private static String escapeJson(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Count the nodes of an AST (classes, features, formals and expressions)
+     */
+    public static long countASTNodes(ASTNode node) {
+        return NodeWalker.count(node);
+    }
+}
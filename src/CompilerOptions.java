@@ -0,0 +1,318 @@
+/**
+ * Command line options for Main. Every diagnostic artifact is off by default, so a plain
+ * run only compiles and writes output.tac, optimized.tac and output.s.
+ */
+public class CompilerOptions {
+    private String inputFile = "src/test.cool";
+    private String artifactDir = ".";
+    private String metricsFile;
+    private String dfaCacheFile;
+    private String parserProfileFile;
+    private String astCacheDir;
+    private int dotMaxDepth = Integer.MAX_VALUE;
+    private int dotMaxNodes = Integer.MAX_VALUE;
+
+    private boolean printTokens;
+    private boolean printParseTree;
+    private boolean showParseTreeGui;
+    private boolean printSymbolTables;
+    private boolean printLegacySymbolTables;
+    private boolean printAST;
+    private boolean writeASTDot;
+    private boolean writeTypedASTDot;
+    private boolean printCode;
+    private boolean verbose;
+    private boolean directAST;
+    private boolean fastLexer;
+    private boolean unbuffered;
+    private boolean lazyBodies;
+    private boolean shareSubtrees;
+
+    public static CompilerOptions parse(String[] args) {
+        CompilerOptions options = new CompilerOptions();
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--tokens": options.printTokens = true; break;
+                case "--parse-tree": options.printParseTree = true; break;
+                case "--gui": options.showParseTreeGui = true; break;
+                case "--symbols": options.printSymbolTables = true; break;
+                case "--legacy-symbols": options.printLegacySymbolTables = true; break;
+                case "--ast": options.printAST = true; break;
+                case "--ast-dot": options.writeASTDot = true; break;
+                case "--typed-dot": options.writeTypedASTDot = true; break;
+                case "--print-code": options.printCode = true; break;
+                case "--direct": options.directAST = true; break;
+                case "--fast-lexer": options.fastLexer = true; break;
+                case "--share-subtrees": options.shareSubtrees = true; break;
+                case "--unbuffered":
+                    // Only DirectParser can parse without seeking back to the start
+                    options.unbuffered = true;
+                    options.directAST = true;
+                    break;
+                case "--lazy-bodies":
+                    // Deferred bodies are parsed by DirectParser
+                    options.lazyBodies = true;
+                    options.directAST = true;
+                    break;
+                case "--artifact-dir":
+                    if (i + 1 >= args.length) {
+                        throw new IllegalArgumentException("--artifact-dir needs a directory\n" + usage());
+                    }
+                    options.artifactDir = args[++i];
+                    break;
+                case "--metrics":
+                    if (i + 1 >= args.length) {
+                        throw new IllegalArgumentException("--metrics needs a file name\n" + usage());
+                    }
+                    options.metricsFile = args[++i];
+                    break;
+                case "--dfa-cache":
+                    if (i + 1 >= args.length) {
+                        throw new IllegalArgumentException("--dfa-cache needs a file name\n" + usage());
+                    }
+                    options.dfaCacheFile = args[++i];
+                    break;
+                case "--parser-profile":
+                    if (i + 1 >= args.length) {
+                        throw new IllegalArgumentException("--parser-profile needs a file name\n" + usage());
+                    }
+                    options.parserProfileFile = args[++i];
+                    break;
+                case "--ast-cache":
+                    if (i + 1 >= args.length) {
+                        throw new IllegalArgumentException("--ast-cache needs a directory\n" + usage());
+                    }
+                    options.astCacheDir = args[++i];
+                    break;
+                case "--dot-max-depth":
+                    options.dotMaxDepth = intArgument(args, ++i, arg);
+                    break;
+                case "--dot-max-nodes":
+                    options.dotMaxNodes = intArgument(args, ++i, arg);
+                    break;
+                case "--verbose":
+                    // Everything the original single-file driver produced
+                    options.verbose = true;
+                    options.printTokens = true;
+                    options.printParseTree = true;
+                    options.showParseTreeGui = true;
+                    options.printSymbolTables = true;
+                    options.printLegacySymbolTables = true;
+                    options.printAST = true;
+                    options.writeASTDot = true;
+                    options.writeTypedASTDot = true;
+                    options.printCode = true;
+                    break;
+                default:
+                    if (arg.startsWith("--")) {
+                        throw new IllegalArgumentException("Unknown option " + arg + "\n" + usage());
+                    }
+                    options.inputFile = arg;
+            }
+        }
+
+        return options;
+    }
+
+    // The positive number following option
+    private static int intArgument(String[] args, int i, String option) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException(option + " needs a number\n" + usage());
+        }
+        try {
+            int value = Integer.parseInt(args[i]);
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException(option + " needs a positive number, not " + args[i] + "\n" + usage());
+    }
+
+    public static String usage() {
+        return "Usage: java Main [options] [file.cool]\n" +
+                "  --tokens      print every token (PA1)\n" +
+                "  --parse-tree  print the parse tree (PA2)\n" +
+                "  --gui         open the parse tree inspector window\n" +
+                "  --symbols     print the symbol tables\n" +
+                "  --legacy-symbols  also run the listener and visitor symbol passes and print their tables\n" +
+                "  --ast         print the AST (PA3)\n" +
+                "  --ast-dot     write ast.dot\n" +
+                "  --typed-dot   write typed_ast.dot\n" +
+                "  --print-code  print the IR, optimized IR and assembly\n" +
+                "  --verbose     all of the above plus phase headers\n" +
+                "  --direct      build the AST while parsing, without an ANTLR parse tree\n" +
+                "                (--parse-tree, --gui and --legacy-symbols then have nothing to show)\n" +
+                "  --share-subtrees  build one shared node for identical subexpressions within a method\n" +
+                "                (ExpressionInterner; not with --direct)\n" +
+                "  --fast-lexer  tokenize with the hand-written CoolScanner instead of CoolLexer\n" +
+                "  --unbuffered  memory-map the source and lex on demand while parsing, keeping only the\n" +
+                "                parser's lookahead in memory (implies --direct; --tokens shows nothing)\n" +
+                "  --lazy-bodies skip method bodies while parsing and parse each one when a later pass\n" +
+                "                first reads it (implies --direct; ignored with --unbuffered)\n" +
+                "  --artifact-dir <dir>  where ast.dot and typed_ast.dot are written (default .)\n" +
+                "  --ast-cache <dir>     keep the AST of every compiled source in dir, keyed by the source text\n" +
+                "                        and the lexer and parser, and load it from there instead of lexing\n" +
+                "                        and parsing an unchanged source with the same front end (not with\n" +
+                "                        --tokens, --parse-tree, --gui, --legacy-symbols or --parser-profile)\n" +
+                "  --dot-max-depth <n>   in ast.dot and typed_ast.dot, draw subtrees deeper than n as one\n" +
+                "                        node with their node count\n" +
+                "  --dot-max-nodes <n>   draw at most n AST nodes there and summarize the rest the same way\n" +
+                "  --metrics <file>      write per-phase time, allocation and size metrics as JSON\n" +
+                "  --dfa-cache <file>    load the lexer and parser prediction DFAs from file before compiling\n" +
+                "                        and save them back afterwards\n" +
+                "  --parser-profile <file>  profile CoolParser's decisions, print them as a table and write\n" +
+                "                        them to file as JSON (not with --direct)";
+    }
+
+    public String getInputFile() {
+        return inputFile;
+    }
+
+    public String getArtifactDir() {
+        return artifactDir;
+    }
+
+    /**
+     * File for the JSON metrics report, or null when metrics are off
+     */
+    public String getMetricsFile() {
+        return metricsFile;
+    }
+
+    /**
+     * File the lexer and parser DFAs are preloaded from and saved to, or null
+     */
+    public String getDfaCacheFile() {
+        return dfaCacheFile;
+    }
+
+    /**
+     * File for the JSON parser decision profile, or null when profiling is off
+     */
+    public String getParserProfileFile() {
+        return parserProfileFile;
+    }
+
+    public String getASTCacheDir() {
+        return astCacheDir;
+    }
+
+    /**
+     * Whether to look for a cached AST; the front-end dumps need the real tokens and parse
+     */
+    public boolean useASTCache() {
+        return astCacheDir != null && !printTokens && !printParseTree && !showParseTreeGui
+                && !printLegacySymbolTables && !profileParser();
+    }
+
+    public int getDotMaxDepth() {
+        return dotMaxDepth;
+    }
+
+    public int getDotMaxNodes() {
+        return dotMaxNodes;
+    }
+
+    /**
+     * Whether CoolParser runs with profiling on; DirectParser has no grammar decisions to profile
+     */
+    public boolean profileParser() {
+        return parserProfileFile != null && !directAST;
+    }
+
+    public boolean printTokens() {
+        return printTokens;
+    }
+
+    public boolean printParseTree() {
+        return printParseTree;
+    }
+
+    public boolean showParseTreeGui() {
+        return showParseTreeGui;
+    }
+
+    public boolean printSymbolTables() {
+        return printSymbolTables;
+    }
+
+    public boolean printLegacySymbolTables() {
+        return printLegacySymbolTables;
+    }
+
+    public boolean printAST() {
+        return printAST;
+    }
+
+    public boolean writeASTDot() {
+        return writeASTDot;
+    }
+
+    public boolean writeTypedASTDot() {
+        return writeTypedASTDot;
+    }
+
+    public boolean printCode() {
+        return printCode;
+    }
+
+    /**
+     * Parse with DirectParser instead of CoolParser + ASTBuilder
+     */
+    public boolean directAST() {
+        return directAST;
+    }
+
+    /**
+     * The lexer and parser that turn the source into an AST, e.g. "CoolScanner/DirectParser"
+     */
+    public String frontEnd() {
+        String lexer = fastLexer && !unbuffered ? "CoolScanner" : "CoolLexer";
+        return lexer + "/" + (directAST ? "DirectParser" : "CoolParser");
+    }
+
+    /**
+     * Tokenize with CoolScanner instead of the generated CoolLexer
+     */
+    public boolean fastLexer() {
+        return fastLexer;
+    }
+
+    /**
+     * Read the source through MappedCharStream and an UnbufferedTokenStream
+     */
+    public boolean unbuffered() {
+        return unbuffered;
+    }
+
+    /**
+     * Parse method bodies on first use instead of during the parse
+     */
+    public boolean lazyBodies() {
+        return lazyBodies && !unbuffered;
+    }
+
+    /**
+     * Hash-cons identical subexpressions while ASTBuilder builds the AST
+     */
+    public boolean shareSubtrees() {
+        return shareSubtrees && !directAST;
+    }
+
+    public boolean isVerbose() {
+        return verbose;
+    }
+
+    /**
+     * Options with every diagnostic enabled except the GUI window, used by the benchmarks
+     */
+    public static CompilerOptions allDiagnostics(String artifactDir) {
+        CompilerOptions options = parse(new String[]{"--verbose", "--artifact-dir", artifactDir});
+        options.showParseTreeGui = false;
+        return options;
+    }
+}
@@ -25,14 +25,10 @@ public class CoolParser extends Parser {
 		WS=45, ERROR=46;
 	public static final int
 		RULE_program = 0, RULE_classDef = 1, RULE_feature = 2, RULE_formal = 3, 
-		RULE_statement = 4, RULE_expr = 5, RULE_assignExpr = 6, RULE_logicalExpr = 7, 
-		RULE_comparisonExpr = 8, RULE_additiveExpr = 9, RULE_multiplicativeExpr = 10, 
-		RULE_unaryExpr = 11, RULE_primaryExpr = 12;
+		RULE_statement = 4, RULE_expr = 5;
 	private static String[] makeRuleNames() {
 		return new String[] {
-			"program", "classDef", "feature", "formal", "statement", "expr", "assignExpr", 
-			"logicalExpr", "comparisonExpr", "additiveExpr", "multiplicativeExpr", 
-			"unaryExpr", "primaryExpr"
+			"program", "classDef", "feature", "formal", "statement", "expr"
 		};
 	}
 	public static final String[] ruleNames = makeRuleNames();
@@ -142,21 +138,21 @@ public class CoolParser extends Parser {
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(27); 
+			setState(13); 
 			_errHandler.sync(this);
 			_la = _input.LA(1);
 			do {
 				{
 				{
-				setState(26);
+				setState(12);
 				classDef();
 				}
 				}
-				setState(29); 
+				setState(15); 
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 			} while ( _la==CLASS );
-			setState(31);
+			setState(17);
 			match(EOF);
 			}
 		}
@@ -220,58 +216,58 @@ public class CoolParser extends Parser {
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(33);
+			setState(19);
 			match(CLASS);
-			setState(34);
+			setState(20);
 			match(ID);
-			setState(37);
+			setState(23);
 			_errHandler.sync(this);
 			_la = _input.LA(1);
 			if (_la==INHERITS) {
 				{
-				setState(35);
+				setState(21);
 				match(INHERITS);
-				setState(36);
+				setState(22);
 				match(ID);
 				}
 			}
 
-			setState(39);
+			setState(25);
 			match(LBRACE);
-			setState(44);
+			setState(30);
 			_errHandler.sync(this);
 			_la = _input.LA(1);
 			while ((((_la) & ~0x3f) == 0 && ((1L << _la) & 7700943472196L) != 0)) {
 				{
-				setState(42);
+				setState(28);
 				_errHandler.sync(this);
 				switch ( getInterpreter().adaptivePredict(_input,2,_ctx) ) {
 				case 1:
 					{
-					setState(40);
+					setState(26);
 					feature();
 					}
 					break;
 				case 2:
 					{
-					setState(41);
+					setState(27);
 					statement();
 					}
 					break;
 				}
 				}
-				setState(46);
+				setState(32);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 			}
-			setState(47);
+			setState(33);
 			match(RBRACE);
-			setState(49);
+			setState(35);
 			_errHandler.sync(this);
 			_la = _input.LA(1);
 			if (_la==SEMI) {
 				{
-				setState(48);
+				setState(34);
 				match(SEMI);
 				}
 			}
@@ -345,92 +341,92 @@ public class CoolParser extends Parser {
 		enterRule(_localctx, 4, RULE_feature);
 		int _la;
 		try {
-			setState(83);
+			setState(69);
 			_errHandler.sync(this);
 			switch ( getInterpreter().adaptivePredict(_input,9,_ctx) ) {
 			case 1:
 				enterOuterAlt(_localctx, 1);
 				{
-				setState(51);
+				setState(37);
 				match(ID);
-				setState(52);
+				setState(38);
 				match(COLON);
-				setState(53);
+				setState(39);
 				match(ID);
-				setState(56);
+				setState(42);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 				if (_la==ASSIGN) {
 					{
-					setState(54);
+					setState(40);
 					match(ASSIGN);
-					setState(55);
-					expr();
+					setState(41);
+					expr(0);
 					}
 				}
 
-				setState(58);
+				setState(44);
 				match(SEMI);
 				}
 				break;
 			case 2:
 				enterOuterAlt(_localctx, 2);
 				{
-				setState(59);
+				setState(45);
 				match(ID);
-				setState(60);
+				setState(46);
 				match(LPAREN);
-				setState(69);
+				setState(55);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 				if (_la==ID) {
 					{
-					setState(61);
+					setState(47);
 					formal();
-					setState(66);
+					setState(52);
 					_errHandler.sync(this);
 					_la = _input.LA(1);
 					while (_la==COMMA) {
 						{
 						{
-						setState(62);
+						setState(48);
 						match(COMMA);
-						setState(63);
+						setState(49);
 						formal();
 						}
 						}
-						setState(68);
+						setState(54);
 						_errHandler.sync(this);
 						_la = _input.LA(1);
 					}
 					}
 				}
 
-				setState(71);
+				setState(57);
 				match(RPAREN);
-				setState(72);
+				setState(58);
 				match(COLON);
-				setState(73);
+				setState(59);
 				match(ID);
-				setState(74);
+				setState(60);
 				match(LBRACE);
-				setState(78);
+				setState(64);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 				while ((((_la) & ~0x3f) == 0 && ((1L << _la) & 7700943472196L) != 0)) {
 					{
 					{
-					setState(75);
+					setState(61);
 					statement();
 					}
 					}
-					setState(80);
+					setState(66);
 					_errHandler.sync(this);
 					_la = _input.LA(1);
 				}
-				setState(81);
+				setState(67);
 				match(RBRACE);
-				setState(82);
+				setState(68);
 				match(SEMI);
 				}
 				break;
@@ -479,11 +475,11 @@ public class CoolParser extends Parser {
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(85);
+			setState(71);
 			match(ID);
-			setState(86);
+			setState(72);
 			match(COLON);
-			setState(87);
+			setState(73);
 			match(ID);
 			}
 		}
@@ -543,54 +539,54 @@ public class CoolParser extends Parser {
 		enterRule(_localctx, 8, RULE_statement);
 		int _la;
 		try {
-			setState(113);
+			setState(99);
 			_errHandler.sync(this);
 			switch ( getInterpreter().adaptivePredict(_input,11,_ctx) ) {
 			case 1:
 				enterOuterAlt(_localctx, 1);
 				{
-				setState(89);
-				expr();
-				setState(90);
+				setState(75);
+				expr(0);
+				setState(76);
 				match(SEMI);
 				}
 				break;
 			case 2:
 				enterOuterAlt(_localctx, 2);
 				{
-				setState(92);
+				setState(78);
 				match(ID);
-				setState(93);
+				setState(79);
 				match(ASSIGN);
-				setState(94);
-				expr();
-				setState(95);
+				setState(80);
+				expr(0);
+				setState(81);
 				match(SEMI);
 				}
 				break;
 			case 3:
 				enterOuterAlt(_localctx, 3);
 				{
-				setState(97);
+				setState(83);
 				match(IF);
-				setState(98);
-				expr();
-				setState(99);
+				setState(84);
+				expr(0);
+				setState(85);
 				match(THEN);
-				setState(100);
-				expr();
-				setState(101);
+				setState(86);
+				expr(0);
+				setState(87);
 				match(ELSE);
-				setState(102);
-				expr();
-				setState(103);
+				setState(88);
+				expr(0);
+				setState(89);
 				match(FI);
-				setState(105);
+				setState(91);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 				if (_la==SEMI) {
 					{
-					setState(104);
+					setState(90);
 					match(SEMI);
 					}
 				}
@@ -600,15 +596,15 @@ public class CoolParser extends Parser {
 			case 4:
 				enterOuterAlt(_localctx, 4);
 				{
-				setState(107);
+				setState(93);
 				match(WHILE);
-				setState(108);
-				expr();
-				setState(109);
+				setState(94);
+				expr(0);
+				setState(95);
 				match(LOOP);
-				setState(110);
+				setState(96);
 				statement();
-				setState(111);
+				setState(97);
 				match(POOL);
 				}
 				break;
@@ -627,638 +623,430 @@ public class CoolParser extends Parser {
 
 	@SuppressWarnings("CheckReturnValue")
 	public static class ExprContext extends ParserRuleContext {
-		public AssignExprContext assignExpr() {
-			return getRuleContext(AssignExprContext.class,0);
-		}
 		public ExprContext(ParserRuleContext parent, int invokingState) {
 			super(parent, invokingState);
 		}
 		@Override public int getRuleIndex() { return RULE_expr; }
-		@Override
-		public void enterRule(ParseTreeListener listener) {
-			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).enterExpr(this);
-		}
-		@Override
-		public void exitRule(ParseTreeListener listener) {
-			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).exitExpr(this);
-		}
-		@Override
-		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
-			if ( visitor instanceof CoolParserVisitor ) return ((CoolParserVisitor<? extends T>)visitor).visitExpr(this);
-			else return visitor.visitChildren(this);
+	 
+		public ExprContext() { }
+		public void copyFrom(ExprContext ctx) {
+			super.copyFrom(ctx);
 		}
 	}
-
-	public final ExprContext expr() throws RecognitionException {
-		ExprContext _localctx = new ExprContext(_ctx, getState());
-		enterRule(_localctx, 10, RULE_expr);
-		try {
-			enterOuterAlt(_localctx, 1);
-			{
-			setState(115);
-			assignExpr();
-			}
-		}
-		catch (RecognitionException re) {
-			_localctx.exception = re;
-			_errHandler.reportError(this, re);
-			_errHandler.recover(this, re);
-		}
-		finally {
-			exitRule();
-		}
-		return _localctx;
-	}
-
 	@SuppressWarnings("CheckReturnValue")
-	public static class AssignExprContext extends ParserRuleContext {
-		public LogicalExprContext logicalExpr() {
-			return getRuleContext(LogicalExprContext.class,0);
-		}
-		public AssignExprContext assignExpr() {
-			return getRuleContext(AssignExprContext.class,0);
-		}
-		public TerminalNode ASSIGN() { return getToken(CoolParser.ASSIGN, 0); }
-		public TerminalNode PLUSASSIGN() { return getToken(CoolParser.PLUSASSIGN, 0); }
-		public TerminalNode MINUSASSIGN() { return getToken(CoolParser.MINUSASSIGN, 0); }
-		public TerminalNode MULTASSIGN() { return getToken(CoolParser.MULTASSIGN, 0); }
-		public TerminalNode DIVASSIGN() { return getToken(CoolParser.DIVASSIGN, 0); }
-		public AssignExprContext(ParserRuleContext parent, int invokingState) {
-			super(parent, invokingState);
+	public static class UnaryExprContext extends ExprContext {
+		public TerminalNode NOT() { return getToken(CoolParser.NOT, 0); }
+		public ExprContext expr() {
+			return getRuleContext(ExprContext.class,0);
 		}
-		@Override public int getRuleIndex() { return RULE_assignExpr; }
+		public UnaryExprContext(ExprContext ctx) { copyFrom(ctx); }
 		@Override
 		public void enterRule(ParseTreeListener listener) {
-			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).enterAssignExpr(this);
+			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).enterUnaryExpr(this);
 		}
 		@Override
 		public void exitRule(ParseTreeListener listener) {
-			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).exitAssignExpr(this);
+			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).exitUnaryExpr(this);
 		}
 		@Override
 		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
-			if ( visitor instanceof CoolParserVisitor ) return ((CoolParserVisitor<? extends T>)visitor).visitAssignExpr(this);
+			if ( visitor instanceof CoolParserVisitor ) return ((CoolParserVisitor<? extends T>)visitor).visitUnaryExpr(this);
 			else return visitor.visitChildren(this);
 		}
 	}
-
-	public final AssignExprContext assignExpr() throws RecognitionException {
-		AssignExprContext _localctx = new AssignExprContext(_ctx, getState());
-		enterRule(_localctx, 12, RULE_assignExpr);
-		int _la;
-		try {
-			setState(122);
-			_errHandler.sync(this);
-			switch ( getInterpreter().adaptivePredict(_input,12,_ctx) ) {
-			case 1:
-				enterOuterAlt(_localctx, 1);
-				{
-				setState(117);
-				logicalExpr();
-				setState(118);
-				_la = _input.LA(1);
-				if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & 4160749568L) != 0)) ) {
-				_errHandler.recoverInline(this);
-				}
-				else {
-					if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
-					_errHandler.reportMatch(this);
-					consume();
-				}
-				setState(119);
-				assignExpr();
-				}
-				break;
-			case 2:
-				enterOuterAlt(_localctx, 2);
-				{
-				setState(121);
-				logicalExpr();
-				}
-				break;
-			}
-		}
-		catch (RecognitionException re) {
-			_localctx.exception = re;
-			_errHandler.reportError(this, re);
-			_errHandler.recover(this, re);
-		}
-		finally {
-			exitRule();
-		}
-		return _localctx;
-	}
-
 	@SuppressWarnings("CheckReturnValue")
-	public static class LogicalExprContext extends ParserRuleContext {
-		public List<ComparisonExprContext> comparisonExpr() {
-			return getRuleContexts(ComparisonExprContext.class);
-		}
-		public ComparisonExprContext comparisonExpr(int i) {
-			return getRuleContext(ComparisonExprContext.class,i);
-		}
-		public TerminalNode AND() { return getToken(CoolParser.AND, 0); }
-		public TerminalNode OR() { return getToken(CoolParser.OR, 0); }
-		public LogicalExprContext(ParserRuleContext parent, int invokingState) {
-			super(parent, invokingState);
-		}
-		@Override public int getRuleIndex() { return RULE_logicalExpr; }
+	public static class LiteralExprContext extends ExprContext {
+		public TerminalNode INT() { return getToken(CoolParser.INT, 0); }
+		public TerminalNode STRING() { return getToken(CoolParser.STRING, 0); }
+		public TerminalNode TRUE() { return getToken(CoolParser.TRUE, 0); }
+		public TerminalNode FALSE() { return getToken(CoolParser.FALSE, 0); }
+		public LiteralExprContext(ExprContext ctx) { copyFrom(ctx); }
 		@Override
 		public void enterRule(ParseTreeListener listener) {
-			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).enterLogicalExpr(this);
+			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).enterLiteralExpr(this);
 		}
 		@Override
 		public void exitRule(ParseTreeListener listener) {
-			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).exitLogicalExpr(this);
+			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).exitLiteralExpr(this);
 		}
 		@Override
 		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
-			if ( visitor instanceof CoolParserVisitor ) return ((CoolParserVisitor<? extends T>)visitor).visitLogicalExpr(this);
+			if ( visitor instanceof CoolParserVisitor ) return ((CoolParserVisitor<? extends T>)visitor).visitLiteralExpr(this);
 			else return visitor.visitChildren(this);
 		}
 	}
-
-	public final LogicalExprContext logicalExpr() throws RecognitionException {
-		LogicalExprContext _localctx = new LogicalExprContext(_ctx, getState());
-		enterRule(_localctx, 14, RULE_logicalExpr);
-		int _la;
-		try {
-			setState(129);
-			_errHandler.sync(this);
-			switch ( getInterpreter().adaptivePredict(_input,13,_ctx) ) {
-			case 1:
-				enterOuterAlt(_localctx, 1);
-				{
-				setState(124);
-				comparisonExpr();
-				setState(125);
-				_la = _input.LA(1);
-				if ( !(_la==AND || _la==OR) ) {
-				_errHandler.recoverInline(this);
-				}
-				else {
-					if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
-					_errHandler.reportMatch(this);
-					consume();
-				}
-				setState(126);
-				comparisonExpr();
-				}
-				break;
-			case 2:
-				enterOuterAlt(_localctx, 2);
-				{
-				setState(128);
-				comparisonExpr();
-				}
-				break;
-			}
-		}
-		catch (RecognitionException re) {
-			_localctx.exception = re;
-			_errHandler.reportError(this, re);
-			_errHandler.recover(this, re);
-		}
-		finally {
-			exitRule();
-		}
-		return _localctx;
-	}
-
 	@SuppressWarnings("CheckReturnValue")
-	public static class ComparisonExprContext extends ParserRuleContext {
-		public List<AdditiveExprContext> additiveExpr() {
-			return getRuleContexts(AdditiveExprContext.class);
+	public static class BinaryExprContext extends ExprContext {
+		public Token op;
+		public List<ExprContext> expr() {
+			return getRuleContexts(ExprContext.class);
 		}
-		public AdditiveExprContext additiveExpr(int i) {
-			return getRuleContext(AdditiveExprContext.class,i);
+		public ExprContext expr(int i) {
+			return getRuleContext(ExprContext.class,i);
 		}
+		public TerminalNode MULT() { return getToken(CoolParser.MULT, 0); }
+		public TerminalNode DIV() { return getToken(CoolParser.DIV, 0); }
+		public TerminalNode MOD() { return getToken(CoolParser.MOD, 0); }
+		public TerminalNode PLUS() { return getToken(CoolParser.PLUS, 0); }
+		public TerminalNode MINUS() { return getToken(CoolParser.MINUS, 0); }
 		public TerminalNode LT() { return getToken(CoolParser.LT, 0); }
 		public TerminalNode LE() { return getToken(CoolParser.LE, 0); }
 		public TerminalNode GT() { return getToken(CoolParser.GT, 0); }
 		public TerminalNode GE() { return getToken(CoolParser.GE, 0); }
 		public TerminalNode EQUAL() { return getToken(CoolParser.EQUAL, 0); }
 		public TerminalNode NE() { return getToken(CoolParser.NE, 0); }
-		public ComparisonExprContext(ParserRuleContext parent, int invokingState) {
-			super(parent, invokingState);
-		}
-		@Override public int getRuleIndex() { return RULE_comparisonExpr; }
+		public TerminalNode AND() { return getToken(CoolParser.AND, 0); }
+		public TerminalNode OR() { return getToken(CoolParser.OR, 0); }
+		public BinaryExprContext(ExprContext ctx) { copyFrom(ctx); }
 		@Override
 		public void enterRule(ParseTreeListener listener) {
-			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).enterComparisonExpr(this);
+			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).enterBinaryExpr(this);
 		}
 		@Override
 		public void exitRule(ParseTreeListener listener) {
-			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).exitComparisonExpr(this);
+			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).exitBinaryExpr(this);
 		}
 		@Override
 		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
-			if ( visitor instanceof CoolParserVisitor ) return ((CoolParserVisitor<? extends T>)visitor).visitComparisonExpr(this);
+			if ( visitor instanceof CoolParserVisitor ) return ((CoolParserVisitor<? extends T>)visitor).visitBinaryExpr(this);
 			else return visitor.visitChildren(this);
 		}
 	}
-
-	public final ComparisonExprContext comparisonExpr() throws RecognitionException {
-		ComparisonExprContext _localctx = new ComparisonExprContext(_ctx, getState());
-		enterRule(_localctx, 16, RULE_comparisonExpr);
-		int _la;
-		try {
-			setState(136);
-			_errHandler.sync(this);
-			switch ( getInterpreter().adaptivePredict(_input,14,_ctx) ) {
-			case 1:
-				enterOuterAlt(_localctx, 1);
-				{
-				setState(131);
-				additiveExpr();
-				setState(132);
-				_la = _input.LA(1);
-				if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & 16515072L) != 0)) ) {
-				_errHandler.recoverInline(this);
-				}
-				else {
-					if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
-					_errHandler.reportMatch(this);
-					consume();
-				}
-				setState(133);
-				additiveExpr();
-				}
-				break;
-			case 2:
-				enterOuterAlt(_localctx, 2);
-				{
-				setState(135);
-				additiveExpr();
-				}
-				break;
-			}
-		}
-		catch (RecognitionException re) {
-			_localctx.exception = re;
-			_errHandler.reportError(this, re);
-			_errHandler.recover(this, re);
-		}
-		finally {
-			exitRule();
-		}
-		return _localctx;
-	}
-
 	@SuppressWarnings("CheckReturnValue")
-	public static class AdditiveExprContext extends ParserRuleContext {
-		public List<MultiplicativeExprContext> multiplicativeExpr() {
-			return getRuleContexts(MultiplicativeExprContext.class);
+	public static class CallExprContext extends ExprContext {
+		public TerminalNode ID() { return getToken(CoolParser.ID, 0); }
+		public TerminalNode LPAREN() { return getToken(CoolParser.LPAREN, 0); }
+		public TerminalNode RPAREN() { return getToken(CoolParser.RPAREN, 0); }
+		public List<ExprContext> expr() {
+			return getRuleContexts(ExprContext.class);
 		}
-		public MultiplicativeExprContext multiplicativeExpr(int i) {
-			return getRuleContext(MultiplicativeExprContext.class,i);
+		public ExprContext expr(int i) {
+			return getRuleContext(ExprContext.class,i);
 		}
-		public TerminalNode PLUS() { return getToken(CoolParser.PLUS, 0); }
-		public TerminalNode MINUS() { return getToken(CoolParser.MINUS, 0); }
-		public AdditiveExprContext(ParserRuleContext parent, int invokingState) {
-			super(parent, invokingState);
+		public List<TerminalNode> COMMA() { return getTokens(CoolParser.COMMA); }
+		public TerminalNode COMMA(int i) {
+			return getToken(CoolParser.COMMA, i);
 		}
-		@Override public int getRuleIndex() { return RULE_additiveExpr; }
+		public CallExprContext(ExprContext ctx) { copyFrom(ctx); }
 		@Override
 		public void enterRule(ParseTreeListener listener) {
-			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).enterAdditiveExpr(this);
+			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).enterCallExpr(this);
 		}
 		@Override
 		public void exitRule(ParseTreeListener listener) {
-			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).exitAdditiveExpr(this);
+			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).exitCallExpr(this);
 		}
 		@Override
 		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
-			if ( visitor instanceof CoolParserVisitor ) return ((CoolParserVisitor<? extends T>)visitor).visitAdditiveExpr(this);
+			if ( visitor instanceof CoolParserVisitor ) return ((CoolParserVisitor<? extends T>)visitor).visitCallExpr(this);
 			else return visitor.visitChildren(this);
 		}
 	}
-
-	public final AdditiveExprContext additiveExpr() throws RecognitionException {
-		AdditiveExprContext _localctx = new AdditiveExprContext(_ctx, getState());
-		enterRule(_localctx, 18, RULE_additiveExpr);
-		int _la;
-		try {
-			setState(143);
-			_errHandler.sync(this);
-			switch ( getInterpreter().adaptivePredict(_input,15,_ctx) ) {
-			case 1:
-				enterOuterAlt(_localctx, 1);
-				{
-				setState(138);
-				multiplicativeExpr();
-				setState(139);
-				_la = _input.LA(1);
-				if ( !(_la==PLUS || _la==MINUS) ) {
-				_errHandler.recoverInline(this);
-				}
-				else {
-					if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
-					_errHandler.reportMatch(this);
-					consume();
-				}
-				setState(140);
-				multiplicativeExpr();
-				}
-				break;
-			case 2:
-				enterOuterAlt(_localctx, 2);
-				{
-				setState(142);
-				multiplicativeExpr();
-				}
-				break;
-			}
-		}
-		catch (RecognitionException re) {
-			_localctx.exception = re;
-			_errHandler.reportError(this, re);
-			_errHandler.recover(this, re);
-		}
-		finally {
-			exitRule();
-		}
-		return _localctx;
-	}
-
 	@SuppressWarnings("CheckReturnValue")
-	public static class MultiplicativeExprContext extends ParserRuleContext {
-		public List<UnaryExprContext> unaryExpr() {
-			return getRuleContexts(UnaryExprContext.class);
-		}
-		public UnaryExprContext unaryExpr(int i) {
-			return getRuleContext(UnaryExprContext.class,i);
+	public static class AssignExprContext extends ExprContext {
+		public Token op;
+		public List<ExprContext> expr() {
+			return getRuleContexts(ExprContext.class);
 		}
-		public TerminalNode MULT() { return getToken(CoolParser.MULT, 0); }
-		public TerminalNode DIV() { return getToken(CoolParser.DIV, 0); }
-		public TerminalNode MOD() { return getToken(CoolParser.MOD, 0); }
-		public MultiplicativeExprContext(ParserRuleContext parent, int invokingState) {
-			super(parent, invokingState);
+		public ExprContext expr(int i) {
+			return getRuleContext(ExprContext.class,i);
 		}
-		@Override public int getRuleIndex() { return RULE_multiplicativeExpr; }
+		public TerminalNode ASSIGN() { return getToken(CoolParser.ASSIGN, 0); }
+		public TerminalNode PLUSASSIGN() { return getToken(CoolParser.PLUSASSIGN, 0); }
+		public TerminalNode MINUSASSIGN() { return getToken(CoolParser.MINUSASSIGN, 0); }
+		public TerminalNode MULTASSIGN() { return getToken(CoolParser.MULTASSIGN, 0); }
+		public TerminalNode DIVASSIGN() { return getToken(CoolParser.DIVASSIGN, 0); }
+		public AssignExprContext(ExprContext ctx) { copyFrom(ctx); }
 		@Override
 		public void enterRule(ParseTreeListener listener) {
-			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).enterMultiplicativeExpr(this);
+			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).enterAssignExpr(this);
 		}
 		@Override
 		public void exitRule(ParseTreeListener listener) {
-			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).exitMultiplicativeExpr(this);
+			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).exitAssignExpr(this);
 		}
 		@Override
 		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
-			if ( visitor instanceof CoolParserVisitor ) return ((CoolParserVisitor<? extends T>)visitor).visitMultiplicativeExpr(this);
+			if ( visitor instanceof CoolParserVisitor ) return ((CoolParserVisitor<? extends T>)visitor).visitAssignExpr(this);
 			else return visitor.visitChildren(this);
 		}
 	}
-
-	public final MultiplicativeExprContext multiplicativeExpr() throws RecognitionException {
-		MultiplicativeExprContext _localctx = new MultiplicativeExprContext(_ctx, getState());
-		enterRule(_localctx, 20, RULE_multiplicativeExpr);
-		int _la;
-		try {
-			setState(150);
-			_errHandler.sync(this);
-			switch ( getInterpreter().adaptivePredict(_input,16,_ctx) ) {
-			case 1:
-				enterOuterAlt(_localctx, 1);
-				{
-				setState(145);
-				unaryExpr();
-				setState(146);
-				_la = _input.LA(1);
-				if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & 229376L) != 0)) ) {
-				_errHandler.recoverInline(this);
-				}
-				else {
-					if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
-					_errHandler.reportMatch(this);
-					consume();
-				}
-				setState(147);
-				unaryExpr();
-				}
-				break;
-			case 2:
-				enterOuterAlt(_localctx, 2);
-				{
-				setState(149);
-				unaryExpr();
-				}
-				break;
-			}
-		}
-		catch (RecognitionException re) {
-			_localctx.exception = re;
-			_errHandler.reportError(this, re);
-			_errHandler.recover(this, re);
-		}
-		finally {
-			exitRule();
-		}
-		return _localctx;
-	}
-
 	@SuppressWarnings("CheckReturnValue")
-	public static class UnaryExprContext extends ParserRuleContext {
-		public TerminalNode NOT() { return getToken(CoolParser.NOT, 0); }
-		public UnaryExprContext unaryExpr() {
-			return getRuleContext(UnaryExprContext.class,0);
-		}
-		public PrimaryExprContext primaryExpr() {
-			return getRuleContext(PrimaryExprContext.class,0);
-		}
-		public UnaryExprContext(ParserRuleContext parent, int invokingState) {
-			super(parent, invokingState);
+	public static class ParenExprContext extends ExprContext {
+		public TerminalNode LPAREN() { return getToken(CoolParser.LPAREN, 0); }
+		public ExprContext expr() {
+			return getRuleContext(ExprContext.class,0);
 		}
-		@Override public int getRuleIndex() { return RULE_unaryExpr; }
+		public TerminalNode RPAREN() { return getToken(CoolParser.RPAREN, 0); }
+		public ParenExprContext(ExprContext ctx) { copyFrom(ctx); }
 		@Override
 		public void enterRule(ParseTreeListener listener) {
-			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).enterUnaryExpr(this);
+			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).enterParenExpr(this);
 		}
 		@Override
 		public void exitRule(ParseTreeListener listener) {
-			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).exitUnaryExpr(this);
+			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).exitParenExpr(this);
 		}
 		@Override
 		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
-			if ( visitor instanceof CoolParserVisitor ) return ((CoolParserVisitor<? extends T>)visitor).visitUnaryExpr(this);
+			if ( visitor instanceof CoolParserVisitor ) return ((CoolParserVisitor<? extends T>)visitor).visitParenExpr(this);
 			else return visitor.visitChildren(this);
 		}
 	}
-
-	public final UnaryExprContext unaryExpr() throws RecognitionException {
-		UnaryExprContext _localctx = new UnaryExprContext(_ctx, getState());
-		enterRule(_localctx, 22, RULE_unaryExpr);
-		try {
-			setState(155);
-			_errHandler.sync(this);
-			switch (_input.LA(1)) {
-			case NOT:
-				enterOuterAlt(_localctx, 1);
-				{
-				setState(152);
-				match(NOT);
-				setState(153);
-				unaryExpr();
-				}
-				break;
-			case TRUE:
-			case FALSE:
-			case LPAREN:
-			case ID:
-			case INT:
-			case STRING:
-				enterOuterAlt(_localctx, 2);
-				{
-				setState(154);
-				primaryExpr();
-				}
-				break;
-			default:
-				throw new NoViableAltException(this);
-			}
-		}
-		catch (RecognitionException re) {
-			_localctx.exception = re;
-			_errHandler.reportError(this, re);
-			_errHandler.recover(this, re);
-		}
-		finally {
-			exitRule();
-		}
-		return _localctx;
-	}
-
 	@SuppressWarnings("CheckReturnValue")
-	public static class PrimaryExprContext extends ParserRuleContext {
-		public TerminalNode LPAREN() { return getToken(CoolParser.LPAREN, 0); }
-		public List<ExprContext> expr() {
-			return getRuleContexts(ExprContext.class);
-		}
-		public ExprContext expr(int i) {
-			return getRuleContext(ExprContext.class,i);
-		}
-		public TerminalNode RPAREN() { return getToken(CoolParser.RPAREN, 0); }
+	public static class IdExprContext extends ExprContext {
 		public TerminalNode ID() { return getToken(CoolParser.ID, 0); }
-		public List<TerminalNode> COMMA() { return getTokens(CoolParser.COMMA); }
-		public TerminalNode COMMA(int i) {
-			return getToken(CoolParser.COMMA, i);
-		}
-		public TerminalNode INT() { return getToken(CoolParser.INT, 0); }
-		public TerminalNode STRING() { return getToken(CoolParser.STRING, 0); }
-		public TerminalNode TRUE() { return getToken(CoolParser.TRUE, 0); }
-		public TerminalNode FALSE() { return getToken(CoolParser.FALSE, 0); }
-		public PrimaryExprContext(ParserRuleContext parent, int invokingState) {
-			super(parent, invokingState);
-		}
-		@Override public int getRuleIndex() { return RULE_primaryExpr; }
+		public IdExprContext(ExprContext ctx) { copyFrom(ctx); }
 		@Override
 		public void enterRule(ParseTreeListener listener) {
-			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).enterPrimaryExpr(this);
+			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).enterIdExpr(this);
 		}
 		@Override
 		public void exitRule(ParseTreeListener listener) {
-			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).exitPrimaryExpr(this);
+			if ( listener instanceof CoolParserListener ) ((CoolParserListener)listener).exitIdExpr(this);
 		}
 		@Override
 		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
-			if ( visitor instanceof CoolParserVisitor ) return ((CoolParserVisitor<? extends T>)visitor).visitPrimaryExpr(this);
+			if ( visitor instanceof CoolParserVisitor ) return ((CoolParserVisitor<? extends T>)visitor).visitIdExpr(this);
 			else return visitor.visitChildren(this);
 		}
 	}
 
-	public final PrimaryExprContext primaryExpr() throws RecognitionException {
-		PrimaryExprContext _localctx = new PrimaryExprContext(_ctx, getState());
-		enterRule(_localctx, 24, RULE_primaryExpr);
+	public final ExprContext expr() throws RecognitionException {
+		return expr(0);
+	}
+
+	private ExprContext expr(int _p) throws RecognitionException {
+		ParserRuleContext _parentctx = _ctx;
+		int _parentState = getState();
+		ExprContext _localctx = new ExprContext(_ctx, _parentState);
+		ExprContext _prevctx = _localctx;
+		int _startState = 10;
+		enterRecursionRule(_localctx, 10, RULE_expr, _p);
 		int _la;
 		try {
-			setState(179);
+			int _alt;
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(123);
 			_errHandler.sync(this);
-			switch ( getInterpreter().adaptivePredict(_input,20,_ctx) ) {
+			switch ( getInterpreter().adaptivePredict(_input,14,_ctx) ) {
 			case 1:
-				enterOuterAlt(_localctx, 1);
 				{
-				setState(157);
+				_localctx = new UnaryExprContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+
+				setState(102);
+				match(NOT);
+				setState(103);
+				expr(10);
+				}
+				break;
+			case 2:
+				{
+				_localctx = new ParenExprContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(104);
 				match(LPAREN);
-				setState(158);
-				expr();
-				setState(159);
+				setState(105);
+				expr(0);
+				setState(106);
 				match(RPAREN);
 				}
 				break;
-			case 2:
-				enterOuterAlt(_localctx, 2);
+			case 3:
 				{
-				setState(161);
+				_localctx = new CallExprContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(108);
 				match(ID);
-				setState(162);
+				setState(109);
 				match(LPAREN);
-				setState(171);
+				setState(118);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 				if ((((_la) & ~0x3f) == 0 && ((1L << _la) & 7700943472128L) != 0)) {
 					{
-					setState(163);
-					expr();
-					setState(168);
+					setState(110);
+					expr(0);
+					setState(115);
 					_errHandler.sync(this);
 					_la = _input.LA(1);
 					while (_la==COMMA) {
 						{
 						{
-						setState(164);
+						setState(111);
 						match(COMMA);
-						setState(165);
-						expr();
+						setState(112);
+						expr(0);
 						}
 						}
-						setState(170);
+						setState(117);
 						_errHandler.sync(this);
 						_la = _input.LA(1);
 					}
 					}
 				}
 
-				setState(173);
+				setState(120);
 				match(RPAREN);
 				}
 				break;
-			case 3:
-				enterOuterAlt(_localctx, 3);
-				{
-				setState(174);
-				match(ID);
-				}
-				break;
 			case 4:
-				enterOuterAlt(_localctx, 4);
 				{
-				setState(175);
-				match(INT);
+				_localctx = new IdExprContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(121);
+				match(ID);
 				}
 				break;
 			case 5:
-				enterOuterAlt(_localctx, 5);
 				{
-				setState(176);
-				match(STRING);
+				_localctx = new LiteralExprContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(122);
+				_la = _input.LA(1);
+				if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & 6597069768192L) != 0)) ) {
+				_errHandler.recoverInline(this);
 				}
-				break;
-			case 6:
-				enterOuterAlt(_localctx, 6);
-				{
-				setState(177);
-				match(TRUE);
+				else {
+					if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
+					_errHandler.reportMatch(this);
+					consume();
 				}
-				break;
-			case 7:
-				enterOuterAlt(_localctx, 7);
-				{
-				setState(178);
-				match(FALSE);
 				}
 				break;
 			}
+			_ctx.stop = _input.LT(-1);
+			setState(142);
+			_errHandler.sync(this);
+			_alt = getInterpreter().adaptivePredict(_input,16,_ctx);
+			while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
+				if ( _alt==1 ) {
+					if ( _parseListeners!=null ) triggerExitRuleEvent();
+					_prevctx = _localctx;
+					{
+					setState(140);
+					_errHandler.sync(this);
+					switch ( getInterpreter().adaptivePredict(_input,15,_ctx) ) {
+					case 1:
+						{
+						_localctx = new BinaryExprContext(new ExprContext(_parentctx, _parentState));
+						pushNewRecursionContext(_localctx, _startState, RULE_expr);
+						setState(125);
+						if (!(precpred(_ctx, 9))) throw new FailedPredicateException(this, "precpred(_ctx, 9)");
+						setState(126);
+						((BinaryExprContext)_localctx).op = _input.LT(1);
+						_la = _input.LA(1);
+						if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & 229376L) != 0)) ) {
+							((BinaryExprContext)_localctx).op = (Token)_errHandler.recoverInline(this);
+						}
+						else {
+							if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
+							_errHandler.reportMatch(this);
+							consume();
+						}
+						setState(127);
+						expr(10);
+						}
+						break;
+					case 2:
+						{
+						_localctx = new BinaryExprContext(new ExprContext(_parentctx, _parentState));
+						pushNewRecursionContext(_localctx, _startState, RULE_expr);
+						setState(128);
+						if (!(precpred(_ctx, 8))) throw new FailedPredicateException(this, "precpred(_ctx, 8)");
+						setState(129);
+						((BinaryExprContext)_localctx).op = _input.LT(1);
+						_la = _input.LA(1);
+						if ( !(_la==PLUS || _la==MINUS) ) {
+							((BinaryExprContext)_localctx).op = (Token)_errHandler.recoverInline(this);
+						}
+						else {
+							if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
+							_errHandler.reportMatch(this);
+							consume();
+						}
+						setState(130);
+						expr(9);
+						}
+						break;
+					case 3:
+						{
+						_localctx = new BinaryExprContext(new ExprContext(_parentctx, _parentState));
+						pushNewRecursionContext(_localctx, _startState, RULE_expr);
+						setState(131);
+						if (!(precpred(_ctx, 7))) throw new FailedPredicateException(this, "precpred(_ctx, 7)");
+						setState(132);
+						((BinaryExprContext)_localctx).op = _input.LT(1);
+						_la = _input.LA(1);
+						if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & 16515072L) != 0)) ) {
+							((BinaryExprContext)_localctx).op = (Token)_errHandler.recoverInline(this);
+						}
+						else {
+							if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
+							_errHandler.reportMatch(this);
+							consume();
+						}
+						setState(133);
+						expr(8);
+						}
+						break;
+					case 4:
+						{
+						_localctx = new BinaryExprContext(new ExprContext(_parentctx, _parentState));
+						pushNewRecursionContext(_localctx, _startState, RULE_expr);
+						setState(134);
+						if (!(precpred(_ctx, 6))) throw new FailedPredicateException(this, "precpred(_ctx, 6)");
+						setState(135);
+						((BinaryExprContext)_localctx).op = _input.LT(1);
+						_la = _input.LA(1);
+						if ( !(_la==AND || _la==OR) ) {
+							((BinaryExprContext)_localctx).op = (Token)_errHandler.recoverInline(this);
+						}
+						else {
+							if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
+							_errHandler.reportMatch(this);
+							consume();
+						}
+						setState(136);
+						expr(7);
+						}
+						break;
+					case 5:
+						{
+						_localctx = new AssignExprContext(new ExprContext(_parentctx, _parentState));
+						pushNewRecursionContext(_localctx, _startState, RULE_expr);
+						setState(137);
+						if (!(precpred(_ctx, 5))) throw new FailedPredicateException(this, "precpred(_ctx, 5)");
+						setState(138);
+						((AssignExprContext)_localctx).op = _input.LT(1);
+						_la = _input.LA(1);
+						if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & 4160749568L) != 0)) ) {
+							((AssignExprContext)_localctx).op = (Token)_errHandler.recoverInline(this);
+						}
+						else {
+							if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
+							_errHandler.reportMatch(this);
+							consume();
+						}
+						setState(139);
+						expr(5);
+						}
+						break;
+					}
+					} 
+				}
+				setState(144);
+				_errHandler.sync(this);
+				_alt = getInterpreter().adaptivePredict(_input,16,_ctx);
+			}
+			}
 		}
 		catch (RecognitionException re) {
 			_localctx.exception = re;
@@ -1266,123 +1054,125 @@ public class CoolParser extends Parser {
 			_errHandler.recover(this, re);
 		}
 		finally {
-			exitRule();
+			unrollRecursionContexts(_parentctx);
 		}
 		return _localctx;
 	}
 
+	public boolean sempred(RuleContext _localctx, int ruleIndex, int predIndex) {
+		switch (ruleIndex) {
+		case 5:
+			return expr_sempred((ExprContext)_localctx, predIndex);
+		}
+		return true;
+	}
+	private boolean expr_sempred(ExprContext _localctx, int predIndex) {
+		switch (predIndex) {
+		case 0:
+			return precpred(_ctx, 9);
+		case 1:
+			return precpred(_ctx, 8);
+		case 2:
+			return precpred(_ctx, 7);
+		case 3:
+			return precpred(_ctx, 6);
+		case 4:
+			return precpred(_ctx, 5);
+		}
+		return true;
+	}
+
 	public static final String _serializedATN =
-		"\u0004\u0001.\u00b6\u0002\u0000\u0007\u0000\u0002\u0001\u0007\u0001\u0002"+
+		"\u0004\u0001.\u0092\u0002\u0000\u0007\u0000\u0002\u0001\u0007\u0001\u0002"+
 		"\u0002\u0007\u0002\u0002\u0003\u0007\u0003\u0002\u0004\u0007\u0004\u0002"+
-		"\u0005\u0007\u0005\u0002\u0006\u0007\u0006\u0002\u0007\u0007\u0007\u0002"+
-		"\b\u0007\b\u0002\t\u0007\t\u0002\n\u0007\n\u0002\u000b\u0007\u000b\u0002"+
-		"\f\u0007\f\u0001\u0000\u0004\u0000\u001c\b\u0000\u000b\u0000\f\u0000\u001d"+
-		"\u0001\u0000\u0001\u0000\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
-		"\u0003\u0001&\b\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0005\u0001"+
-		"+\b\u0001\n\u0001\f\u0001.\t\u0001\u0001\u0001\u0001\u0001\u0003\u0001"+
-		"2\b\u0001\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002"+
-		"\u0003\u00029\b\u0002\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002"+
-		"\u0001\u0002\u0001\u0002\u0005\u0002A\b\u0002\n\u0002\f\u0002D\t\u0002"+
-		"\u0003\u0002F\b\u0002\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002"+
-		"\u0001\u0002\u0005\u0002M\b\u0002\n\u0002\f\u0002P\t\u0002\u0001\u0002"+
-		"\u0001\u0002\u0003\u0002T\b\u0002\u0001\u0003\u0001\u0003\u0001\u0003"+
-		"\u0001\u0003\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004"+
+		"\u0005\u0007\u0005\u0001\u0000\u0004\u0000\u000e\b\u0000\u000b\u0000\f"+
+		"\u0000\u000f\u0001\u0000\u0001\u0000\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0003\u0001\u0018\b\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0005\u0001\u001d\b\u0001\n\u0001\f\u0001 \t\u0001\u0001\u0001\u0001"+
+		"\u0001\u0003\u0001$\b\u0001\u0001\u0002\u0001\u0002\u0001\u0002\u0001"+
+		"\u0002\u0001\u0002\u0003\u0002+\b\u0002\u0001\u0002\u0001\u0002\u0001"+
+		"\u0002\u0001\u0002\u0001\u0002\u0001\u0002\u0005\u00023\b\u0002\n\u0002"+
+		"\f\u00026\t\u0002\u0003\u00028\b\u0002\u0001\u0002\u0001\u0002\u0001\u0002"+
+		"\u0001\u0002\u0001\u0002\u0005\u0002?\b\u0002\n\u0002\f\u0002B\t\u0002"+
+		"\u0001\u0002\u0001\u0002\u0003\u0002F\b\u0002\u0001\u0003\u0001\u0003"+
+		"\u0001\u0003\u0001\u0003\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004"+
+		"\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004"+
 		"\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004"+
-		"\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004\u0003\u0004"+
-		"j\b\u0004\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004"+
-		"\u0001\u0004\u0003\u0004r\b\u0004\u0001\u0005\u0001\u0005\u0001\u0006"+
-		"\u0001\u0006\u0001\u0006\u0001\u0006\u0001\u0006\u0003\u0006{\b\u0006"+
-		"\u0001\u0007\u0001\u0007\u0001\u0007\u0001\u0007\u0001\u0007\u0003\u0007"+
-		"\u0082\b\u0007\u0001\b\u0001\b\u0001\b\u0001\b\u0001\b\u0003\b\u0089\b"+
-		"\b\u0001\t\u0001\t\u0001\t\u0001\t\u0001\t\u0003\t\u0090\b\t\u0001\n\u0001"+
-		"\n\u0001\n\u0001\n\u0001\n\u0003\n\u0097\b\n\u0001\u000b\u0001\u000b\u0001"+
-		"\u000b\u0003\u000b\u009c\b\u000b\u0001\f\u0001\f\u0001\f\u0001\f\u0001"+
-		"\f\u0001\f\u0001\f\u0001\f\u0001\f\u0005\f\u00a7\b\f\n\f\f\f\u00aa\t\f"+
-		"\u0003\f\u00ac\b\f\u0001\f\u0001\f\u0001\f\u0001\f\u0001\f\u0001\f\u0003"+
-		"\f\u00b4\b\f\u0001\f\u0000\u0000\r\u0000\u0002\u0004\u0006\b\n\f\u000e"+
-		"\u0010\u0012\u0014\u0016\u0018\u0000\u0005\u0001\u0000\u001b\u001f\u0001"+
-		"\u0000\u0018\u0019\u0001\u0000\u0012\u0017\u0001\u0000\r\u000e\u0001\u0000"+
-		"\u000f\u0011\u00c4\u0000\u001b\u0001\u0000\u0000\u0000\u0002!\u0001\u0000"+
-		"\u0000\u0000\u0004S\u0001\u0000\u0000\u0000\u0006U\u0001\u0000\u0000\u0000"+
-		"\bq\u0001\u0000\u0000\u0000\ns\u0001\u0000\u0000\u0000\fz\u0001\u0000"+
-		"\u0000\u0000\u000e\u0081\u0001\u0000\u0000\u0000\u0010\u0088\u0001\u0000"+
-		"\u0000\u0000\u0012\u008f\u0001\u0000\u0000\u0000\u0014\u0096\u0001\u0000"+
-		"\u0000\u0000\u0016\u009b\u0001\u0000\u0000\u0000\u0018\u00b3\u0001\u0000"+
-		"\u0000\u0000\u001a\u001c\u0003\u0002\u0001\u0000\u001b\u001a\u0001\u0000"+
-		"\u0000\u0000\u001c\u001d\u0001\u0000\u0000\u0000\u001d\u001b\u0001\u0000"+
-		"\u0000\u0000\u001d\u001e\u0001\u0000\u0000\u0000\u001e\u001f\u0001\u0000"+
-		"\u0000\u0000\u001f \u0005\u0000\u0000\u0001 \u0001\u0001\u0000\u0000\u0000"+
-		"!\"\u0005\u0001\u0000\u0000\"%\u0005(\u0000\u0000#$\u0005\u000b\u0000"+
-		"\u0000$&\u0005(\u0000\u0000%#\u0001\u0000\u0000\u0000%&\u0001\u0000\u0000"+
-		"\u0000&\'\u0001\u0000\u0000\u0000\',\u0005\"\u0000\u0000(+\u0003\u0004"+
-		"\u0002\u0000)+\u0003\b\u0004\u0000*(\u0001\u0000\u0000\u0000*)\u0001\u0000"+
-		"\u0000\u0000+.\u0001\u0000\u0000\u0000,*\u0001\u0000\u0000\u0000,-\u0001"+
-		"\u0000\u0000\u0000-/\u0001\u0000\u0000\u0000.,\u0001\u0000\u0000\u0000"+
-		"/1\u0005#\u0000\u000002\u0005$\u0000\u000010\u0001\u0000\u0000\u00001"+
-		"2\u0001\u0000\u0000\u00002\u0003\u0001\u0000\u0000\u000034\u0005(\u0000"+
-		"\u000045\u0005%\u0000\u000058\u0005(\u0000\u000067\u0005\u001b\u0000\u0000"+
-		"79\u0003\n\u0005\u000086\u0001\u0000\u0000\u000089\u0001\u0000\u0000\u0000"+
-		"9:\u0001\u0000\u0000\u0000:T\u0005$\u0000\u0000;<\u0005(\u0000\u0000<"+
-		"E\u0005 \u0000\u0000=B\u0003\u0006\u0003\u0000>?\u0005\'\u0000\u0000?"+
-		"A\u0003\u0006\u0003\u0000@>\u0001\u0000\u0000\u0000AD\u0001\u0000\u0000"+
-		"\u0000B@\u0001\u0000\u0000\u0000BC\u0001\u0000\u0000\u0000CF\u0001\u0000"+
-		"\u0000\u0000DB\u0001\u0000\u0000\u0000E=\u0001\u0000\u0000\u0000EF\u0001"+
-		"\u0000\u0000\u0000FG\u0001\u0000\u0000\u0000GH\u0005!\u0000\u0000HI\u0005"+
-		"%\u0000\u0000IJ\u0005(\u0000\u0000JN\u0005\"\u0000\u0000KM\u0003\b\u0004"+
-		"\u0000LK\u0001\u0000\u0000\u0000MP\u0001\u0000\u0000\u0000NL\u0001\u0000"+
-		"\u0000\u0000NO\u0001\u0000\u0000\u0000OQ\u0001\u0000\u0000\u0000PN\u0001"+
-		"\u0000\u0000\u0000QR\u0005#\u0000\u0000RT\u0005$\u0000\u0000S3\u0001\u0000"+
-		"\u0000\u0000S;\u0001\u0000\u0000\u0000T\u0005\u0001\u0000\u0000\u0000"+
-		"UV\u0005(\u0000\u0000VW\u0005%\u0000\u0000WX\u0005(\u0000\u0000X\u0007"+
-		"\u0001\u0000\u0000\u0000YZ\u0003\n\u0005\u0000Z[\u0005$\u0000\u0000[r"+
-		"\u0001\u0000\u0000\u0000\\]\u0005(\u0000\u0000]^\u0005\u001b\u0000\u0000"+
-		"^_\u0003\n\u0005\u0000_`\u0005$\u0000\u0000`r\u0001\u0000\u0000\u0000"+
-		"ab\u0005\u0002\u0000\u0000bc\u0003\n\u0005\u0000cd\u0005\u0003\u0000\u0000"+
-		"de\u0003\n\u0005\u0000ef\u0005\u0004\u0000\u0000fg\u0003\n\u0005\u0000"+
-		"gi\u0005\u0005\u0000\u0000hj\u0005$\u0000\u0000ih\u0001\u0000\u0000\u0000"+
-		"ij\u0001\u0000\u0000\u0000jr\u0001\u0000\u0000\u0000kl\u0005\u0006\u0000"+
-		"\u0000lm\u0003\n\u0005\u0000mn\u0005\u0007\u0000\u0000no\u0003\b\u0004"+
-		"\u0000op\u0005\b\u0000\u0000pr\u0001\u0000\u0000\u0000qY\u0001\u0000\u0000"+
-		"\u0000q\\\u0001\u0000\u0000\u0000qa\u0001\u0000\u0000\u0000qk\u0001\u0000"+
-		"\u0000\u0000r\t\u0001\u0000\u0000\u0000st\u0003\f\u0006\u0000t\u000b\u0001"+
-		"\u0000\u0000\u0000uv\u0003\u000e\u0007\u0000vw\u0007\u0000\u0000\u0000"+
-		"wx\u0003\f\u0006\u0000x{\u0001\u0000\u0000\u0000y{\u0003\u000e\u0007\u0000"+
-		"zu\u0001\u0000\u0000\u0000zy\u0001\u0000\u0000\u0000{\r\u0001\u0000\u0000"+
-		"\u0000|}\u0003\u0010\b\u0000}~\u0007\u0001\u0000\u0000~\u007f\u0003\u0010"+
-		"\b\u0000\u007f\u0082\u0001\u0000\u0000\u0000\u0080\u0082\u0003\u0010\b"+
-		"\u0000\u0081|\u0001\u0000\u0000\u0000\u0081\u0080\u0001\u0000\u0000\u0000"+
-		"\u0082\u000f\u0001\u0000\u0000\u0000\u0083\u0084\u0003\u0012\t\u0000\u0084"+
-		"\u0085\u0007\u0002\u0000\u0000\u0085\u0086\u0003\u0012\t\u0000\u0086\u0089"+
-		"\u0001\u0000\u0000\u0000\u0087\u0089\u0003\u0012\t\u0000\u0088\u0083\u0001"+
-		"\u0000\u0000\u0000\u0088\u0087\u0001\u0000\u0000\u0000\u0089\u0011\u0001"+
-		"\u0000\u0000\u0000\u008a\u008b\u0003\u0014\n\u0000\u008b\u008c\u0007\u0003"+
-		"\u0000\u0000\u008c\u008d\u0003\u0014\n\u0000\u008d\u0090\u0001\u0000\u0000"+
-		"\u0000\u008e\u0090\u0003\u0014\n\u0000\u008f\u008a\u0001\u0000\u0000\u0000"+
-		"\u008f\u008e\u0001\u0000\u0000\u0000\u0090\u0013\u0001\u0000\u0000\u0000"+
-		"\u0091\u0092\u0003\u0016\u000b\u0000\u0092\u0093\u0007\u0004\u0000\u0000"+
-		"\u0093\u0094\u0003\u0016\u000b\u0000\u0094\u0097\u0001\u0000\u0000\u0000"+
-		"\u0095\u0097\u0003\u0016\u000b\u0000\u0096\u0091\u0001\u0000\u0000\u0000"+
-		"\u0096\u0095\u0001\u0000\u0000\u0000\u0097\u0015\u0001\u0000\u0000\u0000"+
-		"\u0098\u0099\u0005\u001a\u0000\u0000\u0099\u009c\u0003\u0016\u000b\u0000"+
-		"\u009a\u009c\u0003\u0018\f\u0000\u009b\u0098\u0001\u0000\u0000\u0000\u009b"+
-		"\u009a\u0001\u0000\u0000\u0000\u009c\u0017\u0001\u0000\u0000\u0000\u009d"+
-		"\u009e\u0005 \u0000\u0000\u009e\u009f\u0003\n\u0005\u0000\u009f\u00a0"+
-		"\u0005!\u0000\u0000\u00a0\u00b4\u0001\u0000\u0000\u0000\u00a1\u00a2\u0005"+
-		"(\u0000\u0000\u00a2\u00ab\u0005 \u0000\u0000\u00a3\u00a8\u0003\n\u0005"+
-		"\u0000\u00a4\u00a5\u0005\'\u0000\u0000\u00a5\u00a7\u0003\n\u0005\u0000"+
-		"\u00a6\u00a4\u0001\u0000\u0000\u0000\u00a7\u00aa\u0001\u0000\u0000\u0000"+
-		"\u00a8\u00a6\u0001\u0000\u0000\u0000\u00a8\u00a9\u0001\u0000\u0000\u0000"+
-		"\u00a9\u00ac\u0001\u0000\u0000\u0000\u00aa\u00a8\u0001\u0000\u0000\u0000"+
-		"\u00ab\u00a3\u0001\u0000\u0000\u0000\u00ab\u00ac\u0001\u0000\u0000\u0000"+
-		"\u00ac\u00ad\u0001\u0000\u0000\u0000\u00ad\u00b4\u0005!\u0000\u0000\u00ae"+
-		"\u00b4\u0005(\u0000\u0000\u00af\u00b4\u0005)\u0000\u0000\u00b0\u00b4\u0005"+
-		"*\u0000\u0000\u00b1\u00b4\u0005\t\u0000\u0000\u00b2\u00b4\u0005\n\u0000"+
-		"\u0000\u00b3\u009d\u0001\u0000\u0000\u0000\u00b3\u00a1\u0001\u0000\u0000"+
-		"\u0000\u00b3\u00ae\u0001\u0000\u0000\u0000\u00b3\u00af\u0001\u0000\u0000"+
-		"\u0000\u00b3\u00b0\u0001\u0000\u0000\u0000\u00b3\u00b1\u0001\u0000\u0000"+
-		"\u0000\u00b3\u00b2\u0001\u0000\u0000\u0000\u00b4\u0019\u0001\u0000\u0000"+
-		"\u0000\u0015\u001d%*,18BENSiqz\u0081\u0088\u008f\u0096\u009b\u00a8\u00ab"+
-		"\u00b3";
+		"\u0003\u0004\\\b\u0004\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004"+
+		"\u0001\u0004\u0001\u0004\u0003\u0004d\b\u0004\u0001\u0005\u0001\u0005"+
+		"\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005"+
+		"\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0005\u0005r\b\u0005"+
+		"\n\u0005\f\u0005u\t\u0005\u0003\u0005w\b\u0005\u0001\u0005\u0001\u0005"+
+		"\u0001\u0005\u0003\u0005|\b\u0005\u0001\u0005\u0001\u0005\u0001\u0005"+
+		"\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005"+
+		"\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005"+
+		"\u0005\u0005\u008d\b\u0005\n\u0005\f\u0005\u0090\t\u0005\u0001\u0005\u0000"+
+		"\u0001\n\u0006\u0000\u0002\u0004\u0006\b\n\u0000\u0006\u0002\u0000\t\n"+
+		")*\u0001\u0000\u000f\u0011\u0001\u0000\r\u000e\u0001\u0000\u0012\u0017"+
+		"\u0001\u0000\u0018\u0019\u0001\u0000\u001b\u001f\u00a4\u0000\r\u0001\u0000"+
+		"\u0000\u0000\u0002\u0013\u0001\u0000\u0000\u0000\u0004E\u0001\u0000\u0000"+
+		"\u0000\u0006G\u0001\u0000\u0000\u0000\bc\u0001\u0000\u0000\u0000\n{\u0001"+
+		"\u0000\u0000\u0000\f\u000e\u0003\u0002\u0001\u0000\r\f\u0001\u0000\u0000"+
+		"\u0000\u000e\u000f\u0001\u0000\u0000\u0000\u000f\r\u0001\u0000\u0000\u0000"+
+		"\u000f\u0010\u0001\u0000\u0000\u0000\u0010\u0011\u0001\u0000\u0000\u0000"+
+		"\u0011\u0012\u0005\u0000\u0000\u0001\u0012\u0001\u0001\u0000\u0000\u0000"+
+		"\u0013\u0014\u0005\u0001\u0000\u0000\u0014\u0017\u0005(\u0000\u0000\u0015"+
+		"\u0016\u0005\u000b\u0000\u0000\u0016\u0018\u0005(\u0000\u0000\u0017\u0015"+
+		"\u0001\u0000\u0000\u0000\u0017\u0018\u0001\u0000\u0000\u0000\u0018\u0019"+
+		"\u0001\u0000\u0000\u0000\u0019\u001e\u0005\"\u0000\u0000\u001a\u001d\u0003"+
+		"\u0004\u0002\u0000\u001b\u001d\u0003\b\u0004\u0000\u001c\u001a\u0001\u0000"+
+		"\u0000\u0000\u001c\u001b\u0001\u0000\u0000\u0000\u001d \u0001\u0000\u0000"+
+		"\u0000\u001e\u001c\u0001\u0000\u0000\u0000\u001e\u001f\u0001\u0000\u0000"+
+		"\u0000\u001f!\u0001\u0000\u0000\u0000 \u001e\u0001\u0000\u0000\u0000!"+
+		"#\u0005#\u0000\u0000\"$\u0005$\u0000\u0000#\"\u0001\u0000\u0000\u0000"+
+		"#$\u0001\u0000\u0000\u0000$\u0003\u0001\u0000\u0000\u0000%&\u0005(\u0000"+
+		"\u0000&\'\u0005%\u0000\u0000\'*\u0005(\u0000\u0000()\u0005\u001b\u0000"+
+		"\u0000)+\u0003\n\u0005\u0000*(\u0001\u0000\u0000\u0000*+\u0001\u0000\u0000"+
+		"\u0000+,\u0001\u0000\u0000\u0000,F\u0005$\u0000\u0000-.\u0005(\u0000\u0000"+
+		".7\u0005 \u0000\u0000/4\u0003\u0006\u0003\u000001\u0005\'\u0000\u0000"+
+		"13\u0003\u0006\u0003\u000020\u0001\u0000\u0000\u000036\u0001\u0000\u0000"+
+		"\u000042\u0001\u0000\u0000\u000045\u0001\u0000\u0000\u000058\u0001\u0000"+
+		"\u0000\u000064\u0001\u0000\u0000\u00007/\u0001\u0000\u0000\u000078\u0001"+
+		"\u0000\u0000\u000089\u0001\u0000\u0000\u00009:\u0005!\u0000\u0000:;\u0005"+
+		"%\u0000\u0000;<\u0005(\u0000\u0000<@\u0005\"\u0000\u0000=?\u0003\b\u0004"+
+		"\u0000>=\u0001\u0000\u0000\u0000?B\u0001\u0000\u0000\u0000@>\u0001\u0000"+
+		"\u0000\u0000@A\u0001\u0000\u0000\u0000AC\u0001\u0000\u0000\u0000B@\u0001"+
+		"\u0000\u0000\u0000CD\u0005#\u0000\u0000DF\u0005$\u0000\u0000E%\u0001\u0000"+
+		"\u0000\u0000E-\u0001\u0000\u0000\u0000F\u0005\u0001\u0000\u0000\u0000"+
+		"GH\u0005(\u0000\u0000HI\u0005%\u0000\u0000IJ\u0005(\u0000\u0000J\u0007"+
+		"\u0001\u0000\u0000\u0000KL\u0003\n\u0005\u0000LM\u0005$\u0000\u0000Md"+
+		"\u0001\u0000\u0000\u0000NO\u0005(\u0000\u0000OP\u0005\u001b\u0000\u0000"+
+		"PQ\u0003\n\u0005\u0000QR\u0005$\u0000\u0000Rd\u0001\u0000\u0000\u0000"+
+		"ST\u0005\u0002\u0000\u0000TU\u0003\n\u0005\u0000UV\u0005\u0003\u0000\u0000"+
+		"VW\u0003\n\u0005\u0000WX\u0005\u0004\u0000\u0000XY\u0003\n\u0005\u0000"+
+		"Y[\u0005\u0005\u0000\u0000Z\\\u0005$\u0000\u0000[Z\u0001\u0000\u0000\u0000"+
+		"[\\\u0001\u0000\u0000\u0000\\d\u0001\u0000\u0000\u0000]^\u0005\u0006\u0000"+
+		"\u0000^_\u0003\n\u0005\u0000_`\u0005\u0007\u0000\u0000`a\u0003\b\u0004"+
+		"\u0000ab\u0005\b\u0000\u0000bd\u0001\u0000\u0000\u0000cK\u0001\u0000\u0000"+
+		"\u0000cN\u0001\u0000\u0000\u0000cS\u0001\u0000\u0000\u0000c]\u0001\u0000"+
+		"\u0000\u0000d\t\u0001\u0000\u0000\u0000ef\u0006\u0005\uffff\uffff\u0000"+
+		"fg\u0005\u001a\u0000\u0000g|\u0003\n\u0005\nhi\u0005 \u0000\u0000ij\u0003"+
+		"\n\u0005\u0000jk\u0005!\u0000\u0000k|\u0001\u0000\u0000\u0000lm\u0005"+
+		"(\u0000\u0000mv\u0005 \u0000\u0000ns\u0003\n\u0005\u0000op\u0005\'\u0000"+
+		"\u0000pr\u0003\n\u0005\u0000qo\u0001\u0000\u0000\u0000ru\u0001\u0000\u0000"+
+		"\u0000sq\u0001\u0000\u0000\u0000st\u0001\u0000\u0000\u0000tw\u0001\u0000"+
+		"\u0000\u0000us\u0001\u0000\u0000\u0000vn\u0001\u0000\u0000\u0000vw\u0001"+
+		"\u0000\u0000\u0000wx\u0001\u0000\u0000\u0000x|\u0005!\u0000\u0000y|\u0005"+
+		"(\u0000\u0000z|\u0007\u0000\u0000\u0000{e\u0001\u0000\u0000\u0000{h\u0001"+
+		"\u0000\u0000\u0000{l\u0001\u0000\u0000\u0000{y\u0001\u0000\u0000\u0000"+
+		"{z\u0001\u0000\u0000\u0000|\u008e\u0001\u0000\u0000\u0000}~\n\t\u0000"+
+		"\u0000~\u007f\u0007\u0001\u0000\u0000\u007f\u008d\u0003\n\u0005\n\u0080"+
+		"\u0081\n\b\u0000\u0000\u0081\u0082\u0007\u0002\u0000\u0000\u0082\u008d"+
+		"\u0003\n\u0005\t\u0083\u0084\n\u0007\u0000\u0000\u0084\u0085\u0007\u0003"+
+		"\u0000\u0000\u0085\u008d\u0003\n\u0005\b\u0086\u0087\n\u0006\u0000\u0000"+
+		"\u0087\u0088\u0007\u0004\u0000\u0000\u0088\u008d\u0003\n\u0005\u0007\u0089"+
+		"\u008a\n\u0005\u0000\u0000\u008a\u008b\u0007\u0005\u0000\u0000\u008b\u008d"+
+		"\u0003\n\u0005\u0005\u008c}\u0001\u0000\u0000\u0000\u008c\u0080\u0001"+
+		"\u0000\u0000\u0000\u008c\u0083\u0001\u0000\u0000\u0000\u008c\u0086\u0001"+
+		"\u0000\u0000\u0000\u008c\u0089\u0001\u0000\u0000\u0000\u008d\u0090\u0001"+
+		"\u0000\u0000\u0000\u008e\u008c\u0001\u0000\u0000\u0000\u008e\u008f\u0001"+
+		"\u0000\u0000\u0000\u008f\u000b\u0001\u0000\u0000\u0000\u0090\u008e\u0001"+
+		"\u0000\u0000\u0000\u0011\u000f\u0017\u001c\u001e#*47@E[csv{\u008c\u008e";
 	public static final ATN _ATN =
 		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
 	static {
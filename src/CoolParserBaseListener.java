@@ -76,97 +76,85 @@ public class CoolParserBaseListener implements CoolParserListener {
 	 *
 	 * <p>The default implementation does nothing.</p>
 	 */
-	@Override public void enterExpr(CoolParser.ExprContext ctx) { }
-	/**
-	 * {@inheritDoc}
-	 *
-	 * <p>The default implementation does nothing.</p>
-	 */
-	@Override public void exitExpr(CoolParser.ExprContext ctx) { }
-	/**
-	 * {@inheritDoc}
-	 *
-	 * <p>The default implementation does nothing.</p>
-	 */
-	@Override public void enterAssignExpr(CoolParser.AssignExprContext ctx) { }
+	@Override public void enterUnaryExpr(CoolParser.UnaryExprContext ctx) { }
 	/**
 	 * {@inheritDoc}
 	 *
 	 * <p>The default implementation does nothing.</p>
 	 */
-	@Override public void exitAssignExpr(CoolParser.AssignExprContext ctx) { }
+	@Override public void exitUnaryExpr(CoolParser.UnaryExprContext ctx) { }
 	/**
 	 * {@inheritDoc}
 	 *
 	 * <p>The default implementation does nothing.</p>
 	 */
-	@Override public void enterLogicalExpr(CoolParser.LogicalExprContext ctx) { }
+	@Override public void enterLiteralExpr(CoolParser.LiteralExprContext ctx) { }
 	/**
 	 * {@inheritDoc}
 	 *
 	 * <p>The default implementation does nothing.</p>
 	 */
-	@Override public void exitLogicalExpr(CoolParser.LogicalExprContext ctx) { }
+	@Override public void exitLiteralExpr(CoolParser.LiteralExprContext ctx) { }
 	/**
 	 * {@inheritDoc}
 	 *
 	 * <p>The default implementation does nothing.</p>
 	 */
-	@Override public void enterComparisonExpr(CoolParser.ComparisonExprContext ctx) { }
+	@Override public void enterBinaryExpr(CoolParser.BinaryExprContext ctx) { }
 	/**
 	 * {@inheritDoc}
 	 *
 	 * <p>The default implementation does nothing.</p>
 	 */
-	@Override public void exitComparisonExpr(CoolParser.ComparisonExprContext ctx) { }
+	@Override public void exitBinaryExpr(CoolParser.BinaryExprContext ctx) { }
 	/**
 	 * {@inheritDoc}
 	 *
 	 * <p>The default implementation does nothing.</p>
 	 */
-	@Override public void enterAdditiveExpr(CoolParser.AdditiveExprContext ctx) { }
+	@Override public void enterCallExpr(CoolParser.CallExprContext ctx) { }
 	/**
 	 * {@inheritDoc}
 	 *
 	 * <p>The default implementation does nothing.</p>
 	 */
-	@Override public void exitAdditiveExpr(CoolParser.AdditiveExprContext ctx) { }
+	@Override public void exitCallExpr(CoolParser.CallExprContext ctx) { }
 	/**
 	 * {@inheritDoc}
 	 *
 	 * <p>The default implementation does nothing.</p>
 	 */
-	@Override public void enterMultiplicativeExpr(CoolParser.MultiplicativeExprContext ctx) { }
+	@Override public void enterAssignExpr(CoolParser.AssignExprContext ctx) { }
 	/**
 	 * {@inheritDoc}
 	 *
 	 * <p>The default implementation does nothing.</p>
 	 */
-	@Override public void exitMultiplicativeExpr(CoolParser.MultiplicativeExprContext ctx) { }
+	@Override public void exitAssignExpr(CoolParser.AssignExprContext ctx) { }
 	/**
 	 * {@inheritDoc}
 	 *
 	 * <p>The default implementation does nothing.</p>
 	 */
-	@Override public void enterUnaryExpr(CoolParser.UnaryExprContext ctx) { }
+	@Override public void enterParenExpr(CoolParser.ParenExprContext ctx) { }
 	/**
 	 * {@inheritDoc}
 	 *
 	 * <p>The default implementation does nothing.</p>
 	 */
-	@Override public void exitUnaryExpr(CoolParser.UnaryExprContext ctx) { }
+	@Override public void exitParenExpr(CoolParser.ParenExprContext ctx) { }
 	/**
 	 * {@inheritDoc}
 	 *
 	 * <p>The default implementation does nothing.</p>
 	 */
-	@Override public void enterPrimaryExpr(CoolParser.PrimaryExprContext ctx) { }
+	@Override public void enterIdExpr(CoolParser.IdExprContext ctx) { }
 	/**
 	 * {@inheritDoc}
 	 *
 	 * <p>The default implementation does nothing.</p>
 	 */
-	@Override public void exitPrimaryExpr(CoolParser.PrimaryExprContext ctx) { }
+	@Override public void exitIdExpr(CoolParser.IdExprContext ctx) { }
 
 	/**
 	 * {@inheritDoc}
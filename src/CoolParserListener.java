@@ -57,83 +57,87 @@ public interface CoolParserListener extends ParseTreeListener {
 	 */
 	void exitStatement(CoolParser.StatementContext ctx);
 	/**
-	 * Enter a parse tree produced by {@link CoolParser#expr}.
+	 * Enter a parse tree produced by the {@code unaryExpr}
+	 * labeled alternative in {@link CoolParser#expr}.
 	 * @param ctx the parse tree
 	 */
-	void enterExpr(CoolParser.ExprContext ctx);
-	/**
-	 * Exit a parse tree produced by {@link CoolParser#expr}.
-	 * @param ctx the parse tree
-	 */
-	void exitExpr(CoolParser.ExprContext ctx);
-	/**
-	 * Enter a parse tree produced by {@link CoolParser#assignExpr}.
-	 * @param ctx the parse tree
-	 */
-	void enterAssignExpr(CoolParser.AssignExprContext ctx);
+	void enterUnaryExpr(CoolParser.UnaryExprContext ctx);
 	/**
-	 * Exit a parse tree produced by {@link CoolParser#assignExpr}.
+	 * Exit a parse tree produced by the {@code unaryExpr}
+	 * labeled alternative in {@link CoolParser#expr}.
 	 * @param ctx the parse tree
 	 */
-	void exitAssignExpr(CoolParser.AssignExprContext ctx);
+	void exitUnaryExpr(CoolParser.UnaryExprContext ctx);
 	/**
-	 * Enter a parse tree produced by {@link CoolParser#logicalExpr}.
+	 * Enter a parse tree produced by the {@code literalExpr}
+	 * labeled alternative in {@link CoolParser#expr}.
 	 * @param ctx the parse tree
 	 */
-	void enterLogicalExpr(CoolParser.LogicalExprContext ctx);
+	void enterLiteralExpr(CoolParser.LiteralExprContext ctx);
 	/**
-	 * Exit a parse tree produced by {@link CoolParser#logicalExpr}.
+	 * Exit a parse tree produced by the {@code literalExpr}
+	 * labeled alternative in {@link CoolParser#expr}.
 	 * @param ctx the parse tree
 	 */
-	void exitLogicalExpr(CoolParser.LogicalExprContext ctx);
+	void exitLiteralExpr(CoolParser.LiteralExprContext ctx);
 	/**
-	 * Enter a parse tree produced by {@link CoolParser#comparisonExpr}.
+	 * Enter a parse tree produced by the {@code binaryExpr}
+	 * labeled alternative in {@link CoolParser#expr}.
 	 * @param ctx the parse tree
 	 */
-	void enterComparisonExpr(CoolParser.ComparisonExprContext ctx);
+	void enterBinaryExpr(CoolParser.BinaryExprContext ctx);
 	/**
-	 * Exit a parse tree produced by {@link CoolParser#comparisonExpr}.
+	 * Exit a parse tree produced by the {@code binaryExpr}
+	 * labeled alternative in {@link CoolParser#expr}.
 	 * @param ctx the parse tree
 	 */
-	void exitComparisonExpr(CoolParser.ComparisonExprContext ctx);
+	void exitBinaryExpr(CoolParser.BinaryExprContext ctx);
 	/**
-	 * Enter a parse tree produced by {@link CoolParser#additiveExpr}.
+	 * Enter a parse tree produced by the {@code callExpr}
+	 * labeled alternative in {@link CoolParser#expr}.
 	 * @param ctx the parse tree
 	 */
-	void enterAdditiveExpr(CoolParser.AdditiveExprContext ctx);
+	void enterCallExpr(CoolParser.CallExprContext ctx);
 	/**
-	 * Exit a parse tree produced by {@link CoolParser#additiveExpr}.
+	 * Exit a parse tree produced by the {@code callExpr}
+	 * labeled alternative in {@link CoolParser#expr}.
 	 * @param ctx the parse tree
 	 */
-	void exitAdditiveExpr(CoolParser.AdditiveExprContext ctx);
+	void exitCallExpr(CoolParser.CallExprContext ctx);
 	/**
-	 * Enter a parse tree produced by {@link CoolParser#multiplicativeExpr}.
+	 * Enter a parse tree produced by the {@code assignExpr}
+	 * labeled alternative in {@link CoolParser#expr}.
 	 * @param ctx the parse tree
 	 */
-	void enterMultiplicativeExpr(CoolParser.MultiplicativeExprContext ctx);
+	void enterAssignExpr(CoolParser.AssignExprContext ctx);
 	/**
-	 * Exit a parse tree produced by {@link CoolParser#multiplicativeExpr}.
+	 * Exit a parse tree produced by the {@code assignExpr}
+	 * labeled alternative in {@link CoolParser#expr}.
 	 * @param ctx the parse tree
 	 */
-	void exitMultiplicativeExpr(CoolParser.MultiplicativeExprContext ctx);
+	void exitAssignExpr(CoolParser.AssignExprContext ctx);
 	/**
-	 * Enter a parse tree produced by {@link CoolParser#unaryExpr}.
+	 * Enter a parse tree produced by the {@code parenExpr}
+	 * labeled alternative in {@link CoolParser#expr}.
 	 * @param ctx the parse tree
 	 */
-	void enterUnaryExpr(CoolParser.UnaryExprContext ctx);
+	void enterParenExpr(CoolParser.ParenExprContext ctx);
 	/**
-	 * Exit a parse tree produced by {@link CoolParser#unaryExpr}.
+	 * Exit a parse tree produced by the {@code parenExpr}
+	 * labeled alternative in {@link CoolParser#expr}.
 	 * @param ctx the parse tree
 	 */
-	void exitUnaryExpr(CoolParser.UnaryExprContext ctx);
+	void exitParenExpr(CoolParser.ParenExprContext ctx);
 	/**
-	 * Enter a parse tree produced by {@link CoolParser#primaryExpr}.
+	 * Enter a parse tree produced by the {@code idExpr}
+	 * labeled alternative in {@link CoolParser#expr}.
 	 * @param ctx the parse tree
 	 */
-	void enterPrimaryExpr(CoolParser.PrimaryExprContext ctx);
+	void enterIdExpr(CoolParser.IdExprContext ctx);
 	/**
-	 * Exit a parse tree produced by {@link CoolParser#primaryExpr}.
+	 * Exit a parse tree produced by the {@code idExpr}
+	 * labeled alternative in {@link CoolParser#expr}.
 	 * @param ctx the parse tree
 	 */
-	void exitPrimaryExpr(CoolParser.PrimaryExprContext ctx);
+	void exitIdExpr(CoolParser.IdExprContext ctx);
 }
\ No newline at end of file
@@ -40,51 +40,52 @@ public interface CoolParserVisitor<T> extends ParseTreeVisitor<T> {
 	 */
 	T visitStatement(CoolParser.StatementContext ctx);
 	/**
-	 * Visit a parse tree produced by {@link CoolParser#expr}.
+	 * Visit a parse tree produced by the {@code unaryExpr}
+	 * labeled alternative in {@link CoolParser#expr}.
 	 * @param ctx the parse tree
 	 * @return the visitor result
 	 */
-	T visitExpr(CoolParser.ExprContext ctx);
-	/**
-	 * Visit a parse tree produced by {@link CoolParser#assignExpr}.
-	 * @param ctx the parse tree
-	 * @return the visitor result
-	 */
-	T visitAssignExpr(CoolParser.AssignExprContext ctx);
+	T visitUnaryExpr(CoolParser.UnaryExprContext ctx);
 	/**
-	 * Visit a parse tree produced by {@link CoolParser#logicalExpr}.
+	 * Visit a parse tree produced by the {@code literalExpr}
+	 * labeled alternative in {@link CoolParser#expr}.
 	 * @param ctx the parse tree
 	 * @return the visitor result
 	 */
-	T visitLogicalExpr(CoolParser.LogicalExprContext ctx);
+	T visitLiteralExpr(CoolParser.LiteralExprContext ctx);
 	/**
-	 * Visit a parse tree produced by {@link CoolParser#comparisonExpr}.
+	 * Visit a parse tree produced by the {@code binaryExpr}
+	 * labeled alternative in {@link CoolParser#expr}.
 	 * @param ctx the parse tree
 	 * @return the visitor result
 	 */
-	T visitComparisonExpr(CoolParser.ComparisonExprContext ctx);
+	T visitBinaryExpr(CoolParser.BinaryExprContext ctx);
 	/**
-	 * Visit a parse tree produced by {@link CoolParser#additiveExpr}.
+	 * Visit a parse tree produced by the {@code callExpr}
+	 * labeled alternative in {@link CoolParser#expr}.
 	 * @param ctx the parse tree
 	 * @return the visitor result
 	 */
-	T visitAdditiveExpr(CoolParser.AdditiveExprContext ctx);
+	T visitCallExpr(CoolParser.CallExprContext ctx);
 	/**
-	 * Visit a parse tree produced by {@link CoolParser#multiplicativeExpr}.
+	 * Visit a parse tree produced by the {@code assignExpr}
+	 * labeled alternative in {@link CoolParser#expr}.
 	 * @param ctx the parse tree
 	 * @return the visitor result
 	 */
-	T visitMultiplicativeExpr(CoolParser.MultiplicativeExprContext ctx);
+	T visitAssignExpr(CoolParser.AssignExprContext ctx);
 	/**
-	 * Visit a parse tree produced by {@link CoolParser#unaryExpr}.
+	 * Visit a parse tree produced by the {@code parenExpr}
+	 * labeled alternative in {@link CoolParser#expr}.
 	 * @param ctx the parse tree
 	 * @return the visitor result
 	 */
-	T visitUnaryExpr(CoolParser.UnaryExprContext ctx);
+	T visitParenExpr(CoolParser.ParenExprContext ctx);
 	/**
-	 * Visit a parse tree produced by {@link CoolParser#primaryExpr}.
+	 * Visit a parse tree produced by the {@code idExpr}
+	 * labeled alternative in {@link CoolParser#expr}.
 	 * @param ctx the parse tree
 	 * @return the visitor result
 	 */
-	T visitPrimaryExpr(CoolParser.PrimaryExprContext ctx);
+	T visitIdExpr(CoolParser.IdExprContext ctx);
 }
\ No newline at end of file
@@ -0,0 +1,589 @@
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonToken;
+import org.antlr.v4.runtime.CommonTokenFactory;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenFactory;
+import org.antlr.v4.runtime.TokenSource;
+import org.antlr.v4.runtime.misc.Pair;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+
+/**
+ * Hand-written, table-driven replacement for the generated CoolLexer. It scans the UTF-8 bytes
+ * of the source directly, recognizes an identifier first and then looks it up in a perfect hash
+ * of the keywords, instead of running the case-insensitive keyword rules through the lexer DFA.
+ *
+ * It produces the same tokens as CoolLexer (types, text, line, column and code point
+ * start/stop indexes), so it can be handed to CoolParser through a CommonTokenStream:
+ * - keywords are case-insensitive except true and false; the longest match wins, so classX is an ID
+ * - (* *) comments nest; an unterminated one leaves '(' as LPAREN, like the generated lexer
+ * - an unterminated string, or any character no rule accepts, is an ERROR token of one code point
+ *
+ * Operators and lower-case keywords share constant text; other token text is sliced from the
+ * source bytes the first time getText() is called. The CharStream returned by getInputStream()
+ * is only decoded if somebody asks for it.
+ */
+public class CoolScanner implements TokenSource {
+    // Character classes for the ASCII range; every byte >= 0x80 is OTHER
+    private static final byte OTHER = 0;
+    private static final byte LETTER = 1;
+    private static final byte DIGIT = 2;
+    private static final byte SPACE = 3;
+    private static final byte[] CHAR_CLASS = new byte[128];
+
+    // Token type of a one-character operator, or 0
+    private static final int[] SINGLE_CHAR_TOKEN = new int[128];
+
+    // Text of every operator token, and the lower-case text of every keyword, by token type
+    private static final String[] OPERATOR_TEXT = new String[CoolLexer.ERROR + 1];
+    private static final String[] KEYWORD_TEXT_BY_TYPE = new String[CoolLexer.RETURN + 1];
+
+    // Keyword perfect hash: (2 * first + 3 * last + length) & 31, letters folded to lower case
+    private static final String[] KEYWORD_TEXT = new String[32];
+    private static final int[] KEYWORD_TYPE = new int[32];
+
+    static {
+        for (int c = 'a'; c <= 'z'; c++) {
+            CHAR_CLASS[c] = LETTER;
+            CHAR_CLASS[c - 'a' + 'A'] = LETTER;
+        }
+        for (int c = '0'; c <= '9'; c++) {
+            CHAR_CLASS[c] = DIGIT;
+        }
+        CHAR_CLASS[' '] = SPACE;
+        CHAR_CLASS['\t'] = SPACE;
+        CHAR_CLASS['\r'] = SPACE;
+        CHAR_CLASS['\n'] = SPACE;
+
+        for (int type = CoolLexer.PLUS; type <= CoolLexer.COMMA; type++) {
+            String literal = CoolLexer.VOCABULARY.getLiteralName(type);
+            OPERATOR_TEXT[type] = literal.substring(1, literal.length() - 1);
+        }
+
+        SINGLE_CHAR_TOKEN['+'] = CoolLexer.PLUS;
+        SINGLE_CHAR_TOKEN['-'] = CoolLexer.MINUS;
+        SINGLE_CHAR_TOKEN['*'] = CoolLexer.MULT;
+        SINGLE_CHAR_TOKEN['/'] = CoolLexer.DIV;
+        SINGLE_CHAR_TOKEN['%'] = CoolLexer.MOD;
+        SINGLE_CHAR_TOKEN['='] = CoolLexer.EQUAL;
+        SINGLE_CHAR_TOKEN['<'] = CoolLexer.LT;
+        SINGLE_CHAR_TOKEN['>'] = CoolLexer.GT;
+        SINGLE_CHAR_TOKEN['!'] = CoolLexer.NOT;
+        SINGLE_CHAR_TOKEN['('] = CoolLexer.LPAREN;
+        SINGLE_CHAR_TOKEN[')'] = CoolLexer.RPAREN;
+        SINGLE_CHAR_TOKEN['{'] = CoolLexer.LBRACE;
+        SINGLE_CHAR_TOKEN['}'] = CoolLexer.RBRACE;
+        SINGLE_CHAR_TOKEN[';'] = CoolLexer.SEMI;
+        SINGLE_CHAR_TOKEN[':'] = CoolLexer.COLON;
+        SINGLE_CHAR_TOKEN['.'] = CoolLexer.DOT;
+        SINGLE_CHAR_TOKEN[','] = CoolLexer.COMMA;
+
+        addKeyword("class", CoolLexer.CLASS);
+        addKeyword("if", CoolLexer.IF);
+        addKeyword("then", CoolLexer.THEN);
+        addKeyword("else", CoolLexer.ELSE);
+        addKeyword("fi", CoolLexer.FI);
+        addKeyword("while", CoolLexer.WHILE);
+        addKeyword("loop", CoolLexer.LOOP);
+        addKeyword("pool", CoolLexer.POOL);
+        addKeyword("inherits", CoolLexer.INHERITS);
+        addKeyword("return", CoolLexer.RETURN);
+        addKeyword("true", CoolLexer.TRUE);
+        addKeyword("false", CoolLexer.FALSE);
+    }
+
+    private static void addKeyword(String keyword, int type) {
+        int slot = keywordHash(keyword.charAt(0), keyword.charAt(keyword.length() - 1), keyword.length());
+        if (KEYWORD_TEXT[slot] != null) {
+            throw new IllegalStateException("Keyword hash collision: " + keyword + " and " + KEYWORD_TEXT[slot]);
+        }
+        KEYWORD_TEXT[slot] = keyword;
+        KEYWORD_TYPE[slot] = type;
+        KEYWORD_TEXT_BY_TYPE[type] = keyword;
+    }
+
+    private static int keywordHash(int first, int last, int length) {
+        return (2 * (first | 0x20) + 3 * (last | 0x20) + length) & 31;
+    }
+
+    private byte[] source;
+    private String sourceName;
+    private CharStream charStream;
+    private Pair<TokenSource, CharStream> tokenSourcePair;
+    private BitSet[] commentDepths;
+
+    // Scan position: byte offset, code point index, line and column (in code points)
+    private int pos;
+    private int index;
+    private int line;
+    private int column;
+
+    // The token found by the last scanNext()
+    private int tokenType;
+    private int tokenPos;
+    private int tokenLength;
+    private int tokenIndex;
+    private int tokenCodePoints;
+    private int tokenLine;
+    private int tokenColumn;
+
+    public CoolScanner(byte[] source, String sourceName) {
+        this.source = source;
+        this.sourceName = sourceName;
+        this.commentDepths = new BitSet[]{new BitSet(), new BitSet(), new BitSet()};
+        this.line = 1;
+    }
+
+    /**
+     * Scanner that starts at byte offset start, which must be the start of a line. Lines are
+     * counted from 1 there and code point indexes from 0, so only the byte offsets of its tokens
+     * are absolute; used by ParallelScanner to lex one chunk of a file.
+     */
+    CoolScanner(byte[] source, String sourceName, int start) {
+        this(source, sourceName);
+        this.pos = start;
+    }
+
+    /**
+     * Scanner that resumes at byte offset start, the start of a token at the given line and
+     * column; used by IncrementalParser to relex from the first token an edit can affect
+     */
+    CoolScanner(byte[] source, String sourceName, int start, int line, int column) {
+        this(source, sourceName, start);
+        this.line = line;
+        this.column = column;
+    }
+
+    public static CoolScanner fromPath(Path path) throws IOException {
+        return new CoolScanner(Files.readAllBytes(path), path.toString());
+    }
+
+    /**
+     * Size of the source in bytes
+     */
+    public int size() {
+        return source.length;
+    }
+
+    // Created on first use rather than in the constructor, which must not leak this
+    private Pair<TokenSource, CharStream> tokenSourcePair() {
+        if (tokenSourcePair == null) {
+            tokenSourcePair = new Pair<>(this, null);
+        }
+        return tokenSourcePair;
+    }
+
+    @Override
+    public Token nextToken() {
+        if (!scanNext()) {
+            CommonToken eof = new CommonToken(tokenSourcePair(), Token.EOF, Token.DEFAULT_CHANNEL, index, index - 1);
+            eof.setLine(line);
+            eof.setCharPositionInLine(column);
+            eof.setText("<EOF>");
+            return eof;
+        }
+
+        int stop = tokenIndex + tokenCodePoints - 1;
+        String text = fixedText(tokenType);
+        if (text == null) {
+            text = keywordText(tokenType, source, tokenPos, tokenLength);
+        }
+
+        CommonToken token = text != null
+                ? new CommonToken(tokenSourcePair(), tokenType, Token.DEFAULT_CHANNEL, tokenIndex, stop)
+                : new ScannedToken(tokenSourcePair(), tokenType, tokenIndex, stop, source, tokenPos, tokenLength);
+        token.setLine(tokenLine);
+        token.setCharPositionInLine(tokenColumn);
+        if (text != null) {
+            token.setText(text);
+        }
+        return token;
+    }
+
+    /**
+     * Scan the whole source into a compact TokenBuffer, without creating Token objects.
+     * The buffer ends with an EOF token.
+     */
+    public TokenBuffer tokenize() {
+        TokenBuffer buffer = new TokenBuffer(source, this, source.length / 3 + 16);
+        while (scanNext()) {
+            addToken(buffer, 0);
+        }
+        addEOF(buffer, 0);
+        buffer.trimToSize();
+        return buffer;
+    }
+
+    byte[] getSource() {
+        return source;
+    }
+
+    /**
+     * Append the token found by the last scanNext() to buffer, shifting its line by lineOffset
+     */
+    void addToken(TokenBuffer buffer, int lineOffset) {
+        buffer.add(tokenType, tokenPos, tokenPos + tokenLength - 1, tokenLine + lineOffset, tokenColumn);
+    }
+
+    /**
+     * Append an EOF token at the current position
+     */
+    void addEOF(TokenBuffer buffer, int lineOffset) {
+        buffer.add(Token.EOF, pos, pos - 1, line + lineOffset, column);
+    }
+
+    /**
+     * Byte offset of the token found by the last scanNext()
+     */
+    int tokenStart() {
+        return tokenPos;
+    }
+
+    /**
+     * Text of operator tokens, which is the same for every occurrence; null for other types
+     */
+    static String fixedText(int tokenType) {
+        return tokenType > 0 && tokenType < OPERATOR_TEXT.length ? OPERATOR_TEXT[tokenType] : null;
+    }
+
+    /**
+     * The shared keyword string for a keyword token the source spells in lower case (the
+     * usual spelling), so its text needs no decoding; null for any other token
+     */
+    static String keywordText(int tokenType, byte[] source, int start, int length) {
+        if (tokenType <= 0 || tokenType >= KEYWORD_TEXT_BY_TYPE.length || KEYWORD_TEXT_BY_TYPE[tokenType] == null) {
+            return null;
+        }
+        // Keywords are letters only, so no byte below 'a' means no upper-case letter
+        for (int i = start; i < start + length; i++) {
+            if (source[i] < 'a') {
+                return null;
+            }
+        }
+        return KEYWORD_TEXT_BY_TYPE[tokenType];
+    }
+
+    /**
+     * Token whose text is decoded from the source bytes on first use
+     */
+    private static class ScannedToken extends CommonToken {
+        private static final long serialVersionUID = 1L;
+
+        private byte[] source;
+        private int byteStart;
+        private int byteLength;
+
+        ScannedToken(Pair<TokenSource, CharStream> tokenSourcePair, int type, int start, int stop,
+                     byte[] source, int byteStart, int byteLength) {
+            super(tokenSourcePair, type, Token.DEFAULT_CHANNEL, start, stop);
+            this.source = source;
+            this.byteStart = byteStart;
+            this.byteLength = byteLength;
+        }
+
+        @Override
+        public String getText() {
+            if (text == null) {
+                text = new String(source, byteStart, byteLength, StandardCharsets.UTF_8);
+            }
+            return text;
+        }
+    }
+
+    /**
+     * Skip whitespace and comments and scan the next token into the token* fields.
+     * Returns false at the end of the input.
+     */
+    boolean scanNext() {
+        while (pos < source.length) {
+            int c = source[pos] & 0xFF;
+            int charClass = c < 128 ? CHAR_CLASS[c] : OTHER;
+
+            if (charClass == SPACE) {
+                pos++;
+                index++;
+                column++;
+                if (c == '\n') {
+                    line++;
+                    column = 0;
+                }
+            } else if (charClass == LETTER) {
+                scanIdentifier();
+                return true;
+            } else if (charClass == DIGIT) {
+                int end = pos + 1;
+                while (end < source.length && source[end] >= '0' && source[end] <= '9') {
+                    end++;
+                }
+                emit(CoolLexer.INT, end - pos, end - pos);
+                return true;
+            } else if (c == '"') {
+                if (!scanString()) {
+                    emit(CoolLexer.ERROR, 1, 1);
+                }
+                return true;
+            } else if (c == '-' && peek(1) == '-') {
+                skipLineComment();
+            } else if (c == '(' && peek(1) == '*') {
+                if (!skipBlockComment()) {
+                    emit(CoolLexer.LPAREN, 1, 1);
+                    return true;
+                }
+            } else {
+                if (!scanOperator(c)) {
+                    scanError();
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int peek(int offset) {
+        int i = pos + offset;
+        return i < source.length ? source[i] & 0xFF : -1;
+    }
+
+    // Record a token of byteLength bytes and codePoints code points at the current position
+    private void emit(int type, int byteLength, int codePoints) {
+        tokenType = type;
+        tokenPos = pos;
+        tokenLength = byteLength;
+        tokenIndex = index;
+        tokenCodePoints = codePoints;
+        tokenLine = line;
+        tokenColumn = column;
+
+        pos += byteLength;
+        index += codePoints;
+        column += codePoints;
+    }
+
+    private void scanIdentifier() {
+        int end = pos + 1;
+        while (end < source.length) {
+            int c = source[end];
+            if (c < 0 || (CHAR_CLASS[c] != LETTER && CHAR_CLASS[c] != DIGIT && c != '_')) {
+                break;
+            }
+            end++;
+        }
+
+        int length = end - pos;
+        int slot = keywordHash(source[pos], source[end - 1], length);
+        String keyword = KEYWORD_TEXT[slot];
+        if (keyword != null && keyword.length() == length && matchesKeyword(keyword)) {
+            emit(KEYWORD_TYPE[slot], length, length);
+        } else {
+            emit(CoolLexer.ID, length, length);
+        }
+    }
+
+    // true and false are the only case-sensitive keywords
+    private boolean matchesKeyword(String keyword) {
+        boolean caseSensitive = keyword.equals("true") || keyword.equals("false");
+        for (int i = 0; i < keyword.length(); i++) {
+            int c = source[pos + i];
+            if (!caseSensitive) {
+                c |= 0x20;
+            }
+            if (c != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // STRING : '"' (~["\r\n])* '"' ; returns false if the closing quote is missing
+    private boolean scanString() {
+        int end = pos + 1;
+        int codePoints = 1;
+        while (end < source.length) {
+            int c = source[end];
+            if (c == '"') {
+                break;
+            }
+            if (c == '\r' || c == '\n') {
+                return false;
+            }
+            if ((c & 0xC0) != 0x80) {
+                codePoints++;
+            }
+            end++;
+        }
+        if (end == source.length) {
+            return false;
+        }
+
+        emit(CoolLexer.STRING, end + 1 - pos, codePoints + 1);
+        return true;
+    }
+
+    private boolean scanOperator(int c) {
+        int next = peek(1);
+        int type = 0;
+        switch (c) {
+            case '!': if (next == '=') type = CoolLexer.NE; break;
+            case '<':
+                if (next == '=') type = CoolLexer.LE;
+                if (next == '-') type = CoolLexer.ASSIGN;
+                break;
+            case '>': if (next == '=') type = CoolLexer.GE; break;
+            case '+': if (next == '=') type = CoolLexer.PLUSASSIGN; break;
+            case '-': if (next == '=') type = CoolLexer.MINUSASSIGN; break;
+            case '*': if (next == '=') type = CoolLexer.MULTASSIGN; break;
+            case '/': if (next == '=') type = CoolLexer.DIVASSIGN; break;
+            case '&': if (next == '&') type = CoolLexer.AND; break;
+            case '|': if (next == '|') type = CoolLexer.OR; break;
+            default: break;
+        }
+        if (type != 0) {
+            emit(type, 2, 2);
+            return true;
+        }
+
+        type = c < 128 ? SINGLE_CHAR_TOKEN[c] : 0;
+        if (type == 0) {
+            return false;
+        }
+        emit(type, 1, 1);
+        return true;
+    }
+
+    // ERROR : . ; one code point, which may be several bytes
+    private void scanError() {
+        int c = source[pos] & 0xFF;
+        int length = c < 0x80 ? 1 : c >= 0xF0 ? 4 : c >= 0xE0 ? 3 : c >= 0xC0 ? 2 : 1;
+        emit(CoolLexer.ERROR, Math.min(length, source.length - pos), 1);
+    }
+
+    // SINGLE_COMMENT : '--' ~[\r\n]* -> skip
+    private void skipLineComment() {
+        while (pos < source.length && source[pos] != '\r' && source[pos] != '\n') {
+            skipByte();
+        }
+    }
+
+    /**
+     * MULTI_COMMENT : '(*' (MULTI_COMMENT | .)*? '*)' -> skip
+     *
+     * At every "(*" inside a comment the rule may either open a nested comment or take '(' as
+     * a plain character, and "*)" always closes the innermost open comment. The generated lexer
+     * explores both choices and keeps the longest comment that closes, so this tracks the set of
+     * possible nesting depths at each position. Returns false (consuming nothing) if no choice
+     * ever closes the comment.
+     */
+    private boolean skipBlockComment() {
+        int end = findBlockCommentEnd();
+        if (end < 0) {
+            return false;
+        }
+        while (pos < end) {
+            skipByte();
+        }
+        return true;
+    }
+
+    private int findBlockCommentEnd() {
+        // Common case: no "(*" before the first "*)", so there is nothing to choose
+        for (int i = pos + 2; i + 1 < source.length; i++) {
+            if (source[i] == '*' && source[i + 1] == ')') {
+                return i + 2;
+            }
+            if (source[i] == '(' && source[i + 1] == '*') {
+                break;
+            }
+        }
+
+        // depthsAt[i % 3]: the nesting depths some choice can be at when it reaches position i
+        BitSet[] depthsAt = commentDepths;
+        for (BitSet depths : depthsAt) {
+            depths.clear();
+        }
+        depthsAt[(pos + 2) % 3].set(1);
+
+        int end = -1;
+        for (int i = pos + 2; i < source.length; i++) {
+            BitSet depths = depthsAt[i % 3];
+            if (depths.isEmpty()) {
+                if (depthsAt[(i + 1) % 3].isEmpty() && depthsAt[(i + 2) % 3].isEmpty()) {
+                    break;
+                }
+                continue;
+            }
+
+            boolean closes = source[i] == '*' && i + 1 < source.length && source[i + 1] == ')';
+            boolean opens = source[i] == '(' && i + 1 < source.length && source[i + 1] == '*';
+            for (int d = depths.nextSetBit(1); d >= 0; d = depths.nextSetBit(d + 1)) {
+                if (closes) {
+                    if (d == 1) {
+                        end = i + 2;
+                    } else {
+                        depthsAt[(i + 2) % 3].set(d - 1);
+                    }
+                } else if (opens) {
+                    depthsAt[(i + 2) % 3].set(d + 1);
+                    depthsAt[(i + 1) % 3].set(d);
+                } else {
+                    depthsAt[(i + 1) % 3].set(d);
+                }
+            }
+            depths.clear();
+        }
+        return end;
+    }
+
+    // Advance over one byte inside a comment, keeping line, column and code point index
+    private void skipByte() {
+        int c = source[pos++];
+        if ((c & 0xC0) != 0x80) {
+            index++;
+            column++;
+        }
+        if (c == '\n') {
+            line++;
+            column = 0;
+        }
+    }
+
+    @Override
+    public int getLine() {
+        return line;
+    }
+
+    @Override
+    public int getCharPositionInLine() {
+        return column;
+    }
+
+    /**
+     * The source decoded as a CharStream; only created when something asks for it
+     */
+    @Override
+    public CharStream getInputStream() {
+        if (charStream == null) {
+            charStream = CharStreams.fromString(new String(source, StandardCharsets.UTF_8), sourceName);
+        }
+        return charStream;
+    }
+
+    @Override
+    public String getSourceName() {
+        return sourceName;
+    }
+
+    @Override
+    public void setTokenFactory(TokenFactory<?> factory) {
+        // Tokens are always CommonTokens with their text set
+    }
+
+    @Override
+    public TokenFactory<?> getTokenFactory() {
+        return CommonTokenFactory.DEFAULT;
+    }
+}
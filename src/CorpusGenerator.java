@@ -0,0 +1,160 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Generates large, semantically valid COOL programs for benchmarks and batch runs.
+ *
+ * Usage: java CorpusGenerator <outputDir> <files> <classesPerFile> <methodsPerClass>
+ */
+public class CorpusGenerator {
+    private Random random;
+
+    public CorpusGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4) {
+            System.err.println("Usage: java CorpusGenerator <outputDir> <files> <classesPerFile> <methodsPerClass>");
+            System.exit(2);
+        }
+
+        Path outputDir = Paths.get(args[0]);
+        int files = Integer.parseInt(args[1]);
+        int classes = Integer.parseInt(args[2]);
+        int methods = Integer.parseInt(args[3]);
+
+        Files.createDirectories(outputDir);
+        for (int i = 0; i < files; i++) {
+            String program = new CorpusGenerator(i).generateProgram(classes, methods);
+            Files.write(outputDir.resolve("gen" + i + ".cool"), program.getBytes());
+        }
+        System.out.println("Generated " + files + " files in " + outputDir);
+    }
+
+    /**
+     * Generate a program with the given number of classes. Every fourth class starts a new
+     * inheritance chain, the others inherit from the class before them.
+     */
+    public String generateProgram(int classes, int methodsPerClass) {
+        StringBuilder sb = new StringBuilder();
+
+        for (int c = 0; c < classes; c++) {
+            sb.append("class C").append(c);
+            if (c % 4 != 0) {
+                sb.append(" inherits C").append(c - 1);
+            }
+            sb.append(" {\n");
+
+            // Attributes
+            sb.append("  a").append(c).append(" : Int <- ").append(random.nextInt(100)).append(";\n");
+            sb.append("  f").append(c).append(" : Bool <- ").append(random.nextBoolean()).append(";\n");
+            sb.append("  s").append(c).append(" : String <- \"str").append(c).append("\";\n");
+            sb.append("\n");
+
+            // Methods
+            for (int m = 0; m < methodsPerClass; m++) {
+                appendMethod(sb, c, m);
+            }
+
+            sb.append("}\n\n");
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Generate count expression statements ("expr;") using every operator, with chains of
+     * operators of the same precedence level (a + b - c).
+     */
+    public String generateExpressions(int count) {
+        return generateExpressions(count, 2);
+    }
+
+    /**
+     * The same with up to depth levels of parenthesized and call-argument nesting
+     */
+    public String generateExpressions(int count, int depth) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            appendExpression(sb, depth);
+            sb.append(";\n");
+        }
+        return sb.toString();
+    }
+
+    private static final String[][] OPERATORS = {
+            {"&&", "||"},
+            {"<", "<=", ">", ">=", "=", "!="},
+            {"+", "-"},
+            {"*", "/", "%"}
+    };
+
+    private void appendExpression(StringBuilder sb, int depth) {
+        if (random.nextInt(10) == 0) {
+            sb.append("x").append(random.nextInt(5)).append(" <- ");
+        }
+        appendBinary(sb, 0, depth);
+    }
+
+    private void appendBinary(StringBuilder sb, int level, int depth) {
+        if (level == OPERATORS.length) {
+            appendUnary(sb, depth);
+            return;
+        }
+
+        appendBinary(sb, level + 1, depth);
+        while (random.nextInt(3) == 0) {
+            String[] operators = OPERATORS[level];
+            sb.append(" ").append(operators[random.nextInt(operators.length)]).append(" ");
+            appendBinary(sb, level + 1, depth);
+        }
+    }
+
+    private void appendUnary(StringBuilder sb, int depth) {
+        if (random.nextInt(8) == 0) {
+            sb.append("!");
+        }
+
+        int choice = random.nextInt(depth > 0 ? 9 : 6);
+        switch (choice) {
+            case 0: sb.append("x").append(random.nextInt(5)); break;
+            case 1: sb.append(random.nextInt(1000)); break;
+            case 2: sb.append("\"s").append(random.nextInt(10)).append("\""); break;
+            case 3: sb.append("true"); break;
+            case 4: sb.append("false"); break;
+            case 5: sb.append("y"); break;
+            case 6:
+            case 7:
+                sb.append("(");
+                appendExpression(sb, depth - 1);
+                sb.append(")");
+                break;
+            default:
+                sb.append("f").append(random.nextInt(3)).append("(");
+                appendExpression(sb, depth - 1);
+                sb.append(", ");
+                appendExpression(sb, depth - 1);
+                sb.append(")");
+        }
+    }
+
+    private void appendMethod(StringBuilder sb, int c, int m) {
+        String name = "m" + c + "_" + m;
+        sb.append("  ").append(name).append("(p : Int, q : Int) : Int {\n");
+
+        // (* ... *) and -- comments so the lexer sees them as well
+        sb.append("    (* method ").append(m).append(" of class C").append(c).append(" *)\n");
+        sb.append("    p <- (p + ").append(random.nextInt(10)).append(") * q;\n");
+        sb.append("    if p < q then p else q fi;\n");
+        sb.append("    while p < q loop p <- p + 1; pool\n");
+        if (m > 0) {
+            sb.append("    m").append(c).append("_").append(m - 1).append("(q, p); -- call the previous method\n");
+        }
+        sb.append("    (p - q) + a").append(c).append(";\n");
+        sb.append("  };\n\n");
+    }
+}
@@ -0,0 +1,584 @@
+import ast.BinaryAST;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.RuntimeMetaData;
+import org.antlr.v4.runtime.atn.ATN;
+import org.antlr.v4.runtime.atn.ATNConfig;
+import org.antlr.v4.runtime.atn.ATNConfigSet;
+import org.antlr.v4.runtime.atn.ATNSimulator;
+import org.antlr.v4.runtime.atn.ArrayPredictionContext;
+import org.antlr.v4.runtime.atn.DecisionState;
+import org.antlr.v4.runtime.atn.LexerATNConfig;
+import org.antlr.v4.runtime.atn.LexerAction;
+import org.antlr.v4.runtime.atn.LexerActionExecutor;
+import org.antlr.v4.runtime.atn.LexerIndexedCustomAction;
+import org.antlr.v4.runtime.atn.OrderedATNConfigSet;
+import org.antlr.v4.runtime.atn.PredictionContext;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.atn.SemanticContext;
+import org.antlr.v4.runtime.atn.SingletonPredictionContext;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.antlr.v4.runtime.dfa.DFAState;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Saves the DFA states that CoolLexer and CoolParser learn during adaptive prediction, and
+ * loads them into a fresh process, so a short compile starts with the prediction caches of the
+ * previous runs instead of simulating the ATN for every new decision.
+ *
+ * Both DFA arrays are static and shared by every lexer and parser instance, so loading once
+ * before the first parse is enough. A state is written with its full ATN configuration set
+ * (states, alts, prediction contexts, lexer actions), because the simulators extend a cached
+ * state from its configurations when they meet a new input symbol. The file header holds a
+ * checksum of both serialized ATNs and the runtime version; a cache written for a different
+ * grammar or runtime is ignored and replaced on the next save.
+ *
+ * The left-recursive expr rule adds two things to that: its loop decision is a precedence DFA,
+ * whose start states hang off a placeholder s0 by precedence, and the states of its operator
+ * decision carry precedence predicates. Both are written as well.
+ */
+public class DFACache {
+    private static final int MAGIC = 0x434F4F44; // "COOD"
+    private static final int FORMAT_VERSION = 2;
+
+    // Target id of edges to ATNSimulator.ERROR
+    private static final int ERROR_STATE = -2;
+
+    // Kinds of semantic context
+    private static final int NONE = 0;
+    private static final int PRECEDENCE = 1;
+    private static final int PREDICATE = 2;
+    private static final int AND = 3;
+    private static final int OR = 4;
+
+    /**
+     * Load a cache written by save(). Returns false, leaving the DFAs alone, if the file does
+     * not exist or was written for another grammar or runtime version.
+     */
+    public static boolean load(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION
+                    || !in.readUTF().equals(RuntimeMetaData.VERSION)
+                    || in.readLong() != checksum(CoolLexer._serializedATN)
+                    || in.readLong() != checksum(CoolParser._serializedATN)) {
+                return false;
+            }
+            new Reader(in, CoolLexer._ATN, true).readDFAs(CoolLexer._decisionToDFA);
+            new Reader(in, CoolParser._ATN, false).readDFAs(CoolParser._decisionToDFA);
+            return true;
+        }
+    }
+
+    /**
+     * Write the current lexer and parser DFAs to file (through a temporary file, so concurrent
+     * compiles never read half a cache)
+     */
+    public static void save(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(RuntimeMetaData.VERSION);
+                out.writeLong(checksum(CoolLexer._serializedATN));
+                out.writeLong(checksum(CoolParser._serializedATN));
+                new Writer(out, CoolLexer._ATN, true).writeDFAs(CoolLexer._decisionToDFA);
+                new Writer(out, CoolParser._ATN, false).writeDFAs(CoolParser._decisionToDFA);
+            }
+            BinaryAST.replace(temp, file);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Number of DFA states currently cached for the lexer and the parser together
+     */
+    public static int stateCount() {
+        int count = 0;
+        for (DFA[] dfas : List.of(CoolLexer._decisionToDFA, CoolParser._decisionToDFA)) {
+            for (DFA dfa : dfas) {
+                count += dfa.states.size();
+            }
+        }
+        return count;
+    }
+
+    private static long checksum(String serializedATN) {
+        CRC32 crc = new CRC32();
+        crc.update(serializedATN.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private static class Writer {
+        private DataOutputStream out;
+        private ATN atn;
+        private boolean lexer;
+
+        // Prediction contexts by id; parents always get a smaller id than their children
+        private Map<PredictionContext, Integer> contextIds = new IdentityHashMap<>();
+        private List<PredictionContext> contexts = new ArrayList<>();
+
+        Writer(DataOutputStream out, ATN atn, boolean lexer) {
+            this.out = out;
+            this.atn = atn;
+            this.lexer = lexer;
+        }
+
+        void writeDFAs(DFA[] dfas) throws IOException {
+            // Snapshot every cacheable DFA first; the simulators add states under this lock
+            List<DFA> cached = new ArrayList<>();
+            List<List<DFAState>> cachedStates = new ArrayList<>();
+            for (DFA dfa : dfas) {
+                List<DFAState> states;
+                synchronized (dfa.states) {
+                    states = new ArrayList<>(dfa.states.values());
+                }
+                if (states.isEmpty()) {
+                    continue;
+                }
+                cached.add(dfa);
+                cachedStates.add(states);
+                for (DFAState state : states) {
+                    for (ATNConfig config : state.configs) {
+                        collectContext(config.context);
+                    }
+                }
+            }
+
+            writeContexts();
+            out.writeInt(cached.size());
+            for (int d = 0; d < cached.size(); d++) {
+                writeDFA(cached.get(d), cachedStates.get(d));
+            }
+        }
+
+        private void collectContext(PredictionContext context) {
+            if (context == null || contextIds.containsKey(context)) {
+                return;
+            }
+            for (int i = 0; i < context.size(); i++) {
+                collectContext(context.getParent(i));
+            }
+            contextIds.put(context, contexts.size());
+            contexts.add(context);
+        }
+
+        private void writeContexts() throws IOException {
+            out.writeInt(contexts.size());
+            for (PredictionContext context : contexts) {
+                if (context.isEmpty()) {
+                    out.writeInt(0);
+                    continue;
+                }
+                out.writeInt(context.size());
+                for (int i = 0; i < context.size(); i++) {
+                    out.writeInt(contextId(context.getParent(i)));
+                    out.writeInt(context.getReturnState(i));
+                }
+            }
+        }
+
+        private int contextId(PredictionContext context) {
+            return context == null ? -1 : contextIds.get(context);
+        }
+
+        private void writeDFA(DFA dfa, List<DFAState> states) throws IOException {
+            Map<DFAState, Integer> ids = new IdentityHashMap<>();
+            for (DFAState state : states) {
+                ids.put(state, ids.size());
+            }
+
+            out.writeInt(dfa.decision);
+            out.writeInt(states.size());
+            out.writeInt(ids.getOrDefault(dfa.s0, -1));
+            for (DFAState state : states) {
+                out.writeInt(state.stateNumber);
+                out.writeBoolean(state.isAcceptState);
+                out.writeInt(state.prediction);
+                out.writeBoolean(state.requiresFullContext);
+                writePredicates(state.predicates);
+                writeExecutor(state.lexerActionExecutor);
+                writeConfigs(state.configs);
+            }
+
+            // Edges last, once every target has an id; a precedence DFA's s0 is not one of its
+            // states, its edges are the start states by precedence
+            for (DFAState state : states) {
+                writeEdges(state.edges, ids);
+            }
+            if (dfa.isPrecedenceDfa()) {
+                writeEdges(dfa.s0.edges, ids);
+            }
+        }
+
+        private void writeEdges(DFAState[] edges, Map<DFAState, Integer> ids) throws IOException {
+            if (edges == null) {
+                out.writeInt(-1);
+                return;
+            }
+            out.writeInt(edges.length);
+            int count = 0;
+            for (DFAState target : edges) {
+                if (target != null && (target == ATNSimulator.ERROR || ids.containsKey(target))) {
+                    count++;
+                }
+            }
+            out.writeInt(count);
+            for (int i = 0; i < edges.length; i++) {
+                DFAState target = edges[i];
+                if (target == ATNSimulator.ERROR) {
+                    out.writeInt(i);
+                    out.writeInt(ERROR_STATE);
+                } else if (target != null && ids.containsKey(target)) {
+                    out.writeInt(i);
+                    out.writeInt(ids.get(target));
+                }
+            }
+        }
+
+        private void writePredicates(DFAState.PredPrediction[] predicates) throws IOException {
+            if (predicates == null) {
+                out.writeInt(-1);
+                return;
+            }
+            out.writeInt(predicates.length);
+            for (DFAState.PredPrediction predicate : predicates) {
+                writeSemanticContext(predicate.pred);
+                out.writeInt(predicate.alt);
+            }
+        }
+
+        private void writeSemanticContext(SemanticContext context) throws IOException {
+            if (context == SemanticContext.Empty.Instance) {
+                out.writeInt(NONE);
+            } else if (context instanceof SemanticContext.PrecedencePredicate) {
+                out.writeInt(PRECEDENCE);
+                out.writeInt(((SemanticContext.PrecedencePredicate) context).precedence);
+            } else if (context instanceof SemanticContext.Predicate) {
+                SemanticContext.Predicate predicate = (SemanticContext.Predicate) context;
+                out.writeInt(PREDICATE);
+                out.writeInt(predicate.ruleIndex);
+                out.writeInt(predicate.predIndex);
+                out.writeBoolean(predicate.isCtxDependent);
+            } else if (context instanceof SemanticContext.AND || context instanceof SemanticContext.OR) {
+                SemanticContext[] operands = context instanceof SemanticContext.AND
+                        ? ((SemanticContext.AND) context).opnds
+                        : ((SemanticContext.OR) context).opnds;
+                out.writeInt(context instanceof SemanticContext.AND ? AND : OR);
+                out.writeInt(operands.length);
+                for (SemanticContext operand : operands) {
+                    writeSemanticContext(operand);
+                }
+            } else {
+                throw new IOException("Semantic context " + context + " cannot be cached");
+            }
+        }
+
+        private void writeConfigs(ATNConfigSet configs) throws IOException {
+            out.writeBoolean(configs.fullCtx);
+            out.writeInt(configs.uniqueAlt);
+            out.writeBoolean(configs.dipsIntoOuterContext);
+
+            out.writeInt(configs.size());
+            for (ATNConfig config : configs) {
+                out.writeInt(config.state.stateNumber);
+                out.writeInt(config.alt);
+                out.writeInt(contextId(config.context));
+                out.writeInt(config.reachesIntoOuterContext);
+                if (lexer) {
+                    LexerATNConfig lexerConfig = (LexerATNConfig) config;
+                    out.writeBoolean(lexerConfig.hasPassedThroughNonGreedyDecision());
+                    writeExecutor(lexerConfig.getLexerActionExecutor());
+                } else {
+                    writeSemanticContext(config.semanticContext);
+                }
+            }
+        }
+
+        // Lexer actions as indexes into the ATN's action table, with the offset of indexed ones
+        private void writeExecutor(LexerActionExecutor executor) throws IOException {
+            if (executor == null) {
+                out.writeInt(-1);
+                return;
+            }
+            LexerAction[] actions = executor.getLexerActions();
+            out.writeInt(actions.length);
+            for (LexerAction action : actions) {
+                int offset = -1;
+                if (action instanceof LexerIndexedCustomAction) {
+                    offset = ((LexerIndexedCustomAction) action).getOffset();
+                    action = ((LexerIndexedCustomAction) action).getAction();
+                }
+                out.writeInt(offset);
+                out.writeInt(actionIndex(action));
+            }
+        }
+
+        private int actionIndex(LexerAction action) throws IOException {
+            for (int i = 0; i < atn.lexerActions.length; i++) {
+                if (atn.lexerActions[i].equals(action)) {
+                    return i;
+                }
+            }
+            throw new IOException("Lexer action " + action + " is not in the ATN");
+        }
+    }
+
+    /**
+     * Configurations of a state that ended SLL prediction in a conflict. ParserATNSimulator
+     * records the conflicting alternatives on such states only, computed from the same
+     * configurations, and conflictingAlts is not public, so it is recomputed here rather than
+     * written to the file.
+     */
+    private static class ConflictingConfigSet extends ATNConfigSet {
+        ConflictingConfigSet(boolean fullCtx) {
+            super(fullCtx);
+        }
+
+        void computeConflictingAlts() {
+            conflictingAlts = PredictionMode.getAlts(PredictionMode.getConflictingAltSubsets(this));
+        }
+    }
+
+    private static class Reader {
+        private DataInputStream in;
+        private ATN atn;
+        private boolean lexer;
+        private PredictionContext[] contexts;
+
+        Reader(DataInputStream in, ATN atn, boolean lexer) {
+            this.in = in;
+            this.atn = atn;
+            this.lexer = lexer;
+        }
+
+        void readDFAs(DFA[] dfas) throws IOException {
+            readContexts();
+            int count = in.readInt();
+            for (int d = 0; d < count; d++) {
+                int decision = in.readInt();
+                if (decision < 0 || decision >= dfas.length) {
+                    throw new IOException("DFA cache names decision " + decision + " of " + dfas.length);
+                }
+                readDFA(dfas[decision]);
+            }
+        }
+
+        private void readContexts() throws IOException {
+            PredictionContext empty = PredictionContext.fromRuleContext(atn, ParserRuleContext.EMPTY);
+            contexts = new PredictionContext[in.readInt()];
+            for (int c = 0; c < contexts.length; c++) {
+                int size = in.readInt();
+                if (size == 0) {
+                    contexts[c] = empty;
+                } else if (size == 1) {
+                    PredictionContext parent = context(in.readInt());
+                    contexts[c] = SingletonPredictionContext.create(parent, in.readInt());
+                } else {
+                    PredictionContext[] parents = new PredictionContext[size];
+                    int[] returnStates = new int[size];
+                    for (int i = 0; i < size; i++) {
+                        parents[i] = context(in.readInt());
+                        returnStates[i] = in.readInt();
+                    }
+                    contexts[c] = new ArrayPredictionContext(parents, returnStates);
+                }
+            }
+        }
+
+        private PredictionContext context(int id) {
+            return id == -1 ? null : contexts[id];
+        }
+
+        private void readDFA(DFA dfa) throws IOException {
+            DFAState[] states = new DFAState[in.readInt()];
+            int s0 = in.readInt();
+            for (int s = 0; s < states.length; s++) {
+                int stateNumber = in.readInt();
+                boolean isAcceptState = in.readBoolean();
+                int prediction = in.readInt();
+                boolean requiresFullContext = in.readBoolean();
+                DFAState.PredPrediction[] predicates = readPredicates();
+                LexerActionExecutor executor = readExecutor();
+
+                DFAState state = new DFAState(readConfigs(requiresFullContext));
+                state.stateNumber = stateNumber;
+                state.isAcceptState = isAcceptState;
+                state.prediction = prediction;
+                state.requiresFullContext = requiresFullContext;
+                state.predicates = predicates;
+                state.lexerActionExecutor = executor;
+                states[s] = state;
+            }
+            for (DFAState state : states) {
+                state.edges = readEdges(states);
+            }
+            DFAState[] precedenceStarts = dfa.isPrecedenceDfa() ? readEdges(states) : null;
+
+            // A decision this process has already started predicting keeps its own states; the
+            // s0 of a precedence DFA is a placeholder that is always there
+            synchronized (dfa.states) {
+                if (!dfa.states.isEmpty() || (dfa.s0 != null && !dfa.isPrecedenceDfa())) {
+                    return;
+                }
+                for (DFAState state : states) {
+                    dfa.states.put(state, state);
+                }
+                if (precedenceStarts == null) {
+                    dfa.s0 = s0 < 0 ? null : states[s0];
+                    return;
+                }
+                for (int precedence = 0; precedence < precedenceStarts.length; precedence++) {
+                    if (precedenceStarts[precedence] != null) {
+                        dfa.setPrecedenceStartState(precedence, precedenceStarts[precedence]);
+                    }
+                }
+            }
+        }
+
+        private DFAState[] readEdges(DFAState[] states) throws IOException {
+            int length = in.readInt();
+            if (length < 0) {
+                return null;
+            }
+            DFAState[] edges = new DFAState[length];
+            int count = in.readInt();
+            for (int e = 0; e < count; e++) {
+                int symbol = in.readInt();
+                int target = in.readInt();
+                edges[symbol] = target == ERROR_STATE ? ATNSimulator.ERROR : states[target];
+            }
+            return edges;
+        }
+
+        private DFAState.PredPrediction[] readPredicates() throws IOException {
+            int length = in.readInt();
+            if (length < 0) {
+                return null;
+            }
+            DFAState.PredPrediction[] predicates = new DFAState.PredPrediction[length];
+            for (int i = 0; i < length; i++) {
+                SemanticContext predicate = readSemanticContext();
+                predicates[i] = new DFAState.PredPrediction(predicate, in.readInt());
+            }
+            return predicates;
+        }
+
+        private SemanticContext readSemanticContext() throws IOException {
+            int kind = in.readInt();
+            switch (kind) {
+                case NONE:
+                    return SemanticContext.Empty.Instance;
+                case PRECEDENCE:
+                    return new SemanticContext.PrecedencePredicate(in.readInt());
+                case PREDICATE:
+                    return new SemanticContext.Predicate(in.readInt(), in.readInt(), in.readBoolean());
+                case AND:
+                case OR: {
+                    // Rebuilt the way the simulator combines them
+                    int count = in.readInt();
+                    SemanticContext context = readSemanticContext();
+                    for (int i = 1; i < count; i++) {
+                        SemanticContext operand = readSemanticContext();
+                        context = kind == AND ? SemanticContext.and(context, operand) : SemanticContext.or(context, operand);
+                    }
+                    return context;
+                }
+                default:
+                    throw new IOException("DFA cache has an unknown semantic context kind " + kind);
+            }
+        }
+
+        private ATNConfigSet readConfigs(boolean requiresFullContext) throws IOException {
+            boolean fullCtx = in.readBoolean();
+            int uniqueAlt = in.readInt();
+            boolean dipsIntoOuterContext = in.readBoolean();
+
+            ATNConfigSet configs;
+            if (lexer) {
+                configs = new OrderedATNConfigSet();
+            } else if (requiresFullContext) {
+                configs = new ConflictingConfigSet(fullCtx);
+            } else {
+                configs = new ATNConfigSet(fullCtx);
+            }
+            int count = in.readInt();
+            for (int c = 0; c < count; c++) {
+                int stateNumber = in.readInt();
+                int alt = in.readInt();
+                PredictionContext context = context(in.readInt());
+                int reachesIntoOuterContext = in.readInt();
+
+                ATNConfig config;
+                if (lexer) {
+                    boolean passedThroughNonGreedyDecision = in.readBoolean();
+                    config = lexerConfig(stateNumber, alt, context, readExecutor(), passedThroughNonGreedyDecision);
+                } else {
+                    config = new ATNConfig(atn.states.get(stateNumber), alt, context, readSemanticContext());
+                }
+                config.reachesIntoOuterContext = reachesIntoOuterContext;
+                configs.add(config);
+            }
+
+            if (configs instanceof ConflictingConfigSet) {
+                ((ConflictingConfigSet) configs).computeConflictingAlts();
+            }
+            configs.uniqueAlt = uniqueAlt;
+            configs.dipsIntoOuterContext = dipsIntoOuterContext;
+            configs.setReadonly(true);
+            return configs;
+        }
+
+        private LexerATNConfig lexerConfig(int stateNumber, int alt, PredictionContext context,
+                                           LexerActionExecutor executor, boolean passedThroughNonGreedyDecision)
+                throws IOException {
+            LexerATNConfig config = new LexerATNConfig(atn.states.get(stateNumber), alt, context, executor);
+            if (!passedThroughNonGreedyDecision) {
+                return config;
+            }
+
+            // The flag has no setter; it is set by deriving a config through a non-greedy decision
+            for (DecisionState decision : atn.decisionToState) {
+                if (decision.nonGreedy) {
+                    LexerATNConfig nonGreedy = new LexerATNConfig(config, decision);
+                    return new LexerATNConfig(nonGreedy, atn.states.get(stateNumber));
+                }
+            }
+            throw new IOException("DFA cache has a non-greedy lexer config, but the ATN has no non-greedy decision");
+        }
+
+        private LexerActionExecutor readExecutor() throws IOException {
+            int length = in.readInt();
+            if (length < 0) {
+                return null;
+            }
+            LexerAction[] actions = new LexerAction[length];
+            for (int i = 0; i < length; i++) {
+                int offset = in.readInt();
+                LexerAction action = atn.lexerActions[in.readInt()];
+                actions[i] = offset < 0 ? action : new LexerIndexedCustomAction(offset, action);
+            }
+            return new LexerActionExecutor(actions);
+        }
+    }
+}
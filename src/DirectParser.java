@@ -0,0 +1,294 @@
+import ast.*;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recursive-descent parser for CoolParser.g4 that builds the AST directly from the token
+ * stream, so no ParseTree is materialized next to it. Expressions go through ExpressionParser.
+ * It accepts the same programs as CoolParser and builds the same AST as ASTBuilder.
+ *
+ * Like ASTBuilder, attributes and parameters are collected into a SymbolTable on the way.
+ *
+ * With lazy bodies, a method body is only skipped up to its closing brace during the parse and
+ * is parsed when MethodNode.getBody() is first called. Passes that need only the class and
+ * feature signatures then never pay for the statements. A syntax error in a deferred body is
+ * added to the error list given to setLazyBodies, and the body is left empty.
+ */
+public class DirectParser {
+    private TokenStream tokens;
+    private ExpressionParser expressionParser;
+    private SymbolTable symbolTable;
+
+    // Where syntax errors of deferred method bodies go; null parses bodies eagerly
+    private List<String> lazyBodyErrors;
+
+    public DirectParser(TokenStream tokens) {
+        this(tokens, new SymbolTable());
+    }
+
+    public DirectParser(TokenStream tokens, SymbolTable symbolTable) {
+        this.tokens = tokens;
+        this.expressionParser = new ExpressionParser(tokens);
+        this.symbolTable = symbolTable;
+    }
+
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    /**
+     * Skip method bodies and parse them on demand. The token stream must keep every token
+     * (not an UnbufferedTokenStream), as deferred bodies read it after the parse has finished.
+     */
+    public void setLazyBodies(List<String> errors) {
+        this.lazyBodyErrors = errors;
+    }
+
+    /**
+     * Parse a whole program. Returns null and adds the syntax error to errors if parsing fails.
+     */
+    public ProgramNode parseProgram(List<String> errors) {
+        try {
+            return parseProgram();
+        } catch (ParseCancellationException e) {
+            errors.add(e.getMessage());
+            return null;
+        }
+    }
+
+    // program : classDef+ EOF
+    public ProgramNode parseProgram() {
+        Token start = tokens.LT(1);
+        ProgramNode program = new ProgramNode(start.getLine(), start.getCharPositionInLine());
+
+        do {
+            program.addClass(parseClass());
+        } while (tokens.LA(1) != Token.EOF);
+
+        return program;
+    }
+
+    // classDef : CLASS ID (INHERITS ID)? LBRACE (feature | statement)* RBRACE SEMI?
+    public ClassNode parseClass() {
+        return parseClass(null);
+    }
+
+    /**
+     * Parse a classDef, adding the token index where each member starts and that of the
+     * closing brace to memberStarts if it is not null
+     */
+    ClassNode parseClass(List<Integer> memberStarts) {
+        Token start = expressionParser.match(CoolLexer.CLASS, "'class'");
+        String className = expressionParser.match(CoolLexer.ID, "a class name").getText();
+        String parentName = null;
+        if (tokens.LA(1) == CoolLexer.INHERITS) {
+            tokens.consume();
+            parentName = expressionParser.match(CoolLexer.ID, "a class name").getText();
+        }
+
+        ClassNode classNode = new ClassNode(start.getLine(), start.getCharPositionInLine(), className, parentName);
+        expressionParser.match(CoolLexer.LBRACE, "'{'");
+
+        List<Token> statementStarts = new ArrayList<>();
+        List<ExpressionNode> statements = new ArrayList<>();
+        while (tokens.LA(1) != CoolLexer.RBRACE) {
+            if (memberStarts != null) {
+                memberStarts.add(tokens.index());
+            }
+            if (isFeature()) {
+                classNode.addFeature(parseFeature());
+            } else {
+                statementStarts.add(tokens.LT(1));
+                statements.add(parseStatement());
+            }
+        }
+
+        // Statements in the class body become initialization methods after all the features,
+        // named after their position among them, as in ASTBuilder
+        for (int i = 0; i < statements.size(); i++) {
+            Token statementStart = statementStarts.get(i);
+            MethodNode initMethod = new MethodNode(
+                    statementStart.getLine(),
+                    statementStart.getCharPositionInLine(),
+                    "__init_stmt_" + classNode.getFeatures().size(),
+                    "Void"
+            );
+            initMethod.addBodyExpression(statements.get(i));
+            classNode.addFeature(initMethod);
+        }
+
+        if (memberStarts != null) {
+            memberStarts.add(tokens.index());
+        }
+        tokens.consume();
+        if (tokens.LA(1) == CoolLexer.SEMI) {
+            tokens.consume();
+        }
+        return classNode;
+    }
+
+    // ID COLON starts an attribute; ID LPAREN ... RPAREN COLON a method (otherwise it is a call)
+    boolean isFeature() {
+        if (tokens.LA(1) != CoolLexer.ID) {
+            return false;
+        }
+        if (tokens.LA(2) == CoolLexer.COLON) {
+            return true;
+        }
+        if (tokens.LA(2) != CoolLexer.LPAREN) {
+            return false;
+        }
+
+        int depth = 0;
+        for (int i = 2; ; i++) {
+            int tokenType = tokens.LA(i);
+            if (tokenType == CoolLexer.LPAREN) {
+                depth++;
+            } else if (tokenType == CoolLexer.RPAREN && --depth == 0) {
+                return tokens.LA(i + 1) == CoolLexer.COLON;
+            } else if (tokenType == Token.EOF) {
+                return false;
+            }
+        }
+    }
+
+    // feature : ID COLON ID (ASSIGN expr)? SEMI
+    //         | ID LPAREN (formal (COMMA formal)*)? RPAREN COLON ID LBRACE statement* RBRACE SEMI
+    public FeatureNode parseFeature() {
+        Token start = expressionParser.match(CoolLexer.ID, "a feature name");
+        String name = start.getText();
+
+        if (tokens.LA(1) == CoolLexer.COLON) {
+            // Attribute definition
+            tokens.consume();
+            String type = expressionParser.match(CoolLexer.ID, "a type").getText();
+            symbolTable.addVariable(name, type);
+
+            ExpressionNode init = null;
+            if (tokens.LA(1) == CoolLexer.ASSIGN) {
+                tokens.consume();
+                init = expressionParser.parseExpression();
+            }
+            expressionParser.match(CoolLexer.SEMI, "';'");
+
+            return new AttributeNode(start.getLine(), start.getCharPositionInLine(), name, type, init);
+        }
+
+        // Method definition; the return type comes after the parameters, so collect them first
+        expressionParser.match(CoolLexer.LPAREN, "'(' or ':'");
+        List<FormalNode> parameters = new ArrayList<>();
+        if (tokens.LA(1) != CoolLexer.RPAREN) {
+            parameters.add(parseFormal());
+            while (tokens.LA(1) == CoolLexer.COMMA) {
+                tokens.consume();
+                parameters.add(parseFormal());
+            }
+        }
+        expressionParser.match(CoolLexer.RPAREN, "')'");
+        expressionParser.match(CoolLexer.COLON, "':'");
+        String returnType = expressionParser.match(CoolLexer.ID, "a return type").getText();
+
+        MethodNode method = new MethodNode(start.getLine(), start.getCharPositionInLine(), name, returnType);
+        for (FormalNode param : parameters) {
+            method.addParameter(param);
+        }
+
+        expressionParser.match(CoolLexer.LBRACE, "'{'");
+        if (lazyBodyErrors != null) {
+            skipBody(method);
+        } else {
+            while (tokens.LA(1) != CoolLexer.RBRACE) {
+                method.addBodyExpression(parseStatement());
+            }
+        }
+        tokens.consume();
+        expressionParser.match(CoolLexer.SEMI, "';'");
+
+        return method;
+    }
+
+    // Statements never contain braces, so the body ends at the next RBRACE
+    private void skipBody(MethodNode method) {
+        int bodyStart = tokens.index();
+        while (tokens.LA(1) != CoolLexer.RBRACE) {
+            if (tokens.LA(1) == Token.EOF) {
+                throw ExpressionParser.syntaxError(tokens.LT(1), "expecting '}'");
+            }
+            tokens.consume();
+        }
+        int bodyEnd = tokens.index();
+        if (bodyEnd == bodyStart) {
+            return;
+        }
+
+        List<String> errors = lazyBodyErrors;
+        method.setBodyParser(() -> parseBody(tokens, bodyStart, bodyEnd, errors));
+    }
+
+    // Statements of a skipped body: tokens [start, end) followed by its RBRACE
+    private static List<ExpressionNode> parseBody(TokenStream tokens, int start, int end, List<String> errors) {
+        TokenRangeStream range = new TokenRangeStream(tokens, start, end + 1);
+        DirectParser parser = new DirectParser(range);
+        List<ExpressionNode> body = new ArrayList<>();
+        try {
+            while (range.LA(1) != CoolLexer.RBRACE) {
+                body.add(parser.parseStatement());
+            }
+        } catch (ParseCancellationException e) {
+            errors.add(e.getMessage());
+            body.clear();
+        }
+        return body;
+    }
+
+    // formal : ID COLON ID
+    private FormalNode parseFormal() {
+        Token start = expressionParser.match(CoolLexer.ID, "a parameter name");
+        expressionParser.match(CoolLexer.COLON, "':'");
+        String type = expressionParser.match(CoolLexer.ID, "a type").getText();
+        symbolTable.addVariable(start.getText(), type);
+
+        return new FormalNode(start.getLine(), start.getCharPositionInLine(), start.getText(), type);
+    }
+
+    // statement : expr SEMI
+    //           | ID ASSIGN expr SEMI     (already covered by expr, which handles assignment)
+    //           | IF expr THEN expr ELSE expr FI SEMI?
+    //           | WHILE expr LOOP statement POOL
+    public ExpressionNode parseStatement() {
+        Token start = tokens.LT(1);
+
+        switch (start.getType()) {
+            case CoolLexer.IF: {
+                tokens.consume();
+                ExpressionNode condition = expressionParser.parseExpression();
+                expressionParser.match(CoolLexer.THEN, "'then'");
+                ExpressionNode thenExpr = expressionParser.parseExpression();
+                expressionParser.match(CoolLexer.ELSE, "'else'");
+                ExpressionNode elseExpr = expressionParser.parseExpression();
+                expressionParser.match(CoolLexer.FI, "'fi'");
+                if (tokens.LA(1) == CoolLexer.SEMI) {
+                    tokens.consume();
+                }
+                return new IfNode(start.getLine(), start.getCharPositionInLine(), condition, thenExpr, elseExpr);
+            }
+            case CoolLexer.WHILE: {
+                tokens.consume();
+                ExpressionNode condition = expressionParser.parseExpression();
+                expressionParser.match(CoolLexer.LOOP, "'loop'");
+                ExpressionNode body = parseStatement();
+                expressionParser.match(CoolLexer.POOL, "'pool'");
+                return new WhileNode(start.getLine(), start.getCharPositionInLine(), condition, body);
+            }
+            default: {
+                ExpressionNode expr = expressionParser.parseExpression();
+                expressionParser.match(CoolLexer.SEMI, "';'");
+                return expr;
+            }
+        }
+    }
+}
@@ -1,71 +1,142 @@
+import ast.Symbols;
+import ast.Type;
+
 import java.util.*;
 
-public class EnhancedSymbolTable {
-    // Class definitions table
-    private Map<String, ClassInfo> classTable;
+/**
+ * Class, method and variable tables for semantic analysis. Names are interned symbol ids (see
+ * ast.Symbols) and types are ast.Type objects: classes are found through a map from type id to
+ * their position in the class list, and the visible variable bindings are kept in arrays
+ * indexed by a per-table slot for each variable or method name, so lookups are array reads and
+ * type checks compare references.
+ *
+ * Symbol and type ids are shared by every compilation in the JVM and only grow, so they are
+ * not used as array indexes directly: class positions and name slots count just what this unit
+ * declares, and the arrays start small and grow with them.
+ */
+public final class EnhancedSymbolTable {
+    // Classes in definition order, and the position of each in that list (type id -> index)
+    private List<ClassInfo> classes;
+    private SymbolMap classIndexes;
 
     // Current scope for analysis
     private Scope currentScope;
+    private int scopeCount;
+
+    // Slot of each declared name (symbol id -> index into the arrays below)
+    private SymbolMap nameSlots;
+
+    // Innermost visible binding of each variable name: its type and the depth of its scope
+    private Type[] variableTypes;
+    private int[] variableDepths;
+
+    // Scope number that declared each method name, for duplicate detection
+    private int[] methodScopes;
+
+    // Index for conformsTo and leastCommonAncestor, rebuilt after classes are added
+    private ClassHierarchy hierarchy;
 
     public EnhancedSymbolTable() {
-        classTable = new HashMap<>();
+        int capacity = 64;
+        nameSlots = new SymbolMap();
+        classes = new ArrayList<>();
+        classIndexes = new SymbolMap();
+        variableTypes = new Type[capacity];
+        variableDepths = new int[capacity];
+        methodScopes = new int[capacity];
         currentScope = null;
 
         // Add built-in types
         addBuiltInTypes();
     }
 
-
-
     private void addBuiltInTypes() {
         // Don't add built-in types if they're already defined in the test file
         // The classes should be defined in the test file, but just make sure Void exists
 
         // Add Void type if not already present
-        if (!classTable.containsKey("Void")) {
-            ClassInfo voidClass = new ClassInfo("Void", "Object");
-            classTable.put("Void", voidClass);
+        if (!classExists(Type.VOID)) {
+            putClass(new ClassInfo(Type.VOID, Type.OBJECT));
         }
     }
 
+    // Slot of name, assigning the next free one on first use
+    private int slot(int name) {
+        int slot = nameSlots.get(name);
+        if (slot == Symbols.NONE) {
+            slot = nameSlots.size();
+            nameSlots.put(name, slot);
+            ensureCapacity(slot);
+        }
+        return slot;
+    }
+
+    // Grow the slot-indexed arrays to cover slot
+    private void ensureCapacity(int slot) {
+        if (slot < variableTypes.length) {
+            return;
+        }
+        int capacity = Math.max(slot + 1, variableTypes.length * 2);
+        variableTypes = Arrays.copyOf(variableTypes, capacity);
+        variableDepths = Arrays.copyOf(variableDepths, capacity);
+        methodScopes = Arrays.copyOf(methodScopes, capacity);
+    }
+
+    private void putClass(ClassInfo classInfo) {
+        classInfo.index = classes.size();
+        classIndexes.put(classInfo.type.getId(), classInfo.index);
+        classes.add(classInfo);
+        hierarchy = null;
+    }
+
     // Class information management
-    public void addClass(String className, String parentName) {
-        if (classTable.containsKey(className)) {
+    public void addClass(Type className, Type parentName) {
+        if (classExists(className)) {
             throw new RuntimeException("Semantic Error: Class " + className + " already defined");
         }
 
         // Verify parent class exists if specified
-        if (parentName != null && !classTable.containsKey(parentName)) {
+        if (parentName != null && !classExists(parentName)) {
             throw new RuntimeException("Semantic Error: Parent class " + parentName + " not defined");
         }
 
-        classTable.put(className, new ClassInfo(className, parentName));
+        putClass(new ClassInfo(className, parentName));
     }
 
-    public ClassInfo getClassInfo(String className) {
-        return classTable.get(className);
+    public ClassInfo getClassInfo(Type className) {
+        if (className == null) {
+            return null;
+        }
+        int index = classIndexes.get(className.getId());
+        return index == Symbols.NONE ? null : classes.get(index);
     }
 
-    public boolean classExists(String className) {
-        return classTable.containsKey(className);
+    public boolean classExists(Type className) {
+        return getClassInfo(className) != null;
     }
 
     // Scope management
     public void enterScope(String scopeName, String scopeType) {
-        Scope newScope = new Scope(scopeName, scopeType, currentScope);
-        currentScope = newScope;
+        currentScope = new Scope(scopeName, scopeType, currentScope, ++scopeCount);
     }
 
     public void exitScope() {
         if (currentScope != null) {
-            currentScope = currentScope.parent;
+            // Restore the bindings this scope shadowed, newest first
+            Scope scope = currentScope;
+            for (int i = scope.shadowedCount - 1; i >= 0; i--) {
+                int slot = scope.shadowedSlots[i];
+                variableTypes[slot] = scope.shadowedTypes[i];
+                variableDepths[slot] = scope.shadowedDepths[i];
+            }
+            currentScope = scope.parent;
         }
     }
 
     // Variable and method declaration
-    public void addVariable(String name, String type) {
+    public void addVariable(int name, Type type) {
         if (currentScope == null) {
-            throw new RuntimeException("Semantic Error: No active scope for adding variable " + name);
+            throw new RuntimeException("Semantic Error: No active scope for adding variable " + Symbols.name(name));
         }
 
         // Check if type exists
@@ -73,30 +144,26 @@ public class EnhancedSymbolTable {
             throw new RuntimeException("Semantic Error: Type " + type + " not defined");
         }
 
+        int slot = slot(name);
+
         // Check for duplicate in current scope only
-        if (currentScope.variables.containsKey(name)) {
+        if (variableTypes[slot] != null && variableDepths[slot] == currentScope.depth) {
             // Only throw if not overriding a variable from an outer scope
-            boolean isOverride = false;
-            Scope outerScope = currentScope.parent;
-            while (outerScope != null) {
-                if (outerScope.variables.containsKey(name)) {
-                    isOverride = true;
-                    break;
-                }
-                outerScope = outerScope.parent;
-            }
-
-            if (!isOverride) {
-                throw new RuntimeException("Semantic Error: Variable " + name + " already defined in this scope");
+            if (currentScope.shadowedType(slot) == null) {
+                throw new RuntimeException("Semantic Error: Variable " + Symbols.name(name) + " already defined in this scope");
             }
+            variableTypes[slot] = type;
+            return;
         }
 
-        currentScope.variables.put(name, type);
+        currentScope.shadow(slot, variableTypes[slot], variableDepths[slot]);
+        variableTypes[slot] = type;
+        variableDepths[slot] = currentScope.depth;
     }
 
-    public void addMethod(String name, String returnType, List<String> paramTypes) {
+    public void addMethod(int name, Type returnType, Type[] paramTypes) {
         if (currentScope == null) {
-            throw new RuntimeException("Semantic Error: No active scope for adding method " + name);
+            throw new RuntimeException("Semantic Error: No active scope for adding method " + Symbols.name(name));
         }
 
         // Check if return type exists
@@ -105,43 +172,41 @@ public class EnhancedSymbolTable {
         }
 
         // Check all parameter types
-        for (String paramType : paramTypes) {
+        for (Type paramType : paramTypes) {
             if (!classExists(paramType)) {
                 throw new RuntimeException("Semantic Error: Parameter type " + paramType + " not defined");
             }
         }
 
         // Check for duplicate method in current scope
-        if (currentScope.methods.containsKey(name)) {
-            throw new RuntimeException("Semantic Error: Method " + name + " already defined in this scope");
+        int slot = slot(name);
+        if (methodScopes[slot] == currentScope.number) {
+            throw new RuntimeException("Semantic Error: Method " + Symbols.name(name) + " already defined in this scope");
         }
 
-        MethodInfo methodInfo = new MethodInfo(name, returnType, paramTypes);
-        currentScope.methods.put(name, methodInfo);
+        methodScopes[slot] = currentScope.number;
     }
 
     // Lookup functions
-    public String getVariableType(String name) {
-        Scope scope = currentScope;
-        while (scope != null) {
-            if (scope.variables.containsKey(name)) {
-                return scope.variables.get(name);
-            }
-            scope = scope.parent;
+    public Type getVariableType(int name) {
+        int slot = nameSlots.get(name);
+        if (slot == Symbols.NONE) {
+            return null;
         }
-        return null; // Not found
+        return variableTypes[slot]; // null if not found
     }
 
-    public MethodInfo getMethod(String name, String className) {
-        ClassInfo classInfo = classTable.get(className);
+    public MethodInfo getMethod(int name, Type className) {
+        ClassInfo classInfo = getClassInfo(className);
         while (classInfo != null) {
-            if (classInfo.methods.containsKey(name)) {
-                return classInfo.methods.get(name);
+            MethodInfo methodInfo = classInfo.getMethod(name);
+            if (methodInfo != null) {
+                return methodInfo;
             }
 
             // Try parent class
             if (classInfo.parentName != null) {
-                classInfo = classTable.get(classInfo.parentName);
+                classInfo = getClassInfo(classInfo.parentName);
             } else {
                 break;
             }
@@ -149,89 +214,49 @@ public class EnhancedSymbolTable {
         return null; // Method not found
     }
 
-    // Check if typeA conforms to typeB (is subtype of)
-    public boolean conformsTo(String typeA, String typeB) {
-        if (typeA.equals(typeB)) {
-            return true;
-        }
-
-        // Navigate the inheritance chain
-        String currentType = typeA;
-        while (currentType != null) {
-            ClassInfo classInfo = classTable.get(currentType);
-            if (classInfo == null) {
-                return false;
-            }
-
-            if (classInfo.name.equals(typeB)) {
-                return true;
-            }
-
-            currentType = classInfo.parentName;
+    /**
+     * Constant-time hierarchy queries over the classes defined so far, built on first use
+     * after the last addClass
+     */
+    public ClassHierarchy getHierarchy() {
+        if (hierarchy == null) {
+            hierarchy = new ClassHierarchy(classes);
         }
+        return hierarchy;
+    }
 
-        return false;
+    // Check if typeA conforms to typeB (is subtype of); SELF_TYPE must be resolved first
+    public boolean conformsTo(Type typeA, Type typeB) {
+        return typeA == typeB || getHierarchy().conformsTo(typeA, typeB);
     }
 
     // Get the lowest common ancestor type
-    public String leastCommonAncestor(String type1, String type2) {
-        if (type1.equals(type2)) {
-            return type1;
-        }
-
-        if (conformsTo(type1, type2)) {
-            return type2;
-        }
-
-        if (conformsTo(type2, type1)) {
-            return type1;
-        }
-
-        // Collect the inheritance path for type1
-        Set<String> type1Ancestors = new HashSet<>();
-        String current = type1;
-        while (current != null) {
-            type1Ancestors.add(current);
-            ClassInfo classInfo = classTable.get(current);
-            if (classInfo == null) break;
-            current = classInfo.parentName;
-        }
-
-        // Find the first common ancestor in type2's inheritance path
-        current = type2;
-        while (current != null) {
-            if (type1Ancestors.contains(current)) {
-                return current;
-            }
-            ClassInfo classInfo = classTable.get(current);
-            if (classInfo == null) break;
-            current = classInfo.parentName;
-        }
-
-        return "Object"; // Default to Object if no common ancestor found
+    public Type leastCommonAncestor(Type type1, Type type2) {
+        return getHierarchy().leastCommonAncestor(type1, type2);
     }
 
     // Print the symbol table for debugging
     public void printSymbolTable() {
         System.out.println("Enhanced Symbol Table:");
         System.out.println("Classes:");
-        for (ClassInfo classInfo : classTable.values()) {
-            System.out.println("  " + classInfo.name +
+        for (ClassInfo classInfo : classes) {
+            System.out.println("  " + classInfo.type +
                     (classInfo.parentName != null ? " inherits " + classInfo.parentName : ""));
 
             System.out.println("  Methods:");
-            for (MethodInfo methodInfo : classInfo.methods.values()) {
-                System.out.print("    " + methodInfo.name + "(");
-                for (int i = 0; i < methodInfo.paramTypes.size(); i++) {
+            for (MethodInfo methodInfo : classInfo.methods) {
+                System.out.print("    " + Symbols.name(methodInfo.name) + "(");
+                for (int i = 0; i < methodInfo.paramTypes.length; i++) {
                     if (i > 0) System.out.print(", ");
-                    System.out.print(methodInfo.paramTypes.get(i));
+                    System.out.print(methodInfo.paramTypes[i]);
                 }
                 System.out.println(") : " + methodInfo.returnType);
             }
 
             System.out.println("  Attributes:");
-            for (Map.Entry<String, String> entry : classInfo.attributes.entrySet()) {
-                System.out.println("    " + entry.getKey() + " : " + entry.getValue());
+            for (int i = 0; i < classInfo.attributes.size(); i++) {
+                System.out.println("    " + Symbols.name(classInfo.attributes.keyAt(i)) + " : "
+                        + Type.get(classInfo.attributes.valueAt(i)));
             }
         }
     }
@@ -240,48 +265,101 @@ public class EnhancedSymbolTable {
     public static class Scope {
         String name;
         String type; // "class", "method", "block"
-        Map<String, String> variables;
-        Map<String, MethodInfo> methods;
         Scope parent;
+        int depth;
+        int number;
 
-        public Scope(String name, String type, Scope parent) {
+        // Bindings (by name slot) replaced by this scope's variables, restored on exit
+        int[] shadowedSlots;
+        Type[] shadowedTypes;
+        int[] shadowedDepths;
+        int shadowedCount;
+
+        public Scope(String name, String type, Scope parent, int number) {
             this.name = name;
             this.type = type;
             this.parent = parent;
-            this.variables = new HashMap<>();
-            this.methods = new HashMap<>();
+            this.depth = parent == null ? 1 : parent.depth + 1;
+            this.number = number;
+            this.shadowedSlots = new int[8];
+            this.shadowedTypes = new Type[8];
+            this.shadowedDepths = new int[8];
+        }
+
+        void shadow(int slot, Type type, int depth) {
+            if (shadowedCount == shadowedSlots.length) {
+                shadowedSlots = Arrays.copyOf(shadowedSlots, shadowedCount * 2);
+                shadowedTypes = Arrays.copyOf(shadowedTypes, shadowedCount * 2);
+                shadowedDepths = Arrays.copyOf(shadowedDepths, shadowedCount * 2);
+            }
+            shadowedSlots[shadowedCount] = slot;
+            shadowedTypes[shadowedCount] = type;
+            shadowedDepths[shadowedCount] = depth;
+            shadowedCount++;
+        }
+
+        // Type of the outer binding this scope hid for the name in slot, null if there was none
+        Type shadowedType(int slot) {
+            for (int i = 0; i < shadowedCount; i++) {
+                if (shadowedSlots[i] == slot) {
+                    return shadowedTypes[i];
+                }
+            }
+            return null;
         }
     }
 
     public static class ClassInfo {
-        String name;
-        String parentName;
-        Map<String, String> attributes;
-        Map<String, MethodInfo> methods;
-
-        public ClassInfo(String name, String parentName) {
-            this.name = name;
+        Type type;
+        Type parentName;
+        // Position in the table's class list, for arrays sized by the number of classes
+        int index;
+        // Attribute name id -> type id
+        SymbolMap attributes;
+        List<MethodInfo> methods;
+        SymbolMap methodIndexes;
+
+        public ClassInfo(Type type, Type parentName) {
+            this.type = type;
             this.parentName = parentName;
-            this.attributes = new HashMap<>();
-            this.methods = new HashMap<>();
+            this.attributes = new SymbolMap();
+            this.methods = new ArrayList<>();
+            this.methodIndexes = new SymbolMap();
         }
 
-        public void addAttribute(String name, String type) {
-            attributes.put(name, type);
+        public void addAttribute(int name, Type type) {
+            attributes.put(name, type == null ? Symbols.NONE : type.getId());
         }
 
-        public void addMethod(String name, String returnType, List<String> paramTypes) {
-            methods.put(name, new MethodInfo(name, returnType, paramTypes));
+        // Declared type of the attribute, null if the class has none by that name
+        public Type getAttributeType(int name) {
+            return Type.get(attributes.get(name));
+        }
+
+        public void addMethod(int name, Type returnType, Type[] paramTypes) {
+            MethodInfo methodInfo = new MethodInfo(name, returnType, paramTypes);
+            int index = methodIndexes.get(name);
+            if (index != Symbols.NONE) {
+                methods.set(index, methodInfo);
+            } else {
+                methodIndexes.put(name, methods.size());
+                methods.add(methodInfo);
+            }
+        }
+
+        public MethodInfo getMethod(int name) {
+            int index = methodIndexes.get(name);
+            return index == Symbols.NONE ? null : methods.get(index);
         }
     }
 
     public static class MethodInfo {
-        String name;
-        String returnType;
-        List<String> paramTypes;
+        int name;
+        Type returnType;
+        Type[] paramTypes;
         List<String> paramNames;
 
-        public MethodInfo(String name, String returnType, List<String> paramTypes) {
+        public MethodInfo(int name, Type returnType, Type[] paramTypes) {
             this.name = name;
             this.returnType = returnType;
             this.paramTypes = paramTypes;
@@ -293,7 +371,7 @@ public class EnhancedSymbolTable {
         }
     }
 
-    public Set<String> getClassNames() {
-        return classTable.keySet();
+    public List<ClassInfo> getClasses() {
+        return classes;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,203 @@
+import ast.*;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+/**
+ * Precedence-climbing parser for COOL expressions, building ast nodes straight from the token
+ * stream without rule contexts. As in the expr rule of CoolParser.g4, binary operators chain
+ * left-associatively (a + b + c parses as (a + b) + c) and assignment is right-associative.
+ *
+ * Precedence, lowest first, as the grammar lists it in reverse: assignment, && ||, comparisons,
+ * + -, * / %, !.
+ * Nodes get the position of the first token of their source text, as in ASTBuilder.
+ *
+ * The first syntax error aborts the parse with a ParseCancellationException whose message
+ * is formatted like SyntaxErrorListener's.
+ */
+public class ExpressionParser {
+    private static final int LOGICAL = 1;
+    private static final int COMPARISON = 2;
+    private static final int ADDITIVE = 3;
+    private static final int MULTIPLICATIVE = 4;
+
+    private TokenStream tokens;
+
+    public ExpressionParser(TokenStream tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * Parse one expression starting at the current token
+     */
+    public ExpressionNode parseExpression() {
+        Token start = tokens.LT(1);
+        ExpressionNode left = parseBinary(LOGICAL);
+
+        AssignmentNode.AssignmentType type = assignmentType(tokens.LA(1));
+        if (type == null) {
+            return left;
+        }
+
+        tokens.consume();
+        ExpressionNode value = parseExpression();
+        if (left instanceof IdentifierNode) {
+            return new AssignmentNode(start.getLine(), start.getCharPositionInLine(),
+                    ((IdentifierNode) left).getName(), value, type);
+        }
+
+        // Same as ASTBuilder: an assignment to anything but a name keeps only the left side
+        return left;
+    }
+
+    // Parses operators of precedence >= minPrecedence; all binary operators are left-associative
+    private ExpressionNode parseBinary(int minPrecedence) {
+        Token start = tokens.LT(1);
+        ExpressionNode left = parseUnary();
+
+        while (true) {
+            int tokenType = tokens.LA(1);
+            int precedence = precedence(tokenType);
+            if (precedence < minPrecedence) {
+                return left;
+            }
+
+            tokens.consume();
+            ExpressionNode right = parseBinary(precedence + 1);
+            left = new BinaryOperationNode(start.getLine(), start.getCharPositionInLine(),
+                    binaryOperator(tokenType), left, right);
+        }
+    }
+
+    private ExpressionNode parseUnary() {
+        Token start = tokens.LT(1);
+        if (start.getType() == CoolLexer.NOT) {
+            tokens.consume();
+            return new UnaryOperationNode(start.getLine(), start.getCharPositionInLine(),
+                    UnaryOperationNode.Operator.NOT, parseUnary());
+        }
+        return parsePrimary();
+    }
+
+    private ExpressionNode parsePrimary() {
+        Token start = tokens.LT(1);
+        int line = start.getLine();
+        int column = start.getCharPositionInLine();
+
+        switch (start.getType()) {
+            case CoolLexer.LPAREN: {
+                tokens.consume();
+                ExpressionNode expr = parseExpression();
+                match(CoolLexer.RPAREN, "')'");
+                return expr;
+            }
+            case CoolLexer.ID: {
+                tokens.consume();
+                if (tokens.LA(1) != CoolLexer.LPAREN) {
+                    return new IdentifierNode(line, column, start.getText());
+                }
+
+                // Method call on self
+                tokens.consume();
+                MethodCallNode call = new MethodCallNode(line, column, null, start.getText());
+                if (tokens.LA(1) != CoolLexer.RPAREN) {
+                    call.addArgument(parseExpression());
+                    while (tokens.LA(1) == CoolLexer.COMMA) {
+                        tokens.consume();
+                        call.addArgument(parseExpression());
+                    }
+                }
+                match(CoolLexer.RPAREN, "')'");
+                return call;
+            }
+            case CoolLexer.INT:
+                tokens.consume();
+                return new IntegerLiteralNode(line, column, Integer.parseInt(start.getText()));
+            case CoolLexer.STRING: {
+                // Remove the quotes
+                tokens.consume();
+                String text = start.getText();
+                return new StringLiteralNode(line, column, text.substring(1, text.length() - 1));
+            }
+            case CoolLexer.TRUE:
+                tokens.consume();
+                return new BooleanLiteralNode(line, column, true);
+            case CoolLexer.FALSE:
+                tokens.consume();
+                return new BooleanLiteralNode(line, column, false);
+            default:
+                throw syntaxError(start, "expecting an expression");
+        }
+    }
+
+    /**
+     * Consume a token of the given type or fail with a syntax error
+     */
+    public Token match(int tokenType, String expected) {
+        Token token = tokens.LT(1);
+        if (token.getType() != tokenType) {
+            throw syntaxError(token, "expecting " + expected);
+        }
+        tokens.consume();
+        return token;
+    }
+
+    public static ParseCancellationException syntaxError(Token token, String expected) {
+        String text = token.getType() == Token.EOF ? "<EOF>" : token.getText();
+        return new ParseCancellationException("Syntax Error: line " + token.getLine() + ":"
+                + token.getCharPositionInLine() + " mismatched input '" + text + "' " + expected);
+    }
+
+    private static int precedence(int tokenType) {
+        switch (tokenType) {
+            case CoolLexer.AND:
+            case CoolLexer.OR:
+                return LOGICAL;
+            case CoolLexer.LT:
+            case CoolLexer.LE:
+            case CoolLexer.GT:
+            case CoolLexer.GE:
+            case CoolLexer.EQUAL:
+            case CoolLexer.NE:
+                return COMPARISON;
+            case CoolLexer.PLUS:
+            case CoolLexer.MINUS:
+                return ADDITIVE;
+            case CoolLexer.MULT:
+            case CoolLexer.DIV:
+            case CoolLexer.MOD:
+                return MULTIPLICATIVE;
+            default:
+                return -1;
+        }
+    }
+
+    static BinaryOperationNode.Operator binaryOperator(int tokenType) {
+        switch (tokenType) {
+            case CoolLexer.AND: return BinaryOperationNode.Operator.AND;
+            case CoolLexer.OR: return BinaryOperationNode.Operator.OR;
+            case CoolLexer.LT: return BinaryOperationNode.Operator.LT;
+            case CoolLexer.LE: return BinaryOperationNode.Operator.LE;
+            case CoolLexer.GT: return BinaryOperationNode.Operator.GT;
+            case CoolLexer.GE: return BinaryOperationNode.Operator.GE;
+            case CoolLexer.EQUAL: return BinaryOperationNode.Operator.EQ;
+            case CoolLexer.NE: return BinaryOperationNode.Operator.NE;
+            case CoolLexer.PLUS: return BinaryOperationNode.Operator.PLUS;
+            case CoolLexer.MINUS: return BinaryOperationNode.Operator.MINUS;
+            case CoolLexer.MULT: return BinaryOperationNode.Operator.MULTIPLY;
+            case CoolLexer.DIV: return BinaryOperationNode.Operator.DIVIDE;
+            default: return BinaryOperationNode.Operator.MOD;
+        }
+    }
+
+    static AssignmentNode.AssignmentType assignmentType(int tokenType) {
+        switch (tokenType) {
+            case CoolLexer.ASSIGN: return AssignmentNode.AssignmentType.SIMPLE;
+            case CoolLexer.PLUSASSIGN: return AssignmentNode.AssignmentType.PLUS_ASSIGN;
+            case CoolLexer.MINUSASSIGN: return AssignmentNode.AssignmentType.MINUS_ASSIGN;
+            case CoolLexer.MULTASSIGN: return AssignmentNode.AssignmentType.MULT_ASSIGN;
+            case CoolLexer.DIVASSIGN: return AssignmentNode.AssignmentType.DIV_ASSIGN;
+            default: return null;
+        }
+    }
+}
@@ -2,9 +2,10 @@ import ast.*;
 import java.util.*;
 
 /**
- * Generates Three-Address Code (TAC) from AST
+ * Generates Three-Address Code (TAC) from AST. Expressions are dispatched through
+ * ExpressionVisitor; each visit returns the temporary (or constant) holding the value.
  */
-public class IRGenerator {
+public class IRGenerator implements ExpressionVisitor<String> {
     private List<String> code;
     private int tempCounter;
     private int labelCounter;
@@ -98,32 +99,57 @@ public class IRGenerator {
     }
 
     private String generateExpressionIR(ExpressionNode expr) {
-        if (expr instanceof IntegerLiteralNode) {
-            return String.valueOf(((IntegerLiteralNode) expr).getValue());
-        } else if (expr instanceof BooleanLiteralNode) {
-            return ((BooleanLiteralNode) expr).getValue() ? "true" : "false";
-        } else if (expr instanceof StringLiteralNode) {
-            return "\"" + ((StringLiteralNode) expr).getValue() + "\"";
-        } else if (expr instanceof IdentifierNode) {
-            return ((IdentifierNode) expr).getName();
-        } else if (expr instanceof BinaryOperationNode) {
-            return generateBinaryOpIR((BinaryOperationNode) expr);
-        } else if (expr instanceof UnaryOperationNode) {
-            return generateUnaryOpIR((UnaryOperationNode) expr);
-        } else if (expr instanceof AssignmentNode) {
-            return generateAssignmentIR((AssignmentNode) expr);
-        } else if (expr instanceof MethodCallNode) {
-            return generateMethodCallIR((MethodCallNode) expr);
-        } else if (expr instanceof IfNode) {
-            return generateIfIR((IfNode) expr);
-        } else if (expr instanceof WhileNode) {
-            return generateWhileIR((WhileNode) expr);
-        }
+        return expr.accept(this);
+    }
+
+    @Override
+    public String visitIntegerLiteral(IntegerLiteralNode node) {
+        return String.valueOf(node.getValue());
+    }
+
+    @Override
+    public String visitBooleanLiteral(BooleanLiteralNode node) {
+        return node.getValue() ? "true" : "false";
+    }
+
+    @Override
+    public String visitStringLiteral(StringLiteralNode node) {
+        return "\"" + node.getValue() + "\"";
+    }
+
+    @Override
+    public String visitIdentifier(IdentifierNode node) {
+        return node.getName();
+    }
+
+    @Override
+    public String visitBinaryOperation(BinaryOperationNode node) {
+        return generateBinaryOpIR(node);
+    }
+
+    @Override
+    public String visitUnaryOperation(UnaryOperationNode node) {
+        return generateUnaryOpIR(node);
+    }
+
+    @Override
+    public String visitAssignment(AssignmentNode node) {
+        return generateAssignmentIR(node);
+    }
+
+    @Override
+    public String visitMethodCall(MethodCallNode node) {
+        return generateMethodCallIR(node);
+    }
+
+    @Override
+    public String visitIf(IfNode node) {
+        return generateIfIR(node);
+    }
 
-        // Fallback
-        String temp = newTemp();
-        code.add(temp + " = null # Unhandled expression type: " + expr.getClass().getName());
-        return temp;
+    @Override
+    public String visitWhile(WhileNode node) {
+        return generateWhileIR(node);
     }
 
     private String generateBinaryOpIR(BinaryOperationNode node) {
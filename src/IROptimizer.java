@@ -16,18 +16,32 @@ public class IROptimizer {
      * Apply various optimization techniques to the IR code
      */
     public List<String> optimize() {
+        return optimize(CompilerMetrics.DISABLED);
+    }
+
+    /**
+     * Same as optimize(), recording each pass as its own phase in the given metrics
+     */
+    public List<String> optimize(CompilerMetrics metrics) {
         // Start with a copy of the original IR
         optimizedCode = new ArrayList<>(irCode);
 
         // Apply optimization techniques
-        constantFolding();
-        constantPropagation();
-        deadCodeElimination();
-        removeUnusedVariables();
+        runPass(metrics, "constant-folding", this::constantFolding);
+        runPass(metrics, "constant-propagation", this::constantPropagation);
+        runPass(metrics, "dead-code-elimination", this::deadCodeElimination);
+        runPass(metrics, "remove-unused-variables", this::removeUnusedVariables);
 
         return optimizedCode;
     }
 
+    private void runPass(CompilerMetrics metrics, String name, Runnable pass) {
+        CompilerMetrics.Phase phase = metrics.start("ir-optimization." + name);
+        pass.run();
+        phase.stop();
+        phase.record("irLines", optimizedCode.size());
+    }
+
     /**
      * Constant folding: Replace expressions with constants at compile time
      * Example: x = 5 + 3 -> x = 8
@@ -0,0 +1,457 @@
+import ast.*;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Front end for editors and watch loops: keeps the tokens and AST of the last version of a
+ * source and, given the next version, only relexes and reparses around the edit.
+ *
+ * The edit is found as the bytes between the common prefix and the common suffix of the two
+ * versions. CoolScanner resumes at the first token of the line the edit starts on (an
+ * unterminated string can reach to the end of its line) and runs until it produces a token at
+ * the same place as an old token past the end of the edited line; from there the old tokens
+ * are reused with shifted offsets and lines, as in ParallelScanner, and the new tokens are
+ * spliced into the TokenBuffer in place. Edits that add or remove a
+ * comment delimiter are relexed completely, as they can change where an earlier unterminated
+ * comment ends.
+ *
+ * The changed tokens are then reparsed by DirectParser as the smallest run of whole members
+ * of one class around them, or failing that the smallest run of whole classes, and the new
+ * nodes are spliced into the existing ProgramNode; nodes below the edit have their lines
+ * shifted. If a reparse does not fit exactly, the whole token stream is parsed again, so the
+ * AST and syntax errors are always those of a full DirectParser parse.
+ */
+public class IncrementalParser {
+    private String sourceName;
+    private byte[] source;
+    private TokenBuffer tokens;
+    private ProgramNode program;
+    private List<String> errors;
+
+    // Token range and member starts of each class of program; null when the AST was not
+    // built class by class
+    private List<ClassSpan> spans;
+
+    // Size of the work done by the last parse or update, in tokens
+    private int relexedTokens;
+    private int reparsedTokens;
+
+    public IncrementalParser(String sourceName) {
+        this.sourceName = sourceName;
+        this.errors = new ArrayList<>();
+    }
+
+    /**
+     * Lex and parse source from scratch. Returns null if it has syntax errors (see getErrors()).
+     */
+    public ProgramNode parse(byte[] source) {
+        this.source = source;
+        CoolScanner scanner = new CoolScanner(source, sourceName);
+        tokens = scanner.tokenize();
+        relexedTokens = tokens.size();
+        return parseAll();
+    }
+
+    /**
+     * Bring the tokens and AST up to date with the next version of the source. Returns the
+     * updated ProgramNode, or null if the new version has syntax errors.
+     */
+    public ProgramNode update(byte[] newSource) {
+        if (tokens == null) {
+            return parse(newSource);
+        }
+
+        // The edit replaced old bytes [prefix, oldEnd) with new bytes [prefix, newEnd)
+        int prefix = 0;
+        int limit = Math.min(source.length, newSource.length);
+        while (prefix < limit && source[prefix] == newSource[prefix]) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < limit - prefix
+                && source[source.length - 1 - suffix] == newSource[newSource.length - 1 - suffix]) {
+            suffix++;
+        }
+        int oldEnd = source.length - suffix;
+        int newEnd = newSource.length - suffix;
+        if (prefix == oldEnd && prefix == newEnd) {
+            return program;
+        }
+        if (hasCommentDelimiter(source, prefix, oldEnd) || hasCommentDelimiter(newSource, prefix, newEnd)) {
+            return parse(newSource);
+        }
+
+        int shift = newEnd - oldEnd;
+        int lineDelta = countNewlines(newSource, prefix, newEnd) - countNewlines(source, prefix, oldEnd);
+        int oldEOF = tokens.size() - 1;
+
+        // Resume at the first token of the line holding the last token that starts before the edit
+        int first = lastTokenBefore(prefix);
+        while (first > 0 && tokens.getLine(first - 1) == tokens.getLine(first)) {
+            first--;
+        }
+        CoolScanner scanner = first <= 0
+                ? new CoolScanner(newSource, sourceName)
+                : new CoolScanner(newSource, sourceName, tokens.getStart(first), tokens.getLine(first), tokens.getColumn(first));
+        first = Math.max(first, 0);
+
+        // Relex until a token lands on an old token's (shifted) start past the edited line
+        int resyncFrom = lineStartAfter(newSource, newEnd);
+        TokenBuffer relexed = new TokenBuffer(newSource, scanner, 64);
+        int resume = oldEOF + 1;
+        int candidate = first;
+        while (scanner.scanNext()) {
+            int start = scanner.tokenStart();
+            if (start >= resyncFrom) {
+                while (candidate < oldEOF && tokens.getStart(candidate) < start - shift) {
+                    candidate++;
+                }
+                if (candidate < oldEOF && tokens.getStart(candidate) == start - shift) {
+                    resume = candidate;
+                    break;
+                }
+            }
+            scanner.addToken(relexed, 0);
+        }
+        if (resume > oldEOF) {
+            scanner.addEOF(relexed, 0);
+        }
+
+        // Narrow the replaced tokens down to those that actually differ; relexed entry i stands
+        // for new token first + i
+        int changed = first;
+        int oldStop = resume;
+        int newStop = first + relexed.size();
+        while (changed < oldStop && changed < newStop && sameToken(tokens, changed, relexed, changed - first, 0, 0)) {
+            changed++;
+        }
+        while (oldStop > changed && newStop > changed
+                && sameToken(tokens, oldStop - 1, relexed, newStop - 1 - first, lineDelta, shift)) {
+            oldStop--;
+            newStop--;
+        }
+
+        tokens.replace(first, resume, relexed, lineDelta, shift);
+        source = newSource;
+        relexedTokens = relexed.size();
+        if (program == null || spans == null) {
+            return parseAll();
+        }
+
+        // Old tokens [lo, hi) must be reparsed: the changed ones and a neighbour on each side
+        int lo = Math.max(changed - 1, 0);
+        int hi = Math.min(oldStop + 1, oldEOF);
+        if (lo >= hi || !reparse(lo, hi, newStop - oldStop, lineDelta)) {
+            return parseAll();
+        }
+
+        // The program node sits at the first token, which the edit may have moved
+        if (program.getLine() != tokens.getLine(0) || program.getColumn() != tokens.getColumn(0)) {
+            ProgramNode moved = new ProgramNode(tokens.getLine(0), tokens.getColumn(0));
+            for (ClassNode classNode : program.getClasses()) {
+                moved.addClass(classNode);
+            }
+            program = moved;
+        }
+        return program;
+    }
+
+    public ProgramNode getAST() {
+        return program;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * The tokens of the current version; updated in place by update()
+     */
+    public TokenBuffer getTokens() {
+        return tokens;
+    }
+
+    /**
+     * Tokens produced by the scanner in the last parse or update
+     */
+    public int getRelexedTokens() {
+        return relexedTokens;
+    }
+
+    /**
+     * Tokens the parser went over in the last parse or update
+     */
+    public int getReparsedTokens() {
+        return reparsedTokens;
+    }
+
+    /**
+     * Attributes and parameters of the current AST, in the order DirectParser would collect them
+     */
+    public SymbolTable getSymbolTable() {
+        return program == null ? new SymbolTable() : SymbolTable.of(program);
+    }
+
+    // Parse the whole token stream, class by class so later edits can reparse single classes
+    private ProgramNode parseAll() {
+        TokenStream stream = new TokenBufferStream(tokens, sourceName);
+        errors.clear();
+        reparsedTokens = tokens.size();
+        program = null;
+        spans = null;
+
+        int[] bounds = ParallelParser.findClasses(stream, 0, tokens.size() - 1);
+        if (bounds != null && bounds.length > 1) {
+            List<ClassNode> classes = new ArrayList<>();
+            List<ClassSpan> parsed = parseClasses(stream, bounds, classes);
+            if (parsed != null) {
+                Token start = stream.get(0);
+                program = new ProgramNode(start.getLine(), start.getCharPositionInLine());
+                for (ClassNode classNode : classes) {
+                    program.addClass(classNode);
+                }
+                spans = parsed;
+                return program;
+            }
+        }
+
+        // Not a clean sequence of classes: a full parse reports the error as usual
+        program = new DirectParser(stream).parseProgram(errors);
+        return program;
+    }
+
+    // Parse the classes between consecutive bounds; null if any of them has a syntax error
+    private List<ClassSpan> parseClasses(TokenStream stream, int[] bounds, List<ClassNode> classes) {
+        List<ClassSpan> parsed = new ArrayList<>();
+        for (int c = 0; c + 1 < bounds.length; c++) {
+            TokenRangeStream range = new TokenRangeStream(stream, bounds[c], bounds[c + 1]);
+            List<Integer> members = new ArrayList<>();
+            try {
+                classes.add(new DirectParser(range).parseClass(members));
+            } catch (ParseCancellationException e) {
+                return null;
+            }
+            if (range.LA(1) != Token.EOF) {
+                return null;
+            }
+            parsed.add(new ClassSpan(bounds[c], bounds[c + 1], toArray(members, 0)));
+        }
+        return parsed;
+    }
+
+    /**
+     * Reparse the members or classes covering old tokens [lo, hi) and splice them in. tokenDelta
+     * is the change in the number of tokens. Returns false if the result does not fit.
+     */
+    private boolean reparse(int lo, int hi, int tokenDelta, int lineDelta) {
+        int c0 = spanIndex(lo);
+        int c1 = spanIndex(hi - 1);
+        if (c0 < 0 || c1 < 0) {
+            return false;
+        }
+        TokenStream stream = new TokenBufferStream(tokens, sourceName);
+        if (c0 == c1 && reparseMembers(stream, c0, lo, hi, tokenDelta, lineDelta)) {
+            return true;
+        }
+
+        // Classes c0..c1 as a whole; the edit may have split or merged classes
+        int from = spans.get(c0).start;
+        int to = spans.get(c1).end + tokenDelta;
+        int[] bounds = ParallelParser.findClasses(stream, from, to);
+        if (bounds == null) {
+            return false;
+        }
+        List<ClassNode> classes = new ArrayList<>();
+        List<ClassSpan> parsed = parseClasses(stream, bounds, classes);
+        if (parsed == null) {
+            return false;
+        }
+
+        List<ClassNode> programClasses = program.getClasses();
+        programClasses.subList(c0, c1 + 1).clear();
+        programClasses.addAll(c0, classes);
+        spans.subList(c0, c1 + 1).clear();
+        spans.addAll(c0, parsed);
+        shiftFollowing(c0 + classes.size(), tokenDelta, lineDelta);
+        reparsedTokens = to - from;
+        return true;
+    }
+
+    // Reparse the members of class c covering old tokens [lo, hi); false unless they lie
+    // strictly between its opening and closing braces and reparse cleanly
+    private boolean reparseMembers(TokenStream stream, int c, int lo, int hi, int tokenDelta, int lineDelta) {
+        ClassSpan span = spans.get(c);
+        int[] members = span.members;
+        int last = members.length - 1;
+        if (last == 0 || lo < span.start + members[0] || hi > span.start + members[last]) {
+            return false;
+        }
+        int m0 = 0;
+        while (span.start + members[m0 + 1] <= lo) {
+            m0++;
+        }
+        int m1 = m0;
+        while (span.start + members[m1 + 1] < hi) {
+            m1++;
+        }
+
+        // Class body statements are moved after the features and named after their position, so
+        // the features only line up with the members while there are none
+        List<FeatureNode> classFeatures = program.getClasses().get(c).getFeatures();
+        for (FeatureNode feature : classFeatures) {
+            if (feature.getName().startsWith("__init_stmt_")) {
+                return false;
+            }
+        }
+
+        int from = span.start + members[m0];
+        int to = span.start + members[m1 + 1] + tokenDelta;
+        TokenRangeStream range = new TokenRangeStream(stream, from, to);
+        DirectParser parser = new DirectParser(range);
+        List<FeatureNode> features = new ArrayList<>();
+        List<Integer> starts = new ArrayList<>();
+        try {
+            while (range.LA(1) != Token.EOF) {
+                if (!parser.isFeature()) {
+                    return false;
+                }
+                starts.add(from + range.index() - span.start);
+                features.add(parser.parseFeature());
+            }
+        } catch (ParseCancellationException e) {
+            return false;
+        }
+
+        classFeatures.subList(m0, m1 + 1).clear();
+        classFeatures.addAll(m0, features);
+        for (int f = m0 + features.size(); f < classFeatures.size(); f++) {
+            shiftLines(classFeatures.get(f), lineDelta);
+        }
+
+        int[] spliced = new int[m0 + starts.size() + members.length - m1 - 1];
+        System.arraycopy(members, 0, spliced, 0, m0);
+        System.arraycopy(toArray(starts, 0), 0, spliced, m0, starts.size());
+        for (int i = m1 + 1; i < members.length; i++) {
+            spliced[m0 + starts.size() + i - m1 - 1] = members[i] + tokenDelta;
+        }
+        span.members = spliced;
+        span.end += tokenDelta;
+        shiftFollowing(c + 1, tokenDelta, lineDelta);
+        reparsedTokens = to - from;
+        return true;
+    }
+
+    // Move the classes from index c on by tokenDelta tokens and lineDelta lines
+    private void shiftFollowing(int c, int tokenDelta, int lineDelta) {
+        List<ClassNode> classes = program.getClasses();
+        for (int i = c; i < spans.size(); i++) {
+            ClassSpan span = spans.get(i);
+            span.start += tokenDelta;
+            span.end += tokenDelta;
+            shiftLines(classes.get(i), lineDelta);
+        }
+    }
+
+    private static void shiftLines(ASTNode node, int lineDelta) {
+        if (lineDelta != 0) {
+            NodeWalker.forEach(node, n -> n.shiftLine(lineDelta));
+        }
+    }
+
+    // Index of the span holding old token index, -1 if none does
+    private int spanIndex(int index) {
+        int low = 0;
+        int high = spans.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            ClassSpan span = spans.get(mid);
+            if (index < span.start) {
+                high = mid - 1;
+            } else if (index >= span.end) {
+                low = mid + 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    // Index of the last token (EOF excluded) starting before offset, -1 if there is none
+    private int lastTokenBefore(int offset) {
+        int low = 0;
+        int high = tokens.size() - 2;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (tokens.getStart(mid) < offset) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    private static boolean sameToken(TokenBuffer a, int i, TokenBuffer b, int j, int lineDelta, int shift) {
+        return a.getType(i) == b.getType(j) && a.getStart(i) + shift == b.getStart(j)
+                && a.getStop(i) + shift == b.getStop(j) && a.getLine(i) + lineDelta == b.getLine(j)
+                && a.getColumn(i) == b.getColumn(j);
+    }
+
+    // Whether "(*" or "*)" overlaps bytes [from, to), counting the bytes on either side
+    private static boolean hasCommentDelimiter(byte[] source, int from, int to) {
+        for (int i = Math.max(from - 1, 0); i < Math.min(to, source.length - 1); i++) {
+            if ((source[i] == '(' && source[i + 1] == '*') || (source[i] == '*' && source[i + 1] == ')')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int countNewlines(byte[] source, int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (source[i] == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Offset just after the first newline at or after from, or the end of the source
+    private static int lineStartAfter(byte[] source, int from) {
+        for (int i = from; i < source.length; i++) {
+            if (source[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return source.length;
+    }
+
+    private static int[] toArray(List<Integer> list, int offset) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i) + offset;
+        }
+        return array;
+    }
+
+    /**
+     * Tokens [start, end) of one class, and where its members start relative to start (the
+     * last entry is its closing brace)
+     */
+    private static class ClassSpan {
+        private int start;
+        private int end;
+        private int[] members;
+
+        ClassSpan(int start, int end, int[] members) {
+            this.start = start;
+            this.end = end;
+            this.members = members;
+        }
+    }
+}
@@ -1,126 +1,81 @@
-import org.antlr.v4.runtime.CharStream;
-import org.antlr.v4.runtime.CharStreams;
-import org.antlr.v4.runtime.CommonTokenStream;
-import org.antlr.v4.runtime.tree.ParseTree;
-import org.antlr.v4.gui.Trees;
-import org.antlr.v4.runtime.Token;
-import java.util.List;
-import org.antlr.v4.runtime.tree.ParseTreeWalker;
-import ast.ProgramNode;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 
 
 public class Main {
     public static void main(String[] args) {
+        CompilerOptions options;
         try {
-            // Input COOL program
-            System.out.println("=== PA1: Lexical Analysis ===");
-            CharStream input = CharStreams.fromFileName("src/test.cool");
-            CoolLexer lexer = new CoolLexer(input);
-            CommonTokenStream tokens = new CommonTokenStream(lexer);
-            tokens.fill();
+            options = CompilerOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
 
-            // Print tokens
-            List<Token> tokenList = tokens.getTokens();
-            for (Token token : tokenList) {
-                String tokenName = CoolLexer.VOCABULARY.getSymbolicName(token.getType());
-                String tokenText = token.getText();
-                if (tokenName != null) {
-                    System.out.printf("%-10s -> %s%n", tokenName, tokenText);
-                }
+        try {
+            if (options.getDfaCacheFile() != null) {
+                loadDFACache(Paths.get(options.getDfaCacheFile()));
             }
 
-            // Step 2: Parsing (PA2)
-            System.out.println("\n=== PA2: Parsing ===");
-            CoolParser parser = new CoolParser(tokens);
-            ParseTree tree = parser.program();
-            System.out.println("Parse Tree: " + tree.toStringTree(parser));
-            Trees.inspect(tree, parser);
-
-            // Using Listener to populate symbol table
-            SymbolTable listenerSymbolTable = new SymbolTable();
-            CoolSymbolListener listener = new CoolSymbolListener(listenerSymbolTable);
-            ParseTreeWalker walker = new ParseTreeWalker();
-            walker.walk(listener, tree);
-            System.out.println("Symbol Table (Listener):");
-            listenerSymbolTable.printTable();
-
-            // Using Visitor to populate symbol table
-            SymbolTable visitorSymbolTable = new SymbolTable();
-            CoolSymbolVisitor visitor = new CoolSymbolVisitor(visitorSymbolTable);
-            visitor.visit(tree);
-            System.out.println("Symbol Table (Visitor):");
-            visitorSymbolTable.printTable();
-
-            // Step 3: AST Construction (PA3)
-            System.out.println("\n=== PA3: AST Construction ===");
-            ASTBuilder astBuilder = new ASTBuilder();
-            ProgramNode ast = (ProgramNode) astBuilder.visit(tree);
-            System.out.println(ast.toString());
-
-            // Generate DOT file for visualization
-            ast.generateDotFile("ast.dot");
-            System.out.println("AST visualization saved to ast.dot");
+            // Input COOL program; diagnostics are only produced for the flags that were given
+            CompilationUnit unit = new CompilationUnit(Paths.get(options.getInputFile()), options);
+            // Semantic errors are reported, but IR and assembly are still written
+            unit.setGenerateOnSemanticErrors(true);
+            unit.compile();
 
-            // Step 4: Semantic Analysis (PA4)
-            System.out.println("\n=== PA4: Semantic Analysis ===");
-            SemanticTester semanticTester = new SemanticTester(ast);
-            boolean semanticsOk = semanticTester.analyze();
-
-            if (semanticsOk) {
-                semanticTester.generateTypedAST("typed_ast.dot");
-                System.out.println("Semantic analysis completed successfully.");
-            } else {
-                System.out.println("Semantic analysis failed with errors.");
+            if (options.getDfaCacheFile() != null) {
+                saveDFACache(Paths.get(options.getDfaCacheFile()));
             }
 
-
-            // Step 5: IR Generation (PA5)
-            System.out.println("\n=== PA5: IR Generation ===");
-            IRGenerator irGenerator = new IRGenerator();
-            List<String> irCode = irGenerator.generate(ast);
-            System.out.println(irGenerator.getIRCode());
-
-            // Save IR code to file
-            try (FileWriter writer = new FileWriter("output.tac")) {
-                writer.write(irGenerator.getIRCode());
-                System.out.println("IR code saved to output.tac");
-            } catch (IOException e) {
-                System.err.println("Error writing IR code to file: " + e.getMessage());
+            for (String error : unit.getErrors()) {
+                System.err.println(error);
             }
 
-            // Step 6: IR Optimization (PA6)
-            System.out.println("\n=== PA6: IR Optimization ===");
-            IROptimizer irOptimizer = new IROptimizer(irCode);
-            List<String> optimizedIR = irOptimizer.optimize();
-            System.out.println(irOptimizer.getOptimizedIRCode());
+            if (options.getMetricsFile() != null) {
+                unit.getMetrics().writeJson(Paths.get(options.getMetricsFile()), options.getInputFile());
+            }
 
-            // Save optimized IR code to file
-            try (FileWriter optimizedWriter = new FileWriter("optimized.tac")) {
-                optimizedWriter.write(irOptimizer.getOptimizedIRCode());
-                System.out.println("Optimized IR code saved to optimized.tac");
-            } catch (IOException e) {
-                System.err.println("Error writing optimized IR code to file: " + e.getMessage());
+            ParserProfile profile = unit.getParserProfile();
+            if (profile != null) {
+                System.out.print(profile.toTable());
+                profile.writeJson(Paths.get(options.getParserProfileFile()), options.getInputFile());
             }
 
-            // Step 7: Code Generation (PA7)
-            System.out.println("\n=== PA7: Code Generation ===");
-            CodeGenerator codeGenerator = new CodeGenerator(optimizedIR);
-            List<String> assemblyCode = codeGenerator.generate();
-            System.out.println(codeGenerator.getAssemblyCode());
+            if (unit.getAssemblyCode() == null) {
+                System.out.println("Compilation failed with errors.");
+                System.exit(1);
+            }
 
-            // Save assembly code to file
-            try (FileWriter asmWriter = new FileWriter("output.s")) {
-                asmWriter.write(codeGenerator.getAssemblyCode());
+            // Save IR, optimized IR and assembly code
+            unit.writeOutputs(Paths.get("output.tac"), Paths.get("optimized.tac"), Paths.get("output.s"));
+            if (options.isVerbose()) {
+                System.out.println("IR code saved to output.tac");
+                System.out.println("Optimized IR code saved to optimized.tac");
                 System.out.println("Assembly code saved to output.s");
-            } catch (IOException e) {
-                System.err.println("Error writing assembly code to file: " + e.getMessage());
             }
 
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    // A missing, stale or unreadable cache only means a cold start
+    private static void loadDFACache(Path file) {
+        try {
+            DFACache.load(file);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error reading DFA cache: " + e.getMessage());
+        }
+    }
+
+    private static void saveDFACache(Path file) {
+        try {
+            DFACache.save(file);
+        } catch (IOException e) {
+            System.err.println("Error writing DFA cache: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,221 @@
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * CharStream over a memory-mapped UTF-8 file, so the source is never decoded onto the heap
+ * (CharStreams.fromPath keeps a code point array of the whole file). Indexes are code point
+ * indexes, as with CharStreams.
+ *
+ * ASCII files, which is what generators produce, are indexed by byte offset directly. For
+ * other files the byte offset of every 1024th code point is recorded when the file is opened,
+ * and positions in between are found by decoding forward from the nearest checkpoint or from
+ * the current position; the lexer's access is almost entirely sequential.
+ */
+public class MappedCharStream implements CharStream {
+    private static final int CHECKPOINT_SHIFT = 10;
+
+    private MappedByteBuffer bytes;
+    private String sourceName;
+    private int size;
+    private boolean ascii;
+    private int[] checkpoints;
+
+    // Current position as a code point index and the byte offset of that code point
+    private int index;
+    private int offset;
+
+    public static MappedCharStream open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(path + " is larger than 2 GB");
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedCharStream(bytes, path.toString());
+        }
+    }
+
+    public MappedCharStream(MappedByteBuffer bytes, String sourceName) {
+        this.bytes = bytes;
+        this.sourceName = sourceName;
+
+        int limit = bytes.limit();
+        int pos = 0;
+        while (pos < limit && bytes.get(pos) >= 0) {
+            pos++;
+        }
+        ascii = pos == limit;
+        if (ascii) {
+            size = limit;
+            return;
+        }
+
+        // Count code points, remembering where every 1024th one starts
+        checkpoints = new int[limit / (1 << CHECKPOINT_SHIFT) + 1];
+        pos = 0;
+        int count = 0;
+        while (pos < limit) {
+            if ((count & ((1 << CHECKPOINT_SHIFT) - 1)) == 0) {
+                checkpoints[count >> CHECKPOINT_SHIFT] = pos;
+            }
+            pos += sequenceLength(pos);
+            count++;
+        }
+        size = count;
+    }
+
+    /**
+     * Length of the source in bytes
+     */
+    public int byteSize() {
+        return bytes.limit();
+    }
+
+    @Override
+    public void consume() {
+        if (index >= size) {
+            throw new IllegalStateException("cannot consume EOF");
+        }
+        offset += ascii ? 1 : sequenceLength(offset);
+        index++;
+    }
+
+    @Override
+    public int LA(int i) {
+        if (i == 0) {
+            return 0;
+        }
+        int target = i > 0 ? index + i - 1 : index + i;
+        if (target < 0 || target >= size) {
+            return IntStream.EOF;
+        }
+        if (ascii) {
+            return bytes.get(target);
+        }
+        int targetOffset = offsetOf(target);
+        return codePoint(targetOffset, sequenceLength(targetOffset));
+    }
+
+    @Override
+    public int mark() {
+        return -1;
+    }
+
+    @Override
+    public void release(int marker) {
+        // The whole file stays mapped
+    }
+
+    @Override
+    public int index() {
+        return index;
+    }
+
+    @Override
+    public void seek(int index) {
+        int target = Math.min(index, size);
+        offset = offsetOf(target);
+        this.index = target;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String getSourceName() {
+        return sourceName;
+    }
+
+    @Override
+    public String getText(Interval interval) {
+        int start = interval.a;
+        int stop = Math.min(interval.b, size - 1);
+        if (start >= size || stop < start) {
+            return "";
+        }
+
+        int startOffset = offsetOf(start);
+        int endOffset = offsetOf(stop + 1);
+        byte[] text = new byte[endOffset - startOffset];
+        bytes.get(startOffset, text);
+        return new String(text, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return getText(Interval.of(0, size - 1));
+    }
+
+    // Byte offset of the code point at target (the end of the file for target == size)
+    private int offsetOf(int target) {
+        if (ascii) {
+            return target;
+        }
+        if (target == size) {
+            return bytes.limit();
+        }
+
+        // Walk from the current position if it is close enough, otherwise from a checkpoint
+        int from = index;
+        int pos = offset;
+        if (target < index || target - index >= (1 << CHECKPOINT_SHIFT)) {
+            from = target & -(1 << CHECKPOINT_SHIFT);
+            pos = checkpoints[target >> CHECKPOINT_SHIFT];
+        }
+        for (int i = from; i < target; i++) {
+            pos += sequenceLength(pos);
+        }
+        return pos;
+    }
+
+    // Bytes in the UTF-8 sequence starting at pos; a malformed sequence counts as one byte
+    private int sequenceLength(int pos) {
+        int lead = bytes.get(pos) & 0xFF;
+        int length;
+        if (lead < 0x80) {
+            return 1;
+        } else if (lead >= 0xF0 && lead < 0xF8) {
+            length = 4;
+        } else if (lead >= 0xE0 && lead < 0xF0) {
+            length = 3;
+        } else if (lead >= 0xC0 && lead < 0xE0) {
+            length = 2;
+        } else {
+            return 1;
+        }
+
+        if (pos + length > bytes.limit()) {
+            return 1;
+        }
+        for (int i = 1; i < length; i++) {
+            if ((bytes.get(pos + i) & 0xC0) != 0x80) {
+                return 1;
+            }
+        }
+        return length;
+    }
+
+    private int codePoint(int pos, int length) {
+        int lead = bytes.get(pos) & 0xFF;
+        if (length == 1) {
+            // U+FFFD stands in for a malformed byte, as in CharStreams
+            return lead < 0x80 ? lead : 0xFFFD;
+        }
+
+        int codePoint = lead & (0xFF >> (length + 1));
+        for (int i = 1; i < length; i++) {
+            codePoint = (codePoint << 6) | (bytes.get(pos + i) & 0x3F);
+        }
+        return codePoint;
+    }
+}
@@ -0,0 +1,229 @@
+import ast.ClassNode;
+import ast.ExpressionInterner;
+import ast.ProgramNode;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Parses the classes of one program concurrently. A pre-scan over the token types finds where
+ * every classDef starts and ends (CLASS up to the matching RBRACE and an optional SEMI); the
+ * classes are then parsed in batches on a fork-join pool, each class by its own CoolParser (or
+ * DirectParser) over a TokenRangeStream, and the ProgramNode is assembled in source order.
+ *
+ * This is only a fast path for well-formed programs: parse() returns null when the program is
+ * small, the pool has a single thread, the pre-scan finds anything but a sequence of classes,
+ * or any class has a syntax error. The caller then parses the whole stream as before, which
+ * reports errors with exactly the usual messages and positions.
+ */
+public class ParallelParser {
+    private static final int MIN_CLASSES = 64;
+    private static final int BATCHES_PER_THREAD = 4;
+
+    private TokenStream tokens;
+    private boolean direct;
+    private SymbolTable symbolTable;
+    private List<String> lazyBodyErrors;
+    private boolean shareSubtrees;
+
+    /**
+     * tokens must be fully lexed; direct selects DirectParser instead of CoolParser + ASTBuilder
+     */
+    public ParallelParser(TokenStream tokens, boolean direct) {
+        this.tokens = tokens;
+        this.direct = direct;
+        this.symbolTable = new SymbolTable();
+    }
+
+    /**
+     * Attributes and parameters of all classes, in source order as with a single AST build
+     */
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    /**
+     * Have DirectParser defer method bodies (see DirectParser.setLazyBodies); only with direct
+     */
+    public void setLazyBodies(List<String> errors) {
+        this.lazyBodyErrors = errors;
+    }
+
+    /**
+     * Have ASTBuilder share identical subexpressions (see ExpressionInterner); only without direct
+     */
+    public void setShareSubtrees(boolean shareSubtrees) {
+        this.shareSubtrees = shareSubtrees;
+    }
+
+    public ProgramNode parse() {
+        return parse(ForkJoinPool.commonPool(), MIN_CLASSES);
+    }
+
+    ProgramNode parse(ForkJoinPool pool, int minClasses) {
+        if (pool.getParallelism() < 2) {
+            return null;
+        }
+        int[] bounds = findClasses();
+        int classCount = bounds == null ? 0 : bounds.length - 1;
+        if (classCount < minClasses) {
+            return null;
+        }
+
+        int batchCount = Math.min(classCount, pool.getParallelism() * BATCHES_PER_THREAD);
+        List<Future<Batch>> futures = new ArrayList<>();
+        for (int b = 0; b < batchCount; b++) {
+            Batch batch = new Batch(bounds, classCount * b / batchCount, classCount * (b + 1) / batchCount);
+            futures.add(pool.submit(batch::parse, batch));
+        }
+
+        Token start = tokens.get(0);
+        ProgramNode program = new ProgramNode(start.getLine(), start.getCharPositionInLine());
+        boolean failed = false;
+        for (Future<Batch> future : futures) {
+            Batch batch;
+            try {
+                batch = future.get();
+            } catch (Exception e) {
+                throw new IllegalStateException("Parsing classes of " + tokens.getSourceName() + " failed", e);
+            }
+            if (batch.classes == null) {
+                failed = true;
+                continue;
+            }
+            for (ClassNode classNode : batch.classes) {
+                program.addClass(classNode);
+            }
+            symbolTable.addAll(batch.symbolTable);
+        }
+
+        if (failed) {
+            symbolTable = new SymbolTable();
+            return null;
+        }
+        return program;
+    }
+
+    /**
+     * Token index where each class starts, followed by the index of EOF; null if the tokens are
+     * not a sequence of brace-balanced classDefs
+     */
+    int[] findClasses() {
+        return findClasses(tokens, 0, tokens.size() - 1);
+    }
+
+    /**
+     * The same for the tokens [from, to) of a fully lexed stream: where each class starts,
+     * followed by to; null unless the classes end exactly at to
+     */
+    static int[] findClasses(TokenStream tokens, int from, int to) {
+        List<Integer> starts = new ArrayList<>();
+        int i = from;
+        while (i < to) {
+            if (typeAt(tokens, i) != CoolLexer.CLASS) {
+                return null;
+            }
+            starts.add(i);
+
+            // Skip to the class body, then to its matching closing brace
+            while (typeAt(tokens, i) != CoolLexer.LBRACE) {
+                if (i >= to || typeAt(tokens, i) == CoolLexer.RBRACE) {
+                    return null;
+                }
+                i++;
+            }
+            int depth = 0;
+            do {
+                int type = typeAt(tokens, i);
+                if (i >= to) {
+                    return null;
+                } else if (type == CoolLexer.LBRACE) {
+                    depth++;
+                } else if (type == CoolLexer.RBRACE) {
+                    depth--;
+                }
+                i++;
+            } while (depth > 0);
+
+            if (i < to && typeAt(tokens, i) == CoolLexer.SEMI) {
+                i++;
+            }
+        }
+        starts.add(to);
+
+        int[] bounds = new int[starts.size()];
+        for (int c = 0; c < bounds.length; c++) {
+            bounds[c] = starts.get(c);
+        }
+        return bounds;
+    }
+
+    private static int typeAt(TokenStream tokens, int index) {
+        if (tokens instanceof TokenBufferStream) {
+            TokenBuffer buffer = ((TokenBufferStream) tokens).getBuffer();
+            return buffer.getType(Math.min(index, buffer.size() - 1));
+        }
+        return tokens.get(Math.min(index, tokens.size() - 1)).getType();
+    }
+
+    /**
+     * Classes first..last-1, parsed on one pool thread into their own symbol table
+     */
+    private class Batch {
+        private int[] bounds;
+        private int first;
+        private int last;
+        private List<ClassNode> classes;
+        private SymbolTable symbolTable;
+
+        Batch(int[] bounds, int first, int last) {
+            this.bounds = bounds;
+            this.first = first;
+            this.last = last;
+        }
+
+        void parse() {
+            symbolTable = new SymbolTable();
+            List<ClassNode> parsed = new ArrayList<>();
+            for (int c = first; c < last; c++) {
+                TokenRangeStream range = new TokenRangeStream(tokens, bounds[c], bounds[c + 1]);
+                ClassNode classNode = direct ? parseDirect(range) : parseWithGrammar(range);
+                if (classNode == null || range.LA(1) != Token.EOF) {
+                    return;
+                }
+                parsed.add(classNode);
+            }
+            classes = parsed;
+        }
+
+        private ClassNode parseDirect(TokenRangeStream range) {
+            try {
+                DirectParser parser = new DirectParser(range, symbolTable);
+                parser.setLazyBodies(lazyBodyErrors);
+                return parser.parseClass();
+            } catch (ParseCancellationException e) {
+                return null;
+            }
+        }
+
+        private ClassNode parseWithGrammar(TokenRangeStream range) {
+            List<String> errors = new ArrayList<>();
+            CoolParser parser = new CoolParser(range);
+            CoolParser.ClassDefContext tree = CompilationUnit.parseRule(parser, range,
+                    new SyntaxErrorListener(errors), CoolParser::classDef);
+            if (!errors.isEmpty()) {
+                return null;
+            }
+            ASTBuilder builder = new ASTBuilder(symbolTable);
+            if (shareSubtrees) {
+                builder.setExpressionInterner(new ExpressionInterner());
+            }
+            return (ClassNode) builder.visit(tree);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Lexes one large source on several cores. The file is cut into chunks at line starts, every
+ * chunk is scanned by its own CoolScanner as if nothing came before it, and the chunk buffers
+ * are then concatenated into one TokenBuffer equal to what a single CoolScanner produces.
+ *
+ * A chunk scanned from the wrong state (its start was inside a block comment) is repaired while
+ * merging: the previous chunk's scanner keeps going past its end until it produces a token at
+ * the same byte offset as one of the chunk's own tokens. CoolScanner keeps no state between
+ * tokens except the position, so from that token on the chunk's tokens are the right ones. If
+ * the two never meet, the previous scanner simply covers the whole chunk. Strings and line
+ * comments end at a newline, so they never cross a chunk boundary.
+ */
+public class ParallelScanner {
+    // Below two chunks' worth of input the sequential scanner is faster
+    private static final int MIN_CHUNK_BYTES = 1 << 20;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Tokenize scanner's source on the common pool
+     */
+    public static TokenBuffer tokenize(CoolScanner scanner) {
+        return tokenize(scanner, ForkJoinPool.commonPool(), MIN_CHUNK_BYTES);
+    }
+
+    static TokenBuffer tokenize(CoolScanner scanner, ForkJoinPool pool, int minChunkBytes) {
+        byte[] source = scanner.getSource();
+        int chunkCount = Math.min(pool.getParallelism() * CHUNKS_PER_THREAD, source.length / minChunkBytes);
+        if (chunkCount < 2 || pool.getParallelism() < 2) {
+            return scanner.tokenize();
+        }
+
+        List<Future<Chunk>> futures = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= chunkCount && start < source.length; i++) {
+            int end = i == chunkCount ? source.length : lineStartAfter(source, (int) ((long) source.length * i / chunkCount));
+            if (end <= start) {
+                continue;
+            }
+            Chunk chunk = new Chunk(new CoolScanner(source, scanner.getSourceName(), start), start, end);
+            futures.add(pool.submit(chunk::scan, chunk));
+            start = end;
+        }
+
+        List<Chunk> chunks = new ArrayList<>();
+        for (Future<Chunk> future : futures) {
+            try {
+                chunks.add(future.get());
+            } catch (Exception e) {
+                throw new IllegalStateException("Lexing a chunk of " + scanner.getSourceName() + " failed", e);
+            }
+        }
+        return merge(scanner, chunks);
+    }
+
+    // Offset just after the first newline at or after from, or the end of the source
+    private static int lineStartAfter(byte[] source, int from) {
+        for (int i = from; i < source.length; i++) {
+            if (source[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return source.length;
+    }
+
+    private static TokenBuffer merge(CoolScanner scanner, List<Chunk> chunks) {
+        int total = 0;
+        for (Chunk chunk : chunks) {
+            total += chunk.tokens.size();
+        }
+        TokenBuffer merged = new TokenBuffer(scanner.getSource(), scanner, total + 1);
+
+        // The scanner whose tokens are being used, and the line its chunk starts at
+        Chunk current = chunks.get(0);
+        merged.addAll(current.tokens, 0, 0);
+        int lineOffset = current.newlines;
+        int currentLineOffset = 0;
+
+        for (int c = 1; c < chunks.size(); c++) {
+            Chunk chunk = chunks.get(c);
+            int chunkLineOffset = lineOffset;
+            lineOffset += chunk.newlines;
+
+            // Run the current scanner forward until it lands on one of this chunk's tokens
+            int next = 0;
+            boolean synced = false;
+            while (current.pending) {
+                int start = current.scanner.tokenStart();
+                while (next < chunk.tokens.size() && chunk.tokens.getStart(next) < start) {
+                    next++;
+                }
+                if (next < chunk.tokens.size() && chunk.tokens.getStart(next) == start) {
+                    synced = true;
+                    break;
+                }
+                if (start >= chunk.end) {
+                    break;
+                }
+                current.scanner.addToken(merged, currentLineOffset);
+                current.pending = current.scanner.scanNext();
+            }
+
+            if (synced) {
+                merged.addAll(chunk.tokens, next, chunkLineOffset);
+                current = chunk;
+                currentLineOffset = chunkLineOffset;
+            }
+        }
+
+        // Whatever the last scanner in use has left, then EOF
+        while (current.pending) {
+            current.scanner.addToken(merged, currentLineOffset);
+            current.pending = current.scanner.scanNext();
+        }
+        current.scanner.addEOF(merged, currentLineOffset);
+        merged.trimToSize();
+        return merged;
+    }
+
+    /**
+     * Tokens starting in [start, end), scanned as if the file began at start
+     */
+    private static class Chunk {
+        private CoolScanner scanner;
+        private int start;
+        private int end;
+        private TokenBuffer tokens;
+        private int newlines;
+
+        // Whether the scanner holds a scanned token at or after end that is not in tokens
+        private boolean pending;
+
+        Chunk(CoolScanner scanner, int start, int end) {
+            this.scanner = scanner;
+            this.start = start;
+            this.end = end;
+        }
+
+        void scan() {
+            byte[] source = scanner.getSource();
+            tokens = new TokenBuffer(source, scanner, (end - start) / 3 + 16);
+            while ((pending = scanner.scanNext()) && scanner.tokenStart() < end) {
+                scanner.addToken(tokens, 0);
+            }
+            for (int i = start; i < end; i++) {
+                if (source[i] == '\n') {
+                    newlines++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.atn.DecisionInfo;
+import org.antlr.v4.runtime.atn.DecisionState;
+import org.antlr.v4.runtime.atn.LookaheadEventInfo;
+import org.antlr.v4.runtime.atn.PredictionMode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Per-decision report of a CoolParser run with profiling on (Parser.setProfile(true), which
+ * installs ANTLR's ProfilingATNSimulator): how often each decision was predicted, how far
+ * ahead SLL and full LL prediction had to look, how often SLL gave up to full LL, the
+ * ambiguities and context sensitivities LL found, and the time spent predicting.
+ *
+ * Decisions are listed by prediction time, so the grammar hot spots come first. Decisions the
+ * generated parser settles with a switch on one token of lookahead never reach the simulator
+ * and are not listed. Ambiguities are only detected by full LL prediction, i.e. when the
+ * two-stage parse fell back to LL.
+ */
+public class ParserProfile {
+    private List<Decision> decisions;
+    private long parseNanos;
+    private boolean llFallback;
+
+    /**
+     * Collect the profile of parser, which must have been run with setProfile(true) and
+     * parseNanos of wall time for the whole parse
+     */
+    public ParserProfile(Parser parser, long parseNanos) {
+        this.parseNanos = parseNanos;
+        this.llFallback = parser.getInterpreter().getPredictionMode() == PredictionMode.LL;
+        this.decisions = new ArrayList<>();
+
+        TokenStream tokens = parser.getTokenStream();
+        for (DecisionInfo info : parser.getParseInfo().getDecisionInfo()) {
+            if (info.invocations > 0) {
+                DecisionState state = parser.getATN().getDecisionState(info.decision);
+                decisions.add(new Decision(info, parser.getRuleNames()[state.ruleIndex], kind(state), tokens));
+            }
+        }
+        decisions.sort(Comparator.comparingLong((Decision d) -> d.info.timeInPrediction).reversed());
+    }
+
+    public List<Decision> getDecisions() {
+        return decisions;
+    }
+
+    // StarLoopEntryState -> "StarLoopEntry", the kind of subrule the decision chooses in
+    private static String kind(DecisionState state) {
+        String name = state.getClass().getSimpleName();
+        return name.endsWith("State") ? name.substring(0, name.length() - "State".length()) : name;
+    }
+
+    /**
+     * Fixed-width table, one line per decision that was predicted at least once
+     */
+    public String toTable() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Parser decisions (parse %.2f ms%s)%n", parseNanos / 1e6,
+                llFallback ? ", SLL failed and the input was reparsed with LL" : ""));
+        sb.append(String.format("%4s  %-18s %-16s %9s %9s %8s %7s %8s %7s %7s %6s %6s%n",
+                "dec", "rule", "kind", "calls", "time ms", "SLL avg", "SLL max",
+                "LL fb", "LL avg", "LL max", "ambig", "ctxs"));
+        for (Decision d : decisions) {
+            DecisionInfo info = d.info;
+            sb.append(String.format("%4d  %-18s %-16s %9d %9.3f %8.2f %7d %8d %7.2f %7d %6d %6d%n",
+                    info.decision, d.rule, d.kind, info.invocations, info.timeInPrediction / 1e6,
+                    (double) info.SLL_TotalLook / info.invocations, info.SLL_MaxLook,
+                    info.LL_Fallback, info.LL_Fallback == 0 ? 0.0 : (double) info.LL_TotalLook / info.LL_Fallback,
+                    info.LL_MaxLook, info.ambiguities.size(), info.contextSensitivities.size()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Render the report as JSON, in the same order as the table
+     */
+    public String toJson(String source) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n");
+        sb.append("  \"source\": \"").append(escapeJson(source)).append("\",\n");
+        sb.append("  \"parseNanos\": ").append(parseNanos).append(",\n");
+        sb.append("  \"llFallback\": ").append(llFallback).append(",\n");
+        sb.append("  \"decisions\": [\n");
+
+        for (int i = 0; i < decisions.size(); i++) {
+            Decision d = decisions.get(i);
+            DecisionInfo info = d.info;
+            sb.append("    {\"decision\": ").append(info.decision)
+                    .append(", \"rule\": \"").append(d.rule).append("\"")
+                    .append(", \"kind\": \"").append(d.kind).append("\"")
+                    .append(", \"invocations\": ").append(info.invocations)
+                    .append(", \"timeInPredictionNanos\": ").append(info.timeInPrediction)
+                    .append(", \"sllTotalLook\": ").append(info.SLL_TotalLook)
+                    .append(", \"sllMinLook\": ").append(info.SLL_MinLook)
+                    .append(", \"sllMaxLook\": ").append(info.SLL_MaxLook)
+                    .append(", \"sllMaxLookAt\": \"").append(d.sllMaxLookAt).append("\"")
+                    .append(", \"sllDFATransitions\": ").append(info.SLL_DFATransitions)
+                    .append(", \"sllATNTransitions\": ").append(info.SLL_ATNTransitions)
+                    .append(", \"llFallback\": ").append(info.LL_Fallback)
+                    .append(", \"llTotalLook\": ").append(info.LL_TotalLook)
+                    .append(", \"llMinLook\": ").append(info.LL_MinLook)
+                    .append(", \"llMaxLook\": ").append(info.LL_MaxLook)
+                    .append(", \"llMaxLookAt\": \"").append(d.llMaxLookAt).append("\"")
+                    .append(", \"llDFATransitions\": ").append(info.LL_DFATransitions)
+                    .append(", \"llATNTransitions\": ").append(info.LL_ATNTransitions)
+                    .append(", \"ambiguities\": ").append(info.ambiguities.size())
+                    .append(", \"contextSensitivities\": ").append(info.contextSensitivities.size())
+                    .append(", \"errors\": ").append(info.errors.size())
+                    .append("}").append(i < decisions.size() - 1 ? ",\n" : "\n");
+        }
+
+        sb.append("  ]\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    public void writeJson(Path file, String source) throws IOException {
+        Files.write(file, toJson(source).getBytes());
+    }
+
+    private static String escapeJson(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * One grammar decision: the profiler's counters plus where it looked furthest ahead
+     */
+    public static class Decision {
+        private DecisionInfo info;
+        private String rule;
+        private String kind;
+        private String sllMaxLookAt;
+        private String llMaxLookAt;
+
+        Decision(DecisionInfo info, String rule, String kind, TokenStream tokens) {
+            this.info = info;
+            this.rule = rule;
+            this.kind = kind;
+            this.sllMaxLookAt = position(info.SLL_MaxLookEvent, tokens);
+            this.llMaxLookAt = position(info.LL_MaxLookEvent, tokens);
+        }
+
+        // line:column of the token the lookahead started at, "" if there was none
+        private static String position(LookaheadEventInfo event, TokenStream tokens) {
+            if (event == null || event.startIndex < 0 || event.startIndex >= tokens.size()) {
+                return "";
+            }
+            Token token = tokens.get(event.startIndex);
+            return token.getLine() + ":" + token.getCharPositionInLine();
+        }
+
+        public DecisionInfo getInfo() {
+            return info;
+        }
+
+        public String getRule() {
+            return rule;
+        }
+
+        public String getKind() {
+            return kind;
+        }
+    }
+}
@@ -1,10 +1,16 @@
 import ast.*;
 import java.util.*;
 
-public class SemanticAnalyzer {
+/**
+ * Type checker over the AST. Names are handled as interned symbol ids (see ast.Symbols) and
+ * types as ast.Type objects throughout, so checks compare references and never touch Strings
+ * except for error messages. Expressions are dispatched through ExpressionVisitor; each visit
+ * returns the expression's type, which is also stored on the node.
+ */
+public class SemanticAnalyzer implements ExpressionVisitor<Type> {
     private EnhancedSymbolTable symbolTable;
     private List<String> errors;
-    private String currentClass;
+    private Type currentClass;
 
     public SemanticAnalyzer() {
         symbolTable = new EnhancedSymbolTable();
@@ -34,38 +40,44 @@ public class SemanticAnalyzer {
     // Add this method to your SemanticAnalyzer class
     private void registerClassAttributes() {
         // First, collect all class attributes including inherited ones
-        for (String className : symbolTable.getClassNames()) {
-            // Create a set of attributes for this class
-            Map<String, String> attributes = new HashMap<>();
-
+        for (EnhancedSymbolTable.ClassInfo classInfo : symbolTable.getClasses()) {
             // Start with this class's attributes
-            EnhancedSymbolTable.ClassInfo classInfo = symbolTable.getClassInfo(className);
-            attributes.putAll(classInfo.attributes);
-
-            // Add inherited attributes by traversing class hierarchy
-            String parent = classInfo.parentName;
-            while (parent != null) {
-                EnhancedSymbolTable.ClassInfo parentInfo = symbolTable.getClassInfo(parent);
-                if (parentInfo != null) {
-                    // Add parent attributes that don't conflict with existing ones
-                    for (Map.Entry<String, String> entry : parentInfo.attributes.entrySet()) {
-                        if (!attributes.containsKey(entry.getKey())) {
-                            attributes.put(entry.getKey(), entry.getValue());
-                        }
+            SymbolMap attributes = new SymbolMap(classInfo.attributes);
+
+            // Add inherited attributes. A parent is defined before its subclasses, so its map
+            // already holds everything it inherits and the rest of the chain adds nothing
+            EnhancedSymbolTable.ClassInfo parentInfo = symbolTable.getClassInfo(classInfo.parentName);
+            if (parentInfo != null) {
+                // Add parent attributes that don't conflict with existing ones
+                for (int i = 0; i < parentInfo.attributes.size(); i++) {
+                    if (!attributes.containsKey(parentInfo.attributes.keyAt(i))) {
+                        attributes.put(parentInfo.attributes.keyAt(i), parentInfo.attributes.valueAt(i));
                     }
-                    parent = parentInfo.parentName;
-                } else {
-                    break;
                 }
             }
 
             // Update class's attributes with full set including inherited ones
-            classInfo.attributes.clear();
-            classInfo.attributes.putAll(attributes);
+            classInfo.attributes = attributes;
         }
     }
 
     public void analyze(ProgramNode program) {
+        analyzeDeclarations(program);
+
+        if (hasErrors()) {
+            return;
+        }
+
+        // Fourth pass: type check all expressions
+        typeCheckProgram(program);
+    }
+
+    /**
+     * The first three passes only: classes, inheritance, attributes and method signatures. No
+     * method body is read, so with lazily parsed bodies (DirectParser.setLazyBodies) none is
+     * parsed either.
+     */
+    public void analyzeDeclarations(ProgramNode program) {
         // First pass: register all classes
         // First pass: register all classes
         registerClasses(program);
@@ -81,8 +93,8 @@ public class SemanticAnalyzer {
 
         // Then register program classes
         for (ClassNode classNode : program.getClasses()) {
-            String className = classNode.getName();
-            String parentName = classNode.getParentName();
+            Type className = Type.of(classNode.getNameId());
+            Type parentName = Type.of(classNode.getParentId());
 
             try {
                 // Only add if not already a built-in type
@@ -107,47 +119,40 @@ public class SemanticAnalyzer {
 
         // Third pass: register all methods and attributes
         registerMethodsAndAttributes(program);
-
-        if (hasErrors()) {
-            return;
-        }
-
-        // Fourth pass: type check all expressions
-        typeCheckProgram(program);
     }
 
     private void registerBuiltInTypes() {
         // Register all the basic types needed
-        if (!symbolTable.classExists("Object")) {
-            symbolTable.addClass("Object", null);
+        if (!symbolTable.classExists(Type.OBJECT)) {
+            symbolTable.addClass(Type.OBJECT, null);
         }
 
-        if (!symbolTable.classExists("IO")) {
-            symbolTable.addClass("IO", "Object");
+        if (!symbolTable.classExists(Type.IO)) {
+            symbolTable.addClass(Type.IO, Type.OBJECT);
         }
 
-        if (!symbolTable.classExists("Int")) {
-            symbolTable.addClass("Int", "Object");
+        if (!symbolTable.classExists(Type.INT)) {
+            symbolTable.addClass(Type.INT, Type.OBJECT);
         }
 
-        if (!symbolTable.classExists("String")) {
-            symbolTable.addClass("String", "Object");
+        if (!symbolTable.classExists(Type.STRING)) {
+            symbolTable.addClass(Type.STRING, Type.OBJECT);
         }
 
-        if (!symbolTable.classExists("Bool")) {
-            symbolTable.addClass("Bool", "Object");
+        if (!symbolTable.classExists(Type.BOOL)) {
+            symbolTable.addClass(Type.BOOL, Type.OBJECT);
         }
 
-        if (!symbolTable.classExists("Void")) {
-            symbolTable.addClass("Void", "Object");
+        if (!symbolTable.classExists(Type.VOID)) {
+            symbolTable.addClass(Type.VOID, Type.OBJECT);
         }
     }
 
     // First pass: register all classes
     private void registerClasses(ProgramNode program) {
         for (ClassNode classNode : program.getClasses()) {
-            String className = classNode.getName();
-            String parentName = classNode.getParentName();
+            Type className = Type.of(classNode.getNameId());
+            Type parentName = Type.of(classNode.getParentId());
 
             try {
                 symbolTable.addClass(className, parentName);
@@ -159,24 +164,28 @@ public class SemanticAnalyzer {
 
     // Second pass: check inheritance cycles
     private void checkInheritanceCycles() {
-        // For each class, traverse its inheritance chain to check for cycles
-        for (String className : symbolTable.getClassInfo("Object").attributes.keySet()) {
-            Set<String> visited = new HashSet<>();
-            String current = className;
-
-            while (current != null && !current.equals("Object")) {
-                if (visited.contains(current)) {
-                    errors.add("Semantic Error: Inheritance cycle detected involving class " + current);
-                    break;
-                }
+        // Every class the hierarchy index reached from a root has an acyclic chain. For the
+        // rest, traverse the inheritance chain to find the cycle; visited[class index] holds
+        // the number of the last chain that reached the class
+        ClassHierarchy hierarchy = symbolTable.getHierarchy();
+        List<EnhancedSymbolTable.ClassInfo> classes = symbolTable.getClasses();
+        int[] visited = new int[classes.size()];
+        int chain = 0;
+        for (EnhancedSymbolTable.ClassInfo start : classes) {
+            if (hierarchy.contains(start.type)) {
+                continue;
+            }
+            chain++;
+            EnhancedSymbolTable.ClassInfo current = start;
 
-                visited.add(current);
-                EnhancedSymbolTable.ClassInfo classInfo = symbolTable.getClassInfo(current);
-                if (classInfo == null) {
+            while (current != null && current.type != Type.OBJECT) {
+                if (visited[current.index] == chain) {
+                    errors.add("Semantic Error: Inheritance cycle detected involving class " + current.type);
                     break;
                 }
 
-                current = classInfo.parentName;
+                visited[current.index] = chain;
+                current = symbolTable.getClassInfo(current.parentName);
             }
         }
     }
@@ -185,14 +194,13 @@ public class SemanticAnalyzer {
     private void registerMethodsAndAttributes(ProgramNode program) {
         // First, register all class attributes
         for (ClassNode classNode : program.getClasses()) {
-            String className = classNode.getName();
-            EnhancedSymbolTable.ClassInfo classInfo = symbolTable.getClassInfo(className);
+            EnhancedSymbolTable.ClassInfo classInfo = symbolTable.getClassInfo(Type.of(classNode.getNameId()));
 
             for (FeatureNode feature : classNode.getFeatures()) {
                 if (feature instanceof AttributeNode) {
                     AttributeNode attr = (AttributeNode) feature;
-                    String name = attr.getName();
-                    String type = attr.getType();
+                    int name = attr.getNameId();
+                    Type type = Type.of(attr.getTypeId());
 
                     // Add to class attributes table
                     try {
@@ -206,10 +214,10 @@ public class SemanticAnalyzer {
 
         // Then, register and check all methods
         for (ClassNode classNode : program.getClasses()) {
-            currentClass = classNode.getName();
+            currentClass = Type.of(classNode.getNameId());
 
             // Enter class scope
-            symbolTable.enterScope(currentClass, "class");
+            symbolTable.enterScope(classNode.getName(), "class");
 
             // Add all attributes to the scope - including inherited ones
             addAttributesToScope(currentClass);
@@ -227,14 +235,14 @@ public class SemanticAnalyzer {
         }
     }
 
-    private void addAttributesToScope(String className) {
+    private void addAttributesToScope(Type className) {
         EnhancedSymbolTable.ClassInfo classInfo = symbolTable.getClassInfo(className);
         if (classInfo == null) return;
 
         // Add all attributes (no need to handle inheritance - already done)
-        for (Map.Entry<String, String> entry : classInfo.attributes.entrySet()) {
+        for (int i = 0; i < classInfo.attributes.size(); i++) {
             try {
-                symbolTable.addVariable(entry.getKey(), entry.getValue());
+                symbolTable.addVariable(classInfo.attributes.keyAt(i), Type.get(classInfo.attributes.valueAt(i)));
             } catch (RuntimeException e) {
                 // Variables might already exist in scope - ignore duplicates
                 if (!e.getMessage().contains("already defined")) {
@@ -245,8 +253,8 @@ public class SemanticAnalyzer {
     }
 
     private void registerAttribute(AttributeNode attr) {
-        String name = attr.getName();
-        String type = attr.getType();
+        int name = attr.getNameId();
+        Type type = Type.of(attr.getTypeId());
 
         try {
             // Add to symbol table
@@ -259,11 +267,11 @@ public class SemanticAnalyzer {
             // If there's an initializer expression, visit it
             if (attr.getInitExpr() != null) {
                 ExpressionNode initExpr = attr.getInitExpr();
-                String initType = typeCheck(initExpr);
+                Type initType = typeCheck(initExpr);
 
                 // Check for type compatibility
                 if (!symbolTable.conformsTo(initType, type)) {
-                    errors.add("Semantic Error: Type mismatch in attribute " + name + " initialization. Expected " +
+                    errors.add("Semantic Error: Type mismatch in attribute " + Symbols.name(name) + " initialization. Expected " +
                             type + ", got " + initType);
                 }
             }
@@ -273,18 +281,15 @@ public class SemanticAnalyzer {
     }
 
     private void registerMethod(MethodNode method) {
-        String name = method.getName();
-        String returnType = method.getType();
-        List<String> paramTypes = new ArrayList<>();
+        int name = method.getNameId();
+        Type returnType = Type.of(method.getTypeId());
 
         try {
             // Check for override violations in parent classes
             checkMethodOverride(method);
 
             // Add parameters to list
-            for (FormalNode param : method.getParameters()) {
-                paramTypes.add(param.getType());
-            }
+            Type[] paramTypes = parameterTypes(method);
 
             // Add to class info
             EnhancedSymbolTable.ClassInfo classInfo = symbolTable.getClassInfo(currentClass);
@@ -297,14 +302,19 @@ public class SemanticAnalyzer {
         }
     }
 
+    private static Type[] parameterTypes(MethodNode method) {
+        List<FormalNode> parameters = method.getParameters();
+        Type[] paramTypes = new Type[parameters.size()];
+        for (int i = 0; i < paramTypes.length; i++) {
+            paramTypes[i] = Type.of(parameters.get(i).getTypeId());
+        }
+        return paramTypes;
+    }
+
     private void checkMethodOverride(MethodNode method) {
         String name = method.getName();
-        String returnType = method.getType();
-        List<String> paramTypes = new ArrayList<>();
-
-        for (FormalNode param : method.getParameters()) {
-            paramTypes.add(param.getType());
-        }
+        Type returnType = Type.of(method.getTypeId());
+        Type[] paramTypes = parameterTypes(method);
 
         // Get parent class name
         EnhancedSymbolTable.ClassInfo classInfo = symbolTable.getClassInfo(currentClass);
@@ -312,26 +322,26 @@ public class SemanticAnalyzer {
             return; // No parent class to check
         }
 
-        String parentClass = classInfo.parentName;
-        EnhancedSymbolTable.MethodInfo parentMethod = symbolTable.getMethod(name, parentClass);
+        Type parentClass = classInfo.parentName;
+        EnhancedSymbolTable.MethodInfo parentMethod = symbolTable.getMethod(method.getNameId(), parentClass);
 
         if (parentMethod != null) {
             // Check return type
-            if (!parentMethod.returnType.equals(returnType)) {
+            if (parentMethod.returnType != returnType) {
                 errors.add("Semantic Error: Method " + name + " in class " + currentClass +
                         " has a different return type from overridden method in parent class");
             }
 
             // Check parameter count
-            if (parentMethod.paramTypes.size() != paramTypes.size()) {
+            if (parentMethod.paramTypes.length != paramTypes.length) {
                 errors.add("Semantic Error: Method " + name + " in class " + currentClass +
                         " has a different number of parameters from overridden method in parent class");
                 return;
             }
 
             // Check parameter types
-            for (int i = 0; i < paramTypes.size(); i++) {
-                if (!parentMethod.paramTypes.get(i).equals(paramTypes.get(i))) {
+            for (int i = 0; i < paramTypes.length; i++) {
+                if (parentMethod.paramTypes[i] != paramTypes[i]) {
                     errors.add("Semantic Error: Method " + name + " in class " + currentClass +
                             " has different parameter types from overridden method in parent class");
                     break;
@@ -343,20 +353,20 @@ public class SemanticAnalyzer {
     // Fourth pass: type check expressions
     private void typeCheckProgram(ProgramNode program) {
         for (ClassNode classNode : program.getClasses()) {
-            currentClass = classNode.getName();
+            currentClass = Type.of(classNode.getNameId());
 
             // Enter class scope
-            symbolTable.enterScope(currentClass, "class");
+            symbolTable.enterScope(classNode.getName(), "class");
 
             // Type check attribute initializers
             for (FeatureNode feature : classNode.getFeatures()) {
                 if (feature instanceof AttributeNode) {
                     AttributeNode attr = (AttributeNode) feature;
                     if (attr.getInitExpr() != null) {
-                        String initType = typeCheck(attr.getInitExpr());
+                        Type initType = typeCheck(attr.getInitExpr());
 
                         // Validate type compatibility
-                        if (!symbolTable.conformsTo(initType, attr.getType())) {
+                        if (!symbolTable.conformsTo(initType, Type.of(attr.getTypeId()))) {
                             errors.add("Semantic Error: Type mismatch in attribute " + attr.getName() +
                                     " initialization. Expected " + attr.getType() + ", got " + initType);
                         }
@@ -385,15 +395,15 @@ public class SemanticAnalyzer {
             // Add parameters to scope
             for (FormalNode param : method.getParameters()) {
                 try {
-                    symbolTable.addVariable(param.getName(), param.getType());
+                    symbolTable.addVariable(param.getNameId(), Type.of(param.getTypeId()));
                 } catch (RuntimeException e) {
                     errors.add(e.getMessage());
                 }
             }
 
             // Type check body
-            String methodType = method.getType();
-            String bodyType = null;
+            Type methodType = Type.of(method.getTypeId());
+            Type bodyType = null;
 
             for (ExpressionNode expr : method.getBody()) {
                 bodyType = typeCheck(expr);
@@ -403,7 +413,7 @@ public class SemanticAnalyzer {
             if (bodyType != null && !symbolTable.conformsTo(bodyType, methodType)) {
                 errors.add("Semantic Error: Method " + method.getName() + " in class " + currentClass +
                         " has a body of type " + bodyType + " which doesn't conform to the declared return type " +
-                        methodType);
+                        method.getType());
             }
         } finally {
             // Exit method scope - always do this even if errors occur
@@ -411,72 +421,74 @@ public class SemanticAnalyzer {
         }
     }
 
-    private String typeCheck(ExpressionNode expr) {
+    private Type typeCheck(ExpressionNode expr) {
         if (expr == null) {
-            return "Object"; // Default for null expressions
+            return Type.OBJECT; // Default for null expressions
         }
+        return expr.accept(this);
+    }
 
-        // Binary operations
-        if (expr instanceof BinaryOperationNode) {
-            return typeCheckBinaryOp((BinaryOperationNode) expr);
-        }
+    // SELF_TYPE stands for the class being checked
+    private Type resolveSelfType(Type type) {
+        return type == Type.SELF_TYPE ? currentClass : type;
+    }
 
-        // Unary operations
-        if (expr instanceof UnaryOperationNode) {
-            return typeCheckUnaryOp((UnaryOperationNode) expr);
-        }
+    @Override
+    public Type visitBinaryOperation(BinaryOperationNode node) {
+        return typeCheckBinaryOp(node);
+    }
 
-        // Integer literals
-        if (expr instanceof IntegerLiteralNode) {
-            expr.setExpressionType("Int");
-            return "Int";
-        }
+    @Override
+    public Type visitUnaryOperation(UnaryOperationNode node) {
+        return typeCheckUnaryOp(node);
+    }
 
-        // String literals
-        if (expr instanceof StringLiteralNode) {
-            expr.setExpressionType("String");
-            return "String";
-        }
+    @Override
+    public Type visitIntegerLiteral(IntegerLiteralNode node) {
+        node.setExpressionType(Type.INT);
+        return Type.INT;
+    }
 
-        // Boolean literals
-        if (expr instanceof BooleanLiteralNode) {
-            expr.setExpressionType("Bool");
-            return "Bool";
-        }
+    @Override
+    public Type visitStringLiteral(StringLiteralNode node) {
+        node.setExpressionType(Type.STRING);
+        return Type.STRING;
+    }
 
-        // Identifiers
-        if (expr instanceof IdentifierNode) {
-            return typeCheckIdentifier((IdentifierNode) expr);
-        }
+    @Override
+    public Type visitBooleanLiteral(BooleanLiteralNode node) {
+        node.setExpressionType(Type.BOOL);
+        return Type.BOOL;
+    }
 
-        // Assignment
-        if (expr instanceof AssignmentNode) {
-            return typeCheckAssignment((AssignmentNode) expr);
-        }
+    @Override
+    public Type visitIdentifier(IdentifierNode node) {
+        return typeCheckIdentifier(node);
+    }
 
-        // Method call
-        if (expr instanceof MethodCallNode) {
-            return typeCheckMethodCall((MethodCallNode) expr);
-        }
+    @Override
+    public Type visitAssignment(AssignmentNode node) {
+        return typeCheckAssignment(node);
+    }
 
-        // If statement
-        if (expr instanceof IfNode) {
-            return typeCheckIf((IfNode) expr);
-        }
+    @Override
+    public Type visitMethodCall(MethodCallNode node) {
+        return typeCheckMethodCall(node);
+    }
 
-        // While loop
-        if (expr instanceof WhileNode) {
-            return typeCheckWhile((WhileNode) expr);
-        }
+    @Override
+    public Type visitIf(IfNode node) {
+        return typeCheckIf(node);
+    }
 
-        // Fallback
-        errors.add("Semantic Error: Unknown expression type: " + expr.getClass().getName());
-        return "Object";
+    @Override
+    public Type visitWhile(WhileNode node) {
+        return typeCheckWhile(node);
     }
 
-    private String typeCheckBinaryOp(BinaryOperationNode node) {
-        String leftType = typeCheck(node.getLeft());
-        String rightType = typeCheck(node.getRight());
+    private Type typeCheckBinaryOp(BinaryOperationNode node) {
+        Type leftType = typeCheck(node.getLeft());
+        Type rightType = typeCheck(node.getRight());
         BinaryOperationNode.Operator op = node.getOperator();
 
         // Arithmetic operations require Int operands
@@ -486,16 +498,16 @@ public class SemanticAnalyzer {
                 op == BinaryOperationNode.Operator.DIVIDE ||
                 op == BinaryOperationNode.Operator.MOD) {
 
-            if (!leftType.equals("Int")) {
+            if (leftType != Type.INT) {
                 errors.add("Semantic Error: Left operand of " + op + " must be Int, got " + leftType);
             }
 
-            if (!rightType.equals("Int")) {
+            if (rightType != Type.INT) {
                 errors.add("Semantic Error: Right operand of " + op + " must be Int, got " + rightType);
             }
 
-            node.setExpressionType("Int");
-            return "Int";
+            node.setExpressionType(Type.INT);
+            return Type.INT;
         }
 
         // Comparison operations (except equality) require Int operands
@@ -504,88 +516,88 @@ public class SemanticAnalyzer {
                 op == BinaryOperationNode.Operator.GT ||
                 op == BinaryOperationNode.Operator.GE) {
 
-            if (!leftType.equals("Int")) {
+            if (leftType != Type.INT) {
                 errors.add("Semantic Error: Left operand of " + op + " must be Int, got " + leftType);
             }
 
-            if (!rightType.equals("Int")) {
+            if (rightType != Type.INT) {
                 errors.add("Semantic Error: Right operand of " + op + " must be Int, got " + rightType);
             }
 
-            node.setExpressionType("Bool");
-            return "Bool";
+            node.setExpressionType(Type.BOOL);
+            return Type.BOOL;
         }
 
         // Equality (=) works on all types
         if (op == BinaryOperationNode.Operator.EQ || op == BinaryOperationNode.Operator.NE) {
             // No type restrictions, any two types can be compared for equality
-            node.setExpressionType("Bool");
-            return "Bool";
+            node.setExpressionType(Type.BOOL);
+            return Type.BOOL;
         }
 
         // Logical operations require Bool operands
         if (op == BinaryOperationNode.Operator.AND || op == BinaryOperationNode.Operator.OR) {
-            if (!leftType.equals("Bool")) {
+            if (leftType != Type.BOOL) {
                 errors.add("Semantic Error: Left operand of " + op + " must be Bool, got " + leftType);
             }
 
-            if (!rightType.equals("Bool")) {
+            if (rightType != Type.BOOL) {
                 errors.add("Semantic Error: Right operand of " + op + " must be Bool, got " + rightType);
             }
 
-            node.setExpressionType("Bool");
-            return "Bool";
+            node.setExpressionType(Type.BOOL);
+            return Type.BOOL;
         }
 
         // Should never get here
         errors.add("Semantic Error: Unknown binary operator: " + op);
-        return "Object";
+        return Type.OBJECT;
     }
 
-    private String typeCheckUnaryOp(UnaryOperationNode node) {
-        String exprType = typeCheck(node.getOperand());
+    private Type typeCheckUnaryOp(UnaryOperationNode node) {
+        Type exprType = typeCheck(node.getOperand());
         UnaryOperationNode.Operator op = node.getOperator();
 
         if (op == UnaryOperationNode.Operator.NOT) {
-            if (!exprType.equals("Bool")) {
+            if (exprType != Type.BOOL) {
                 errors.add("Semantic Error: Operand of NOT must be Bool, got " + exprType);
             }
 
-            node.setExpressionType("Bool");
-            return "Bool";
+            node.setExpressionType(Type.BOOL);
+            return Type.BOOL;
         }
 
         if (op == UnaryOperationNode.Operator.NEGATIVE) {
-            if (!exprType.equals("Int")) {
+            if (exprType != Type.INT) {
                 errors.add("Semantic Error: Operand of negation must be Int, got " + exprType);
             }
 
-            node.setExpressionType("Int");
-            return "Int";
+            node.setExpressionType(Type.INT);
+            return Type.INT;
         }
 
         // Should never get here
         errors.add("Semantic Error: Unknown unary operator: " + op);
-        return "Object";
+        return Type.OBJECT;
     }
 
-    private String typeCheckIdentifier(IdentifierNode node) {
-        String name = node.getName();
-        String type = symbolTable.getVariableType(name);
+    private Type typeCheckIdentifier(IdentifierNode node) {
+        int name = node.getNameId();
+        Type type = symbolTable.getVariableType(name);
 
         if (type == null) {
             // Check if it's a class attribute
             EnhancedSymbolTable.ClassInfo classInfo = symbolTable.getClassInfo(currentClass);
             if (classInfo != null && classInfo.attributes.containsKey(name)) {
-                type = classInfo.attributes.get(name);
+                type = classInfo.getAttributeType(name);
             } else {
                 // Check parent classes for the attribute
-                String parentClass = classInfo != null ? classInfo.parentName : null;
+                Type parentClass = classInfo != null ? classInfo.parentName : null;
                 while (type == null && parentClass != null) {
                     EnhancedSymbolTable.ClassInfo parentInfo = symbolTable.getClassInfo(parentClass);
                     if (parentInfo != null) {
                         if (parentInfo.attributes.containsKey(name)) {
-                            type = parentInfo.attributes.get(name);
+                            type = parentInfo.getAttributeType(name);
                             break;
                         }
                         parentClass = parentInfo.parentName;
@@ -595,8 +607,8 @@ public class SemanticAnalyzer {
                 }
 
                 if (type == null) {
-                    errors.add("Semantic Error: Undefined identifier: " + name);
-                    return "Object";
+                    errors.add("Semantic Error: Undefined identifier: " + node.getName());
+                    return Type.OBJECT;
                 }
             }
         }
@@ -605,16 +617,16 @@ public class SemanticAnalyzer {
         return type;
     }
 
-    private String typeCheckAssignment(AssignmentNode node) {
+    private Type typeCheckAssignment(AssignmentNode node) {
         String varName = node.getVariable();
-        String varType = symbolTable.getVariableType(varName);
+        Type varType = symbolTable.getVariableType(node.getVariableId());
 
         if (varType == null) {
             errors.add("Semantic Error: Assignment to undefined variable: " + varName);
-            return "Object";
+            return Type.OBJECT;
         }
 
-        String valueType = typeCheck(node.getValue());
+        Type valueType = typeCheck(node.getValue());
 
         // Check assignment compatibility
         if (!symbolTable.conformsTo(valueType, varType)) {
@@ -623,7 +635,7 @@ public class SemanticAnalyzer {
 
         // For compound assignments, check that the operation is valid for the types
         if (node.getType() != AssignmentNode.AssignmentType.SIMPLE) {
-            if (!varType.equals("Int") || !valueType.equals("Int")) {
+            if (varType != Type.INT || valueType != Type.INT) {
                 errors.add("Semantic Error: Compound assignment operator " + node.getType() +
                         " requires Int operands, got " + varType + " and " + valueType);
             }
@@ -633,36 +645,33 @@ public class SemanticAnalyzer {
         return varType;
     }
 
-    private String typeCheckMethodCall(MethodCallNode node) {
-        String objectType = "SELF_TYPE";
+    private Type typeCheckMethodCall(MethodCallNode node) {
+        // A call without an object is a call on self
+        Type objectType = Type.SELF_TYPE;
         if (node.getObject() != null) {
             objectType = typeCheck(node.getObject());
         }
-
-        // Replace SELF_TYPE with the current class name
-        if (objectType.equals("SELF_TYPE")) {
-            objectType = currentClass;
-        }
+        objectType = resolveSelfType(objectType);
 
         String methodName = node.getMethodName();
-        EnhancedSymbolTable.MethodInfo methodInfo = symbolTable.getMethod(methodName, objectType);
+        EnhancedSymbolTable.MethodInfo methodInfo = symbolTable.getMethod(node.getMethodNameId(), objectType);
 
         if (methodInfo == null) {
             errors.add("Semantic Error: Undefined method " + methodName + " for type " + objectType);
-            return "Object";
+            return Type.OBJECT;
         }
 
         // Check argument count
-        if (methodInfo.paramTypes.size() != node.getArguments().size()) {
-            errors.add("Semantic Error: Method " + methodName + " requires " + methodInfo.paramTypes.size() +
+        if (methodInfo.paramTypes.length != node.getArguments().size()) {
+            errors.add("Semantic Error: Method " + methodName + " requires " + methodInfo.paramTypes.length +
                     " arguments, but " + node.getArguments().size() + " were provided");
             return methodInfo.returnType;
         }
 
         // Check argument types
-        for (int i = 0; i < methodInfo.paramTypes.size(); i++) {
-            String expectedType = methodInfo.paramTypes.get(i);
-            String actualType = typeCheck(node.getArguments().get(i));
+        for (int i = 0; i < methodInfo.paramTypes.length; i++) {
+            Type expectedType = methodInfo.paramTypes[i];
+            Type actualType = typeCheck(node.getArguments().get(i));
 
             if (!symbolTable.conformsTo(actualType, expectedType)) {
                 errors.add("Semantic Error: Argument " + (i+1) + " of method " + methodName +
@@ -674,26 +683,26 @@ public class SemanticAnalyzer {
         return methodInfo.returnType;
     }
 
-    private String typeCheckIf(IfNode node) {
-        String condType = typeCheck(node.getCondition());
+    private Type typeCheckIf(IfNode node) {
+        Type condType = typeCheck(node.getCondition());
 
-        if (!condType.equals("Bool")) {
+        if (condType != Type.BOOL) {
             errors.add("Semantic Error: If condition must be of type Bool, got " + condType);
         }
 
-        String thenType = typeCheck(node.getThenExpr());
-        String elseType = typeCheck(node.getElseExpr());
+        Type thenType = typeCheck(node.getThenExpr());
+        Type elseType = typeCheck(node.getElseExpr());
 
         // The type of the if expression is the least common ancestor of the then and else branches
-        String resultType = symbolTable.leastCommonAncestor(thenType, elseType);
+        Type resultType = symbolTable.leastCommonAncestor(thenType, elseType);
         node.setExpressionType(resultType);
         return resultType;
     }
 
-    private String typeCheckWhile(WhileNode node) {
-        String condType = typeCheck(node.getCondition());
+    private Type typeCheckWhile(WhileNode node) {
+        Type condType = typeCheck(node.getCondition());
 
-        if (!condType.equals("Bool")) {
+        if (condType != Type.BOOL) {
             errors.add("Semantic Error: While condition must be of type Bool, got " + condType);
         }
 
@@ -701,7 +710,7 @@ public class SemanticAnalyzer {
         typeCheck(node.getBody());
 
         // In COOL, a while loop always returns Object
-        node.setExpressionType("Object");
-        return "Object";
+        node.setExpressionType(Type.OBJECT);
+        return Type.OBJECT;
     }
 }
\ No newline at end of file
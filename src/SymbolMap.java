@@ -0,0 +1,97 @@
+import ast.Symbols;
+
+import java.util.Arrays;
+
+/**
+ * Map from an interned symbol id (see ast.Symbols) to an int, usually another symbol id such as
+ * a type. Open addressing over the int keys, so lookups never hash or compare Strings; entries
+ * are kept in insertion order for printing.
+ */
+public class SymbolMap {
+    private int[] keys;
+    private int[] values;
+    private int size;
+
+    // Hash table of entry index + 1; 0 marks an empty slot
+    private int[] slots;
+
+    public SymbolMap() {
+        keys = new int[4];
+        values = new int[4];
+        slots = new int[8];
+    }
+
+    public SymbolMap(SymbolMap other) {
+        keys = other.keys.clone();
+        values = other.values.clone();
+        slots = other.slots.clone();
+        size = other.size;
+    }
+
+    /**
+     * Value for key, or Symbols.NONE if the key is absent
+     */
+    public int get(int key) {
+        int entry = slots[find(key)];
+        return entry == 0 ? Symbols.NONE : values[entry - 1];
+    }
+
+    public boolean containsKey(int key) {
+        return slots[find(key)] != 0;
+    }
+
+    /**
+     * Add or replace; a replaced entry keeps its position
+     */
+    public void put(int key, int value) {
+        int slot = find(key);
+        if (slots[slot] != 0) {
+            values[slots[slot] - 1] = value;
+            return;
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        keys[size] = key;
+        values[size] = value;
+        size++;
+        slots[slot] = size;
+
+        // Keep the table at most half full
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int keyAt(int index) {
+        return keys[index];
+    }
+
+    public int valueAt(int index) {
+        return values[index];
+    }
+
+    // Slot holding key, or the empty slot where it would go
+    private int find(int key) {
+        int mask = slots.length - 1;
+        int hash = key * 0x9E3779B9;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (slots[slot] != 0 && keys[slots[slot] - 1] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        for (int i = 0; i < size; i++) {
+            slots[find(keys[i])] = i + 1;
+        }
+    }
+}
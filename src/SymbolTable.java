@@ -1,25 +1,62 @@
-import java.util.HashMap;
-import java.util.Map;
+import ast.AttributeNode;
+import ast.ClassNode;
+import ast.FeatureNode;
+import ast.FormalNode;
+import ast.MethodNode;
+import ast.ProgramNode;
+import ast.Symbols;
 
 public class SymbolTable {
-    private Map<String, String> variables;
+    // Variable name id -> type name id
+    private SymbolMap variables;
 
     public SymbolTable() {
-        variables = new HashMap<>();
+        variables = new SymbolMap();
+    }
+
+    /**
+     * Attributes and parameters of program, in the order the parsers collect them while
+     * building it (for an AST that was not just parsed, e.g. one loaded from a BinaryAST)
+     */
+    public static SymbolTable of(ProgramNode program) {
+        SymbolTable symbolTable = new SymbolTable();
+        for (ClassNode classNode : program.getClasses()) {
+            for (FeatureNode feature : classNode.getFeatures()) {
+                if (feature instanceof AttributeNode) {
+                    symbolTable.addVariable(feature.getName(), feature.getType());
+                } else {
+                    for (FormalNode param : ((MethodNode) feature).getParameters()) {
+                        symbolTable.addVariable(param.getName(), param.getType());
+                    }
+                }
+            }
+        }
+        return symbolTable;
     }
 
     public void addVariable(String name, String type) {
-        variables.put(name, type);
+        variables.put(Symbols.intern(name), Symbols.intern(type));
+    }
+
+    /**
+     * Add every entry of other, in its order; later entries replace earlier ones as in addVariable
+     */
+    public void addAll(SymbolTable other) {
+        for (int i = 0; i < other.variables.size(); i++) {
+            variables.put(other.variables.keyAt(i), other.variables.valueAt(i));
+        }
     }
 
     public String getType(String name) {
-        return variables.get(name);
+        // A name that was never interned cannot be in the table
+        int id = Symbols.lookup(name);
+        return id == Symbols.NONE ? null : Symbols.name(variables.get(id));
     }
 
     public void printTable() {
         System.out.println("Symbol Table:");
-        for (Map.Entry<String, String> entry : variables.entrySet()) {
-            System.out.printf("%s : %s%n", entry.getKey(), entry.getValue());
+        for (int i = 0; i < variables.size(); i++) {
+            System.out.printf("%s : %s%n", Symbols.name(variables.keyAt(i)), Symbols.name(variables.valueAt(i)));
         }
     }
-}
\ No newline at end of file
+}
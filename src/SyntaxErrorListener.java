@@ -0,0 +1,22 @@
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+
+import java.util.List;
+
+/**
+ * Collects lexer and parser errors into a list instead of printing them to the console
+ */
+public class SyntaxErrorListener extends BaseErrorListener {
+    private List<String> errors;
+
+    public SyntaxErrorListener(List<String> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line,
+                            int charPositionInLine, String msg, RecognitionException e) {
+        errors.add("Syntax Error: line " + line + ":" + charPositionInLine + " " + msg);
+    }
+}
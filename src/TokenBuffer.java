@@ -0,0 +1,237 @@
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Compact token store: one entry per token in parallel int arrays (type, start and stop byte
+ * offset into the source, line, column), so a token costs 20 bytes instead of a CommonToken
+ * object plus its list slot. Text is only sliced from the source bytes when asked for.
+ *
+ * Offsets are UTF-8 byte offsets; they are the same as CoolLexer's character indexes as long
+ * as the source is ASCII. Use TokenBufferStream to hand the buffer to a parser.
+ */
+public class TokenBuffer {
+    private byte[] source;
+    private TokenSource tokenSource;
+
+    private int[] types;
+    private int[] starts;
+    private int[] stops;
+    private int[] lines;
+    private int[] columns;
+    private int size;
+
+    public TokenBuffer(byte[] source, TokenSource tokenSource, int initialCapacity) {
+        this.source = source;
+        this.tokenSource = tokenSource;
+        this.types = new int[initialCapacity];
+        this.starts = new int[initialCapacity];
+        this.stops = new int[initialCapacity];
+        this.lines = new int[initialCapacity];
+        this.columns = new int[initialCapacity];
+    }
+
+    public void add(int type, int start, int stop, int line, int column) {
+        if (size == types.length) {
+            resize(Math.max(16, size + size / 2));
+        }
+        types[size] = type;
+        starts[size] = start;
+        stops[size] = stop;
+        lines[size] = line;
+        columns[size] = column;
+        size++;
+    }
+
+    /**
+     * Append entries from..size()-1 of other, shifting their lines by lineOffset
+     */
+    public void addAll(TokenBuffer other, int from, int lineOffset) {
+        int count = other.size - from;
+        if (size + count > types.length) {
+            resize(Math.max(size + count, size + size / 2));
+        }
+        System.arraycopy(other.types, from, types, size, count);
+        System.arraycopy(other.starts, from, starts, size, count);
+        System.arraycopy(other.stops, from, stops, size, count);
+        System.arraycopy(other.columns, from, columns, size, count);
+        for (int i = 0; i < count; i++) {
+            lines[size + i] = other.lines[from + i] + lineOffset;
+        }
+        size += count;
+    }
+
+    /**
+     * Replace entries from..to-1 with the entries of other, which were lexed from a new version
+     * of the source in which the entries from to on moved by lineOffset lines and offsetShift
+     * bytes. Done in place, so Token views handed out earlier see the new entries.
+     */
+    public void replace(int from, int to, TokenBuffer other, int lineOffset, int offsetShift) {
+        int count = other.size;
+        int tail = size - to;
+        int newSize = from + count + tail;
+        if (newSize > types.length) {
+            resize(Math.max(newSize, size + size / 2));
+        }
+        System.arraycopy(types, to, types, from + count, tail);
+        System.arraycopy(starts, to, starts, from + count, tail);
+        System.arraycopy(stops, to, stops, from + count, tail);
+        System.arraycopy(lines, to, lines, from + count, tail);
+        System.arraycopy(columns, to, columns, from + count, tail);
+        for (int i = from + count; i < newSize; i++) {
+            starts[i] += offsetShift;
+            stops[i] += offsetShift;
+            lines[i] += lineOffset;
+        }
+
+        System.arraycopy(other.types, 0, types, from, count);
+        System.arraycopy(other.starts, 0, starts, from, count);
+        System.arraycopy(other.stops, 0, stops, from, count);
+        System.arraycopy(other.lines, 0, lines, from, count);
+        System.arraycopy(other.columns, 0, columns, from, count);
+        size = newSize;
+        source = other.source;
+        tokenSource = other.tokenSource;
+    }
+
+    /**
+     * Release the unused capacity once the buffer is complete
+     */
+    public void trimToSize() {
+        resize(size);
+    }
+
+    private void resize(int capacity) {
+        types = Arrays.copyOf(types, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        stops = Arrays.copyOf(stops, capacity);
+        lines = Arrays.copyOf(lines, capacity);
+        columns = Arrays.copyOf(columns, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getType(int i) {
+        return types[i];
+    }
+
+    public int getStart(int i) {
+        return starts[i];
+    }
+
+    public int getStop(int i) {
+        return stops[i];
+    }
+
+    public int getLine(int i) {
+        return lines[i];
+    }
+
+    public int getColumn(int i) {
+        return columns[i];
+    }
+
+    /**
+     * Token text: shared for operators and lower-case keywords, sliced from the source for
+     * everything else
+     */
+    public String getText(int i) {
+        int type = types[i];
+        if (type == Token.EOF) {
+            return "<EOF>";
+        }
+        String text = CoolScanner.fixedText(type);
+        if (text != null) {
+            return text;
+        }
+        int length = stops[i] - starts[i] + 1;
+        text = CoolScanner.keywordText(type, source, starts[i], length);
+        if (text != null) {
+            return text;
+        }
+        return new String(source, starts[i], length, StandardCharsets.UTF_8);
+    }
+
+    public TokenSource getTokenSource() {
+        return tokenSource;
+    }
+
+    /**
+     * Lightweight Token view of entry i, for code that needs Token objects (the parser's
+     * LT(), parse tree leaves, error messages)
+     */
+    public Token getToken(int i) {
+        return new BufferedToken(this, i);
+    }
+
+    private static class BufferedToken implements Token {
+        private TokenBuffer buffer;
+        private int index;
+
+        BufferedToken(TokenBuffer buffer, int index) {
+            this.buffer = buffer;
+            this.index = index;
+        }
+
+        @Override
+        public String getText() {
+            return buffer.getText(index);
+        }
+
+        @Override
+        public int getType() {
+            return buffer.types[index];
+        }
+
+        @Override
+        public int getLine() {
+            return buffer.lines[index];
+        }
+
+        @Override
+        public int getCharPositionInLine() {
+            return buffer.columns[index];
+        }
+
+        @Override
+        public int getChannel() {
+            return Token.DEFAULT_CHANNEL;
+        }
+
+        @Override
+        public int getTokenIndex() {
+            return index;
+        }
+
+        @Override
+        public int getStartIndex() {
+            return buffer.starts[index];
+        }
+
+        @Override
+        public int getStopIndex() {
+            return buffer.stops[index];
+        }
+
+        @Override
+        public TokenSource getTokenSource() {
+            return buffer.tokenSource;
+        }
+
+        @Override
+        public CharStream getInputStream() {
+            return buffer.tokenSource.getInputStream();
+        }
+
+        @Override
+        public String toString() {
+            return "[@" + index + "," + getStartIndex() + ":" + getStopIndex() + "='" + getText() + "',<"
+                    + getType() + ">," + getLine() + ":" + getCharPositionInLine() + "]";
+        }
+    }
+}
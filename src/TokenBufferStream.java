@@ -0,0 +1,142 @@
+import org.antlr.v4.runtime.RuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenSource;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+/**
+ * TokenStream over a complete TokenBuffer, so CoolParser and DirectParser can read the compact
+ * buffer directly. LA() reads the type array; Token objects are only created by LT()/get(), and
+ * recently used ones are cached because the parser asks for the same lookahead token repeatedly.
+ */
+public class TokenBufferStream implements TokenStream {
+    private static final int CACHE_SIZE = 16;
+
+    private TokenBuffer buffer;
+    private String sourceName;
+    private int p;
+
+    // Direct-mapped cache of Token views, indexed by token index % CACHE_SIZE
+    private Token[] cache;
+
+    public TokenBufferStream(TokenBuffer buffer, String sourceName) {
+        this.buffer = buffer;
+        this.sourceName = sourceName;
+        this.cache = new Token[CACHE_SIZE];
+    }
+
+    public TokenBuffer getBuffer() {
+        return buffer;
+    }
+
+    @Override
+    public Token LT(int k) {
+        if (k == 0) {
+            return null;
+        }
+        int i = k > 0 ? p + k - 1 : p + k;
+        if (i < 0) {
+            return null;
+        }
+        return get(Math.min(i, buffer.size() - 1));
+    }
+
+    @Override
+    public Token get(int index) {
+        int slot = index % CACHE_SIZE;
+        Token token = cache[slot];
+        if (token == null || token.getTokenIndex() != index) {
+            token = buffer.getToken(index);
+            cache[slot] = token;
+        }
+        return token;
+    }
+
+    @Override
+    public int LA(int i) {
+        if (i == 0) {
+            return 0;
+        }
+        int index = i > 0 ? p + i - 1 : p + i;
+        if (index < 0) {
+            return 0;
+        }
+        return buffer.getType(Math.min(index, buffer.size() - 1));
+    }
+
+    @Override
+    public void consume() {
+        if (buffer.getType(p) == Token.EOF) {
+            throw new IllegalStateException("cannot consume EOF");
+        }
+        p++;
+    }
+
+    @Override
+    public int mark() {
+        return -1;
+    }
+
+    @Override
+    public void release(int marker) {
+        // The whole buffer is always available
+    }
+
+    @Override
+    public int index() {
+        return p;
+    }
+
+    @Override
+    public void seek(int index) {
+        p = Math.max(0, Math.min(index, buffer.size() - 1));
+    }
+
+    @Override
+    public int size() {
+        return buffer.size();
+    }
+
+    @Override
+    public String getSourceName() {
+        return sourceName;
+    }
+
+    @Override
+    public TokenSource getTokenSource() {
+        return buffer.getTokenSource();
+    }
+
+    @Override
+    public String getText(Interval interval) {
+        int start = Math.max(0, interval.a);
+        int stop = Math.min(interval.b, buffer.size() - 1);
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = start; i <= stop; i++) {
+            if (buffer.getType(i) == Token.EOF) {
+                break;
+            }
+            sb.append(buffer.getText(i));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String getText() {
+        return getText(Interval.of(0, buffer.size() - 1));
+    }
+
+    @Override
+    public String getText(RuleContext ctx) {
+        return getText(ctx.getSourceInterval());
+    }
+
+    @Override
+    public String getText(Token start, Token stop) {
+        if (start == null || stop == null) {
+            return "";
+        }
+        return getText(Interval.of(start.getTokenIndex(), stop.getTokenIndex()));
+    }
+}
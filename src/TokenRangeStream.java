@@ -0,0 +1,144 @@
+import org.antlr.v4.runtime.CommonToken;
+import org.antlr.v4.runtime.RuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenSource;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+/**
+ * TokenStream over the tokens [start, stop) of a fully lexed stream, followed by an EOF placed
+ * where the next token begins. Lets a parser work on one class of a program; the tokens are
+ * copied out on construction, so several ranges of the same stream can be parsed concurrently.
+ * Indexes are relative to start; the tokens keep their own line, column and token index.
+ */
+public class TokenRangeStream implements TokenStream {
+    private Token[] tokens;
+    private TokenSource tokenSource;
+    private String sourceName;
+    private int start;
+    private int p;
+
+    public TokenRangeStream(TokenStream parent, int start, int stop) {
+        this.tokenSource = parent.getTokenSource();
+        this.sourceName = parent.getSourceName();
+        this.start = start;
+        this.tokens = new Token[stop - start + 1];
+        for (int i = start; i < stop; i++) {
+            tokens[i - start] = tokenAt(parent, i);
+        }
+
+        Token next = tokenAt(parent, stop);
+        CommonToken eof = new CommonToken(Token.EOF, "<EOF>");
+        eof.setLine(next.getLine());
+        eof.setCharPositionInLine(next.getCharPositionInLine());
+        eof.setTokenIndex(stop);
+        tokens[stop - start] = eof;
+    }
+
+    // TokenBufferStream's token cache is not thread-safe, so read the buffer itself
+    private static Token tokenAt(TokenStream parent, int index) {
+        if (parent instanceof TokenBufferStream) {
+            return ((TokenBufferStream) parent).getBuffer().getToken(index);
+        }
+        return parent.get(index);
+    }
+
+    @Override
+    public Token LT(int k) {
+        if (k == 0) {
+            return null;
+        }
+        int i = k > 0 ? p + k - 1 : p + k;
+        if (i < 0) {
+            return null;
+        }
+        return tokens[Math.min(i, tokens.length - 1)];
+    }
+
+    @Override
+    public Token get(int index) {
+        return tokens[index];
+    }
+
+    @Override
+    public int LA(int i) {
+        Token token = LT(i);
+        return token == null ? 0 : token.getType();
+    }
+
+    @Override
+    public void consume() {
+        if (p == tokens.length - 1) {
+            throw new IllegalStateException("cannot consume EOF");
+        }
+        p++;
+    }
+
+    @Override
+    public int mark() {
+        return -1;
+    }
+
+    @Override
+    public void release(int marker) {
+        // Every token of the range is kept
+    }
+
+    @Override
+    public int index() {
+        return p;
+    }
+
+    @Override
+    public void seek(int index) {
+        p = Math.max(0, Math.min(index, tokens.length - 1));
+    }
+
+    @Override
+    public int size() {
+        return tokens.length;
+    }
+
+    @Override
+    public String getSourceName() {
+        return sourceName;
+    }
+
+    @Override
+    public TokenSource getTokenSource() {
+        return tokenSource;
+    }
+
+    @Override
+    public String getText(Interval interval) {
+        int start = Math.max(0, interval.a);
+        int stop = Math.min(interval.b, tokens.length - 2);
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = start; i <= stop; i++) {
+            sb.append(tokens[i].getText());
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String getText() {
+        return getText(Interval.of(0, tokens.length - 1));
+    }
+
+    // Token indexes, and so rule context intervals, count from the start of the whole stream
+
+    @Override
+    public String getText(RuleContext ctx) {
+        Interval interval = ctx.getSourceInterval();
+        return getText(Interval.of(interval.a - start, interval.b - start));
+    }
+
+    @Override
+    public String getText(Token start, Token stop) {
+        if (start == null || stop == null) {
+            return "";
+        }
+        return getText(Interval.of(start.getTokenIndex() - this.start, stop.getTokenIndex() - this.start));
+    }
+}
@@ -1,7 +1,11 @@
 package ast;
 
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
 public abstract class ASTNode {
     private int line;
@@ -20,28 +24,50 @@ public abstract class ASTNode {
         return column;
     }
 
+    /**
+     * Move this node (not its children) by delta lines, after an edit above it added or removed
+     * lines (see IncrementalParser)
+     */
+    public void shiftLine(int delta) {
+        line += delta;
+    }
+
+    /**
+     * Call the visitor's visit method for this node's class
+     */
+    public abstract <R> R accept(ASTVisitor<R> visitor);
+
     // For visualization
     public abstract String toString();
 
     // Generate DOT representation for visualization
     public String toDOT() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("digraph AST {\n");
-        sb.append("  node [shape=box];\n");
-        generateDOT(sb, "node0", 0);
-        sb.append("}\n");
-        return sb.toString();
+        StringWriter out = new StringWriter();
+        try {
+            new DotWriter(out).write(this, "AST");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
     }
 
     // Write DOT file
     public void generateDotFile(String filename) {
-        try (FileWriter writer = new FileWriter(filename)) {
-            writer.write(toDOT());
+        generateDotFile(filename, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Write the DOT file, collapsing subtrees below maxDepth and everything after the first
+     * maxNodes nodes (see DotWriter)
+     */
+    public void generateDotFile(String filename, int maxDepth, int maxNodes) {
+        try (Writer writer = Files.newBufferedWriter(Paths.get(filename))) {
+            DotWriter dot = new DotWriter(writer);
+            dot.setMaxDepth(maxDepth);
+            dot.setMaxNodes(maxNodes);
+            dot.write(this, "AST");
         } catch (IOException e) {
             System.err.println("Error writing DOT file: " + e.getMessage());
         }
     }
-
-    // Helper method for DOT generation - each node type will implement this
-    protected abstract int generateDOT(StringBuilder sb, String nodeId, int counter);
-}
\ No newline at end of file
+}
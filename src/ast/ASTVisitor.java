@@ -0,0 +1,17 @@
+package ast;
+
+/**
+ * Visitor over every kind of AST node: the expressions of ExpressionVisitor plus the program,
+ * classes, features and formals. Visiting children is up to the visitor.
+ */
+public interface ASTVisitor<R> extends ExpressionVisitor<R> {
+    R visitProgram(ProgramNode node);
+
+    R visitClass(ClassNode node);
+
+    R visitAttribute(AttributeNode node);
+
+    R visitMethod(MethodNode node);
+
+    R visitFormal(FormalNode node);
+}
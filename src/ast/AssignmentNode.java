@@ -2,6 +2,7 @@ package ast;
 
 public class AssignmentNode extends ExpressionNode {
     private String variable;
+    private int variableId;
     private ExpressionNode value;
     private AssignmentType type;
 
@@ -25,6 +26,7 @@ public class AssignmentNode extends ExpressionNode {
                           ExpressionNode value, AssignmentType type) {
         super(line, column);
         this.variable = variable;
+        this.variableId = Symbols.intern(variable);
         this.value = value;
         this.type = type;
     }
@@ -33,6 +35,10 @@ public class AssignmentNode extends ExpressionNode {
         return variable;
     }
 
+    public int getVariableId() {
+        return variableId;
+    }
+
     public ExpressionNode getValue() {
         return value;
     }
@@ -42,33 +48,27 @@ public class AssignmentNode extends ExpressionNode {
     }
 
     @Override
-    public String toString() {
-        return variable + " " + type + " " + value;
+    protected int computeStructuralHash() {
+        int hash = 31 * variableId + type.ordinal();
+        return 31 * (31 * hash + value.structuralHash()) + 7;
     }
 
     @Override
-    protected int generateDOT(StringBuilder sb, String nodeId, int counter) {
-        sb.append("  ").append(nodeId).append(" [label=\"").append(type).append("\"];\n");
-
-        // Variable identifier
-        counter++;
-        String varId = "node" + counter;
-        sb.append("  ").append(varId).append(" [label=\"").append(variable).append("\"];\n");
-        sb.append("  ").append(nodeId).append(" -> ").append(varId).append(";\n");
-
-        // Value expression
-        counter++;
-        String valueId = "node" + counter;
-        sb.append("  ").append(valueId).append(" [label=\"")
-                .append(escapeDotString(value.toString())).append("\"];\n");
-        sb.append("  ").append(nodeId).append(" -> ").append(valueId).append(";\n");
-
-        counter = value.generateDOT(sb, valueId, counter);
+    public boolean structurallyEquals(ExpressionNode other) {
+        if (!(other instanceof AssignmentNode)) {
+            return false;
+        }
+        AssignmentNode node = (AssignmentNode) other;
+        return node.variableId == variableId && node.type == type && same(node.value, value);
+    }
 
-        return counter;
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitAssignment(this);
     }
 
-    private String escapeDotString(String s) {
-        return s.replace("\"", "\\\"").replace("\n", "\\n");
+    @Override
+    public String toString() {
+        return variable + " " + type + " " + value;
     }
 }
\ No newline at end of file
@@ -12,6 +12,11 @@ public class AttributeNode extends FeatureNode {
         return initExpr;
     }
 
+    @Override
+    public <R> R accept(ASTVisitor<R> visitor) {
+        return visitor.visitAttribute(this);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder(getName() + " : " + getType());
@@ -21,27 +26,4 @@ public class AttributeNode extends FeatureNode {
         sb.append(";");
         return sb.toString();
     }
-
-    @Override
-    protected int generateDOT(StringBuilder sb, String nodeId, int counter) {
-        if (initExpr != null) {
-            counter++;
-            String childId = "node" + counter;
-            sb.append("  ").append(childId).append(" [label=\"Init\"];\n");
-            sb.append("  ").append(nodeId).append(" -> ").append(childId).append(";\n");
-
-            counter++;
-            String exprId = "node" + counter;
-            sb.append("  ").append(exprId).append(" [label=\"")
-                    .append(escapeDotString(initExpr.toString())).append("\"];\n");
-            sb.append("  ").append(childId).append(" -> ").append(exprId).append(";\n");
-
-            counter = initExpr.generateDOT(sb, exprId, counter);
-        }
-        return counter;
-    }
-
-    private String escapeDotString(String s) {
-        return s.replace("\"", "\\\"").replace("\n", "\\n");
-    }
 }
\ No newline at end of file
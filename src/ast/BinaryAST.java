@@ -0,0 +1,575 @@
+package ast;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compact binary encoding of a whole AST, for caching parsed programs between runs. A file
+ * written by write() is memory-mapped by open(), and each class can be rebuilt on its own
+ * (readClass) without decoding the others, or the whole program at once (readProgram).
+ *
+ * Layout (multi-byte ints big-endian, "varint" is LEB128, "zigzag" a signed varint):
+ *   int     MAGIC, int FORMAT_VERSION
+ *   varint  length of the source digest, then its bytes (whatever the caller keys files by)
+ *   varint  program line, program column
+ *   varint  string count, then per string a varint byte length and its UTF-8 bytes
+ *   varint  class count, then one int per class: offset of the class from the first class
+ *   the classes, each in preorder
+ *
+ * Every name, type name, string literal and expression type is an index into the string
+ * table. A node is one byte of kind and flags, its line and column as
+ * zigzag deltas from the node written before it in the same class, then its payload:
+ *   CLASS        name, [parent], varint feature count, the features
+ *   ATTRIBUTE    name, type, [initializer]
+ *   METHOD       name, return type, varint parameter count, the FORMALs, varint body size, the body
+ *   FORMAL       name, type
+ *   INTEGER      zigzag value
+ *   STRING       value
+ *   BOOLEAN      varint 1 or 0
+ *   IDENTIFIER   name
+ *   BINARY       varint operator ordinal, left, right
+ *   UNARY        varint operator ordinal, operand
+ *   ASSIGNMENT   variable, varint AssignmentType ordinal, value
+ *   METHOD_CALL  method name, [object], varint argument count, the arguments
+ *   IF, WHILE    condition, then, else / condition, body
+ * The OPTIONAL flag marks the bracketed parts as present; expressions with the TYPED flag
+ * carry the type semantic analysis gave them as a string index right after their position.
+ */
+public final class BinaryAST {
+    private static final int MAGIC = 0x434F4F41; // "COOA"
+    private static final int FORMAT_VERSION = 1;
+
+    // Node kinds
+    private static final int CLASS = 1;
+    private static final int ATTRIBUTE = 2;
+    private static final int METHOD = 3;
+    private static final int FORMAL = 4;
+    private static final int INTEGER = 5;
+    private static final int STRING = 6;
+    private static final int BOOLEAN = 7;
+    private static final int IDENTIFIER = 8;
+    private static final int BINARY = 9;
+    private static final int UNARY = 10;
+    private static final int ASSIGNMENT = 11;
+    private static final int METHOD_CALL = 12;
+    private static final int IF = 13;
+    private static final int WHILE = 14;
+
+    private static final int KIND_MASK = 0x1F;
+    private static final int OPTIONAL = 0x40;
+    private static final int TYPED = 0x80;
+
+    private ByteBuffer buffer;
+    private byte[] sourceDigest;
+    private int programLine;
+    private int programColumn;
+    private String[] strings;
+    private int[] classOffsets;
+
+    private BinaryAST(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < 8 || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("not an AST file of format version " + FORMAT_VERSION);
+        }
+        try {
+            readHeader(new Decoder(8));
+        } catch (IndexOutOfBoundsException | BufferUnderflowException | NegativeArraySizeException e) {
+            throw new IOException("AST file is truncated or damaged");
+        }
+    }
+
+    private void readHeader(Decoder in) {
+        sourceDigest = in.bytes(in.varint());
+        programLine = in.varint();
+        programColumn = in.varint();
+
+        strings = new String[in.varint()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = new String(in.bytes(in.varint()), StandardCharsets.UTF_8);
+        }
+
+        classOffsets = new int[in.varint()];
+        int first = in.position + classOffsets.length * Integer.BYTES;
+        for (int c = 0; c < classOffsets.length; c++) {
+            classOffsets[c] = first + buffer.getInt(in.position + c * Integer.BYTES);
+        }
+    }
+
+    /**
+     * Map file and read its header and string table; classes are decoded when asked for
+     */
+    public static BinaryAST open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new BinaryAST(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Read an encoding held in memory, e.g. one returned by encode()
+     */
+    public static BinaryAST wrap(byte[] bytes) throws IOException {
+        return new BinaryAST(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Encode program, with sourceDigest stored in the header for the caller to check
+     */
+    public static byte[] encode(ProgramNode program, byte[] sourceDigest) {
+        Encoder classes = new Encoder();
+        List<Integer> offsets = new ArrayList<>();
+        for (ClassNode classNode : program.getClasses()) {
+            offsets.add(classes.size);
+            classes.line = 0;
+            classes.column = 0;
+            classNode.accept(classes);
+        }
+
+        Encoder out = new Encoder();
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.varint(sourceDigest.length);
+        out.write(sourceDigest, sourceDigest.length);
+        out.varint(program.getLine());
+        out.varint(program.getColumn());
+        out.varint(classes.strings.size());
+        for (String s : classes.strings) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.varint(bytes.length);
+            out.write(bytes, bytes.length);
+        }
+        out.varint(offsets.size());
+        for (int offset : offsets) {
+            out.writeInt(offset);
+        }
+        out.write(classes.bytes, classes.size);
+        return Arrays.copyOf(out.bytes, out.size);
+    }
+
+    /**
+     * Encode program into file (through a temporary file, so a concurrent reader never maps
+     * half an AST)
+     */
+    public static void write(ProgramNode program, byte[] sourceDigest, Path file) throws IOException {
+        byte[] bytes = encode(program, sourceDigest);
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, bytes);
+            replace(temp, file);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Atomically move a finished temporary file over file. createTempFile makes the file
+     * readable by its owner only, so it first gets the permissions of the file it replaces,
+     * or rw-r--r-- for a new one, and caches stay shareable between users.
+     */
+    public static void replace(Path temp, Path file) throws IOException {
+        PosixFileAttributeView view = Files.getFileAttributeView(temp, PosixFileAttributeView.class);
+        if (view != null) {
+            Set<PosixFilePermission> permissions = Files.exists(file)
+                    ? Files.getPosixFilePermissions(file)
+                    : PosixFilePermissions.fromString("rw-r--r--");
+            view.setPermissions(permissions);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public byte[] getSourceDigest() {
+        return sourceDigest.clone();
+    }
+
+    public int getClassCount() {
+        return classOffsets.length;
+    }
+
+    /**
+     * Name of class c, read without decoding the class
+     */
+    public String getClassName(int c) {
+        Decoder in = new Decoder(classOffsets[c] + 1);
+        in.zigzag();
+        in.zigzag();
+        return in.string();
+    }
+
+    /**
+     * Rebuild class c (in source order) and everything below it
+     */
+    public ClassNode readClass(int c) {
+        try {
+            return (ClassNode) new Decoder(classOffsets[c]).node();
+        } catch (IndexOutOfBoundsException | ClassCastException e) {
+            throw new IllegalStateException("AST file is damaged in class " + c, e);
+        }
+    }
+
+    /**
+     * Rebuild the whole program
+     */
+    public ProgramNode readProgram() {
+        ProgramNode program = new ProgramNode(programLine, programColumn);
+        for (int c = 0; c < classOffsets.length; c++) {
+            program.addClass(readClass(c));
+        }
+        return program;
+    }
+
+    /**
+     * Reads nodes from position on; positions are relative to the previous node as in Encoder
+     */
+    private class Decoder {
+        private int position;
+        private int line;
+        private int column;
+
+        Decoder(int position) {
+            this.position = position;
+        }
+
+        int varint() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = buffer.get(position++);
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        byte[] bytes(int length) {
+            byte[] bytes = new byte[length];
+            ByteBuffer view = buffer.duplicate();
+            view.position(position);
+            view.get(bytes);
+            position += length;
+            return bytes;
+        }
+
+        int zigzag() {
+            int value = varint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        String string() {
+            return strings[varint()];
+        }
+
+        ASTNode node() {
+            int tag = buffer.get(position++) & 0xFF;
+            line += zigzag();
+            column += zigzag();
+            boolean optional = (tag & OPTIONAL) != 0;
+            int kind = tag & KIND_MASK;
+
+            if (kind == CLASS) {
+                ClassNode classNode = new ClassNode(line, column, string(), optional ? string() : null);
+                for (int i = varint(); i > 0; i--) {
+                    classNode.addFeature((FeatureNode) node());
+                }
+                return classNode;
+            } else if (kind == ATTRIBUTE) {
+                int attrLine = line;
+                int attrColumn = column;
+                String name = string();
+                String type = string();
+                return new AttributeNode(attrLine, attrColumn, name, type, optional ? (ExpressionNode) node() : null);
+            } else if (kind == METHOD) {
+                MethodNode method = new MethodNode(line, column, string(), string());
+                for (int i = varint(); i > 0; i--) {
+                    method.addParameter((FormalNode) node());
+                }
+                for (int i = varint(); i > 0; i--) {
+                    method.addBodyExpression((ExpressionNode) node());
+                }
+                return method;
+            } else if (kind == FORMAL) {
+                return new FormalNode(line, column, string(), string());
+            }
+
+            Type type = (tag & TYPED) != 0 ? Type.of(string()) : null;
+            ExpressionNode expr = expression(kind, optional);
+            expr.setExpressionType(type);
+            return expr;
+        }
+
+        private ExpressionNode expression(int kind, boolean optional) {
+            int line = this.line;
+            int column = this.column;
+            switch (kind) {
+                case INTEGER:
+                    return new IntegerLiteralNode(line, column, zigzag());
+                case STRING:
+                    return new StringLiteralNode(line, column, string());
+                case BOOLEAN:
+                    return new BooleanLiteralNode(line, column, varint() != 0);
+                case IDENTIFIER:
+                    return new IdentifierNode(line, column, string());
+                case BINARY: {
+                    BinaryOperationNode.Operator operator = BinaryOperationNode.Operator.values()[varint()];
+                    ExpressionNode left = (ExpressionNode) node();
+                    return new BinaryOperationNode(line, column, operator, left, (ExpressionNode) node());
+                }
+                case UNARY: {
+                    UnaryOperationNode.Operator operator = UnaryOperationNode.Operator.values()[varint()];
+                    return new UnaryOperationNode(line, column, operator, (ExpressionNode) node());
+                }
+                case ASSIGNMENT: {
+                    String variable = string();
+                    AssignmentNode.AssignmentType type = AssignmentNode.AssignmentType.values()[varint()];
+                    return new AssignmentNode(line, column, variable, (ExpressionNode) node(), type);
+                }
+                case METHOD_CALL: {
+                    String methodName = string();
+                    ExpressionNode object = optional ? (ExpressionNode) node() : null;
+                    MethodCallNode call = new MethodCallNode(line, column, object, methodName);
+                    for (int i = varint(); i > 0; i--) {
+                        call.addArgument((ExpressionNode) node());
+                    }
+                    return call;
+                }
+                case IF: {
+                    ExpressionNode condition = (ExpressionNode) node();
+                    ExpressionNode thenExpr = (ExpressionNode) node();
+                    return new IfNode(line, column, condition, thenExpr, (ExpressionNode) node());
+                }
+                case WHILE: {
+                    ExpressionNode condition = (ExpressionNode) node();
+                    return new WhileNode(line, column, condition, (ExpressionNode) node());
+                }
+                default:
+                    throw new IllegalStateException("Bad node kind " + kind + " at offset " + (position - 1));
+            }
+        }
+    }
+
+    /**
+     * Appends nodes in preorder to a growable byte array and collects the string table
+     */
+    private static class Encoder implements ASTVisitor<Void> {
+        private byte[] bytes = new byte[4096];
+        private int size;
+        private int line;
+        private int column;
+        private Map<String, Integer> stringIndexes = new HashMap<>();
+        private List<String> strings = new ArrayList<>();
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+
+        void write(byte[] b, int length) {
+            ensure(length);
+            System.arraycopy(b, 0, bytes, size, length);
+            size += length;
+        }
+
+        void writeInt(int value) {
+            ensure(Integer.BYTES);
+            bytes[size++] = (byte) (value >>> 24);
+            bytes[size++] = (byte) (value >>> 16);
+            bytes[size++] = (byte) (value >>> 8);
+            bytes[size++] = (byte) value;
+        }
+
+        void varint(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void zigzag(int value) {
+            varint((value << 1) ^ (value >> 31));
+        }
+
+        void string(String s) {
+            Integer index = stringIndexes.get(s);
+            if (index == null) {
+                index = strings.size();
+                stringIndexes.put(s, index);
+                strings.add(s);
+            }
+            varint(index);
+        }
+
+        // Tag and position of node, relative to the previous one
+        private void start(int kind, boolean optional, ASTNode node) {
+            ensure(1);
+            int tag = kind | (optional ? OPTIONAL : 0);
+            String type = null;
+            if (node instanceof ExpressionNode) {
+                type = ((ExpressionNode) node).getExpressionType();
+                tag |= type != null ? TYPED : 0;
+            }
+            bytes[size++] = (byte) tag;
+            zigzag(node.getLine() - line);
+            zigzag(node.getColumn() - column);
+            line = node.getLine();
+            column = node.getColumn();
+            if (type != null) {
+                string(type);
+            }
+        }
+
+        private void nodes(List<? extends ASTNode> nodes) {
+            varint(nodes.size());
+            for (ASTNode node : nodes) {
+                node.accept(this);
+            }
+        }
+
+        @Override
+        public Void visitProgram(ProgramNode node) {
+            throw new UnsupportedOperationException("The program node is part of the header");
+        }
+
+        @Override
+        public Void visitClass(ClassNode node) {
+            start(CLASS, node.getParentName() != null, node);
+            string(node.getName());
+            if (node.getParentName() != null) {
+                string(node.getParentName());
+            }
+            nodes(node.getFeatures());
+            return null;
+        }
+
+        @Override
+        public Void visitAttribute(AttributeNode node) {
+            start(ATTRIBUTE, node.getInitExpr() != null, node);
+            string(node.getName());
+            string(node.getType());
+            if (node.getInitExpr() != null) {
+                node.getInitExpr().accept(this);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitMethod(MethodNode node) {
+            start(METHOD, false, node);
+            string(node.getName());
+            string(node.getType());
+            nodes(node.getParameters());
+            nodes(node.getBody());
+            return null;
+        }
+
+        @Override
+        public Void visitFormal(FormalNode node) {
+            start(FORMAL, false, node);
+            string(node.getName());
+            string(node.getType());
+            return null;
+        }
+
+        @Override
+        public Void visitIntegerLiteral(IntegerLiteralNode node) {
+            start(INTEGER, false, node);
+            zigzag(node.getValue());
+            return null;
+        }
+
+        @Override
+        public Void visitStringLiteral(StringLiteralNode node) {
+            start(STRING, false, node);
+            string(node.getValue());
+            return null;
+        }
+
+        @Override
+        public Void visitBooleanLiteral(BooleanLiteralNode node) {
+            start(BOOLEAN, false, node);
+            varint(node.getValue() ? 1 : 0);
+            return null;
+        }
+
+        @Override
+        public Void visitIdentifier(IdentifierNode node) {
+            start(IDENTIFIER, false, node);
+            string(node.getName());
+            return null;
+        }
+
+        @Override
+        public Void visitBinaryOperation(BinaryOperationNode node) {
+            start(BINARY, false, node);
+            varint(node.getOperator().ordinal());
+            node.getLeft().accept(this);
+            node.getRight().accept(this);
+            return null;
+        }
+
+        @Override
+        public Void visitUnaryOperation(UnaryOperationNode node) {
+            start(UNARY, false, node);
+            varint(node.getOperator().ordinal());
+            node.getOperand().accept(this);
+            return null;
+        }
+
+        @Override
+        public Void visitAssignment(AssignmentNode node) {
+            start(ASSIGNMENT, false, node);
+            string(node.getVariable());
+            varint(node.getType().ordinal());
+            node.getValue().accept(this);
+            return null;
+        }
+
+        @Override
+        public Void visitMethodCall(MethodCallNode node) {
+            start(METHOD_CALL, node.getObject() != null, node);
+            string(node.getMethodName());
+            if (node.getObject() != null) {
+                node.getObject().accept(this);
+            }
+            nodes(node.getArguments());
+            return null;
+        }
+
+        @Override
+        public Void visitIf(IfNode node) {
+            start(IF, false, node);
+            node.getCondition().accept(this);
+            node.getThenExpr().accept(this);
+            node.getElseExpr().accept(this);
+            return null;
+        }
+
+        @Override
+        public Void visitWhile(WhileNode node) {
+            start(WHILE, false, node);
+            node.getCondition().accept(this);
+            node.getBody().accept(this);
+            return null;
+        }
+    }
+}
@@ -43,34 +43,27 @@ public class BinaryOperationNode extends ExpressionNode {
     }
 
     @Override
-    public String toString() {
-        return "(" + left + " " + operator + " " + right + ")";
+    protected int computeStructuralHash() {
+        int hash = 31 * operator.ordinal() + left.structuralHash();
+        return 31 * (31 * hash + right.structuralHash()) + 5;
     }
 
     @Override
-    protected int generateDOT(StringBuilder sb, String nodeId, int counter) {
-        sb.append("  ").append(nodeId).append(" [label=\"").append(operator).append("\"];\n");
-
-        // Left operand
-        counter++;
-        String leftId = "node" + counter;
-        sb.append("  ").append(leftId).append(" [label=\"")
-                .append(escapeDotString(left.toString())).append("\"];\n");
-        sb.append("  ").append(nodeId).append(" -> ").append(leftId).append(";\n");
-        counter = left.generateDOT(sb, leftId, counter);
-
-        // Right operand
-        counter++;
-        String rightId = "node" + counter;
-        sb.append("  ").append(rightId).append(" [label=\"")
-                .append(escapeDotString(right.toString())).append("\"];\n");
-        sb.append("  ").append(nodeId).append(" -> ").append(rightId).append(";\n");
-        counter = right.generateDOT(sb, rightId, counter);
+    public boolean structurallyEquals(ExpressionNode other) {
+        if (!(other instanceof BinaryOperationNode)) {
+            return false;
+        }
+        BinaryOperationNode node = (BinaryOperationNode) other;
+        return node.operator == operator && same(node.left, left) && same(node.right, right);
+    }
 
-        return counter;
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitBinaryOperation(this);
     }
 
-    private String escapeDotString(String s) {
-        return s.replace("\"", "\\\"").replace("\n", "\\n");
+    @Override
+    public String toString() {
+        return "(" + left + " " + operator + " " + right + ")";
     }
 }
\ No newline at end of file
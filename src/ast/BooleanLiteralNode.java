@@ -13,13 +13,22 @@ public class BooleanLiteralNode extends ExpressionNode {
     }
 
     @Override
-    public String toString() {
-        return value ? "true" : "false";
+    protected int computeStructuralHash() {
+        return value ? 31 + 3 : 3;
+    }
+
+    @Override
+    public boolean structurallyEquals(ExpressionNode other) {
+        return other instanceof BooleanLiteralNode && ((BooleanLiteralNode) other).value == value;
     }
 
     @Override
-    protected int generateDOT(StringBuilder sb, String nodeId, int counter) {
-        // Boolean literals are leaf nodes - no children
-        return counter;
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitBooleanLiteral(this);
+    }
+
+    @Override
+    public String toString() {
+        return value ? "true" : "false";
     }
 }
\ No newline at end of file
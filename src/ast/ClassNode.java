@@ -6,12 +6,16 @@ import java.util.List;
 public class ClassNode extends ASTNode {
     private String name;
     private String parentName;
+    private int nameId;
+    private int parentId;
     private List<FeatureNode> features;
 
     public ClassNode(int line, int column, String name, String parentName) {
         super(line, column);
         this.name = name;
         this.parentName = parentName;
+        this.nameId = Symbols.intern(name);
+        this.parentId = Symbols.intern(parentName);
         this.features = new ArrayList<>();
     }
 
@@ -23,6 +27,17 @@ public class ClassNode extends ASTNode {
         return parentName;
     }
 
+    public int getNameId() {
+        return nameId;
+    }
+
+    /**
+     * Symbols.NONE if the class has no inherits clause
+     */
+    public int getParentId() {
+        return parentId;
+    }
+
     public List<FeatureNode> getFeatures() {
         return features;
     }
@@ -31,6 +46,11 @@ public class ClassNode extends ASTNode {
         features.add(feature);
     }
 
+    @Override
+    public <R> R accept(ASTVisitor<R> visitor) {
+        return visitor.visitClass(this);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("Class " + name);
@@ -46,25 +66,4 @@ public class ClassNode extends ASTNode {
         sb.append("}");
         return sb.toString();
     }
-
-    @Override
-    protected int generateDOT(StringBuilder sb, String nodeId, int counter) {
-        int localCounter = counter;
-
-        for (FeatureNode feature : features) {
-            localCounter++;
-            String childId = "node" + localCounter;
-            sb.append("  ").append(childId).append(" [label=\"")
-                    .append(escapeDotString(feature.toString())).append("\"];\n");
-            sb.append("  ").append(nodeId).append(" -> ").append(childId).append(";\n");
-
-            localCounter = feature.generateDOT(sb, childId, localCounter);
-        }
-
-        return localCounter;
-    }
-
-    private String escapeDotString(String s) {
-        return s.replace("\"", "\\\"").replace("\n", "\\n");
-    }
 }
\ No newline at end of file
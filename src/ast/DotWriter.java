@@ -0,0 +1,489 @@
+package ast;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes an AST as a Graphviz DOT graph in one pass, straight to a Writer. Each node is
+ * written once; labels are rendered up to a fixed number of characters instead of calling
+ * toString() on whole subtrees, so the output is linear in the size of the tree.
+ *
+ * Subtrees (other than leaves) deeper than maxDepth become a single dashed node saying how
+ * many nodes it stands for, and once maxNodes AST nodes have been written the remaining
+ * children of every open node are summarized the same way, so huge programs give a graph
+ * Graphviz can still lay out.
+ *
+ * The plain graph labels nodes as ASTNode.toDOT() always did (operators, "If", "Method: m",
+ * the source text of features and leaves); the typed graph labels every node with its text
+ * and, for expressions, the type semantic analysis gave it.
+ */
+public final class DotWriter implements ASTVisitor<Void> {
+    private static final int DEFAULT_LABEL_LIMIT = 80;
+
+    private Writer out;
+    private boolean typed;
+    private int maxDepth = Integer.MAX_VALUE;
+    private int maxNodes = Integer.MAX_VALUE;
+    private int labelLimit = DEFAULT_LABEL_LIMIT;
+
+    // Last node id handed out, AST nodes written so far, and the node being written
+    private int counter;
+    private int written;
+    private String currentId;
+    private int depth;
+
+    public DotWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Label nodes with their source text and expression type (the typed_ast.dot layout)
+     */
+    public void setTyped(boolean typed) {
+        this.typed = typed;
+    }
+
+    /**
+     * Collapse subtrees below this depth (the root is at depth 0)
+     */
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Stop expanding nodes after this many AST nodes
+     */
+    public void setMaxNodes(int maxNodes) {
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * Maximum characters of source text in a label
+     */
+    public void setLabelLimit(int labelLimit) {
+        this.labelLimit = labelLimit;
+    }
+
+    /**
+     * AST nodes the last write() drew as nodes of their own (not counting collapsed ones)
+     */
+    public int getNodesWritten() {
+        return written;
+    }
+
+    /**
+     * Write root and everything below it as the graph graphName
+     */
+    public void write(ASTNode root, String graphName) throws IOException {
+        counter = 0;
+        written = 0;
+        depth = 0;
+        currentId = "node0";
+        try {
+            out.write("digraph " + graphName + " {\n");
+            out.write("  node [shape=box];\n");
+            root.accept(this);
+            out.write("}\n");
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
+    @Override
+    public Void visitProgram(ProgramNode node) {
+        label(typed ? text(node) : "Program");
+        children(null, node.getClasses());
+        return null;
+    }
+
+    @Override
+    public Void visitClass(ClassNode node) {
+        String header = "Class: " + node.getName() + (node.getParentName() != null ? " inherits " + node.getParentName() : "");
+        label(typed ? text(node) : header);
+        children(null, node.getFeatures());
+        return null;
+    }
+
+    @Override
+    public Void visitAttribute(AttributeNode node) {
+        label(text(node));
+        if (node.getInitExpr() != null) {
+            children("Init", List.of(node.getInitExpr()));
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitMethod(MethodNode node) {
+        label(text(node));
+        children("Parameters", node.getParameters());
+        children("Body", node.getBody());
+        return null;
+    }
+
+    @Override
+    public Void visitFormal(FormalNode node) {
+        label(text(node));
+        return null;
+    }
+
+    @Override
+    public Void visitIntegerLiteral(IntegerLiteralNode node) {
+        label(expressionLabel(node, null));
+        return null;
+    }
+
+    @Override
+    public Void visitStringLiteral(StringLiteralNode node) {
+        label(expressionLabel(node, null));
+        return null;
+    }
+
+    @Override
+    public Void visitBooleanLiteral(BooleanLiteralNode node) {
+        label(expressionLabel(node, null));
+        return null;
+    }
+
+    @Override
+    public Void visitIdentifier(IdentifierNode node) {
+        label(expressionLabel(node, null));
+        return null;
+    }
+
+    @Override
+    public Void visitBinaryOperation(BinaryOperationNode node) {
+        label(expressionLabel(node, node.getOperator().toString()));
+        children(null, List.of(node.getLeft(), node.getRight()));
+        return null;
+    }
+
+    @Override
+    public Void visitUnaryOperation(UnaryOperationNode node) {
+        label(expressionLabel(node, node.getOperator().toString()));
+        children(null, List.of(node.getOperand()));
+        return null;
+    }
+
+    @Override
+    public Void visitAssignment(AssignmentNode node) {
+        label(expressionLabel(node, node.getType().toString()));
+        String variableId = newId();
+        line(variableId + " [label=\"" + escape(node.getVariable()) + "\"];");
+        edge(currentId, variableId);
+        children(null, List.of(node.getValue()));
+        return null;
+    }
+
+    @Override
+    public Void visitMethodCall(MethodCallNode node) {
+        label(expressionLabel(node, "Method: " + node.getMethodName()));
+        if (node.getObject() != null) {
+            children("Object", List.of(node.getObject()));
+        }
+        children("Arguments", node.getArguments());
+        return null;
+    }
+
+    @Override
+    public Void visitIf(IfNode node) {
+        label(expressionLabel(node, "If"));
+        children("Condition", List.of(node.getCondition()));
+        children("Then", List.of(node.getThenExpr()));
+        children("Else", List.of(node.getElseExpr()));
+        return null;
+    }
+
+    @Override
+    public Void visitWhile(WhileNode node) {
+        label(expressionLabel(node, "While"));
+        children("Condition", List.of(node.getCondition()));
+        children("Body", List.of(node.getBody()));
+        return null;
+    }
+
+    // The plain label of an expression (its text if plain is null), or its text and type
+    private String expressionLabel(ExpressionNode node, String plain) {
+        if (!typed) {
+            return plain != null ? plain : text(node);
+        }
+        String type = node.getExpressionType();
+        return type == null ? text(node) : text(node) + " : " + type;
+    }
+
+    // Write the children of the current node, below a group node if group is not null
+    private void children(String group, List<? extends ASTNode> nodes) {
+        if (nodes.isEmpty()) {
+            return;
+        }
+        String parentId = currentId;
+        if (group != null) {
+            parentId = newId();
+            line(parentId + " [label=\"" + group + "\"];");
+            edge(currentId, parentId);
+        }
+
+        for (int i = 0; i < nodes.size(); i++) {
+            if (written >= maxNodes) {
+                long remaining = 0;
+                for (int j = i; j < nodes.size(); j++) {
+                    remaining += NodeWalker.count(nodes.get(j));
+                }
+                collapsed(parentId, "...", remaining);
+                return;
+            }
+            child(parentId, nodes.get(i));
+        }
+    }
+
+    private void child(String parentId, ASTNode node) {
+        if (depth + 1 > maxDepth) {
+            // A leaf takes no more room than its placeholder would
+            long nodes = NodeWalker.count(node);
+            if (nodes > 1) {
+                collapsed(parentId, text(node), nodes);
+                return;
+            }
+        }
+
+        String savedId = currentId;
+        currentId = newId();
+        edge(parentId, currentId);
+        depth++;
+        node.accept(this);
+        depth--;
+        currentId = savedId;
+    }
+
+    // A dashed node standing for nodes AST nodes that are not written
+    private void collapsed(String parentId, String label, long nodes) {
+        String id = newId();
+        line(id + " [label=\"" + escape(label) + "\\n(" + nodes + (nodes == 1 ? " node" : " nodes")
+                + ")\", style=dashed];");
+        edge(parentId, id);
+    }
+
+    private void label(String label) {
+        written++;
+        line(currentId + " [label=\"" + escape(label) + "\"];");
+    }
+
+    private void edge(String from, String to) {
+        line(from + " -> " + to + ";");
+    }
+
+    private String newId() {
+        counter++;
+        return "node" + counter;
+    }
+
+    private void line(String text) {
+        try {
+            out.write("  ");
+            out.write(text);
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Source text of node as toString() renders it, cut off after labelLimit characters
+    private String text(ASTNode node) {
+        TextRenderer renderer = new TextRenderer(labelLimit);
+        node.accept(renderer);
+        return renderer.result();
+    }
+
+    private static String escape(String s) {
+        if (s == null) {
+            return "";
+        }
+        return s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Renders a subtree the way toString() does, but stops once limit characters are written
+     * (ending the text with "..."), so it never walks more of the subtree than it prints
+     */
+    private static class TextRenderer implements ASTVisitor<Void> {
+        private final StringBuilder sb = new StringBuilder();
+        private final int limit;
+        private boolean truncated;
+
+        TextRenderer(int limit) {
+            this.limit = limit;
+        }
+
+        String result() {
+            return truncated ? sb + "..." : sb.toString();
+        }
+
+        private void append(String s) {
+            if (truncated) {
+                return;
+            }
+            int room = limit - sb.length();
+            if (s.length() > room) {
+                sb.append(s, 0, room);
+                truncated = true;
+            } else {
+                sb.append(s);
+            }
+        }
+
+        private void render(ASTNode node) {
+            if (!truncated) {
+                node.accept(this);
+            }
+        }
+
+        @Override
+        public Void visitProgram(ProgramNode node) {
+            append("Program:\n");
+            for (ClassNode classNode : node.getClasses()) {
+                render(classNode);
+                append("\n");
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitClass(ClassNode node) {
+            append("Class " + node.getName());
+            if (node.getParentName() != null) {
+                append(" inherits " + node.getParentName());
+            }
+            append(" {\n");
+            for (FeatureNode feature : node.getFeatures()) {
+                append("  ");
+                render(feature);
+                append("\n");
+            }
+            append("}");
+            return null;
+        }
+
+        @Override
+        public Void visitAttribute(AttributeNode node) {
+            append(node.getName() + " : " + node.getType());
+            if (node.getInitExpr() != null) {
+                append(" <- ");
+                render(node.getInitExpr());
+            }
+            append(";");
+            return null;
+        }
+
+        @Override
+        public Void visitMethod(MethodNode node) {
+            append(node.getName() + "(");
+            for (int i = 0; i < node.getParameters().size(); i++) {
+                if (i > 0) append(", ");
+                render(node.getParameters().get(i));
+            }
+            append(") : " + node.getType() + " {\n");
+            for (ExpressionNode expr : node.getBody()) {
+                append("    ");
+                render(expr);
+                append(";\n");
+            }
+            append("  };");
+            return null;
+        }
+
+        @Override
+        public Void visitFormal(FormalNode node) {
+            append(node.toString());
+            return null;
+        }
+
+        @Override
+        public Void visitIntegerLiteral(IntegerLiteralNode node) {
+            append(node.toString());
+            return null;
+        }
+
+        @Override
+        public Void visitStringLiteral(StringLiteralNode node) {
+            append(node.toString());
+            return null;
+        }
+
+        @Override
+        public Void visitBooleanLiteral(BooleanLiteralNode node) {
+            append(node.toString());
+            return null;
+        }
+
+        @Override
+        public Void visitIdentifier(IdentifierNode node) {
+            append(node.toString());
+            return null;
+        }
+
+        @Override
+        public Void visitBinaryOperation(BinaryOperationNode node) {
+            append("(");
+            render(node.getLeft());
+            append(" " + node.getOperator() + " ");
+            render(node.getRight());
+            append(")");
+            return null;
+        }
+
+        @Override
+        public Void visitUnaryOperation(UnaryOperationNode node) {
+            append(node.getOperator() + "(");
+            render(node.getOperand());
+            append(")");
+            return null;
+        }
+
+        @Override
+        public Void visitAssignment(AssignmentNode node) {
+            append(node.getVariable() + " " + node.getType() + " ");
+            render(node.getValue());
+            return null;
+        }
+
+        @Override
+        public Void visitMethodCall(MethodCallNode node) {
+            if (node.getObject() != null) {
+                render(node.getObject());
+                append(".");
+            }
+            append(node.getMethodName() + "(");
+            for (int i = 0; i < node.getArguments().size(); i++) {
+                if (i > 0) append(", ");
+                render(node.getArguments().get(i));
+            }
+            append(")");
+            return null;
+        }
+
+        @Override
+        public Void visitIf(IfNode node) {
+            append("if ");
+            render(node.getCondition());
+            append(" then ");
+            render(node.getThenExpr());
+            append(" else ");
+            render(node.getElseExpr());
+            append(" fi");
+            return null;
+        }
+
+        @Override
+        public Void visitWhile(WhileNode node) {
+            append("while ");
+            render(node.getCondition());
+            append(" loop ");
+            render(node.getBody());
+            append(" pool");
+            return null;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package ast;
+
+import java.util.Arrays;
+
+/**
+ * Hash-consing for expression subtrees: intern() returns the first structurally equal
+ * expression it was given since the last reset(), so repeated subexpressions (the same
+ * operand pair, the same call) are one shared node instead of a fresh copy each time.
+ *
+ * Sharing is only safe while every occurrence would get the same type, because semantic
+ * analysis stores the type on the node. Names resolve the same way everywhere inside one
+ * method or attribute initializer, so the builder resets the interner at each feature. A shared
+ * node keeps the position of its first occurrence. Nodes are built bottom-up, so a parent is
+ * interned after its (already canonical) children and equality checks stop at the first
+ * level of shared children.
+ */
+public final class ExpressionInterner {
+    private ExpressionNode[] table = new ExpressionNode[64];
+    private int size;
+    private long lookups;
+    private long shared;
+
+    /**
+     * The expression structurally equal to node seen since the last reset, or node itself
+     * (which then becomes that expression)
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends ExpressionNode> T intern(T node) {
+        lookups++;
+        int hash = node.structuralHash();
+        int mask = table.length - 1;
+        int slot = mix(hash) & mask;
+        for (ExpressionNode entry = table[slot]; entry != null; entry = table[slot]) {
+            if (entry == node) {
+                return node;
+            }
+            if (entry.structuralHash() == hash && entry.structurallyEquals(node)) {
+                shared++;
+                return (T) entry;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        table[slot] = node;
+        if (++size * 2 > table.length) {
+            grow();
+        }
+        return node;
+    }
+
+    /**
+     * Forget every expression, at the start of a new scope
+     */
+    public void reset() {
+        if (table.length > 1024) {
+            // Do not keep clearing a table grown for one huge method
+            table = new ExpressionNode[64];
+        } else if (size > 0) {
+            Arrays.fill(table, null);
+        }
+        size = 0;
+    }
+
+    /**
+     * Expressions passed to intern() so far
+     */
+    public long getLookups() {
+        return lookups;
+    }
+
+    /**
+     * intern() calls that returned an existing expression instead of the one passed in
+     */
+    public long getShared() {
+        return shared;
+    }
+
+    private void grow() {
+        ExpressionNode[] old = table;
+        table = new ExpressionNode[old.length * 2];
+        int mask = table.length - 1;
+        for (ExpressionNode entry : old) {
+            if (entry != null) {
+                int slot = mix(entry.structuralHash()) & mask;
+                while (table[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = entry;
+            }
+        }
+    }
+
+    // Spread the 31-multiplier hashes over the low bits used as the slot
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
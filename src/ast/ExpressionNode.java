@@ -2,17 +2,72 @@ package ast;
 
 public abstract class ExpressionNode extends ASTNode {
     // This will be set during semantic analysis
-    private String expressionType;
+    private Type expressionType;
+
+    // Cached structuralHash(), valid once hashed is set
+    private int structuralHash;
+    private boolean hashed;
 
     public ExpressionNode(int line, int column) {
         super(line, column);
     }
 
+    /**
+     * Call the visitor's visit method for this expression's class
+     */
+    public abstract <R> R accept(ExpressionVisitor<R> visitor);
+
+    @Override
+    public final <R> R accept(ASTVisitor<R> visitor) {
+        return accept((ExpressionVisitor<R>) visitor);
+    }
+
+    /**
+     * Hash of the expression's shape and contents (node kinds, operators, names, literal
+     * values), leaving out positions and types, so identical subexpressions hash alike wherever
+     * they appear. Computed on first use from the children's cached hashes and kept.
+     */
+    public final int structuralHash() {
+        if (!hashed) {
+            structuralHash = computeStructuralHash();
+            hashed = true;
+        }
+        return structuralHash;
+    }
+
+    protected abstract int computeStructuralHash();
+
+    /**
+     * Whether other is the same expression by the rules of structuralHash(): same kinds,
+     * operators, names and values all the way down, wherever and however typed
+     */
+    public abstract boolean structurallyEquals(ExpressionNode other);
+
+    // For nodes whose children are still being added after construction
+    protected void invalidateStructuralHash() {
+        hashed = false;
+    }
+
+    protected static boolean same(ExpressionNode a, ExpressionNode b) {
+        return a == b || (a.structuralHash() == b.structuralHash() && a.structurallyEquals(b));
+    }
+
     public String getExpressionType() {
+        return expressionType == null ? null : expressionType.getName();
+    }
+
+    /**
+     * The type semantic analysis gave this expression, null before it ran
+     */
+    public Type getStaticType() {
         return expressionType;
     }
 
     public void setExpressionType(String type) {
+        this.expressionType = type == null ? null : Type.of(type);
+    }
+
+    public void setExpressionType(Type type) {
         this.expressionType = type;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+package ast;
+
+/**
+ * Double dispatch over expressions: expr.accept(visitor) calls the visit method for the
+ * expression's class, so a pass over expressions needs no instanceof chain and each call site
+ * is a single virtual call. R is what each visit returns.
+ */
+public interface ExpressionVisitor<R> {
+    R visitIntegerLiteral(IntegerLiteralNode node);
+
+    R visitStringLiteral(StringLiteralNode node);
+
+    R visitBooleanLiteral(BooleanLiteralNode node);
+
+    R visitIdentifier(IdentifierNode node);
+
+    R visitBinaryOperation(BinaryOperationNode node);
+
+    R visitUnaryOperation(UnaryOperationNode node);
+
+    R visitAssignment(AssignmentNode node);
+
+    R visitMethodCall(MethodCallNode node);
+
+    R visitIf(IfNode node);
+
+    R visitWhile(WhileNode node);
+}
@@ -3,11 +3,15 @@ package ast;
 public abstract class FeatureNode extends ASTNode {
     private String name;
     private String type;
+    private int nameId;
+    private int typeId;
 
     public FeatureNode(int line, int column, String name, String type) {
         super(line, column);
         this.name = name;
         this.type = type;
+        this.nameId = Symbols.intern(name);
+        this.typeId = Symbols.intern(type);
     }
 
     public String getName() {
@@ -17,4 +21,12 @@ public abstract class FeatureNode extends ASTNode {
     public String getType() {
         return type;
     }
+
+    public int getNameId() {
+        return nameId;
+    }
+
+    public int getTypeId() {
+        return typeId;
+    }
 }
\ No newline at end of file
@@ -3,11 +3,15 @@ package ast;
 public class FormalNode extends ASTNode {
     private String name;
     private String type;
+    private int nameId;
+    private int typeId;
 
     public FormalNode(int line, int column, String name, String type) {
         super(line, column);
         this.name = name;
         this.type = type;
+        this.nameId = Symbols.intern(name);
+        this.typeId = Symbols.intern(type);
     }
 
     public String getName() {
@@ -18,14 +22,21 @@ public class FormalNode extends ASTNode {
         return type;
     }
 
+    public int getNameId() {
+        return nameId;
+    }
+
+    public int getTypeId() {
+        return typeId;
+    }
+
     @Override
-    public String toString() {
-        return name + " : " + type;
+    public <R> R accept(ASTVisitor<R> visitor) {
+        return visitor.visitFormal(this);
     }
 
     @Override
-    protected int generateDOT(StringBuilder sb, String nodeId, int counter) {
-        // Formal nodes are leaves in the AST, no need to add children
-        return counter;
+    public String toString() {
+        return name + " : " + type;
     }
 }
\ No newline at end of file
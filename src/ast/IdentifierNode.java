@@ -2,24 +2,39 @@ package ast;
 
 public class IdentifierNode extends ExpressionNode {
     private String name;
+    private int nameId;
 
     public IdentifierNode(int line, int column, String name) {
         super(line, column);
         this.name = name;
+        this.nameId = Symbols.intern(name);
     }
 
     public String getName() {
         return name;
     }
 
+    public int getNameId() {
+        return nameId;
+    }
+
     @Override
-    public String toString() {
-        return name;
+    protected int computeStructuralHash() {
+        return 31 * nameId + 4;
+    }
+
+    @Override
+    public boolean structurallyEquals(ExpressionNode other) {
+        return other instanceof IdentifierNode && ((IdentifierNode) other).nameId == nameId;
+    }
+
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitIdentifier(this);
     }
 
     @Override
-    protected int generateDOT(StringBuilder sb, String nodeId, int counter) {
-        // Identifiers are leaf nodes - no children
-        return counter;
+    public String toString() {
+        return name;
     }
 }
\ No newline at end of file
@@ -26,57 +26,27 @@ public class IfNode extends ExpressionNode {
     }
 
     @Override
-    public String toString() {
-        return "if " + condition + " then " + thenExpr + " else " + elseExpr + " fi";
+    protected int computeStructuralHash() {
+        int hash = 31 * condition.structuralHash() + thenExpr.structuralHash();
+        return 31 * (31 * hash + elseExpr.structuralHash()) + 9;
     }
 
     @Override
-    protected int generateDOT(StringBuilder sb, String nodeId, int counter) {
-        sb.append("  ").append(nodeId).append(" [label=\"If\"];\n");
-
-        // Condition
-        counter++;
-        String condId = "node" + counter;
-        sb.append("  ").append(condId).append(" [label=\"Condition\"];\n");
-        sb.append("  ").append(nodeId).append(" -> ").append(condId).append(";\n");
-
-        counter++;
-        String condExprId = "node" + counter;
-        sb.append("  ").append(condExprId).append(" [label=\"")
-                .append(escapeDotString(condition.toString())).append("\"];\n");
-        sb.append("  ").append(condId).append(" -> ").append(condExprId).append(";\n");
-        counter = condition.generateDOT(sb, condExprId, counter);
-
-        // Then branch
-        counter++;
-        String thenId = "node" + counter;
-        sb.append("  ").append(thenId).append(" [label=\"Then\"];\n");
-        sb.append("  ").append(nodeId).append(" -> ").append(thenId).append(";\n");
-
-        counter++;
-        String thenExprId = "node" + counter;
-        sb.append("  ").append(thenExprId).append(" [label=\"")
-                .append(escapeDotString(thenExpr.toString())).append("\"];\n");
-        sb.append("  ").append(thenId).append(" -> ").append(thenExprId).append(";\n");
-        counter = thenExpr.generateDOT(sb, thenExprId, counter);
-
-        // Else branch
-        counter++;
-        String elseId = "node" + counter;
-        sb.append("  ").append(elseId).append(" [label=\"Else\"];\n");
-        sb.append("  ").append(nodeId).append(" -> ").append(elseId).append(";\n");
-
-        counter++;
-        String elseExprId = "node" + counter;
-        sb.append("  ").append(elseExprId).append(" [label=\"")
-                .append(escapeDotString(elseExpr.toString())).append("\"];\n");
-        sb.append("  ").append(elseId).append(" -> ").append(elseExprId).append(";\n");
-        counter = elseExpr.generateDOT(sb, elseExprId, counter);
+    public boolean structurallyEquals(ExpressionNode other) {
+        if (!(other instanceof IfNode)) {
+            return false;
+        }
+        IfNode node = (IfNode) other;
+        return same(node.condition, condition) && same(node.thenExpr, thenExpr) && same(node.elseExpr, elseExpr);
+    }
 
-        return counter;
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitIf(this);
     }
 
-    private String escapeDotString(String s) {
-        return s.replace("\"", "\\\"").replace("\n", "\\n");
+    @Override
+    public String toString() {
+        return "if " + condition + " then " + thenExpr + " else " + elseExpr + " fi";
     }
 }
\ No newline at end of file
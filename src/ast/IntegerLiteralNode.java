@@ -13,13 +13,22 @@ public class IntegerLiteralNode extends ExpressionNode {
     }
 
     @Override
-    public String toString() {
-        return String.valueOf(value);
+    protected int computeStructuralHash() {
+        return 31 * value + 1;
+    }
+
+    @Override
+    public boolean structurallyEquals(ExpressionNode other) {
+        return other instanceof IntegerLiteralNode && ((IntegerLiteralNode) other).value == value;
     }
 
     @Override
-    protected int generateDOT(StringBuilder sb, String nodeId, int counter) {
-        // Integer literals are leaf nodes - no children
-        return counter;
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitIntegerLiteral(this);
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(value);
     }
 }
\ No newline at end of file
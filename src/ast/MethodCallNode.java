@@ -6,12 +6,14 @@ import java.util.List;
 public class MethodCallNode extends ExpressionNode {
     private ExpressionNode object; // null if calling on self
     private String methodName;
+    private int methodNameId;
     private List<ExpressionNode> arguments;
 
     public MethodCallNode(int line, int column, ExpressionNode object, String methodName) {
         super(line, column);
         this.object = object;
         this.methodName = methodName;
+        this.methodNameId = Symbols.intern(methodName);
         this.arguments = new ArrayList<>();
     }
 
@@ -23,12 +25,49 @@ public class MethodCallNode extends ExpressionNode {
         return methodName;
     }
 
+    public int getMethodNameId() {
+        return methodNameId;
+    }
+
     public List<ExpressionNode> getArguments() {
         return arguments;
     }
 
     public void addArgument(ExpressionNode arg) {
         arguments.add(arg);
+        invalidateStructuralHash();
+    }
+
+    @Override
+    protected int computeStructuralHash() {
+        int hash = 31 * methodNameId + (object == null ? 0 : object.structuralHash());
+        for (ExpressionNode arg : arguments) {
+            hash = 31 * hash + arg.structuralHash();
+        }
+        return 31 * hash + 8;
+    }
+
+    @Override
+    public boolean structurallyEquals(ExpressionNode other) {
+        if (!(other instanceof MethodCallNode)) {
+            return false;
+        }
+        MethodCallNode node = (MethodCallNode) other;
+        if (node.methodNameId != methodNameId || node.arguments.size() != arguments.size()
+                || (node.object == null) != (object == null) || (object != null && !same(node.object, object))) {
+            return false;
+        }
+        for (int i = 0; i < arguments.size(); i++) {
+            if (!same(node.arguments.get(i), arguments.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitMethodCall(this);
     }
 
     @Override
@@ -49,49 +88,4 @@ public class MethodCallNode extends ExpressionNode {
         sb.append(")");
         return sb.toString();
     }
-
-    @Override
-    protected int generateDOT(StringBuilder sb, String nodeId, int counter) {
-        sb.append("  ").append(nodeId).append(" [label=\"Method: ").append(methodName).append("\"];\n");
-
-        // Object (if any)
-        if (object != null) {
-            counter++;
-            String objId = "node" + counter;
-            sb.append("  ").append(objId).append(" [label=\"Object\"];\n");
-            sb.append("  ").append(nodeId).append(" -> ").append(objId).append(";\n");
-
-            counter++;
-            String objExprId = "node" + counter;
-            sb.append("  ").append(objExprId).append(" [label=\"")
-                    .append(escapeDotString(object.toString())).append("\"];\n");
-            sb.append("  ").append(objId).append(" -> ").append(objExprId).append(";\n");
-
-            counter = object.generateDOT(sb, objExprId, counter);
-        }
-
-        // Arguments
-        if (!arguments.isEmpty()) {
-            counter++;
-            String argsId = "node" + counter;
-            sb.append("  ").append(argsId).append(" [label=\"Arguments\"];\n");
-            sb.append("  ").append(nodeId).append(" -> ").append(argsId).append(";\n");
-
-            for (ExpressionNode arg : arguments) {
-                counter++;
-                String argId = "node" + counter;
-                sb.append("  ").append(argId).append(" [label=\"")
-                        .append(escapeDotString(arg.toString())).append("\"];\n");
-                sb.append("  ").append(argsId).append(" -> ").append(argId).append(";\n");
-
-                counter = arg.generateDOT(sb, argId, counter);
-            }
-        }
-
-        return counter;
-    }
-
-    private String escapeDotString(String s) {
-        return s.replace("\"", "\\\"").replace("\n", "\\n");
-    }
 }
\ No newline at end of file
@@ -2,11 +2,15 @@ package ast;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 public class MethodNode extends FeatureNode {
     private List<FormalNode> parameters;
     private List<ExpressionNode> body;
 
+    // Parses the body on first access when the parser skipped it; null once the body is known
+    private Supplier<List<ExpressionNode>> bodyParser;
+
     public MethodNode(int line, int column, String name, String returnType) {
         super(line, column, name, returnType);
         this.parameters = new ArrayList<>();
@@ -25,10 +29,31 @@ public class MethodNode extends FeatureNode {
         return parameters;
     }
 
+    /**
+     * Defer the body: bodyParser is run the first time the body is asked for. Not thread-safe;
+     * the passes that walk method bodies run on one thread.
+     */
+    public void setBodyParser(Supplier<List<ExpressionNode>> bodyParser) {
+        this.bodyParser = bodyParser;
+    }
+
+    public boolean isBodyParsed() {
+        return bodyParser == null;
+    }
+
     public List<ExpressionNode> getBody() {
+        if (bodyParser != null) {
+            body.addAll(bodyParser.get());
+            bodyParser = null;
+        }
         return body;
     }
 
+    @Override
+    public <R> R accept(ASTVisitor<R> visitor) {
+        return visitor.visitMethod(this);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder(getName() + "(");
@@ -40,56 +65,11 @@ public class MethodNode extends FeatureNode {
 
         sb.append(") : ").append(getType()).append(" {\n");
 
-        for (ExpressionNode expr : body) {
+        for (ExpressionNode expr : getBody()) {
             sb.append("    ").append(expr).append(";\n");
         }
 
         sb.append("  };");
         return sb.toString();
     }
-
-    @Override
-    protected int generateDOT(StringBuilder sb, String nodeId, int counter) {
-        int localCounter = counter;
-
-        // Parameters
-        if (!parameters.isEmpty()) {
-            localCounter++;
-            String paramsId = "node" + localCounter;
-            sb.append("  ").append(paramsId).append(" [label=\"Parameters\"];\n");
-            sb.append("  ").append(nodeId).append(" -> ").append(paramsId).append(";\n");
-
-            for (FormalNode param : parameters) {
-                localCounter++;
-                String paramId = "node" + localCounter;
-                sb.append("  ").append(paramId).append(" [label=\"")
-                        .append(escapeDotString(param.toString())).append("\"];\n");
-                sb.append("  ").append(paramsId).append(" -> ").append(paramId).append(";\n");
-            }
-        }
-
-        // Body
-        if (!body.isEmpty()) {
-            localCounter++;
-            String bodyId = "node" + localCounter;
-            sb.append("  ").append(bodyId).append(" [label=\"Body\"];\n");
-            sb.append("  ").append(nodeId).append(" -> ").append(bodyId).append(";\n");
-
-            for (ExpressionNode expr : body) {
-                localCounter++;
-                String exprId = "node" + localCounter;
-                sb.append("  ").append(exprId).append(" [label=\"")
-                        .append(escapeDotString(expr.toString())).append("\"];\n");
-                sb.append("  ").append(bodyId).append(" -> ").append(exprId).append(";\n");
-
-                localCounter = expr.generateDOT(sb, exprId, localCounter);
-            }
-        }
-
-        return localCounter;
-    }
-
-    private String escapeDotString(String s) {
-        return s.replace("\"", "\\\"").replace("\n", "\\n");
-    }
 }
\ No newline at end of file
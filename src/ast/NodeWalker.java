@@ -0,0 +1,153 @@
+package ast;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Preorder walk over every node of a subtree (classes, features, formals and expressions),
+ * calling an action on each. Built on ASTVisitor, so a new node class is a compile error here
+ * rather than a node the walk silently skips.
+ */
+public final class NodeWalker implements ASTVisitor<Void> {
+    private final Consumer<ASTNode> action;
+
+    private NodeWalker(Consumer<ASTNode> action) {
+        this.action = action;
+    }
+
+    /**
+     * Apply action to node and every node below it; a null node is skipped
+     */
+    public static void forEach(ASTNode node, Consumer<ASTNode> action) {
+        if (node != null) {
+            node.accept(new NodeWalker(action));
+        }
+    }
+
+    /**
+     * Number of nodes in the subtree, 0 for null
+     */
+    public static long count(ASTNode node) {
+        long[] count = new long[1];
+        forEach(node, n -> count[0]++);
+        return count[0];
+    }
+
+    private void walk(ASTNode node) {
+        if (node != null) {
+            node.accept(this);
+        }
+    }
+
+    private void walkAll(List<? extends ASTNode> nodes) {
+        for (ASTNode node : nodes) {
+            node.accept(this);
+        }
+    }
+
+    @Override
+    public Void visitProgram(ProgramNode node) {
+        action.accept(node);
+        walkAll(node.getClasses());
+        return null;
+    }
+
+    @Override
+    public Void visitClass(ClassNode node) {
+        action.accept(node);
+        walkAll(node.getFeatures());
+        return null;
+    }
+
+    @Override
+    public Void visitAttribute(AttributeNode node) {
+        action.accept(node);
+        walk(node.getInitExpr());
+        return null;
+    }
+
+    @Override
+    public Void visitMethod(MethodNode node) {
+        action.accept(node);
+        walkAll(node.getParameters());
+        walkAll(node.getBody());
+        return null;
+    }
+
+    @Override
+    public Void visitFormal(FormalNode node) {
+        action.accept(node);
+        return null;
+    }
+
+    @Override
+    public Void visitIntegerLiteral(IntegerLiteralNode node) {
+        action.accept(node);
+        return null;
+    }
+
+    @Override
+    public Void visitStringLiteral(StringLiteralNode node) {
+        action.accept(node);
+        return null;
+    }
+
+    @Override
+    public Void visitBooleanLiteral(BooleanLiteralNode node) {
+        action.accept(node);
+        return null;
+    }
+
+    @Override
+    public Void visitIdentifier(IdentifierNode node) {
+        action.accept(node);
+        return null;
+    }
+
+    @Override
+    public Void visitBinaryOperation(BinaryOperationNode node) {
+        action.accept(node);
+        walk(node.getLeft());
+        walk(node.getRight());
+        return null;
+    }
+
+    @Override
+    public Void visitUnaryOperation(UnaryOperationNode node) {
+        action.accept(node);
+        walk(node.getOperand());
+        return null;
+    }
+
+    @Override
+    public Void visitAssignment(AssignmentNode node) {
+        action.accept(node);
+        walk(node.getValue());
+        return null;
+    }
+
+    @Override
+    public Void visitMethodCall(MethodCallNode node) {
+        action.accept(node);
+        walk(node.getObject());
+        walkAll(node.getArguments());
+        return null;
+    }
+
+    @Override
+    public Void visitIf(IfNode node) {
+        action.accept(node);
+        walk(node.getCondition());
+        walk(node.getThenExpr());
+        walk(node.getElseExpr());
+        return null;
+    }
+
+    @Override
+    public Void visitWhile(WhileNode node) {
+        action.accept(node);
+        walk(node.getCondition());
+        walk(node.getBody());
+        return null;
+    }
+}
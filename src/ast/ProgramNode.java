@@ -19,6 +19,11 @@ public class ProgramNode extends ASTNode {
         return classes;
     }
 
+    @Override
+    public <R> R accept(ASTVisitor<R> visitor) {
+        return visitor.visitProgram(this);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("Program:\n");
@@ -27,28 +32,4 @@ public class ProgramNode extends ASTNode {
         }
         return sb.toString();
     }
-
-    @Override
-    protected int generateDOT(StringBuilder sb, String nodeId, int counter) {
-        sb.append("  ").append(nodeId).append(" [label=\"Program\"];\n");
-
-        int localCounter = counter;
-        for (ClassNode classNode : classes) {
-            localCounter++;
-            String childId = "node" + localCounter;
-            sb.append("  ").append(childId).append(" [label=\"Class: ")
-                    .append(classNode.getName());
-
-            if (classNode.getParentName() != null) {
-                sb.append(" inherits ").append(classNode.getParentName());
-            }
-
-            sb.append("\"];\n");
-            sb.append("  ").append(nodeId).append(" -> ").append(childId).append(";\n");
-
-            localCounter = classNode.generateDOT(sb, childId, localCounter);
-        }
-
-        return localCounter;
-    }
 }
\ No newline at end of file
@@ -13,13 +13,22 @@ public class StringLiteralNode extends ExpressionNode {
     }
 
     @Override
-    public String toString() {
-        return "\"" + value + "\"";
+    protected int computeStructuralHash() {
+        return 31 * value.hashCode() + 2;
+    }
+
+    @Override
+    public boolean structurallyEquals(ExpressionNode other) {
+        return other instanceof StringLiteralNode && ((StringLiteralNode) other).value.equals(value);
     }
 
     @Override
-    protected int generateDOT(StringBuilder sb, String nodeId, int counter) {
-        // String literals are leaf nodes - no children
-        return counter;
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitStringLiteral(this);
+    }
+
+    @Override
+    public String toString() {
+        return "\"" + value + "\"";
     }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package ast;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiler-wide identifier interner. Every class, method, variable and type name gets a dense
+ * int id the first time it is seen, so the later phases compare ids and index arrays by them
+ * instead of calling String.equals and hashCode.
+ *
+ * Ids are shared by all compilations in the JVM (CompileServer compiles on several threads at
+ * once), so intern() is thread-safe and name() never locks. They only grow until reset(), which
+ * a long-running process calls between compiles to drop every name but the built-ins.
+ */
+public final class Symbols {
+    public static final int NONE = -1;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private static volatile ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[INITIAL_CAPACITY];
+    private static int count;
+
+    // Built-in type names, interned first so they have fixed ids
+    public static final int OBJECT = intern("Object");
+    public static final int IO = intern("IO");
+    public static final int INT = intern("Int");
+    public static final int STRING = intern("String");
+    public static final int BOOL = intern("Bool");
+    public static final int VOID = intern("Void");
+    public static final int SELF_TYPE = intern("SELF_TYPE");
+    private static final int BUILTIN_COUNT = SELF_TYPE + 1;
+
+    private Symbols() {
+    }
+
+    /**
+     * Id of name, assigning the next free id on first use. null maps to NONE.
+     */
+    public static int intern(String name) {
+        if (name == null) {
+            return NONE;
+        }
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+
+        synchronized (Symbols.class) {
+            id = ids.get(name);
+            if (id != null) {
+                return id;
+            }
+            if (count == names.length) {
+                names = Arrays.copyOf(names, count * 2);
+            }
+            // Store the name before publishing the id, so name(id) always finds it
+            names[count] = name;
+            ids.put(name, count);
+            return count++;
+        }
+    }
+
+    /**
+     * Id of name if it has been interned, NONE otherwise; unlike intern() it never adds a name
+     */
+    public static int lookup(String name) {
+        if (name == null) {
+            return NONE;
+        }
+        Integer id = ids.get(name);
+        return id == null ? NONE : id;
+    }
+
+    public static String name(int id) {
+        return id == NONE ? null : names[id];
+    }
+
+    /**
+     * Number of ids handed out so far; every id is below this
+     */
+    public static int count() {
+        return ids.size();
+    }
+
+    /**
+     * Forget every name but the built-ins, together with their Types, and release the tables.
+     * Ids handed out before are reused for other names afterwards, so the caller must make sure
+     * that no compilation is running and that no AST or table built before is used again.
+     */
+    public static synchronized void reset() {
+        // A ConcurrentHashMap never shrinks, so the tables are replaced rather than cleared
+        ConcurrentHashMap<String, Integer> builtins = new ConcurrentHashMap<>();
+        String[] builtinNames = new String[INITIAL_CAPACITY];
+        for (int id = 0; id < BUILTIN_COUNT; id++) {
+            builtinNames[id] = names[id];
+            builtins.put(names[id], id);
+        }
+        names = builtinNames;
+        ids = builtins;
+        count = BUILTIN_COUNT;
+        Type.reset();
+    }
+}
@@ -0,0 +1,127 @@
+package ast;
+
+import java.util.Arrays;
+
+/**
+ * A class type. There is one Type object per type name, so types compare with ==, and each
+ * gets a dense id of its own that counts type names only, not every identifier the way Symbols
+ * ids do. Ids keep growing with every type name any compilation has used (until Symbols.reset()),
+ * though, so tables for one program key their entries by type id (SymbolMap) rather than
+ * indexing arrays by it.
+ *
+ * The built-in types are singletons with the first ids. SELF_TYPE is a Type too, but stands
+ * for the class it is used in; the type checker resolves it before looking up methods or
+ * walking the hierarchy.
+ *
+ * Like Symbols, types are shared by all compilations in the JVM, so of() is thread-safe and
+ * the lookups never lock.
+ */
+public final class Type {
+    private static final int INITIAL_SYMBOLS = 256;
+    private static final int INITIAL_TYPES = 64;
+
+    private static volatile Type[] bySymbol = new Type[INITIAL_SYMBOLS];
+    private static volatile Type[] byId = new Type[INITIAL_TYPES];
+    private static int count;
+
+    public static final Type OBJECT = of(Symbols.OBJECT);
+    public static final Type IO = of(Symbols.IO);
+    public static final Type INT = of(Symbols.INT);
+    public static final Type STRING = of(Symbols.STRING);
+    public static final Type BOOL = of(Symbols.BOOL);
+    public static final Type VOID = of(Symbols.VOID);
+    public static final Type SELF_TYPE = of(Symbols.SELF_TYPE);
+    private static final int BUILTIN_COUNT = SELF_TYPE.id + 1;
+
+    private final int id;
+    private final int symbol;
+
+    private Type(int id, int symbol) {
+        this.id = id;
+        this.symbol = symbol;
+    }
+
+    /**
+     * The type named by the interned symbol, created on first use. NONE maps to null.
+     */
+    public static Type of(int symbol) {
+        if (symbol == Symbols.NONE) {
+            return null;
+        }
+        Type[] table = bySymbol;
+        if (symbol < table.length && table[symbol] != null) {
+            return table[symbol];
+        }
+
+        synchronized (Type.class) {
+            if (symbol >= bySymbol.length) {
+                bySymbol = Arrays.copyOf(bySymbol, Math.max(symbol + 1, bySymbol.length * 2));
+            }
+            Type type = bySymbol[symbol];
+            if (type != null) {
+                return type;
+            }
+            if (count == byId.length) {
+                byId = Arrays.copyOf(byId, count * 2);
+            }
+            // Fill the id table before publishing the type, so get(id) always finds it
+            type = new Type(count, symbol);
+            byId[count++] = type;
+            bySymbol[symbol] = type;
+            return type;
+        }
+    }
+
+    public static Type of(String name) {
+        return of(Symbols.intern(name));
+    }
+
+    /**
+     * The type with the given id, null for NONE
+     */
+    public static Type get(int id) {
+        return id == Symbols.NONE ? null : byId[id];
+    }
+
+    /**
+     * Number of types created so far; every type id is below this
+     */
+    public static synchronized int count() {
+        return count;
+    }
+
+    // Keep only the built-in types; called by Symbols.reset()
+    static synchronized void reset() {
+        Type[] builtinsBySymbol = new Type[INITIAL_SYMBOLS];
+        Type[] builtinsById = new Type[INITIAL_TYPES];
+        for (int id = 0; id < BUILTIN_COUNT; id++) {
+            Type type = byId[id];
+            builtinsById[id] = type;
+            builtinsBySymbol[type.symbol] = type;
+        }
+        bySymbol = builtinsBySymbol;
+        byId = builtinsById;
+        count = BUILTIN_COUNT;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getSymbol() {
+        return symbol;
+    }
+
+    public String getName() {
+        return Symbols.name(symbol);
+    }
+
+    public boolean isSelfType() {
+        return this == SELF_TYPE;
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+}
@@ -34,26 +34,26 @@ public class UnaryOperationNode extends ExpressionNode {
     }
 
     @Override
-    public String toString() {
-        return operator + "(" + operand + ")";
+    protected int computeStructuralHash() {
+        return 31 * (31 * operator.ordinal() + operand.structuralHash()) + 6;
     }
 
     @Override
-    protected int generateDOT(StringBuilder sb, String nodeId, int counter) {
-        sb.append("  ").append(nodeId).append(" [label=\"").append(operator).append("\"];\n");
-
-        counter++;
-        String operandId = "node" + counter;
-        sb.append("  ").append(operandId).append(" [label=\"")
-                .append(escapeDotString(operand.toString())).append("\"];\n");
-        sb.append("  ").append(nodeId).append(" -> ").append(operandId).append(";\n");
-
-        counter = operand.generateDOT(sb, operandId, counter);
+    public boolean structurallyEquals(ExpressionNode other) {
+        if (!(other instanceof UnaryOperationNode)) {
+            return false;
+        }
+        UnaryOperationNode node = (UnaryOperationNode) other;
+        return node.operator == operator && same(node.operand, operand);
+    }
 
-        return counter;
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitUnaryOperation(this);
     }
 
-    private String escapeDotString(String s) {
-        return s.replace("\"", "\\\"").replace("\n", "\\n");
+    @Override
+    public String toString() {
+        return operator + "(" + operand + ")";
     }
 }
\ No newline at end of file
@@ -19,44 +19,26 @@ public class WhileNode extends ExpressionNode {
     }
 
     @Override
-    public String toString() {
-        return "while " + condition + " loop " + body + " pool";
+    protected int computeStructuralHash() {
+        return 31 * (31 * condition.structuralHash() + body.structuralHash()) + 10;
+    }
+
+    @Override
+    public boolean structurallyEquals(ExpressionNode other) {
+        if (!(other instanceof WhileNode)) {
+            return false;
+        }
+        WhileNode node = (WhileNode) other;
+        return same(node.condition, condition) && same(node.body, body);
     }
 
     @Override
-    protected int generateDOT(StringBuilder sb, String nodeId, int counter) {
-        sb.append("  ").append(nodeId).append(" [label=\"While\"];\n");
-
-        // Condition
-        counter++;
-        String condId = "node" + counter;
-        sb.append("  ").append(condId).append(" [label=\"Condition\"];\n");
-        sb.append("  ").append(nodeId).append(" -> ").append(condId).append(";\n");
-
-        counter++;
-        String condExprId = "node" + counter;
-        sb.append("  ").append(condExprId).append(" [label=\"")
-                .append(escapeDotString(condition.toString())).append("\"];\n");
-        sb.append("  ").append(condId).append(" -> ").append(condExprId).append(";\n");
-        counter = condition.generateDOT(sb, condExprId, counter);
-
-        // Body
-        counter++;
-        String bodyId = "node" + counter;
-        sb.append("  ").append(bodyId).append(" [label=\"Body\"];\n");
-        sb.append("  ").append(nodeId).append(" -> ").append(bodyId).append(";\n");
-
-        counter++;
-        String bodyExprId = "node" + counter;
-        sb.append("  ").append(bodyExprId).append(" [label=\"")
-                .append(escapeDotString(body.toString())).append("\"];\n");
-        sb.append("  ").append(bodyId).append(" -> ").append(bodyExprId).append(";\n");
-        counter = body.generateDOT(sb, bodyExprId, counter);
-
-        return counter;
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitWhile(this);
     }
 
-    private String escapeDotString(String s) {
-        return s.replace("\"", "\\\"").replace("\n", "\\n");
+    @Override
+    public String toString() {
+        return "while " + condition + " loop " + body + " pool";
     }
 }
\ No newline at end of file